@@ -0,0 +1,26 @@
+package com.smartfactory;
+
+import com.smartfactory.util.InstanceGenerator;
+
+import java.util.List;
+
+/**
+ * 基准用的合成算例：由 InstanceGenerator 按固定种子生成，同一 pieces 每次得到完全相同的数据。
+ * 5 种产品，默认 3 条产线，其余参数取生成器默认值（积压到达、松紧度 1.0）。
+ */
+final class BenchmarkInstances {
+    private BenchmarkInstances() {
+    }
+
+    /**
+     * 生成工件总数恰好为 pieces 的算例
+     */
+    static ScheduleData create(int pieces, long seed) {
+        InstanceGenerator.Config config = new InstanceGenerator.Config();
+        config.seed = seed;
+        config.pieces = pieces;
+        config.products = 5;
+        List<Product> products = InstanceGenerator.generateProducts(config);
+        return new ScheduleData(products, InstanceGenerator.generateOrders(config, products), config.planStart);
+    }
+}
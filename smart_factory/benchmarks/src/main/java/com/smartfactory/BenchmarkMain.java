@@ -0,0 +1,32 @@
+package com.smartfactory;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * benchmarks.jar 的入口：接受 JMH 的全部命令行参数，并默认加上 GC 剖析器
+ * （gc.alloc.rate.norm 为每次调用分配的字节数，gc.count / gc.time 为回收次数与耗时），
+ * 便于每次优化都能同时对照时间与分配量的基线。
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            // 帮助与列表类命令交给 JMH 原生入口处理
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .parent(cmd)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
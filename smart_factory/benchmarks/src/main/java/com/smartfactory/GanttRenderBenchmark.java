@@ -0,0 +1,68 @@
+package com.smartfactory;
+
+import com.smartfactory.util.HtmlGanttRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 甘特图报告生成的 JMH 基准。
+ * 测的是 HtmlGanttRenderer.generate 内部的 write：输出写入丢弃字节的流，只计渲染本身，不含磁盘 I/O 和控制台打印。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GanttRenderBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int pieces;
+
+    private GAScheduler.ScheduleResult result;
+    private ScheduleData data;
+    private final CountingOutputStream sink = new CountingOutputStream();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = BenchmarkInstances.create(pieces, 42L);
+        GAScheduler scheduler = new GAScheduler(data, 10, 0.8, 0.1, 1);
+        scheduler.setRandomSeed(42L);
+        result = new ScheduleDecoder(data).decode(scheduler.initializePopulation().get(0));
+    }
+
+    @Benchmark
+    public long generate() throws IOException {
+        sink.count = 0;
+        HtmlGanttRenderer.write(result, data, sink);
+        return sink.count;
+    }
+
+    // 只统计字节数的输出流
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.smartfactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调度器热点路径的 JMH 基准：解码、各遗传算子与混合局部搜索的单步。
+ * 每个 pieces 规模生成一个固定种子的合成算例和一代已评估的初始种群；
+ * 会修改个体的基准（变异、局部搜索单步）在每次调用前从原型复制，复制开销单独由 copyChromosome 给出。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+    private static final int POPULATION_SIZE = 50;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int pieces;
+
+    private ScheduleDecoder decoder;
+    private GAScheduler scheduler;
+    private List<Chromosome> population;
+    private Chromosome parent1;
+    private Chromosome parent2;
+    private int crossStart;
+    private int crossEnd;
+    private int neighborhood = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ScheduleData data = BenchmarkInstances.create(pieces, 42L);
+        decoder = new ScheduleDecoder(data);
+        scheduler = new GAScheduler(data, POPULATION_SIZE, 0.8, 0.1, 1);
+        scheduler.setRandomSeed(42L);
+        population = scheduler.initializePopulation();
+        for (Chromosome c : population) {
+            c.setFitness(decoder.evaluate(c));
+        }
+        parent1 = population.get(0);
+        parent2 = population.get(population.size() - 1);
+        // 交叉区间取中间一半，与随机交叉点的期望长度相当
+        crossStart = pieces / 4;
+        crossEnd = Math.min(pieces - 1, crossStart + pieces / 2);
+    }
+
+    private static Chromosome copy(Chromosome c) {
+        Chromosome copy = new Chromosome(new ArrayList<>(c.getOperationSequence()),
+                new ArrayList<>(c.getMachineAssignment()));
+        copy.setFitness(c.getFitness());
+        return copy;
+    }
+
+    @Benchmark
+    public double decode() {
+        return decoder.evaluate(parent1);
+    }
+
+    @Benchmark
+    public GAScheduler.ScheduleResult decodeWithJobs() {
+        return decoder.decode(parent1);
+    }
+
+    @Benchmark
+    public List<String> orderCrossover() {
+        return scheduler.orderCrossover(parent1.getOperationSequence(), parent2.getOperationSequence(), crossStart, crossEnd);
+    }
+
+    @Benchmark
+    public List<Integer> uniformMachineCrossover() {
+        return scheduler.uniformMachineCrossover(parent1.getMachineAssignment(), parent2.getMachineAssignment());
+    }
+
+    @Benchmark
+    public Chromosome copyChromosome() {
+        return copy(parent1);
+    }
+
+    @Benchmark
+    public Chromosome mutation() {
+        Chromosome c = copy(parent1);
+        scheduler.mutation(c);
+        return c;
+    }
+
+    @Benchmark
+    public List<Chromosome> selection() {
+        return scheduler.selection(population);
+    }
+
+    /**
+     * hybridLocalSearch 的一步：备份、按邻域 k 扰动、解码评估、回滚（k 依次轮换 1..3）
+     */
+    @Benchmark
+    public double hybridLocalSearchStep() {
+        Chromosome c = parent1;
+        List<Integer> currentMa = new ArrayList<>(c.getMachineAssignment());
+        List<String> currentOs = new ArrayList<>(c.getOperationSequence());
+        double currentCost = c.getFitness();
+
+        neighborhood = neighborhood % 3 + 1;
+        scheduler.applyPerturbationAndGetKey(c, neighborhood);
+        double newCost = scheduler.decodeAndCalculateCost(c);
+
+        Collections.copy(c.getMachineAssignment(), currentMa);
+        Collections.copy(c.getOperationSequence(), currentOs);
+        c.setFitness(currentCost);
+        return newCost;
+    }
+}
@@ -0,0 +1,406 @@
+package com.smartfactory;
+
+import com.smartfactory.util.DataLoader;
+import com.smartfactory.util.HtmlGanttRenderer;
+import com.smartfactory.util.OrderCsvLoader;
+import com.smartfactory.util.ScheduleExporter;
+import com.smartfactory.util.ShiftCalendar;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量情景求解：一次并发求解多个 what-if 情景（不同优先级、班次、接单方案），输出对比汇总与各情景报告。
+ *
+ * 情景来源：
+ *   目录 —— 每个子目录是一个情景（子目录名为情景名），含 orders.csv，可选 products.csv / lines.csv / calendar.csv；
+ *           子目录缺少的文件使用根目录下的同名文件（通常只在根目录放一份 products.csv）。
+ *   清单 —— CSV 文件，每行 name,path[,planStart]，path 相对清单所在目录；缺少的文件回退到清单所在目录。
+ *
+ * 线程预算：同时求解 min(情景数, threads) 个情景，每个情景分到 threads / 并发数 个线程，
+ * 用不同随机种子独立运行多次 GA（多起点），取最优。每个 GA 只占一个线程（路径重连也在 GA 线程上执行），
+ * 多起点是情景内最直接的并行方式。
+ * 同一路径的产品 / 产线 / 日历文件只解析一次，在情景间共享。
+ *
+ * 输出：out/summary.csv（并打印对比表，利润差相对基线情景），out/<情景名>/ 下 jobs.csv、orders.csv、schedule_report.html。
+ *
+ * 用法: java com.smartfactory.BatchRunner <情景目录|清单.csv> [--out=batch-out] [--threads=CPU 核数]
+ *        [--generations=300] [--population=200] [--plan-start=yyyy-MM-ddTHH:mm] [--baseline=情景名] [--seed=1]
+ */
+public class BatchRunner {
+    static final String[] SUMMARY_COLUMNS = {"scenario", "status", "orders", "pieces", "profit", "penalty",
+            "lateOrders", "deltaProfit", "starts", "evaluations", "seconds", "error"};
+
+    /**
+     * 一个情景：文件先在 directory 中查找，找不到时回退到 fallback
+     */
+    public static class Scenario {
+        public final String name;
+        public final File directory;
+        public final File fallback;
+        public final LocalDateTime planStart;
+
+        public Scenario(String name, File directory, File fallback, LocalDateTime planStart) {
+            this.name = name;
+            this.directory = directory;
+            this.fallback = fallback;
+            this.planStart = planStart;
+        }
+
+        File resolve(String fileName) {
+            File own = new File(directory, fileName);
+            if (own.isFile()) return own;
+            File shared = fallback == null ? null : new File(fallback, fileName);
+            return shared != null && shared.isFile() ? shared : null;
+        }
+    }
+
+    /**
+     * 一个情景的求解结果（汇总表中的一行）；status 为 ok / empty（无可排订单）/ failed
+     */
+    public static class ScenarioResult {
+        public String scenario;
+        public String status;
+        public int orders;
+        public int pieces;
+        public double profit = Double.NaN;
+        public double penalty = Double.NaN;
+        public int lateOrders;
+        public double deltaProfit = Double.NaN;
+        public int starts;
+        public long evaluations;
+        public double seconds;
+        public String error = "";
+    }
+
+    private final int threads;
+    private final int generations;
+    private final int populationSize;
+    private final long seed;
+    // 规范路径 -> 解析结果，情景间共享
+    private final Map<String, Object> sharedFiles = new ConcurrentHashMap<>();
+    private final AtomicInteger filesParsed = new AtomicInteger();
+
+    public BatchRunner(int threads, int generations, int populationSize, long seed) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("线程数必须 >= 1: " + threads);
+        }
+        this.threads = threads;
+        this.generations = generations;
+        this.populationSize = populationSize;
+        this.seed = seed;
+    }
+
+    /**
+     * 实际解析过的共享文件数（产品 / 产线 / 日历，同一路径只计一次）
+     */
+    public int getFilesParsed() {
+        return filesParsed.get();
+    }
+
+    // ---------- 情景发现 ----------
+
+    /**
+     * 从目录（每个含 orders.csv 的子目录为一个情景，按名称排序）或清单文件读取情景列表
+     */
+    public static List<Scenario> discover(File source, LocalDateTime defaultPlanStart) throws IOException {
+        List<Scenario> scenarios = new ArrayList<>();
+        if (source.isDirectory()) {
+            File[] dirs = source.listFiles(f -> f.isDirectory() && new File(f, "orders.csv").isFile());
+            if (dirs != null) {
+                Arrays.sort(dirs);
+                for (File dir : dirs) {
+                    scenarios.add(new Scenario(dir.getName(), dir, source, defaultPlanStart));
+                }
+            }
+        } else {
+            File base = source.getAbsoluteFile().getParentFile();
+            int lineNo = 0;
+            for (String line : Files.readAllLines(source.toPath(), StandardCharsets.UTF_8)) {
+                lineNo++;
+                if (line.trim().isEmpty() || line.startsWith("#") || line.startsWith("name,")) continue;
+                String[] parts = line.split(",");
+                if (parts.length < 2) {
+                    throw new IllegalArgumentException(source + " 第 " + lineNo + " 行应为 name,path[,planStart]");
+                }
+                File dir = new File(parts[1].trim());
+                if (!dir.isAbsolute()) dir = new File(base, parts[1].trim());
+                LocalDateTime planStart = parts.length > 2 && !parts[2].trim().isEmpty()
+                        ? LocalDateTime.parse(parts[2].trim()) : defaultPlanStart;
+                scenarios.add(new Scenario(parts[0].trim(), dir, base, planStart));
+            }
+        }
+        return scenarios;
+    }
+
+    // ---------- 求解 ----------
+
+    /**
+     * 并发求解全部情景，把各情景报告写入 outDir/<情景名>/，返回与输入同序的结果
+     */
+    public List<ScenarioResult> run(List<Scenario> scenarios, File outDir) throws InterruptedException {
+        if (scenarios.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int concurrent = Math.min(scenarios.size(), threads);
+        int starts = Math.max(1, threads / concurrent);
+        System.out.printf("批量求解 %d 个情景: 同时 %d 个，每个情景 %d 个起点%n", scenarios.size(), concurrent, starts);
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrent);
+        try {
+            List<Future<ScenarioResult>> futures = new ArrayList<>(scenarios.size());
+            for (int i = 0; i < scenarios.size(); i++) {
+                Scenario s = scenarios.get(i);
+                long scenarioSeed = seed + 1000003L * i;
+                futures.add(executor.submit(() -> solve(s, starts, scenarioSeed, new File(outDir, s.name))));
+            }
+            List<ScenarioResult> results = new ArrayList<>(scenarios.size());
+            for (Future<ScenarioResult> f : futures) {
+                try {
+                    results.add(f.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("情景求解失败", e.getCause()); // solve 内部已捕获常规异常
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ScenarioResult solve(Scenario scenario, int starts, long scenarioSeed, File reportDir) {
+        long t0 = System.nanoTime();
+        ScenarioResult r = new ScenarioResult();
+        r.scenario = scenario.name;
+        try {
+            CompiledInstance instance = load(scenario);
+            ScheduleData data = instance.data;
+            r.orders = data.getOrders().size();
+            r.pieces = instance.getOperationCount();
+            if (r.orders == 0) {
+                r.status = "empty";
+                return r;
+            }
+
+            Chromosome best = null;
+            ExecutorService pool = starts > 1 ? Executors.newFixedThreadPool(starts) : null;
+            try {
+                List<Future<GAScheduler>> runs = new ArrayList<>(starts);
+                for (int k = 0; k < starts; k++) {
+                    final long runSeed = scenarioSeed + k;
+                    if (pool == null) {
+                        best = runOnce(instance, runSeed, r);
+                    } else {
+                        runs.add(pool.submit(() -> {
+                            GAScheduler scheduler = newScheduler(instance, runSeed);
+                            scheduler.run();
+                            return scheduler;
+                        }));
+                    }
+                }
+                for (Future<GAScheduler> f : runs) {
+                    GAScheduler scheduler = f.get();
+                    r.evaluations += scheduler.getEvaluationCount();
+                    Chromosome c = scheduler.getCurrentBest().getChromosome();
+                    if (best == null || c.getFitness() < best.getFitness()) {
+                        best = c;
+                    }
+                }
+            } finally {
+                if (pool != null) pool.shutdownNow();
+            }
+            r.starts = starts;
+
+            GAScheduler.ScheduleResult result = instance.decoder.decode(best);
+            r.profit = -result.totalCost;
+            r.penalty = result.totalPenalty;
+            for (Order o : data.getOrders()) {
+                LocalDateTime finish = result.completionTimes.get(o.getId());
+                if (finish != null && finish.isAfter(o.getAlignedDeadline())) r.lateOrders++;
+            }
+            writeReports(reportDir, result, data);
+            r.status = "ok";
+        } catch (Exception e) {
+            r.status = "failed";
+            r.error = String.valueOf(e instanceof ExecutionException ? e.getCause() : e);
+        } finally {
+            r.seconds = (System.nanoTime() - t0) / 1e9;
+            System.out.printf("情景 %s: %s, 利润 %.2f, 用时 %.1fs%n", r.scenario, r.status, r.profit, r.seconds);
+        }
+        return r;
+    }
+
+    private Chromosome runOnce(CompiledInstance instance, long runSeed, ScenarioResult r) {
+        GAScheduler scheduler = newScheduler(instance, runSeed);
+        Chromosome best = scheduler.run();
+        r.evaluations += scheduler.getEvaluationCount();
+        return best;
+    }
+
+    private GAScheduler newScheduler(CompiledInstance instance, long runSeed) {
+        GAScheduler scheduler = new GAScheduler(instance, populationSize, 0.8, 0.2, generations);
+        scheduler.setRandomSeed(runSeed);
+        scheduler.setProgressLogInterval(0); // 多个情景并发，逐代日志会交错
+        scheduler.setPathRelinkingThreads(1); // 每个起点只占一个线程
+        return scheduler;
+    }
+
+    // 加载情景数据：订单每个情景各自解析，产品 / 产线 / 日历按路径共享
+    private CompiledInstance load(Scenario scenario) throws IOException {
+        File productsFile = scenario.resolve("products.csv");
+        File ordersFile = scenario.resolve("orders.csv");
+        if (productsFile == null || ordersFile == null) {
+            throw new IllegalArgumentException("情景 " + scenario.name + " 缺少 products.csv 或 orders.csv");
+        }
+        List<Product> products = shared(productsFile, "products", () -> DataLoader.loadProducts(productsFile.getPath()));
+        File linesFile = scenario.resolve("lines.csv");
+        List<ProductionLine> lines = linesFile != null
+                ? shared(linesFile, "lines", () -> DataLoader.loadLines(linesFile.getPath()))
+                : ScheduleData.defaultLines(ScheduleData.NUM_LINES);
+        File calendarFile = scenario.resolve("calendar.csv");
+        ShiftCalendar calendar = calendarFile != null
+                ? shared(calendarFile, "calendar", () -> DataLoader.loadCalendar(calendarFile.getPath()))
+                : ShiftCalendar.defaultCalendar();
+
+        OrderCsvLoader.Result loaded = OrderCsvLoader.load(ordersFile.getPath(), scenario.planStart);
+        DataLoader.reportErrors(ordersFile.getPath(), loaded);
+        return new CompiledInstance(new ScheduleData(products, loaded.orders, scenario.planStart, lines, calendar));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T shared(File file, String kind, java.util.function.Supplier<T> parser) throws IOException {
+        String key = kind + ":" + file.getCanonicalPath();
+        return (T) sharedFiles.computeIfAbsent(key, k -> {
+            filesParsed.incrementAndGet();
+            return parser.get();
+        });
+    }
+
+    private static void writeReports(File dir, GAScheduler.ScheduleResult result, ScheduleData data) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("无法创建目录: " + dir);
+        }
+        ScheduleExporter.exportJobs(result, new File(dir, "jobs.csv").getPath(), null);
+        ScheduleExporter.exportOrders(result, data.getOrders(), new File(dir, "orders.csv").getPath(), null);
+        try (OutputStream out = new FileOutputStream(new File(dir, "schedule_report.html"))) {
+            HtmlGanttRenderer.write(result, data, out);
+        }
+    }
+
+    // ---------- 汇总 ----------
+
+    /**
+     * 以名为 baseline 的情景（缺省为第一个成功的情景）为基准填写利润差
+     */
+    public static void fillDeltas(List<ScenarioResult> results, String baseline) {
+        ScenarioResult base = null;
+        for (ScenarioResult r : results) {
+            if (!"ok".equals(r.status)) continue;
+            if (baseline == null ? base == null : r.scenario.equals(baseline)) base = r;
+        }
+        if (base == null) return;
+        for (ScenarioResult r : results) {
+            if ("ok".equals(r.status)) r.deltaProfit = r.profit - base.profit;
+        }
+    }
+
+    public static void writeSummary(List<ScenarioResult> results, File file) throws IOException {
+        try (BufferedWriter w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            w.write(String.join(",", SUMMARY_COLUMNS));
+            w.newLine();
+            for (ScenarioResult r : results) {
+                w.write(String.join(",", r.scenario, r.status, Integer.toString(r.orders), Integer.toString(r.pieces),
+                        format(r.profit), format(r.penalty), Integer.toString(r.lateOrders), format(r.deltaProfit),
+                        Integer.toString(r.starts), Long.toString(r.evaluations), format(r.seconds),
+                        r.error.replace(',', ';').replace('\n', ' ')));
+                w.newLine();
+            }
+        }
+    }
+
+    public static void printSummary(List<ScenarioResult> results) {
+        System.out.println("\n=== 情景对比 ===");
+        System.out.printf("%-20s %-7s %7s %7s %12s %10s %5s %12s %8s%n",
+                "情景", "状态", "订单", "工件", "利润", "罚款", "延误", "利润差", "用时(s)");
+        for (ScenarioResult r : results) {
+            System.out.printf("%-20s %-7s %7d %7d %12s %10s %5d %12s %8.1f%n", r.scenario, r.status, r.orders, r.pieces,
+                    format(r.profit), format(r.penalty), r.lateOrders, format(r.deltaProfit), r.seconds);
+        }
+    }
+
+    private static String format(double v) {
+        return Double.isNaN(v) ? "" : String.format(Locale.ROOT, "%.2f", v);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String source = null;
+        String out = "batch-out";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int generations = 300;
+        int population = 200;
+        LocalDateTime planStart = LocalDate.now().atTime(8, 0);
+        String baseline = null;
+        long seed = 1L;
+        for (String arg : args) {
+            String value = arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : "";
+            if (arg.startsWith("--out=")) out = value;
+            else if (arg.startsWith("--threads=")) threads = Integer.parseInt(value);
+            else if (arg.startsWith("--generations=")) generations = Integer.parseInt(value);
+            else if (arg.startsWith("--population=")) population = Integer.parseInt(value);
+            else if (arg.startsWith("--plan-start=")) planStart = LocalDateTime.parse(value);
+            else if (arg.startsWith("--baseline=")) baseline = value;
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(value);
+            else if (!arg.startsWith("--") && source == null) source = arg;
+            else {
+                System.err.println("未知参数: " + arg);
+                System.exit(2);
+            }
+        }
+        if (source == null) {
+            System.err.println("用法: BatchRunner <情景目录|清单.csv> [--out=DIR] [--threads=N] [--generations=N] "
+                    + "[--population=N] [--plan-start=yyyy-MM-ddTHH:mm] [--baseline=NAME] [--seed=N]");
+            System.exit(2);
+        }
+
+        List<Scenario> scenarios = discover(new File(source), planStart);
+        if (scenarios.isEmpty()) {
+            System.err.println("没有找到情景: " + source);
+            System.exit(2);
+        }
+        File outDir = new File(out);
+        if (!outDir.isDirectory() && !outDir.mkdirs()) {
+            throw new IOException("无法创建输出目录: " + outDir);
+        }
+        BatchRunner runner = new BatchRunner(threads, generations, population, seed);
+        List<ScenarioResult> results = runner.run(scenarios, outDir);
+        fillDeltas(results, baseline);
+        writeSummary(results, new File(outDir, "summary.csv"));
+        printSummary(results);
+        System.out.println("汇总已写出: " + new File(outDir, "summary.csv"));
+
+        for (ScenarioResult r : results) {
+            if ("failed".equals(r.status)) {
+                System.exit(1);
+            }
+        }
+    }
+}
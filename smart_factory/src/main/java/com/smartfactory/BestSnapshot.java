@@ -0,0 +1,57 @@
+package com.smartfactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 运行中某一时刻最优解的不可变快照，可在任意线程读取。
+ * 染色体基因在创建时复制；详细排程（ScheduleResult）第一次读取时才解码，不占用进化线程。
+ */
+public final class BestSnapshot {
+    public final int generation;          // 发现该解的代数（初始种群为 -1）
+    public final double profit;           // 利润（含罚款），即 -fitness
+    public final double elapsedSeconds;   // 距本次运行开始的秒数
+    public final long evaluations;        // 发现该解时的累计评估次数
+
+    private final List<String> operationSequence;
+    private final List<Integer> machineAssignment;
+    private final ScheduleDecoder decoder;
+    private volatile GAScheduler.ScheduleResult schedule;
+
+    BestSnapshot(Chromosome best, int generation, double elapsedSeconds, long evaluations, ScheduleDecoder decoder) {
+        this.generation = generation;
+        this.profit = -best.getFitness();
+        this.elapsedSeconds = elapsedSeconds;
+        this.evaluations = evaluations;
+        this.operationSequence = Collections.unmodifiableList(new ArrayList<>(best.getOperationSequence()));
+        this.machineAssignment = Collections.unmodifiableList(new ArrayList<>(best.getMachineAssignment()));
+        this.decoder = decoder;
+    }
+
+    /**
+     * 返回一份可修改的染色体副本（已设置适应度）
+     */
+    public Chromosome getChromosome() {
+        Chromosome c = new Chromosome(new ArrayList<>(operationSequence), new ArrayList<>(machineAssignment));
+        c.setFitness(-profit);
+        return c;
+    }
+
+    /**
+     * 该解的详细排程；首次调用时解码并缓存（解码器无共享可变状态，可与进化线程并发）
+     */
+    public GAScheduler.ScheduleResult getSchedule() {
+        GAScheduler.ScheduleResult result = schedule;
+        if (result == null) {
+            synchronized (this) {
+                result = schedule;
+                if (result == null) {
+                    result = decoder.decode(new Chromosome(operationSequence, machineAssignment));
+                    schedule = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -1,5 +1,6 @@
 package com.smartfactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -15,6 +16,10 @@ public class Chromosome {
     // 适应度值：目标函数 (总成本 + 罚款)
     private double fitness = Double.MAX_VALUE;
 
+    // 最近一次种群评估时的内容指纹与适应度：内容与适应度都未变时可跳过重复解码
+    private long evaluatedFingerprint;
+    private double evaluatedFitness = Double.NaN;
+
     public Chromosome(List<String> operationSequence, List<Integer> machineAssignment) {
         this.operationSequence = operationSequence;
         this.machineAssignment = machineAssignment;
@@ -29,5 +34,46 @@ public class Chromosome {
     public List<String> getOperationSequence() { return operationSequence; }
     public List<Integer> getMachineAssignment() { return machineAssignment; }
 
+    /**
+     * 内容指纹：操作序列与机器分配的 64 位哈希
+     */
+    long fingerprint() {
+        long h = 1125899906842597L;
+        for (int i = 0; i < operationSequence.size(); i++) {
+            h = 31 * h + operationSequence.get(i).hashCode();
+            h = h * 0x9E3779B97F4A7C15L + machineAssignment.get(i);
+        }
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * 当前适应度是否就是内容指纹为 fingerprint 时评估得到的值
+     */
+    boolean isEvaluatedAs(long fingerprint) {
+        return fingerprint == evaluatedFingerprint && fitness == evaluatedFitness;
+    }
+
+    /**
+     * 记录评估结果（同时设置适应度）
+     */
+    void markEvaluated(long fingerprint, double fitness) {
+        this.fitness = fitness;
+        this.evaluatedFingerprint = fingerprint;
+        this.evaluatedFitness = fitness;
+    }
+
+    /**
+     * 按顺序拼接多个染色体片段（用于分解求解后合并各子问题的解）
+     */
+    public static Chromosome concat(List<Chromosome> segments) {
+        List<String> os = new ArrayList<>();
+        List<Integer> ma = new ArrayList<>();
+        for (Chromosome c : segments) {
+            os.addAll(c.getOperationSequence());
+            ma.addAll(c.getMachineAssignment());
+        }
+        return new Chromosome(os, ma);
+    }
+
     // 注意：需要重写 equals() 和 hashCode() 以便在集合中使用
 }
\ No newline at end of file
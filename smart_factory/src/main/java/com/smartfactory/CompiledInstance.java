@@ -0,0 +1,38 @@
+package com.smartfactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 预编译的问题实例：调度数据及由它派生的只读结构（解码器的下标表与成本表、工件到产品的映射）。
+ * 构建一次后可被任意多个 GAScheduler 并发共享，适合同一订单簿的多次运行（如调度服务中的重复请求）。
+ */
+public final class CompiledInstance {
+    public final ScheduleData data;
+    final ScheduleDecoder decoder;
+    final Map<String, Integer> productOfOp;
+
+    public CompiledInstance(ScheduleData data) {
+        this.data = data;
+        this.decoder = new ScheduleDecoder(data);
+        Map<String, Integer> ops = new HashMap<>();
+        for (Order order : data.getOrders()) {
+            for (int i = 1; i <= order.getQuantity(); i++) {
+                ops.put("O" + order.getId() + "_" + i, order.getProductId());
+            }
+        }
+        this.productOfOp = Collections.unmodifiableMap(ops);
+    }
+
+    public ScheduleDecoder getDecoder() {
+        return decoder;
+    }
+
+    /**
+     * 工件总数
+     */
+    public int getOperationCount() {
+        return productOfOp.size();
+    }
+}
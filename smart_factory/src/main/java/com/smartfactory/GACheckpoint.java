@@ -0,0 +1,191 @@
+package com.smartfactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GA 优化器状态的二进制检查点。
+ * 文件布局（DataOutputStream，大端）：
+ *   魔数 "GACK" | 版本 | GA 参数 | 下一代序号 | 停滞代数 | 当前变异率 | 随机数状态
+ *   | 评估预算状态（局部搜索份额、进化与局部搜索的平滑边际收益，版本 2 起）| 最优适应度
+ *   工件字典（N 个工件ID，只写一次）
+ *   去重后的染色体表（每个: 适应度 + N 个工件下标 + N 个产线ID）
+ *   种群槽位 -> 染色体表下标（保留种群中同一对象出现多次的别名关系，保证恢复后逐位一致）
+ *   最优解（N 个工件下标 + N 个产线ID）
+ * 写入采用"先写临时文件再原子重命名"，中途崩溃不会破坏已有检查点。
+ */
+class GACheckpoint {
+    private static final int MAGIC = 0x4741434B; // "GACK"
+    private static final int VERSION = 2;
+
+    // GA 参数
+    int populationSize;
+    double crossoverRate;
+    int maxGenerations;
+    // 运行状态
+    int nextGeneration;
+    int stagnationCount;
+    double mutationRate;
+    long randomState;
+    // 评估预算控制器状态（读取版本 1 的文件时为 NaN，表示沿用调度器的初始值）
+    double localSearchShare = Double.NaN;
+    double evolutionReturn = Double.NaN;
+    double localSearchReturn = Double.NaN;
+    List<Chromosome> population;
+    Chromosome bestSolution;
+
+    /**
+     * 原子写入检查点文件
+     */
+    void write(String filePath) throws IOException {
+        Path target = Paths.get(filePath);
+        Path tmp = Paths.get(filePath + ".tmp");
+
+        // 工件字典：按最优解的工件顺序编号
+        List<String> dictionary = bestSolution.getOperationSequence();
+        Map<String, Integer> opIndex = new HashMap<>(dictionary.size() * 2);
+        for (int i = 0; i < dictionary.size(); i++) {
+            opIndex.put(dictionary.get(i), i);
+        }
+
+        // 去重：同一个 Chromosome 对象只写一次
+        Map<Chromosome, Integer> unique = new IdentityHashMap<>();
+        List<Chromosome> table = new ArrayList<>();
+        int[] slots = new int[population.size()];
+        for (int i = 0; i < population.size(); i++) {
+            Chromosome c = population.get(i);
+            Integer id = unique.get(c);
+            if (id == null) {
+                id = table.size();
+                unique.put(c, id);
+                table.add(c);
+            }
+            slots[i] = id;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(populationSize);
+            out.writeDouble(crossoverRate);
+            out.writeInt(maxGenerations);
+            out.writeInt(nextGeneration);
+            out.writeInt(stagnationCount);
+            out.writeDouble(mutationRate);
+            out.writeLong(randomState);
+            out.writeDouble(localSearchShare);
+            out.writeDouble(evolutionReturn);
+            out.writeDouble(localSearchReturn);
+            out.writeDouble(bestSolution.getFitness());
+
+            out.writeInt(dictionary.size());
+            for (String op : dictionary) {
+                out.writeUTF(op);
+            }
+
+            out.writeInt(table.size());
+            for (Chromosome c : table) {
+                out.writeDouble(c.getFitness());
+                writeGenes(out, c, opIndex);
+            }
+            out.writeInt(slots.length);
+            for (int slot : slots) {
+                out.writeInt(slot);
+            }
+            writeGenes(out, bestSolution, opIndex);
+        }
+
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 读取检查点文件
+     */
+    static GACheckpoint read(String filePath) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(filePath)), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("不是有效的 GA 检查点文件: " + filePath);
+            }
+            int version = in.readInt();
+            if (version != 1 && version != VERSION) {
+                throw new IOException("不支持的检查点版本: " + version);
+            }
+            GACheckpoint cp = new GACheckpoint();
+            cp.populationSize = in.readInt();
+            cp.crossoverRate = in.readDouble();
+            cp.maxGenerations = in.readInt();
+            cp.nextGeneration = in.readInt();
+            cp.stagnationCount = in.readInt();
+            cp.mutationRate = in.readDouble();
+            cp.randomState = in.readLong();
+            if (version >= 2) {
+                cp.localSearchShare = in.readDouble();
+                cp.evolutionReturn = in.readDouble();
+                cp.localSearchReturn = in.readDouble();
+            }
+            double bestFitness = in.readDouble();
+
+            int n = in.readInt();
+            String[] dictionary = new String[n];
+            for (int i = 0; i < n; i++) {
+                dictionary[i] = in.readUTF();
+            }
+
+            int tableSize = in.readInt();
+            List<Chromosome> table = new ArrayList<>(tableSize);
+            for (int t = 0; t < tableSize; t++) {
+                double fitness = in.readDouble();
+                Chromosome c = readGenes(in, dictionary);
+                c.setFitness(fitness);
+                table.add(c);
+            }
+            int slots = in.readInt();
+            cp.population = new ArrayList<>(slots);
+            for (int i = 0; i < slots; i++) {
+                cp.population.add(table.get(in.readInt()));
+            }
+            cp.bestSolution = readGenes(in, dictionary);
+            cp.bestSolution.setFitness(bestFitness);
+            return cp;
+        }
+    }
+
+    private static void writeGenes(DataOutputStream out, Chromosome c, Map<String, Integer> opIndex) throws IOException {
+        for (String op : c.getOperationSequence()) {
+            out.writeInt(opIndex.get(op));
+        }
+        for (int m : c.getMachineAssignment()) {
+            out.writeInt(m);
+        }
+    }
+
+    private static Chromosome readGenes(DataInputStream in, String[] dictionary) throws IOException {
+        int n = dictionary.length;
+        List<String> os = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            os.add(dictionary[in.readInt()]);
+        }
+        List<Integer> ma = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ma.add(in.readInt());
+        }
+        return new Chromosome(os, ma);
+    }
+}
@@ -0,0 +1,46 @@
+package com.smartfactory;
+
+/**
+ * GA 运行进度的监听器。回调在独立的通知线程上异步执行，不会阻塞进化：
+ * 监听器处理较慢时，中间的代统计与最优解会被合并，只收到最新的一份。
+ * 回调抛出的异常只打印，不影响运行。
+ */
+public interface GAListener {
+
+    /**
+     * 一代结束后的统计
+     */
+    final class GenerationStats {
+        public final int generation;
+        public final double bestProfit;
+        public final double mutationRate;
+        public final double diversity;       // 种群中不同个体所占比例
+        public final long evaluations;       // 本次运行的累计评估次数
+        public final double elapsedSeconds;
+
+        public GenerationStats(int generation, double bestProfit, double mutationRate, double diversity,
+                               long evaluations, double elapsedSeconds) {
+            this.generation = generation;
+            this.bestProfit = bestProfit;
+            this.mutationRate = mutationRate;
+            this.diversity = diversity;
+            this.evaluations = evaluations;
+            this.elapsedSeconds = elapsedSeconds;
+        }
+    }
+
+    default void onGeneration(GenerationStats stats) {
+    }
+
+    /**
+     * 找到新的全局最优解（包括初始种群的最优解）
+     */
+    default void onNewBest(BestSnapshot best) {
+    }
+
+    /**
+     * 运行结束；cancelled 表示被 cancel() 提前停止。这是该次运行的最后一个回调
+     */
+    default void onFinished(BestSnapshot best, boolean cancelled) {
+    }
+}
@@ -1,30 +1,366 @@
 package com.smartfactory;
 
 import com.smartfactory.util.Job;
-import com.smartfactory.util.TimeCostUtil;
+import com.smartfactory.util.JobTable;
+import com.smartfactory.util.MetricsRegistry;
+import com.smartfactory.util.RestorableRandom;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+/**
+ * 遗传算法调度器。
+ * 各遗传算子（选择、交叉、变异、局部搜索）为包级可见，便于同包的单元测试和 benchmarks 模块中的 JMH 基准直接调用。
+ */
 public class GAScheduler {
     private ScheduleData data;
     private int populationSize;
     private double crossoverRate;
     private double mutationRate;
     private int maxGenerations;
-    private Random random = new Random();
+    private RestorableRandom random = new RestorableRandom();
+    private ScheduleDecoder decoder;
+    // 工件ID -> 产品ID，用于按产品挑选可用产线（只读，可与其他调度器共享）
+    private Map<String, Integer> productOfOp;
+    // 注入初始种群的种子解（例如分解求解后的拼接解）
+    private List<Chromosome> seedSolutions = new ArrayList<>();
     // 记录连续未进化代数，用于自适应调整
     private int stagnationCount = 0;
 
+    // --- 检查点 ---
+    private String checkpointPath;            // 为 null 时不写检查点
+    private int checkpointMinInterval = 1;    // 两次检查点之间至少间隔的代数
+    private GACheckpoint resumeState;         // 从检查点恢复时的待续状态
+    private long generationNanos = 0;         // 累计进化耗时
+    private long checkpointNanos = 0;         // 累计检查点写入耗时
+    private int checkpointsWritten = 0;
+
+    // --- 运行统计（供质量基准使用） ---
+    private long timeLimitNanos = 0;          // 0 表示不限时
+    private long deadlineNanos = 0;           // 本次 run() 的截止时刻（System.nanoTime），0 表示不限时
+    private long evaluations = 0;             // 本调度器的适应度评估（解码）次数（注册表可能被多个调度器共用）
+    private int generationsRun = 0;
+    private final List<double[]> bestHistory = new ArrayList<>(); // {距运行开始的秒数, 最优适应度}
+
+    // --- 指标（热循环中只做 LongAdder / 原子写；日志由后台线程定期读取指标输出） ---
+    private MetricsRegistry metrics;
+    private MetricsRegistry.Counter generationsTotal;
+    private MetricsRegistry.Counter evaluationsTotal;
+    private MetricsRegistry.Counter cacheHits;
+    private MetricsRegistry.Counter cacheMisses;
+    private MetricsRegistry.Counter saMoves;
+    private MetricsRegistry.Counter saAccepted;
+    private MetricsRegistry.Counter relinkEvaluations;
+    private MetricsRegistry.Counter relinkImprovements;
+    private MetricsRegistry.Timer generationTimer;
+    private MetricsRegistry.Timer selectionTimer;
+    private MetricsRegistry.Timer crossoverTimer;
+    private MetricsRegistry.Timer evaluationTimer;
+    private MetricsRegistry.Timer localSearchTimer;
+    private MetricsRegistry.Timer relinkTimer;
+    private MetricsRegistry.Gauge generationGauge;
+    private MetricsRegistry.Gauge bestProfitGauge;
+    private MetricsRegistry.Gauge mutationRateGauge;
+    private MetricsRegistry.Gauge diversityGauge;
+    private MetricsRegistry.Gauge evaluationRateGauge;
+    private MetricsRegistry.Gauge cacheHitRatioGauge;
+    private MetricsRegistry.Gauge saAcceptanceGauge;
+    private MetricsRegistry.Gauge saTemperatureGauge;
+    private MetricsRegistry.Gauge localSearchShareGauge;
+    private MetricsRegistry.Gauge localSearchMovesGauge;
+    private long progressLogMillis = 5000;    // 进度日志间隔，0 表示不输出
+    private int currentGeneration = -1;       // 正在进行的代数（初始种群为 -1），用于事件归属
+
+    // --- 进度监听与取消 ---
+    private final List<GAListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicReference<BestSnapshot> currentBest = new AtomicReference<>();
+    private volatile boolean cancelled = false;
+    private ListenerDispatcher dispatcher;    // 本次 run() 的事件投递器，无监听器时为 null
+
+    // --- 自适应算子选择（统计始终记录；默认不参与选择，因按耗时计分会使同一种子的结果不可复现） ---
+    private boolean adaptiveOperators = false;
+    private final OperatorSelector localSearchOperators = new OperatorSelector("ls", "machine", "swap", "insert");
+    private final OperatorSelector crossoverOperators = new OperatorSelector("crossover", "ox", "pos");
+    private final OperatorSelector mutationOperators = new OperatorSelector("mutation", "swap", "insert", "inversion");
+    private final List<Offspring> offspring = new ArrayList<>(); // 本代由交叉 / 变异产生、待评估后记账的子代
+    private long averageDecodeNanos = 0;      // 最近一次种群评估中单次解码的平均耗时
+
+    // --- 评估预算：每代的解码次数按边际收益（每次解码带来的最优适应度改进）在进化与精英局部搜索之间分配 ---
+    private double localSearchShare = 0.75;   // 每代解码次数中分给局部搜索的比例
+    private double evolutionReturn = 0.0;     // 进化阶段平滑后的每次解码改进
+    private double localSearchReturn = 0.0;   // 局部搜索阶段平滑后的每次解码改进
+    private int localSearchMoves = 300;       // 本代每个精英的局部搜索移动次数
+
+    // --- 精英间路径重连 ---
+    private boolean pathRelinking = true;
+    private int relinkThreads = 1;            // 路径重连可用的线程数，默认 1：在进化线程上执行，不额外占用 CPU
+    private PathRelinker pathRelinker;
+    private ExecutorService relinkExecutor;   // 本次 run() 的重连线程池，只有一个线程时为 null
+
+    // --- 稳态模式：0 为世代模式，否则每步产生并插入该数量的子代 ---
+    private int steadyStateBatch = 0;
+    private MetricsRegistry.Counter steadyStateReplacements;
+    private MetricsRegistry.Counter steadyStateRejected;
+
+    // SA 温度：初温由采样的移动标定，使典型劣化移动以 20% 概率被接受；终温为初温的 1/200（与原固定方案 200→1 的比例相同）
+    private double saStartTemperature = 200.0;
+    private double saEndTemperature = 1.0;
+
+    private static final OptimizerEvents EVENTS = OptimizerEvents.CURRENT;
+    private static final int STAGNATION_LIMIT = 10; // 连续未改进超过该代数时提升变异率
+    private static final int ELITE_COUNT = 5;                // 每代做局部搜索的精英数
+    private static final int CALIBRATION_SAMPLES = 16;       // 标定温度的采样移动数
+    private static final double TEMPERATURE_RANGE = 200.0;   // 初温 / 终温
+    private static final int MIN_MOVES_PER_ELITE = 10;
+    private static final double MIN_LOCAL_SEARCH_SHARE = 0.1;
+    private static final double MAX_LOCAL_SEARCH_SHARE = 0.95;
+    private static final double RETURN_SMOOTHING = 0.3;      // 边际收益与份额的平滑系数
+    private static final int RELINK_POOL_SIZE = 4;           // 路径重连的精英池大小（两两之间各一条路径）
+
     public GAScheduler(ScheduleData data, int popSize, double crossRate, double mutRate, int maxGen) {
-        this.data = data;
+        this(new CompiledInstance(data), popSize, crossRate, mutRate, maxGen);
+    }
+
+    /**
+     * 使用预编译的问题实例（多个调度器、多次运行可共享同一实例，省去解码器的预计算）
+     */
+    public GAScheduler(CompiledInstance instance, int popSize, double crossRate, double mutRate, int maxGen) {
+        this.data = instance.data;
         this.populationSize = popSize;
         this.crossoverRate = crossRate;
         this.mutationRate = mutRate;
         this.maxGenerations = maxGen;
+        this.decoder = instance.decoder;
+        this.productOfOp = instance.productOfOp;
+        setMetricsRegistry(new MetricsRegistry());
+    }
+
+    /**
+     * 设置种子解：初始化种群时用它们的副本替换前几个个体。
+     * 种子必须覆盖与本问题完全相同的工件集合。
+     */
+    public void setSeedSolutions(List<Chromosome> seeds) {
+        this.seedSolutions = new ArrayList<>(seeds);
+    }
+
+    /**
+     * 固定随机种子（用于复现实验）
+     */
+    public void setRandomSeed(long seed) {
+        this.random = new RestorableRandom(seed);
+    }
+
+    /**
+     * 修改最大迭代代数（例如从检查点恢复后延长运行）
+     */
+    public void setMaxGenerations(int maxGenerations) {
+        this.maxGenerations = maxGenerations;
+    }
+
+    /**
+     * 开启周期性检查点：每代结束后视情况把完整优化器状态写入 filePath。
+     * 写入频率自适应：距上次检查点至少 minInterval 代，且累计进化耗时不少于上次写入耗时的 99 倍，
+     * 从而把检查点开销控制在进化耗时的 1% 以内。最后一代结束时总会写入。
+     */
+    public void enableCheckpointing(String filePath, int minInterval) {
+        this.checkpointPath = filePath;
+        this.checkpointMinInterval = Math.max(1, minInterval);
+    }
+
+    /**
+     * 从检查点恢复优化器：GA 参数与运行状态均取自检查点，run() 会从中断处继续，
+     * 随机序列与未中断的运行逐位一致。
+     * @throws IOException 文件读取失败或格式不正确
+     * @throws IllegalArgumentException 检查点的工件集合与 data 不一致
+     */
+    public static GAScheduler resume(ScheduleData data, String filePath) throws IOException {
+        GACheckpoint cp = GACheckpoint.read(filePath);
+        GAScheduler scheduler = new GAScheduler(data, cp.populationSize, cp.crossoverRate, cp.mutationRate, cp.maxGenerations);
+        if (!new HashSet<>(cp.bestSolution.getOperationSequence()).equals(scheduler.productOfOp.keySet())) {
+            throw new IllegalArgumentException("检查点的工件集合与当前订单数据不一致: " + filePath);
+        }
+        scheduler.stagnationCount = cp.stagnationCount;
+        scheduler.random.setState(cp.randomState);
+        if (!Double.isNaN(cp.localSearchShare)) {
+            scheduler.localSearchShare = cp.localSearchShare;
+            scheduler.evolutionReturn = cp.evolutionReturn;
+            scheduler.localSearchReturn = cp.localSearchReturn;
+        }
+        scheduler.resumeState = cp;
+        return scheduler;
+    }
+
+    /**
+     * 设置运行时间上限（毫秒，0 表示不限）：每代结束时检查，局部搜索在超时后也会提前收尾，
+     * 因此实际耗时只会略超出上限
+     */
+    public void setTimeLimit(long millis) {
+        this.timeLimitNanos = Math.max(0, millis) * 1_000_000L;
+    }
+
+    /**
+     * 累计适应度评估（解码）次数
+     */
+    public long getEvaluationCount() {
+        return evaluations;
+    }
+
+    /**
+     * 使用指定的指标注册表（多个调度器共用一个注册表时计数器累加，仪表取最后写入的值）
+     */
+    public void setMetricsRegistry(MetricsRegistry registry) {
+        metrics = registry;
+        generationsTotal = registry.counter("ga_generations_total", "已完成的代数");
+        evaluationsTotal = registry.counter("ga_evaluations_total", "适应度评估（解码）次数");
+        cacheHits = registry.counter("ga_fitness_cache_hits_total", "种群评估中个体未改变、跳过解码的次数");
+        cacheMisses = registry.counter("ga_fitness_cache_misses_total", "种群评估中需要解码的次数");
+        saMoves = registry.counter("ga_sa_moves_total", "局部搜索（SA）尝试的邻域移动次数");
+        saAccepted = registry.counter("ga_sa_accepted_total", "局部搜索（SA）接受的邻域移动次数");
+        generationTimer = registry.timer("ga_generation_seconds", "每代总耗时");
+        selectionTimer = registry.timer("ga_selection_seconds", "每代选择耗时");
+        crossoverTimer = registry.timer("ga_crossover_seconds", "每代交叉与变异耗时");
+        evaluationTimer = registry.timer("ga_evaluation_seconds", "每次种群评估耗时");
+        localSearchTimer = registry.timer("ga_local_search_seconds", "每代精英局部搜索耗时");
+        relinkEvaluations = registry.counter("ga_path_relinking_evaluations_total", "路径重连评估的中间解个数");
+        relinkImprovements = registry.counter("ga_path_relinking_improvements_total", "路径重连得到的中间解优于两端精英的次数");
+        steadyStateReplacements = registry.counter("ga_steady_state_replacements_total", "稳态模式中子代替换种群个体的次数");
+        steadyStateRejected = registry.counter("ga_steady_state_rejected_total", "稳态模式中因重复或不优于被替换者而丢弃的子代数");
+        relinkTimer = registry.timer("ga_path_relinking_seconds", "每代精英路径重连耗时");
+        generationGauge = registry.gauge("ga_generation", "当前代数");
+        bestProfitGauge = registry.gauge("ga_best_profit", "当前最优利润（含罚款）");
+        mutationRateGauge = registry.gauge("ga_mutation_rate", "当前变异率");
+        diversityGauge = registry.gauge("ga_population_diversity", "种群中不同个体所占比例");
+        evaluationRateGauge = registry.gauge("ga_evaluations_per_second", "本次运行的平均评估速度");
+        cacheHitRatioGauge = registry.gauge("ga_fitness_cache_hit_ratio", "种群评估跳过解码的比例");
+        saAcceptanceGauge = registry.gauge("ga_sa_acceptance_ratio", "局部搜索移动的接受比例");
+        saTemperatureGauge = registry.gauge("ga_sa_start_temperature", "本代标定的 SA 初温");
+        localSearchShareGauge = registry.gauge("ga_local_search_share", "每代解码次数中分给局部搜索的比例");
+        localSearchMovesGauge = registry.gauge("ga_local_search_moves_per_elite", "本代每个精英的局部搜索移动次数");
+        localSearchOperators.bind(registry);
+        crossoverOperators.bind(registry);
+        mutationOperators.bind(registry);
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 启用自适应算子选择：局部搜索的邻域、交叉与序列变异算子按"每纳秒的适应度改进"自适应选取，
+     * 取代固定的 1→2→3 邻域轮换与固定的 OX / 交换算子。
+     * 计分依赖耗时，启用后同一随机种子的运行结果不再逐位可复现（检查点恢复亦然）。
+     */
+    public void setAdaptiveOperators(boolean enabled) {
+        this.adaptiveOperators = enabled;
+    }
+
+    /**
+     * 精英间的路径重连（默认开启）：每代局部搜索之后，从种群中选出彼此差异足够大的精英，
+     * 在每对精英之间走一条路径并评估沿途的中间解，最好的中间解替换种群中的最差个体。
+     * 默认在进化线程上依次执行各条路径；不依赖随机数与耗时，同一种子的运行仍可逐位复现。
+     */
+    public void setPathRelinking(boolean enabled) {
+        this.pathRelinking = enabled;
+    }
+
+    /**
+     * 路径重连可用的线程数（默认 1，即与进化共用调用线程）。大于 1 时每次 run() 另建至多该数量的线程并行走各条路径，
+     * 结果与线程数无关。只有独占机器的单次求解才应调大；批量、服务与分解求解器中并发运行的 GA 保持 1，以免超出线程预算。
+     */
+    public void setPathRelinkingThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("路径重连线程数必须 >= 1: " + threads);
+        }
+        this.relinkThreads = threads;
+    }
+
+    /**
+     * 稳态模式（batch > 0）：不再整代重建种群，而是每步锦标赛选出父代、产生 batch 个子代并立即评估插入，
+     * 新的精英在同一"代"内就能成为后续子代的父代。子代优于两个父代中与它更相似的一个时替换该父代（保持多样性），
+     * 否则优于最差个体时替换最差个体；与现有个体重复的子代不解码直接丢弃。
+     * 每产生一个种群规模的子代记为一代，之后照常做精英局部搜索、路径重连、检查点与指标。batch 为 0 时恢复世代模式。
+     */
+    public void setSteadyState(int batch) {
+        this.steadyStateBatch = Math.max(0, batch);
+    }
+
+    public OperatorSelector getLocalSearchOperators() {
+        return localSearchOperators;
+    }
+
+    public OperatorSelector getCrossoverOperators() {
+        return crossoverOperators;
+    }
+
+    public OperatorSelector getMutationOperators() {
+        return mutationOperators;
+    }
+
+    /**
+     * 进度日志间隔（毫秒），0 关闭进度日志与结束时的汇总行；日志由后台线程读取指标输出，不在进化循环中打印
+     */
+    public void setProgressLogInterval(long millis) {
+        this.progressLogMillis = Math.max(0, millis);
+    }
+
+    /**
+     * 注册进度监听器（回调在通知线程上异步执行），对之后开始的 run() 生效
+     */
+    public void addListener(GAListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GAListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 当前最优解的快照，可在任意线程读取；运行开始前为 null
+     */
+    public BestSnapshot getCurrentBest() {
+        return currentBest.get();
+    }
+
+    /**
+     * 请求停止：当前代的局部搜索尽快结束，run() 随后返回已找到的最优解。
+     * 可在任意线程调用；取消后本调度器之后的 run() 也会在初始种群评估后立即返回。
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 最近一次 run() 实际执行的代数
+     */
+    public int getGenerationsRun() {
+        return generationsRun;
+    }
+
+    /**
+     * 最近一次 run() 中最优解的改进记录：每项为 {距运行开始的秒数, 最优适应度}，首项为初始种群的最优解
+     */
+    public List<double[]> getBestHistory() {
+        return bestHistory;
+    }
+
+    /**
+     * 检查点开销占进化耗时的比例
+     */
+    public double getCheckpointOverhead() {
+        return generationNanos == 0 ? 0.0 : (double) checkpointNanos / generationNanos;
     }
 
     /**
@@ -33,49 +369,148 @@ public class GAScheduler {
     // 在 GAScheduler.java 中替换 run() 方法
 
     public Chromosome run() {
+        long runStart = System.nanoTime();
+        long evaluationsAtStart = evaluations;
+        ScheduledExecutorService reporter = startProgressReporter();
+        dispatcher = listeners.isEmpty() ? null : new ListenerDispatcher(new ArrayList<>(listeners));
+        int threads = Math.min(RELINK_POOL_SIZE * (RELINK_POOL_SIZE - 1) / 2, relinkThreads);
+        if (pathRelinking) {
+            pathRelinker = new PathRelinker(decoder);
+            relinkExecutor = threads > 1 ? Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "ga-path-relinking");
+                thread.setDaemon(true);
+                return thread;
+            }) : null;
+        }
+        try {
+            return evolve(runStart, evaluationsAtStart);
+        } finally {
+            if (relinkExecutor != null) {
+                relinkExecutor.shutdownNow();
+                relinkExecutor = null;
+            }
+            if (reporter != null) {
+                reporter.shutdownNow();
+            }
+            if (dispatcher != null) {
+                dispatcher.finish(currentBest.get(), cancelled);
+                dispatcher = null;
+            }
+            if (generationsRun > 0 && progressLogMillis > 0) {
+                System.out.printf("GA 完成: %d 代, 最优利润 %.2f, 评估 %d 次 (%.0f 次/秒), 适应度缓存命中率 %.1f%%, 用时 %.1fs%n",
+                        generationsRun, bestProfitGauge.get(), evaluations - evaluationsAtStart,
+                        evaluationRateGauge.get(), cacheHitRatioGauge.get() * 100, (System.nanoTime() - runStart) / 1e9);
+                if (adaptiveOperators) {
+                    System.out.println("算子选择: " + localSearchOperators + " " + crossoverOperators + " " + mutationOperators);
+                }
+            }
+        }
+    }
+
+    private Chromosome evolve(long runStart, long evaluationsAtStart) {
+        deadlineNanos = timeLimitNanos > 0 ? runStart + timeLimitNanos : 0;
+        generationsRun = 0;
+        bestHistory.clear();
+
         // 检查是否有订单需要处理
         if (data.getOrders().isEmpty()) {
             return new Chromosome(new ArrayList<>(), new ArrayList<>());
         }
 
-        // 1. 初始化种群
-        List<Chromosome> population = initializePopulation();
+        List<Chromosome> population;
+        Chromosome bestSolution;
+        double bestFitness;
+        int startGeneration = 0;
+
+        if (resumeState != null) {
+            // 从检查点继续
+            population = resumeState.population;
+            bestSolution = resumeState.bestSolution;
+            bestFitness = bestSolution.getFitness();
+            startGeneration = resumeState.nextGeneration;
+            resumeState = null;
+            System.out.println("从检查点恢复，继续第 " + startGeneration + " 代");
+            EVENTS.restart(startGeneration, "resume", stagnationCount, mutationRate);
+        } else {
+            // 1. 初始化种群
+            currentGeneration = -1;
+            population = initializePopulation();
 
-        // 初始评估
-        evaluatePopulationFitness(population);
+            // 初始评估
+            evaluatePopulationFitness(population);
 
-        Chromosome bestSolution = getBest(population);
-        if (bestSolution == null) {
-            return new Chromosome(new ArrayList<>(), new ArrayList<>());
+            bestSolution = getBest(population);
+            if (bestSolution == null) {
+                return new Chromosome(new ArrayList<>(), new ArrayList<>());
+            }
+
+            // 【修复步骤 1】初始最佳解也要深拷贝 (Deep Copy)
+            bestFitness = bestSolution.getFitness();
+            bestSolution = new Chromosome(
+                    new ArrayList<>(bestSolution.getOperationSequence()),
+                    new ArrayList<>(bestSolution.getMachineAssignment())
+            );
+            bestSolution.setFitness(bestFitness);
         }
+        bestHistory.add(new double[]{(System.nanoTime() - runStart) / 1e9, bestFitness});
+        publishBest(bestSolution, startGeneration - 1, runStart, evaluationsAtStart);
 
-        // 【修复步骤 1】初始最佳解也要深拷贝 (Deep Copy)
-        double bestFitness = bestSolution.getFitness();
-        bestSolution = new Chromosome(
-                new ArrayList<>(bestSolution.getOperationSequence()),
-                new ArrayList<>(bestSolution.getMachineAssignment())
-        );
-        bestSolution.setFitness(bestFitness);
+        long nanosSinceCheckpoint = 0;
+        long lastCheckpointCost = 0;
+        int lastCheckpointGen = startGeneration;
 
-        for (int gen = 0; gen < maxGenerations; gen++) {
+        for (int gen = startGeneration; gen < maxGenerations; gen++) {
+            long genStart = System.nanoTime();
+            currentGeneration = gen;
+            Object event = EVENTS.beginGeneration();
+            long evaluationsBefore = evaluations;
 
             adjustMutationRate();
+            if (stagnationCount == STAGNATION_LIMIT + 1) {
+                EVENTS.restart(gen, "stagnation", stagnationCount, mutationRate);
+            }
 
-            // 2. 选择
-            List<Chromosome> parents = selection(population);
-
-            // 3. 交叉变异
-            List<Chromosome> newPopulation = newGeneration(parents);
-
-            // 4. 评估新种群
-            evaluatePopulationFitness(newPopulation);
+            long t;
+            List<Chromosome> newPopulation;
+            if (steadyStateBatch > 0) {
+                // 2-4. 稳态：逐批产生、评估并插入子代
+                newPopulation = steadyStateGeneration(population);
+            } else {
+                // 2. 选择
+                t = System.nanoTime();
+                List<Chromosome> parents = selection(population);
+                selectionTimer.record(System.nanoTime() - t);
+
+                // 3. 交叉变异
+                t = System.nanoTime();
+                newPopulation = newGeneration(parents);
+                crossoverTimer.record(System.nanoTime() - t);
+
+                // 4. 评估新种群
+                evaluatePopulationFitness(newPopulation);
+            }
+            creditOffspring();
+            long evolutionDecodes = evaluations - evaluationsBefore;
+            double bestBeforeLocalSearch = getBest(newPopulation).getFitness();
 
             // 局部搜索 (这步会修改个体，所以必须保证 bestSolution 是独立的备份)
+            t = System.nanoTime();
+            long localSearchStart = evaluations;
             performLocalSearchOnElites(newPopulation);
+            localSearchTimer.record(System.nanoTime() - t);
+            if (pathRelinking && !shouldStop()) {
+                t = System.nanoTime();
+                relinkElites(newPopulation);
+                relinkTimer.record(System.nanoTime() - t);
+            }
 
             // 更新全局最优解
             Chromosome currentBest = getBest(newPopulation);
-            if (currentBest.getFitness() < bestFitness) {
+            allocateEvaluationBudget(bestFitness - bestBeforeLocalSearch, evolutionDecodes,
+                    bestBeforeLocalSearch - currentBest.getFitness(), evaluations - localSearchStart);
+            boolean improved = currentBest.getFitness() < bestFitness;
+            if (improved) {
+                EVENTS.newBest(gen, -bestFitness, -currentBest.getFitness(), evaluations);
                 // 【修复步骤 2】发现新解时，执行深拷贝！
                 // 这样无论后续 currentBest 怎么变差，bestSolution 都永远保持巅峰状态
                 bestFitness = currentBest.getFitness();
@@ -84,24 +519,133 @@ public class GAScheduler {
                         new ArrayList<>(currentBest.getMachineAssignment())
                 );
                 bestSolution.setFitness(bestFitness);
+                bestHistory.add(new double[]{(System.nanoTime() - runStart) / 1e9, bestFitness});
+                publishBest(bestSolution, gen, runStart, evaluationsAtStart);
 
                 stagnationCount = 0;
-                System.out.printf("Generation %d: New Best Cost Found -> %.2f%n", gen, -bestFitness);
             } else {
                 stagnationCount++;
             }
 
-            // 日志
-            if (gen % 10 == 0 || stagnationCount == 0) {
-                System.out.println("Generation " + gen + " Best: " + -bestFitness + " (Mutation Rate: " + String.format("%.2f", mutationRate) + ")");
+            population = newPopulation;
+            generationsRun++;
+            boolean stop = shouldStop();
+
+            // 指标（日志由进度线程输出）
+            long genTime = System.nanoTime() - genStart;
+            generationTimer.record(genTime);
+            generationsTotal.inc();
+            updateGauges(gen, bestFitness, runStart, evaluationsAtStart);
+            if (dispatcher != null) {
+                dispatcher.generation(new GAListener.GenerationStats(gen, -bestFitness, mutationRate,
+                        diversityGauge.get(), evaluations - evaluationsAtStart, (System.nanoTime() - runStart) / 1e9));
+            }
+            if (event != null) {
+                EVENTS.endGeneration(event, gen, population.size(), evaluations - evaluationsBefore,
+                        improved ? 1 : 0, -bestFitness, mutationRate, diversityGauge.get());
             }
 
-            population = newPopulation;
+            // 检查点（开销受控）
+            generationNanos += genTime;
+            nanosSinceCheckpoint += genTime;
+            if (checkpointPath != null) {
+                boolean last = gen == maxGenerations - 1 || stop;
+                boolean due = gen + 1 - lastCheckpointGen >= checkpointMinInterval
+                        && nanosSinceCheckpoint >= 99 * lastCheckpointCost;
+                if (last || due) {
+                    lastCheckpointCost = writeCheckpoint(gen + 1, population, bestSolution);
+                    nanosSinceCheckpoint = 0;
+                    lastCheckpointGen = gen + 1;
+                }
+            }
+            if (stop) {
+                break;
+            }
         }
 
+        if (checkpointPath != null) {
+            System.out.printf("检查点: 写入 %d 次，开销占进化耗时 %.3f%%%n", checkpointsWritten, getCheckpointOverhead() * 100);
+        }
         return bestSolution;
     }
 
+    // 写入检查点，返回本次写入耗时（纳秒）；写入失败只报告不中断优化
+    private long writeCheckpoint(int nextGeneration, List<Chromosome> population, Chromosome bestSolution) {
+        long start = System.nanoTime();
+        GACheckpoint cp = new GACheckpoint();
+        cp.populationSize = populationSize;
+        cp.crossoverRate = crossoverRate;
+        cp.maxGenerations = maxGenerations;
+        cp.nextGeneration = nextGeneration;
+        cp.stagnationCount = stagnationCount;
+        cp.mutationRate = mutationRate;
+        cp.randomState = random.getState();
+        cp.localSearchShare = localSearchShare;
+        cp.evolutionReturn = evolutionReturn;
+        cp.localSearchReturn = localSearchReturn;
+        cp.population = population;
+        cp.bestSolution = bestSolution;
+        try {
+            cp.write(checkpointPath);
+            checkpointsWritten++;
+        } catch (IOException e) {
+            System.err.println("写入检查点失败: " + e.getMessage());
+        }
+        long cost = System.nanoTime() - start;
+        checkpointNanos += cost;
+        return cost;
+    }
+
+    // 每代结束时刷新仪表（只做原子写）
+    private void updateGauges(int gen, double bestFitness, long runStart, long evaluationsAtStart) {
+        generationGauge.set(gen);
+        bestProfitGauge.set(-bestFitness);
+        mutationRateGauge.set(mutationRate);
+        double seconds = (System.nanoTime() - runStart) / 1e9;
+        evaluationRateGauge.set(seconds > 0 ? (evaluations - evaluationsAtStart) / seconds : 0.0);
+        long hits = cacheHits.get();
+        long lookups = hits + cacheMisses.get();
+        cacheHitRatioGauge.set(lookups == 0 ? 0.0 : (double) hits / lookups);
+        long moves = saMoves.get();
+        saAcceptanceGauge.set(moves == 0 ? 0.0 : (double) saAccepted.get() / moves);
+    }
+
+    // 后台守护线程按固定间隔从指标读取进度并打印；间隔为 0 时不启动
+    private ScheduledExecutorService startProgressReporter() {
+        if (progressLogMillis <= 0) {
+            return null;
+        }
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ga-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(() -> {
+            if (Double.isNaN(generationGauge.get())) {
+                return; // 尚未完成第一代
+            }
+            System.out.printf("Generation %.0f Best: %.2f (Mutation Rate: %.2f, %.0f evals/s, diversity %.2f)%n",
+                    generationGauge.get(), bestProfitGauge.get(), mutationRateGauge.get(),
+                    evaluationRateGauge.get(), diversityGauge.get());
+        }, progressLogMillis, progressLogMillis, TimeUnit.MILLISECONDS);
+        return reporter;
+    }
+
+    // 已取消或超出时间限制
+    private boolean shouldStop() {
+        return cancelled || (deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    // 发布新的最优解快照（best 为已深拷贝的独立个体）
+    private void publishBest(Chromosome best, int gen, long runStart, long evaluationsAtStart) {
+        BestSnapshot snapshot = new BestSnapshot(best, gen, (System.nanoTime() - runStart) / 1e9,
+                evaluations - evaluationsAtStart, decoder);
+        currentBest.set(snapshot);
+        if (dispatcher != null) {
+            dispatcher.newBest(snapshot);
+        }
+    }
+
     // 获取当前种群最优个体的辅助方法
     private Chromosome getBest(List<Chromosome> pop) {
         return pop.stream().min(Comparator.comparingDouble(Chromosome::getFitness)).orElse(null);
@@ -114,7 +658,7 @@ public class GAScheduler {
      */
     private void adjustMutationRate() {
         double baseRate = 0.1; // 基础变异率
-        if (stagnationCount > 10) {
+        if (stagnationCount > STAGNATION_LIMIT) {
             this.mutationRate = Math.min(0.5, this.mutationRate + 0.05); // 逐步提升，最高 0.5
         } else {
             this.mutationRate = baseRate; // 恢复正常
@@ -131,20 +675,116 @@ public class GAScheduler {
         population.sort(Comparator.comparingDouble(Chromosome::getFitness));
 
         // 只取前 5 个最好的个体进行精细打磨
-        int eliteCount = Math.min(population.size(), 5);
+        int eliteCount = Math.min(population.size(), ELITE_COUNT);
+        if (eliteCount == 0 || population.get(0).getOperationSequence().isEmpty()) {
+            return;
+        }
 
-        for (int i = 0; i < eliteCount; i++) {
+        // 局部搜索预算：以种群规模作为进化阶段的名义解码数，按当前份额折算
+        double budget = populationSize * localSearchShare / (1 - localSearchShare);
+        localSearchMoves = Math.max(MIN_MOVES_PER_ELITE, (int) (budget / eliteCount));
+        calibrateTemperature(population.get(0));
+        localSearchMovesGauge.set(localSearchMoves);
+
+        for (int i = 0; i < eliteCount && !shouldStop(); i++) {
             hybridLocalSearch(population.get(i));
         }
     }
 
+    /**
+     * 精英间路径重连：选出彼此订单层面距离不小于序列长度 1/20 的精英池，两两之间走一条路径，
+     * 共用半个种群规模的解码预算（计入局部搜索阶段的解码）。优于种群最差个体且不重复的最好中间解替换最差个体。
+     */
+    private void relinkElites(List<Chromosome> population) {
+        population.sort(Comparator.comparingDouble(Chromosome::getFitness));
+        int length = population.get(0).getOperationSequence().size();
+        List<Chromosome> pool = PathRelinker.selectDiversePool(population, RELINK_POOL_SIZE, Math.max(2, length / 20));
+        if (pool.size() < 2) {
+            return;
+        }
+        int pairs = pool.size() * (pool.size() - 1) / 2;
+        List<PathRelinker.Result> results = pathRelinker.relinkPool(pool,
+                Math.max(pairs, populationSize / 2), relinkExecutor, this::shouldStop);
+
+        Set<Long> present = new HashSet<>();
+        for (Chromosome c : population) {
+            present.add(c.fingerprint());
+        }
+        int r = 0;
+        for (int a = 0; a < pool.size(); a++) {
+            for (int b = a + 1; b < pool.size(); b++) {
+                PathRelinker.Result result = results.get(r++);
+                evaluations += result.evaluations;
+                evaluationsTotal.add(result.evaluations);
+                relinkEvaluations.add(result.evaluations);
+                Chromosome best = result.best;
+                if (best == null) {
+                    continue;
+                }
+                if (best.getFitness() < Math.min(pool.get(a).getFitness(), pool.get(b).getFitness())) {
+                    relinkImprovements.inc();
+                }
+                int worst = population.size() - 1;
+                long fp = best.fingerprint();
+                if (best.getFitness() < population.get(worst).getFitness() && present.add(fp)) {
+                    best.markEvaluated(fp, best.getFitness());
+                    population.set(worst, best);
+                    population.sort(Comparator.comparingDouble(Chromosome::getFitness));
+                }
+            }
+        }
+    }
+
+    /**
+     * 由采样移动的劣化量标定 SA 温度：对 c 做若干随机邻域移动（评估后回滚），
+     * 取劣化移动劣化量的中位数 d（不受个别触发罚款的大幅劣化影响），
+     * 初温 d / ln5（以 20% 概率接受），终温为初温的 1/200。这样温度随算例规模与成本量级自动缩放。
+     */
+    void calibrateTemperature(Chromosome c) {
+        List<Integer> ma = new ArrayList<>(c.getMachineAssignment());
+        List<String> os = new ArrayList<>(c.getOperationSequence());
+        List<Double> uphill = new ArrayList<>(CALIBRATION_SAMPLES);
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            applyPerturbationAndGetKey(c, 1 + i % 3);
+            double delta = decodeAndCalculateCost(c) - c.getFitness();
+            if (delta > 0) {
+                uphill.add(delta);
+            }
+            Collections.copy(c.getMachineAssignment(), ma);
+            Collections.copy(c.getOperationSequence(), os);
+        }
+        Collections.sort(uphill);
+        double typical = uphill.isEmpty() ? 1.0 : uphill.get(uphill.size() / 2);
+        saStartTemperature = typical / Math.log(5);
+        saEndTemperature = saStartTemperature / TEMPERATURE_RANGE;
+        saTemperatureGauge.set(saStartTemperature);
+    }
+
+    /**
+     * 按两个阶段的边际收益（平滑后的每次解码改进）调整下一代分给局部搜索的解码份额
+     */
+    private void allocateEvaluationBudget(double evolutionGain, long evolutionDecodes,
+                                          double localSearchGain, long localSearchDecodes) {
+        double evolutionRate = evolutionDecodes > 0 ? Math.max(0.0, evolutionGain) / evolutionDecodes : 0.0;
+        double localSearchRate = localSearchDecodes > 0 ? Math.max(0.0, localSearchGain) / localSearchDecodes : 0.0;
+        evolutionReturn += RETURN_SMOOTHING * (evolutionRate - evolutionReturn);
+        localSearchReturn += RETURN_SMOOTHING * (localSearchRate - localSearchReturn);
+        double total = evolutionReturn + localSearchReturn;
+        if (total > 0) {
+            double target = localSearchReturn / total;
+            localSearchShare += RETURN_SMOOTHING * (target - localSearchShare);
+            localSearchShare = Math.max(MIN_LOCAL_SEARCH_SHARE, Math.min(MAX_LOCAL_SEARCH_SHARE, localSearchShare));
+        }
+        localSearchShareGauge.set(localSearchShare);
+    }
+
     /**
      * [改进版] 初始化种群：混合策略
      * 40% 基于产品分组（利于拼单）
      * 30% 基于截止时间（利于由急单）
      * 20% 完全随机
      */
-    private List<Chromosome> initializePopulation() {
+    List<Chromosome> initializePopulation() {
         List<Chromosome> population = new ArrayList<>(populationSize);
 
         // 1. 准备基础数据
@@ -186,13 +826,21 @@ public class GAScheduler {
                 Collections.shuffle(opSequence, random);
             }
 
-            // 机器分配初始化 (依然保持随机，或者也可以设计轮询分配)
+            // 机器分配初始化：为每个位置上的工件随机挑选一条可生产该产品的产线
             for (int j = 0; j < totalJobs; j++) {
-                machineAssignment.add(random.nextInt(ScheduleData.NUM_LINES) + 1);
+                int[] eligible = data.getEligibleLines(productOfOp.get(opSequence.get(j)));
+                machineAssignment.add(eligible[random.nextInt(eligible.length)]);
             }
 
             population.add(new Chromosome(opSequence, machineAssignment));
         }
+
+        // 种子解注入
+        for (int i = 0; i < Math.min(seedSolutions.size(), populationSize); i++) {
+            Chromosome seed = seedSolutions.get(i);
+            population.set(i, new Chromosome(new ArrayList<>(seed.getOperationSequence()),
+                    new ArrayList<>(seed.getMachineAssignment())));
+        }
         return population;
     }
 
@@ -208,10 +856,28 @@ public class GAScheduler {
      * 适应度评估：根据染色体计算调度，并计算总利润 (重点函数)
      */
     private void evaluatePopulationFitness(List<Chromosome> population) {
+        long start = System.nanoTime();
+        Object event = EVENTS.beginDecodeBatch();
+        // 未经交叉、变异也未改变的个体（精英、直接复制的父代）沿用上次的适应度
+        Set<Long> distinct = new HashSet<>(population.size() * 2);
+        int hits = 0;
         for (Chromosome c : population) {
-            double cost = decodeAndCalculateCost(c);
-            c.setFitness(cost);
+            long fp = c.fingerprint();
+            distinct.add(fp);
+            if (c.isEvaluatedAs(fp)) {
+                hits++;
+            } else {
+                c.markEvaluated(fp, decodeAndCalculateCost(c));
+            }
         }
+        cacheHits.add(hits);
+        cacheMisses.add(population.size() - hits);
+        averageDecodeNanos = (System.nanoTime() - start) / Math.max(1, population.size() - hits);
+        diversityGauge.set(population.isEmpty() ? 0.0 : (double) distinct.size() / population.size());
+        if (event != null) {
+            EVENTS.endDecodeBatch(event, currentGeneration, population.size(), population.size() - hits, hits);
+        }
+        evaluationTimer.record(System.nanoTime() - start);
     }
 
     /**
@@ -221,12 +887,18 @@ public class GAScheduler {
      * 2. SA 控制劣解的接受概率 (Temperature)。
      * 3. TS 避免近期重复操作 (Tabu List)。
      */
-    private void hybridLocalSearch(Chromosome c) {
+    void hybridLocalSearch(Chromosome c) {
+        Object event = EVENTS.beginLocalSearch();
+        long moves = 0;
+        long accepted = 0;
+        int improvements = 0;
+        double startCost = c.getFitness();
+
         // --- 1. 参数初始化 ---
-        // SA 参数
-        double temperature = 200.0;   // 初始温度
-        double coolingRate = 0.95;    // 降温速率
-        double minTemperature = 1.0;  // 终止温度
+        // SA 参数：温度由 calibrateTemperature 标定，在 localSearchMoves 次移动内按几何级数从初温降到终温
+        double startTemperature = saStartTemperature;
+        double temperatureRatio = saEndTemperature / saStartTemperature;
+        int moveBudget = localSearchMoves;
 
         // TS 参数
         Queue<String> tabuList = new LinkedList<>();
@@ -241,13 +913,14 @@ public class GAScheduler {
         int maxInnerLoopSteps = 100;
 
         // --- 2. 主循环 (SA 退火过程) ---
-        while (temperature > minTemperature) {
+        while (moves < moveBudget && !shouldStop()) {
+            double temperature = startTemperature * Math.pow(temperatureRatio, (double) moves / moveBudget);
             int k = 1;
             int maxK = 3; // 定义3种邻域结构
             int loopCount = 0; // 安全计数器
 
             // VNS 循环：在当前温度下，尝试不同的邻域
-            while (k <= maxK && loopCount < maxInnerLoopSteps) {
+            while (k <= maxK && loopCount < maxInnerLoopSteps && moves < moveBudget) {
                 loopCount++;
 
                 // 备份当前状态 (用于回滚)
@@ -256,11 +929,16 @@ public class GAScheduler {
                 double currentCost = c.getFitness();
 
                 // --- A. 产生邻域扰动 (Perturbation) ---
-                String moveKey = applyPerturbationAndGetKey(c, k);
+                // 自适应模式下邻域由选择器决定，k 只计数连续未改进的移动
+                long moveStart = System.nanoTime();
+                int neighborhood = adaptiveOperators ? localSearchOperators.select(random) + 1 : k;
+                String moveKey = applyPerturbationAndGetKey(c, neighborhood);
+                moves++;
 
                 // --- B. 计算新适应度 ---
                 double newCost = decodeAndCalculateCost(c);
                 double delta = newCost - currentCost;
+                localSearchOperators.credit(neighborhood - 1, -delta, System.nanoTime() - moveStart);
 
                 // --- C. 混合判断逻辑 ---
                 boolean isTabu = tabuList.contains(moveKey);
@@ -287,10 +965,12 @@ public class GAScheduler {
                 // --- D. 执行决策 ---
                 if (accept) {
                     // 确认接受新解
+                    accepted++;
                     c.setFitness(newCost);
 
                     // 更新全局最优
                     if (newCost < globalBestCost) {
+                        improvements++;
                         globalBestCost = newCost;
                         bestMa = new ArrayList<>(c.getMachineAssignment());
                         bestOs = new ArrayList<>(c.getOperationSequence());
@@ -320,20 +1000,24 @@ public class GAScheduler {
                 }
             }
 
-            // 降温 (现在内层循环一定会结束，这里终于可以执行到了)
-            temperature *= coolingRate;
         }
 
         // --- 3. 收尾：恢复历史最优 ---
         c.setFitness(globalBestCost);
         Collections.copy(c.getMachineAssignment(), bestMa);
         Collections.copy(c.getOperationSequence(), bestOs);
+
+        saMoves.add(moves);
+        saAccepted.add(accepted);
+        if (event != null) {
+            EVENTS.endLocalSearch(event, currentGeneration, moves, accepted, improvements, -startCost, -globalBestCost);
+        }
     }
 
     /**
      * 辅助方法：执行扰动并返回该操作的"禁忌特征码"
      */
-    private String applyPerturbationAndGetKey(Chromosome c, int k) {
+    String applyPerturbationAndGetKey(Chromosome c, int k) {
         int size = c.getOperationSequence().size();
         String key = "";
 
@@ -341,10 +1025,7 @@ public class GAScheduler {
             case 1: // [机器变更]
                 int idx = random.nextInt(size);
                 int oldM = c.getMachineAssignment().get(idx);
-                int newM = random.nextInt(ScheduleData.NUM_LINES) + 1;
-                while (newM == oldM) {
-                    newM = random.nextInt(ScheduleData.NUM_LINES) + 1;
-                }
+                int newM = pickOtherEligibleLine(c.getOperationSequence().get(idx), oldM);
                 c.getMachineAssignment().set(idx, newM);
                 // 禁忌特征：禁止将该任务移回原机器 (防止反复横跳)
                 key = "MACH_" + idx + "_" + oldM;
@@ -400,7 +1081,7 @@ public class GAScheduler {
             switch (k) {
                 case 1: // Neighborhood 1: Reassign Machine (改变机器)
                     int idx = random.nextInt(size);
-                    int newM = random.nextInt(ScheduleData.NUM_LINES) + 1;
+                    int newM = pickOtherEligibleLine(c.getOperationSequence().get(idx), c.getMachineAssignment().get(idx));
                     c.getMachineAssignment().set(idx, newM);
                     break;
 
@@ -606,7 +1287,7 @@ public class GAScheduler {
     /**
      * 选择：使用轮盘赌或锦标赛选择父代
      */
-    private List<Chromosome> selection(List<Chromosome> population) {
+    List<Chromosome> selection(List<Chromosome> population) {
         List<Chromosome> parents = new ArrayList<>(populationSize);
         int tournamentSize = 5; // 锦标赛规模 K=5
 
@@ -646,18 +1327,30 @@ public class GAScheduler {
 
             Chromosome child1 = parent1;
             Chromosome child2 = parent2;
+            double fitness1 = parent1.getFitness();
+            double fitness2 = parent2.getFitness();
+            int crossoverOp = -1;
+            long crossoverNanos = 0;
 
             if (random.nextDouble() < crossoverRate) {
-                // 执行交叉操作
-                List<Chromosome> children = crossover(parent1, parent2);
+                // 执行交叉操作（子代与较优父代比较记账）
+                long t = System.nanoTime();
+                crossoverOp = adaptiveOperators ? crossoverOperators.select(random) : 0;
+                List<Chromosome> children = crossover(parent1, parent2, crossoverOp);
                 child1 = children.get(0);
                 child2 = children.get(1);
+                crossoverNanos = (System.nanoTime() - t) / 2;
+                fitness1 = fitness2 = Math.min(fitness1, fitness2);
             }
 
             // 执行变异操作
-            mutation(child1);
+            long t = System.nanoTime();
+            int mutationOp = mutation(child1);
+            recordOffspring(child1, fitness1, crossoverOp, crossoverNanos, mutationOp, System.nanoTime() - t);
             if (newPopulation.size() < populationSize) {
-                mutation(child2);
+                t = System.nanoTime();
+                mutationOp = mutation(child2);
+                recordOffspring(child2, fitness2, crossoverOp, crossoverNanos, mutationOp, System.nanoTime() - t);
             }
 
             newPopulation.add(child1);
@@ -669,9 +1362,166 @@ public class GAScheduler {
     }
 
     /**
-     * 交叉操作：对操作序列使用 PMX 或 OX，对机器分配使用均匀交叉。
+     * 稳态模式的一"代"：共产生 populationSize 个子代，每步 steadyStateBatch 个。
+     * 种群保存在 RankedPopulation 中，最优 / 最差查询与替换为 O(log n)。返回按适应度升序排列的新种群。
      */
-    private List<Chromosome> crossover(Chromosome p1, Chromosome p2) {
+    private List<Chromosome> steadyStateGeneration(List<Chromosome> population) {
+        RankedPopulation ranked = new RankedPopulation(population);
+        List<Chromosome> batch = new ArrayList<>(steadyStateBatch);
+        List<Chromosome> parents = new ArrayList<>(steadyStateBatch * 2);
+        int[] parentSlots = new int[steadyStateBatch * 2];
+        for (int produced = 0; produced < populationSize && !shouldStop(); ) {
+            // 2. 选择与 3. 交叉变异：子代总是新个体，父代在替换前保持不变
+            long t = System.nanoTime();
+            batch.clear();
+            parents.clear();
+            int count = Math.min(steadyStateBatch, populationSize - produced);
+            for (int k = 0; k < count; k += 2) {
+                int slot1 = tournamentSlot(ranked);
+                int slot2 = tournamentSlot(ranked);
+                Chromosome parent1 = ranked.get(slot1);
+                Chromosome parent2 = ranked.get(slot2);
+                List<Chromosome> children;
+                int crossoverOp = -1;
+                long crossoverNanos = 0;
+                double parentFitness1 = parent1.getFitness();
+                double parentFitness2 = parent2.getFitness();
+                if (random.nextDouble() < crossoverRate) {
+                    long c = System.nanoTime();
+                    crossoverOp = adaptiveOperators ? crossoverOperators.select(random) : 0;
+                    children = crossover(parent1, parent2, crossoverOp);
+                    crossoverNanos = (System.nanoTime() - c) / 2;
+                    parentFitness1 = parentFitness2 = Math.min(parentFitness1, parentFitness2);
+                } else {
+                    children = Arrays.asList(copyOf(parent1), copyOf(parent2));
+                }
+                for (int j = 0; j < 2 && k + j < count; j++) {
+                    Chromosome child = children.get(j);
+                    long m = System.nanoTime();
+                    int mutationOp = mutation(child);
+                    recordOffspring(child, j == 0 ? parentFitness1 : parentFitness2, crossoverOp, crossoverNanos,
+                            mutationOp, System.nanoTime() - m);
+                    parentSlots[batch.size() * 2] = slot1;
+                    parentSlots[batch.size() * 2 + 1] = slot2;
+                    parents.add(parent1);
+                    parents.add(parent2);
+                    batch.add(child);
+                }
+            }
+            crossoverTimer.record(System.nanoTime() - t);
+            produced += count;
+
+            // 4. 评估（与现有个体重复的子代不解码）并插入
+            List<Chromosome> fresh = new ArrayList<>(batch.size());
+            for (Chromosome child : batch) {
+                if (!ranked.contains(child.fingerprint())) {
+                    fresh.add(child);
+                }
+            }
+            if (!fresh.isEmpty()) {
+                evaluatePopulationFitness(fresh);
+            }
+            for (int b = 0; b < batch.size(); b++) {
+                Chromosome child = batch.get(b);
+                long fp = child.fingerprint();
+                int slot = child.isEvaluatedAs(fp) && !ranked.contains(fp)
+                        ? replacementSlot(ranked, child, parentSlots[b * 2], parents.get(b * 2),
+                                parentSlots[b * 2 + 1], parents.get(b * 2 + 1))
+                        : -1;
+                if (slot < 0) {
+                    steadyStateRejected.inc();
+                    continue;
+                }
+                ranked.replace(slot, child, fp);
+                steadyStateReplacements.inc();
+            }
+        }
+        diversityGauge.set(ranked.diversity());
+        return ranked.toSortedList();
+    }
+
+    // 锦标赛选择（K=5），返回胜者的槽位
+    private int tournamentSlot(RankedPopulation ranked) {
+        int best = -1;
+        for (int j = 0; j < 5; j++) {
+            int slot = random.nextInt(ranked.size());
+            if (best < 0 || ranked.get(slot).getFitness() < ranked.get(best).getFitness()) {
+                best = slot;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 子代的替换对象：优于与它更相似的父代时替换该父代，否则优于最差个体时替换最差个体，都不满足返回 -1。
+     * 父代所在槽位已被同批中更早的子代替换时不再作为候选。
+     */
+    private int replacementSlot(RankedPopulation ranked, Chromosome child,
+                                int slot1, Chromosome parent1, int slot2, Chromosome parent2) {
+        int similar = -1;
+        int similarDistance = Integer.MAX_VALUE;
+        if (ranked.get(slot1) == parent1) {
+            similar = slot1;
+            similarDistance = PathRelinker.distance(child, parent1);
+        }
+        if (slot2 != slot1 && ranked.get(slot2) == parent2 && PathRelinker.distance(child, parent2) < similarDistance) {
+            similar = slot2;
+        }
+        if (similar >= 0 && child.getFitness() < ranked.get(similar).getFitness()) {
+            return similar;
+        }
+        int worst = ranked.worstSlot();
+        return child.getFitness() < ranked.get(worst).getFitness() ? worst : -1;
+    }
+
+    private static Chromosome copyOf(Chromosome c) {
+        return new Chromosome(new ArrayList<>(c.getOperationSequence()), new ArrayList<>(c.getMachineAssignment()));
+    }
+
+    // 子代的记账信息：评估后按相对父代的适应度改进为所用算子计分
+    private static class Offspring {
+        final Chromosome child;
+        final double parentFitness;
+        final int crossoverOp;      // -1 表示未交叉
+        final long crossoverNanos;
+        final int mutationOp;       // -1 表示未做序列变异
+        final long mutationNanos;
+
+        Offspring(Chromosome child, double parentFitness, int crossoverOp, long crossoverNanos, int mutationOp, long mutationNanos) {
+            this.child = child;
+            this.parentFitness = parentFitness;
+            this.crossoverOp = crossoverOp;
+            this.crossoverNanos = crossoverNanos;
+            this.mutationOp = mutationOp;
+            this.mutationNanos = mutationNanos;
+        }
+    }
+
+    private void recordOffspring(Chromosome child, double parentFitness, int crossoverOp, long crossoverNanos,
+                                 int mutationOp, long mutationNanos) {
+        if (crossoverOp >= 0 || mutationOp >= 0) {
+            offspring.add(new Offspring(child, parentFitness, crossoverOp, crossoverNanos, mutationOp, mutationNanos));
+        }
+    }
+
+    // 种群评估后为本代的交叉与变异算子记账，耗时计入一次平均解码时间
+    private void creditOffspring() {
+        for (Offspring o : offspring) {
+            double improvement = o.parentFitness - o.child.getFitness();
+            if (o.crossoverOp >= 0) {
+                crossoverOperators.credit(o.crossoverOp, improvement, o.crossoverNanos + averageDecodeNanos);
+            }
+            if (o.mutationOp >= 0) {
+                mutationOperators.credit(o.mutationOp, improvement, o.mutationNanos + averageDecodeNanos);
+            }
+        }
+        offspring.clear();
+    }
+
+    /**
+     * 交叉操作：操作序列使用有序交叉 OX（op = 0）或基于位置的交叉 POS（op = 1），机器分配使用均匀交叉。
+     */
+    private List<Chromosome> crossover(Chromosome p1, Chromosome p2, int op) {
         List<Chromosome> children = new ArrayList<>(2);
         int len = p1.getOperationSequence().size();
 
@@ -681,9 +1531,16 @@ public class GAScheduler {
         int start = Math.min(c1, c2);
         int end = Math.max(c1, c2);
 
-        // --- 1. 操作序列交叉 (使用有序交叉 Order Crossover - OX) ---
-        List<String> opSeq1 = orderCrossover(p1.getOperationSequence(), p2.getOperationSequence(), start, end);
-        List<String> opSeq2 = orderCrossover(p2.getOperationSequence(), p1.getOperationSequence(), start, end);
+        // --- 1. 操作序列交叉 (有序交叉 Order Crossover - OX，或基于位置的交叉 POS) ---
+        List<String> opSeq1;
+        List<String> opSeq2;
+        if (op == 1) {
+            opSeq1 = positionBasedCrossover(p1.getOperationSequence(), p2.getOperationSequence());
+            opSeq2 = positionBasedCrossover(p2.getOperationSequence(), p1.getOperationSequence());
+        } else {
+            opSeq1 = orderCrossover(p1.getOperationSequence(), p2.getOperationSequence(), start, end);
+            opSeq2 = orderCrossover(p2.getOperationSequence(), p1.getOperationSequence(), start, end);
+        }
 
         // --- 2. 机器分配交叉 (使用均匀交叉 Uniform Crossover) ---
         List<Integer> ma1 = uniformMachineCrossover(p1.getMachineAssignment(), p2.getMachineAssignment());
@@ -696,7 +1553,7 @@ public class GAScheduler {
     }
 
     // 辅助方法：有序交叉 (Order Crossover, OX)
-    private List<String> orderCrossover(List<String> p1Seq, List<String> p2Seq, int start, int end) {
+    List<String> orderCrossover(List<String> p1Seq, List<String> p2Seq, int start, int end) {
         List<String> childSeq = new ArrayList<>(Collections.nCopies(p1Seq.size(), null));
         int len = p1Seq.size();
 
@@ -721,8 +1578,34 @@ public class GAScheduler {
         return childSeq;
     }
 
+    // 辅助方法：基于位置的交叉 (Position-Based Crossover, POS)：随机一半位置保留 P1 的工件，其余位置按 P2 中的顺序填充
+    List<String> positionBasedCrossover(List<String> p1Seq, List<String> p2Seq) {
+        int len = p1Seq.size();
+        boolean[] keep = new boolean[len];
+        Set<String> kept = new HashSet<>(len);
+        for (int i = 0; i < len; i++) {
+            if (random.nextBoolean()) {
+                keep[i] = true;
+                kept.add(p1Seq.get(i));
+            }
+        }
+        List<String> childSeq = new ArrayList<>(len);
+        int p2Index = 0;
+        for (int i = 0; i < len; i++) {
+            if (keep[i]) {
+                childSeq.add(p1Seq.get(i));
+            } else {
+                while (kept.contains(p2Seq.get(p2Index))) {
+                    p2Index++;
+                }
+                childSeq.add(p2Seq.get(p2Index++));
+            }
+        }
+        return childSeq;
+    }
+
     // 辅助方法：均匀机器分配交叉 (Uniform Machine Assignment Crossover)
-    private List<Integer> uniformMachineCrossover(List<Integer> ma1, List<Integer> ma2) {
+    List<Integer> uniformMachineCrossover(List<Integer> ma1, List<Integer> ma2) {
         List<Integer> childMa = new ArrayList<>(ma1.size());
         for (int i = 0; i < ma1.size(); i++) {
             // 50% 概率继承 P1，50% 概率继承 P2
@@ -736,23 +1619,40 @@ public class GAScheduler {
     }
 
     /**
-     * 变异操作：随机交换操作序列，随机重分配机器。
+     * 变异操作：操作序列做交换 / 插入 / 逆序变异（非自适应模式固定为交换），随机重分配机器。
+     * @return 所用的序列变异算子下标，未做序列变异时为 -1
      */
-    private void mutation(Chromosome chromosome) {
+    int mutation(Chromosome chromosome) {
+        int applied = -1;
 
-        // --- 1. 操作序列变异 (Swap Mutation) ---
+        // --- 1. 操作序列变异 ---
         if (random.nextDouble() < mutationRate) {
             List<String> opSeq = chromosome.getOperationSequence();
             int len = opSeq.size();
             if (len > 1) {
-                // 随机选择两个位置并交换它们
+                // 随机选择两个不同的位置
                 int index1 = random.nextInt(len);
                 int index2;
                 do {
                     index2 = random.nextInt(len);
                 } while (index1 == index2);
 
-                Collections.swap(opSeq, index1, index2);
+                applied = adaptiveOperators ? mutationOperators.select(random) : 0;
+                List<Integer> assignment = chromosome.getMachineAssignment();
+                switch (applied) {
+                    case 1: // 插入：工件连同其产线基因移到新位置
+                        opSeq.add(index2, opSeq.remove(index1));
+                        assignment.add(index2, assignment.remove(index1));
+                        break;
+                    case 2: // 逆序：反转一小段（连同产线基因）
+                        int from = Math.min(index1, index2);
+                        int to = Math.min(Math.max(index1, index2), from + 8);
+                        Collections.reverse(opSeq.subList(from, to + 1));
+                        Collections.reverse(assignment.subList(from, to + 1));
+                        break;
+                    default: // 交换 (Swap Mutation)
+                        Collections.swap(opSeq, index1, index2);
+                }
             }
         }
 
@@ -763,27 +1663,43 @@ public class GAScheduler {
             // 随机选择一个位置
             int index = random.nextInt(len);
 
-            // 随机分配一个不同的生产线
-            int newMachine;
-            do {
-                newMachine = random.nextInt(ScheduleData.NUM_LINES) + 1;
-            } while (newMachine == assignment.get(index));
-
+            // 随机分配一个不同的、可生产该工件产品的生产线
+            int newMachine = pickOtherEligibleLine(chromosome.getOperationSequence().get(index), assignment.get(index));
             assignment.set(index, newMachine);
         }
+        return applied;
+    }
+
+    /**
+     * 从可生产该工件产品的产线中随机挑选一条与当前不同的产线。
+     * 若只有一条可用产线，则返回它（当前产线不可用时也会被修复为可用产线）。
+     */
+    private int pickOtherEligibleLine(String opId, int currentLine) {
+        int[] eligible = data.getEligibleLines(productOfOp.get(opId));
+        if (eligible.length == 1) {
+            return eligible[0];
+        }
+        int currentIndex = Arrays.binarySearch(eligible, currentLine); // eligible 按产线ID升序
+        if (currentIndex < 0) {
+            return eligible[random.nextInt(eligible.length)];
+        }
+        // 在其余 eligible.length - 1 个候选中抽取，跳过当前产线，无需重试循环
+        int pick = random.nextInt(eligible.length - 1);
+        return eligible[pick < currentIndex ? pick : pick + 1];
     }
 
     // 定义一个内部类或单独的类来封装解码结果
     public static class ScheduleResult {
         public double totalCost;
         public double totalPenalty; // [新增] 总罚款
-        public List<Job> scheduledJobs;
+        public JobTable scheduledJobs; // 列式任务表，按 List<Job> 访问时才逐个创建 Job
         public Map<Integer, LocalDateTime> completionTimes; // [新增] 每个订单的完成时间
+        public List<LineState> finalLineStates; // [新增] 排程结束时各产线状态（仅完整解码时填充）
 
         public ScheduleResult(double cost, double penalty, List<Job> jobs, Map<Integer, LocalDateTime> completionTimes) {
             this.totalCost = cost;
             this.totalPenalty = penalty;
-            this.scheduledJobs = jobs;
+            this.scheduledJobs = jobs instanceof JobTable ? (JobTable) jobs : JobTable.fromJobs(jobs);
             this.completionTimes = completionTimes;
         }
     }
@@ -792,248 +1708,13 @@ public class GAScheduler {
      * 获取最佳解的详细排程信息（对外暴露的接口）
      */
     public ScheduleResult getDetailedSchedule(Chromosome bestSolution) {
-        return decode(bestSolution);
-    }
-
-    /**
-     * 统一的解码函数：既计算Cost，也生成Job列表
-     * 改进：增加尾数拼单优化（保持染色体结构一致性）
-     */
-    private ScheduleResult decode(Chromosome chromosome) {
-        List<Job> jobs = new ArrayList<>();
-        Map<Integer, AtomicInteger> orderProgress = new HashMap<>();
-        data.getOrders().forEach(o -> orderProgress.put(o.getId(), new AtomicInteger(0)));
-
-        // 如果订单列表为空，直接返回空结果
-        if (data.getOrders().isEmpty()) {
-            Map<Integer, LocalDateTime> emptyCompletionTimes = new HashMap<>();
-            return new ScheduleResult(0.0, 0.0, jobs, emptyCompletionTimes);
-        }
-
-        LocalDateTime planStartTime = data.getPlanStartTime();
-
-        // 初始化生产线状态
-        Map<Integer, LocalDateTime> lineFreeTime = new HashMap<>();
-        Map<Integer, LocalDateTime> linePaidUntil = new HashMap<>();
-        Map<Integer, Integer> lineCurrentProduct = new HashMap<>();
-
-        for (int l = 1; l <= ScheduleData.NUM_LINES; l++) {
-            lineFreeTime.put(l, planStartTime);
-            linePaidUntil.put(l, planStartTime);
-            lineCurrentProduct.put(l, -1);
-        }
-
-        Map<Integer, LocalDateTime> orderCompletionTime = new HashMap<>();
-        double totalProductionCost = 0.0;
-
-        List<String> opSequence = chromosome.getOperationSequence();
-        List<Integer> assignment = chromosome.getMachineAssignment();
-
-        // ========== 预处理阶段：识别尾数工件 ==========
-        Map<String, Boolean> isLastPieceOfOrder = new HashMap<>();
-        Map<Integer, Integer> orderPieceCount = new HashMap<>();
-        Map<Integer, Integer> orderTotalPieces = new HashMap<>();
-
-        for (Order order : data.getOrders()) {
-            orderTotalPieces.put(order.getId(), order.getQuantity());
-        }
-
-        // 标记每个工件是否是订单的最后一个
-        for (int i = 0; i < opSequence.size(); i++) {
-            String opId = opSequence.get(i);
-            int orderId = Integer.parseInt(opId.split("_")[0].substring(1));
-            int currentCount = orderPieceCount.getOrDefault(orderId, 0) + 1;
-            orderPieceCount.put(orderId, currentCount);
-            isLastPieceOfOrder.put(opId, currentCount == orderTotalPieces.get(orderId));
-        }
-
-        // 构建尾数工件索引列表（同一产品的尾数工件，且加工时间 < 4小时）
-        Map<Integer, List<Integer>> tailPieceIndicesByProduct = new HashMap<>(); // 产品ID -> 尾数工件索引列表
-        for (int i = 0; i < opSequence.size(); i++) {
-            String opId = opSequence.get(i);
-            if (isLastPieceOfOrder.getOrDefault(opId, false)) {
-                int orderId = Integer.parseInt(opId.split("_")[0].substring(1));
-                Order order = data.getOrders().stream()
-                        .filter(o -> o.getId() == orderId).findFirst().get();
-                int productId = order.getProductId();
-                Product product = data.getProducts().stream()
-                        .filter(p -> p.getId() == productId).findFirst().get();
-
-                if (product.getUnitProcessingTime() < 4.0) {
-                    tailPieceIndicesByProduct.computeIfAbsent(productId, k -> new ArrayList<>()).add(i);
-                }
-            }
-        }
-
-        // ========== 主调度循环 ==========
-        // 记录已合并的尾数工件索引（避免重复合并）
-        Set<Integer> mergedTailIndices = new HashSet<>();
-
-        for (int i = 0; i < opSequence.size(); i++) {
-            // 【修复核心】：如果当前工件已经被之前的工件合并处理了，直接跳过！
-            if (mergedTailIndices.contains(i)) {
-                continue;
-            }
-
-            String opId = opSequence.get(i);
-            int lineId = assignment.get(i);  // 使用染色体中指定的生产线
-
-            int orderId = Integer.parseInt(opId.split("_")[0].substring(1));
-            Order order = data.getOrders().stream()
-                    .filter(o -> o.getId() == orderId).findFirst().get();
-            int productId = order.getProductId();
-            Product product = data.getProducts().stream()
-                    .filter(p -> p.getId() == productId).findFirst().get();
-            double durationHours = product.getUnitProcessingTime();
-            long durationSeconds = (long)(durationHours * 3600);
-
-            LocalDateTime freeTime = lineFreeTime.get(lineId);
-            LocalDateTime paidUntil = linePaidUntil.get(lineId);
-            int currentProd = lineCurrentProduct.get(lineId);
-
-            LocalDateTime startTime, endTime;
-            double jobCost = 0.0;
-
-            // ========== 主动尾数拼单逻辑 ==========
-            boolean isTailPiece = isLastPieceOfOrder.getOrDefault(opId, false) &&
-                    durationHours < 4.0;
-
-            List<Integer> mergedIndices = new ArrayList<>(); // 记录合并的工件索引
-            mergedIndices.add(i);
-            double totalMergedHours = durationHours;
-
-            if (isTailPiece) {
-                // 尝试寻找其他可以合并的尾数工件（同一产品，且总时间 <= 4小时）
-                List<Integer> availableTailIndices = tailPieceIndicesByProduct.getOrDefault(productId, new ArrayList<>());
-
-                for (int otherIndex : availableTailIndices) {
-                    // 跳过自己和已经合并过的
-                    if (otherIndex == i || mergedTailIndices.contains(otherIndex)) {
-                        continue;
-                    }
-
-                    // 关键：检查另一个工件是否也在同一生产线（使用染色体中的分配）
-                    int otherLineId = assignment.get(otherIndex);
-
-                    // 如果另一个工件在同一生产线，可以合并
-                    if (otherLineId == lineId) {
-                        String otherOpId = opSequence.get(otherIndex);
-                        int otherOrderId = Integer.parseInt(otherOpId.split("_")[0].substring(1));
-                        Order otherOrder = data.getOrders().stream()
-                                .filter(o -> o.getId() == otherOrderId).findFirst().get();
-                        Product otherProduct = data.getProducts().stream()
-                                .filter(p -> p.getId() == otherOrder.getProductId()).findFirst().get();
-                        double otherDurationHours = otherProduct.getUnitProcessingTime();
-
-                        // 如果合并后总时间 <= 4小时，可以合并
-                        if (totalMergedHours + otherDurationHours <= 4.0) {
-                            mergedIndices.add(otherIndex);
-                            totalMergedHours += otherDurationHours;
-                            mergedTailIndices.add(otherIndex); // 标记该工件已被处理，后续循环会跳过它
-                        }
-                    }
-                }
-
-                // 如果成功合并了多个尾数工件，使用合并后的总时间
-                if (mergedIndices.size() > 1) {
-                    durationSeconds = (long)(totalMergedHours * 3600);
-                }
-            }
-
-            // --- 策略：拼单判断（原有逻辑）---
-            long remainingSeconds = java.time.Duration.between(freeTime, paidUntil).getSeconds();
-
-            if (currentProd == productId && remainingSeconds >= durationSeconds) {
-                // [拼单模式]：插入当前块，无需额外付费
-                startTime = freeTime;
-                endTime = startTime.plusSeconds(durationSeconds);
-                lineFreeTime.put(lineId, endTime);
-                jobCost = 0.0;
-            } else {
-                // [新块模式]：开启新的4小时工时块
-                LocalDateTime proposedStart = getNextGridTime(planStartTime, freeTime);
-                startTime = proposedStart;
-                endTime = startTime.plusSeconds(durationSeconds);
-
-                // 计算该 4小时块 的成本
-                double coeff = TimeCostUtil.getCostCoefficient(startTime);
-                double baseCost = TimeCostUtil.BASE_PAY_4_HOURS * coeff;
-                jobCost = baseCost;
-                totalProductionCost += baseCost;
-
-                // 更新状态
-                lineFreeTime.put(lineId, endTime);
-                linePaidUntil.put(lineId, startTime.plusHours(4));
-                lineCurrentProduct.put(lineId, productId);
-            }
-
-            // ========== 关键改进：为所有合并的工件创建Job ==========
-            // 每个工件都对应一个Job，保持染色体结构一致性
-            for (int mergedIndex : mergedIndices) {
-                String mergedOpId = opSequence.get(mergedIndex);
-                int mergedOrderId = Integer.parseInt(mergedOpId.split("_")[0].substring(1));
-                int mergedLineId = assignment.get(mergedIndex);  // 使用染色体中的分配
-
-                // 只有第一个工件承担成本，其他工件成本为0（因为是合并的）
-                double mergedJobCost = (mergedIndex == i) ? jobCost : 0.0;
-
-                Job job = new Job(mergedOpId, productId, mergedLineId, startTime, endTime,
-                        TimeCostUtil.getCostCoefficient(startTime), mergedJobCost);
-                jobs.add(job);
-
-                // 记录订单完成
-                if (orderProgress.get(mergedOrderId).incrementAndGet() ==
-                        data.getOrders().stream().filter(o -> o.getId() == mergedOrderId)
-                                .findFirst().get().getQuantity()) {
-                    orderCompletionTime.put(mergedOrderId, endTime);
-                }
-            }
-        }
-
-        // 计算罚款
-        double penalty = 0.0;
-        for (Order o : data.getOrders()) {
-            LocalDateTime finish = orderCompletionTime.get(o.getId());
-            LocalDateTime alignedDeadline = o.getAlignedDeadline(); // 使用对齐后的截止时间
-            if (finish != null && finish.isAfter(alignedDeadline)) {
-                penalty += o.getTotalValue() * ScheduleData.PENALTY_RATE;
-            }
-        }
-
-        // 计算总收入
-        double totalRevenue = data.getOrders().stream()
-                .mapToDouble(Order::getTotalValue)
-                .sum();
-
-        // 计算利润 = 总收入 - 生产成本 - 罚款
-        double profit = totalRevenue - totalProductionCost - penalty;
-
-        // 注意：适应度值越小越好，所以返回负利润作为"成本"
-        return new ScheduleResult(-profit, penalty, jobs, orderCompletionTime);
-    }
-
-    // 复用之前的 decodeAndCalculateCost，改为调用统一的 decode
-    private double decodeAndCalculateCost(Chromosome c) {
-        return decode(c).totalCost;
+        return decoder.decode(bestSolution);
     }
 
-    /**
-     * 辅助：找到基于 start 基准的下一个 4小时网格时间
-     * 规则：如果 current 已经在网格线上，且之前的块已满或不可用，则返回 current；
-     * 否则返回 current 之后的下一个网格线。
-     * 简单实现：向上取整到 4小时倍数。
-     */
-    private LocalDateTime getNextGridTime(LocalDateTime base, LocalDateTime current) {
-        long secondsFromBase = java.time.Duration.between(base, current).getSeconds();
-        long blockSeconds = 4 * 3600;
-
-        long blocksPassed = secondsFromBase / blockSeconds;
-        long remainder = secondsFromBase % blockSeconds;
-
-        if (remainder == 0) {
-            return current; // 正好在开始点
-        } else {
-            return base.plusSeconds((blocksPassed + 1) * blockSeconds);
-        }
+    // 复用之前的 decodeAndCalculateCost，改为调用统一的解码器（只算成本，不生成 Job）
+    double decodeAndCalculateCost(Chromosome c) {
+        evaluations++;
+        evaluationsTotal.inc();
+        return decoder.evaluate(c);
     }
 }
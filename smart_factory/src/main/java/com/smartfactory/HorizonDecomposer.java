@@ -0,0 +1,217 @@
+package com.smartfactory;
+
+import com.smartfactory.util.MetricsRegistry;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 多日排程的按天窗口分解求解器。
+ * 策略：
+ * 1. 按订单对齐后的截止时间把订单（及其全部工件）划分到若干天窗口中；
+ * 2. 逐个窗口用 GA 求解（顺序模式下把上一窗口结束时的产线状态——空闲时间、已付费时段、当前产品——
+ *    传入下一窗口；并行模式下各窗口独立求解后拼接）；
+ * 3. 边界精修：依次对相邻两个窗口合并后再做一次短 GA（以当前拼接解为种子），整体更优才接受。
+ * 最终染色体是各窗口染色体按时间顺序的拼接，可直接用统一解码器解码。
+ */
+public class HorizonDecomposer {
+    private ScheduleData data;
+    private int populationSize;
+    private double crossoverRate;
+    private double mutationRate;
+    private int maxGenerations;
+    private int windowDays;       // 每个窗口覆盖的天数
+    private boolean parallel;     // 是否并行求解各窗口
+    private int refinementGenerations;
+    private ScheduleDecoder decoder;
+    private MetricsRegistry metrics = new MetricsRegistry(); // 各子问题 GA 共用，计数器跨子问题累加
+
+    public HorizonDecomposer(ScheduleData data, int popSize, double crossRate, double mutRate, int maxGen,
+                             int windowDays, boolean parallel) {
+        if (windowDays < 1) {
+            throw new IllegalArgumentException("窗口天数必须 >= 1: " + windowDays);
+        }
+        this.data = data;
+        this.populationSize = popSize;
+        this.crossoverRate = crossRate;
+        this.mutationRate = mutRate;
+        this.maxGenerations = maxGen;
+        this.windowDays = windowDays;
+        this.parallel = parallel;
+        this.refinementGenerations = Math.max(1, maxGen / 4);
+        this.decoder = new ScheduleDecoder(data);
+    }
+
+    public void setMetricsRegistry(MetricsRegistry registry) {
+        this.metrics = registry;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 分解求解主入口：返回覆盖全部工件的染色体（已计算适应度）
+     */
+    public Chromosome run() {
+        List<List<Order>> windows = partitionByDeadline();
+        if (windows.isEmpty()) {
+            return new Chromosome(new ArrayList<>(), new ArrayList<>());
+        }
+
+        List<Chromosome> segments = parallel && windows.size() > 1
+                ? solveParallel(windows)
+                : solveSequential(windows);
+
+        Chromosome best = Chromosome.concat(segments);
+        best.setFitness(decoder.evaluate(best));
+        System.out.printf("窗口分解求解完成: %d 个窗口, 拼接解利润 %.2f%n", windows.size(), -best.getFitness());
+
+        if (windows.size() > 1) {
+            best = refineBoundaries(windows, segments, best);
+        }
+        return best;
+    }
+
+    /**
+     * 获取解的详细排程信息（基于完整问题解码）
+     */
+    public GAScheduler.ScheduleResult getDetailedSchedule(Chromosome solution) {
+        return decoder.decode(solution);
+    }
+
+    /**
+     * 按对齐后的截止时间划分窗口：窗口 k 覆盖 [基准 + k*windowDays 天, 基准 + (k+1)*windowDays 天)，
+     * 已过期的订单归入第一个窗口。空窗口被省略，结果按时间顺序排列（窗口内按截止时间排序）。
+     * 借助 OrderBookIndex 按截止时间范围逐窗口切片，而不是对全部订单逐个分组。
+     */
+    List<List<Order>> partitionByDeadline() {
+        List<List<Order>> windows = new ArrayList<>();
+        OrderBookIndex index = new OrderBookIndex(data.getOrders());
+        if (index.size() == 0) {
+            return windows;
+        }
+        LocalDateTime latest = index.getLatestDeadline();
+        LocalDateTime windowEnd = data.getPlanStartTime().plusDays(windowDays);
+        List<Order> first = index.dueBefore(windowEnd);
+        if (!first.isEmpty()) windows.add(first);
+        while (!windowEnd.isAfter(latest)) {
+            LocalDateTime windowStart = windowEnd;
+            windowEnd = windowStart.plusDays(windowDays);
+            List<Order> window = index.dueBetween(windowStart, windowEnd.minusMinutes(1));
+            if (!window.isEmpty()) windows.add(window);
+        }
+        return windows;
+    }
+
+    // 顺序求解：每个窗口从上一个窗口结束时的产线状态开始
+    private List<Chromosome> solveSequential(List<List<Order>> windows) {
+        List<Chromosome> segments = new ArrayList<>(windows.size());
+        ScheduleData window = data.withOrders(windows.get(0));
+        for (int k = 0; k < windows.size(); k++) {
+            if (k > 0) {
+                GAScheduler.ScheduleResult previous = new ScheduleDecoder(window).decode(segments.get(k - 1));
+                window = data.withOrders(windows.get(k)).withInitialLineStates(previous.finalLineStates);
+            }
+            segments.add(solveWindow(window, k));
+        }
+        return segments;
+    }
+
+    // 并行求解：各窗口独立地从初始产线状态开始求解，拼接后的冲突交给边界精修处理
+    private List<Chromosome> solveParallel(List<List<Order>> windows) {
+        int threads = Math.min(windows.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Chromosome>> futures = new ArrayList<>(windows.size());
+            for (int k = 0; k < windows.size(); k++) {
+                final int index = k;
+                final ScheduleData window = data.withOrders(windows.get(k));
+                futures.add(executor.submit(() -> solveWindow(window, index)));
+            }
+            List<Chromosome> segments = new ArrayList<>(windows.size());
+            for (Future<Chromosome> f : futures) {
+                segments.add(f.get());
+            }
+            return segments;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("窗口求解被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("窗口求解失败", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Chromosome solveWindow(ScheduleData window, int index) {
+        System.out.printf("求解窗口 %d: %d 个订单%n", index, window.getOrders().size());
+        GAScheduler scheduler = new GAScheduler(window, populationSize, crossoverRate, mutationRate, maxGenerations);
+        scheduler.setMetricsRegistry(metrics);
+        scheduler.setPathRelinkingThreads(1); // 各窗口已占满线程池，路径重连不再另开线程
+        return scheduler.run();
+    }
+
+    /**
+     * 边界精修：对每对相邻窗口 (k, k+1) 合并求解，以当前两段拼接为种子；
+     * 结果按窗口归属稳定拆回两段，整体解码更优时才接受。
+     */
+    private Chromosome refineBoundaries(List<List<Order>> windows, List<Chromosome> segments, Chromosome best) {
+        ScheduleData before = data.withOrders(windows.get(0)); // 窗口 k 开始时的产线状态载体
+        for (int k = 0; k + 1 < windows.size(); k++) {
+            List<Order> pairOrders = new ArrayList<>(windows.get(k));
+            pairOrders.addAll(windows.get(k + 1));
+            ScheduleData pair = before.withOrders(pairOrders);
+
+            List<Chromosome> seed = new ArrayList<>();
+            seed.add(Chromosome.concat(segments.subList(k, k + 2)));
+            GAScheduler scheduler = new GAScheduler(pair, populationSize, crossoverRate, mutationRate, refinementGenerations);
+            scheduler.setMetricsRegistry(metrics);
+            scheduler.setSeedSolutions(seed);
+            Chromosome refined = scheduler.run();
+
+            Set<String> firstOps = new HashSet<>(segments.get(k).getOperationSequence());
+            Chromosome[] split = splitByMembership(refined, firstOps);
+            List<Chromosome> candidate = new ArrayList<>(segments);
+            candidate.set(k, split[0]);
+            candidate.set(k + 1, split[1]);
+            Chromosome merged = Chromosome.concat(candidate);
+            merged.setFitness(decoder.evaluate(merged));
+            if (merged.getFitness() < best.getFitness()) {
+                System.out.printf("边界精修 %d/%d: 利润 %.2f -> %.2f%n", k, k + 1, -best.getFitness(), -merged.getFitness());
+                best = merged;
+                segments = candidate;
+            }
+
+            // 推进到窗口 k+1 开始时的产线状态
+            GAScheduler.ScheduleResult windowResult = new ScheduleDecoder(before.withOrders(windows.get(k))).decode(segments.get(k));
+            before = data.withOrders(windows.get(k + 1)).withInitialLineStates(windowResult.finalLineStates);
+        }
+        return best;
+    }
+
+    // 按工件归属把染色体稳定地拆成两段（保持各自的相对顺序与机器分配）
+    private static Chromosome[] splitByMembership(Chromosome c, Set<String> firstOps) {
+        List<String> os1 = new ArrayList<>(), os2 = new ArrayList<>();
+        List<Integer> ma1 = new ArrayList<>(), ma2 = new ArrayList<>();
+        for (int i = 0; i < c.getOperationSequence().size(); i++) {
+            String op = c.getOperationSequence().get(i);
+            Integer m = c.getMachineAssignment().get(i);
+            if (firstOps.contains(op)) {
+                os1.add(op);
+                ma1.add(m);
+            } else {
+                os2.add(op);
+                ma2.add(m);
+            }
+        }
+        return new Chromosome[]{new Chromosome(os1, ma1), new Chromosome(os2, ma2)};
+    }
+}
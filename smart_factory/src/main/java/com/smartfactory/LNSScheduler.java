@@ -0,0 +1,542 @@
+package com.smartfactory;
+
+import com.smartfactory.util.JobTable;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 自适应大邻域搜索（ALNS）调度器：与 GAScheduler 并列的另一种求解器，面向拼单多、规模大的订单簿。
+ *
+ * 每次迭代先用一个破坏算子移走一组相关工件（同一产品的相邻工件 / 同一时间窗内的工件 / 延误订单的工件 / 随机工件），
+ * 再用修复算子（贪心插入或后悔值插入）把它们逐个插回。插入代价直接由解码器对部分解求得，
+ * 因此遵守 4 小时工时块、拼单与尾数合并规则；候选位置取同产品工件之后（可并入已付费的工时块）
+ * 以及按截止时间排序时应在的位置。
+ * 新解按模拟退火准则接受；破坏与修复算子按权重轮盘赌选择，权重每 SEGMENT_LENGTH 次迭代按得分自适应调整。
+ */
+public class LNSScheduler {
+    /**
+     * 破坏算子
+     */
+    public enum Destroy { PRODUCT, TIME_WINDOW, LATE_ORDERS, RANDOM }
+
+    /**
+     * 修复算子
+     */
+    public enum Repair { GREEDY, REGRET }
+
+    private static final int SEGMENT_LENGTH = 100;        // 权重调整周期（迭代数）
+    private static final double REACTION = 0.2;           // 权重反应系数
+    private static final double MIN_WEIGHT = 0.05;
+    private static final double SCORE_NEW_BEST = 33;      // 得到新的全局最优
+    private static final double SCORE_IMPROVED = 9;       // 优于当前解
+    private static final double SCORE_ACCEPTED = 13;      // 劣于当前解但被接受（促进多样性）
+    private static final int MAX_REMOVE = 20;             // 单次最多移走的工件数
+    private static final int ANCHOR_CANDIDATES = 3;       // 每个工件尝试的同产品锚点数
+    private static final double INITIAL_ACCEPT_GAP = 0.005; // 初温：劣 0.5% 的解以 50% 概率被接受
+    private static final double FINAL_TEMPERATURE_RATIO = 0.01;
+
+    private final ScheduleData data;
+    private final ScheduleDecoder decoder;
+    private final Map<String, Integer> productOfOp;
+    private final Map<String, Long> deadlineOfOp = new HashMap<>(); // 工件 -> 对齐截止时间（epoch 秒）
+    private final List<String> allOperations = new ArrayList<>();
+    private int maxIterations;
+    private Random random = new Random();
+    private Chromosome initialSolution;
+
+    private long timeLimitNanos = 0;
+    private long deadlineNanos = 0;
+    private volatile boolean cancelled = false;
+    private long evaluations = 0;
+    private int iterationsRun = 0;
+    private long progressLogMillis = 5000;
+    private final List<double[]> bestHistory = new ArrayList<>(); // {距运行开始的秒数, 最优适应度}
+    private final double[] destroyWeights = new double[Destroy.values().length];
+    private final double[] repairWeights = new double[Repair.values().length];
+
+    public LNSScheduler(ScheduleData data, int maxIterations) {
+        this(new CompiledInstance(data), maxIterations);
+    }
+
+    /**
+     * 使用预编译的问题实例（可与其他调度器共享）
+     */
+    public LNSScheduler(CompiledInstance instance, int maxIterations) {
+        this.data = instance.data;
+        this.decoder = instance.decoder;
+        this.productOfOp = instance.productOfOp;
+        this.maxIterations = maxIterations;
+        for (Order order : data.getOrders()) {
+            long deadline = order.getAlignedDeadline().toEpochSecond(ZoneOffset.UTC);
+            for (int i = 1; i <= order.getQuantity(); i++) {
+                String opId = "O" + order.getId() + "_" + i;
+                allOperations.add(opId);
+                deadlineOfOp.put(opId, deadline);
+            }
+        }
+    }
+
+    public void setRandomSeed(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * 设置运行时间上限（毫秒），0 表示不限时
+     */
+    public void setTimeLimit(long millis) {
+        this.timeLimitNanos = millis * 1_000_000L;
+    }
+
+    /**
+     * 从给定解（例如 GA 的结果）开始搜索；不设置时由构造启发式生成初始解。
+     * 初始解必须覆盖与本问题完全相同的工件集合。
+     */
+    public void setInitialSolution(Chromosome solution) {
+        this.initialSolution = solution;
+    }
+
+    /**
+     * 进度日志间隔（毫秒），0 表示不输出进度与完成汇总
+     */
+    public void setProgressLogInterval(long millis) {
+        this.progressLogMillis = millis;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getEvaluationCount() {
+        return evaluations;
+    }
+
+    public int getIterationsRun() {
+        return iterationsRun;
+    }
+
+    /**
+     * 最优适应度的改进轨迹（每个点为 {距运行开始的秒数, 最优适应度}）
+     */
+    public List<double[]> getBestHistory() {
+        return bestHistory;
+    }
+
+    public double getDestroyWeight(Destroy op) {
+        return destroyWeights[op.ordinal()];
+    }
+
+    public double getRepairWeight(Repair op) {
+        return repairWeights[op.ordinal()];
+    }
+
+    public GAScheduler.ScheduleResult getDetailedSchedule(Chromosome bestSolution) {
+        return decoder.decode(bestSolution);
+    }
+
+    /**
+     * ALNS 主循环，返回找到的最优解
+     */
+    public Chromosome run() {
+        long runStart = System.nanoTime();
+        long evaluationsAtStart = evaluations;
+        deadlineNanos = timeLimitNanos > 0 ? runStart + timeLimitNanos : 0;
+        iterationsRun = 0;
+        bestHistory.clear();
+        Arrays.fill(destroyWeights, 1.0);
+        Arrays.fill(repairWeights, 1.0);
+
+        if (allOperations.isEmpty()) {
+            return new Chromosome(new ArrayList<>(), new ArrayList<>());
+        }
+
+        Chromosome current = initialSolution != null ? copy(initialSolution) : construct();
+        current.setFitness(evaluate(current));
+        Chromosome best = copy(current);
+        bestHistory.add(new double[]{(System.nanoTime() - runStart) / 1e9, best.getFitness()});
+        double startTemperature = Math.max(1.0, INITIAL_ACCEPT_GAP * Math.abs(current.getFitness()) / Math.log(2));
+
+        double[] destroyScores = new double[destroyWeights.length];
+        int[] destroyUses = new int[destroyWeights.length];
+        double[] repairScores = new double[repairWeights.length];
+        int[] repairUses = new int[repairWeights.length];
+        long lastLog = runStart;
+
+        while (iterationsRun < maxIterations && !shouldStop()) {
+            int d = roulette(destroyWeights);
+            int r = roulette(repairWeights);
+            Chromosome candidate = copy(current);
+            List<String> removed = destroy(Destroy.values()[d], candidate, removalSize());
+            double cost = Repair.values()[r] == Repair.GREEDY
+                    ? greedyInsert(candidate, removed) : regretInsert(candidate, removed);
+            candidate.setFitness(cost);
+
+            double temperature = startTemperature * Math.pow(FINAL_TEMPERATURE_RATIO, progress(runStart));
+            double score = 0;
+            if (cost < best.getFitness()) {
+                best = copy(candidate);
+                current = candidate;
+                score = SCORE_NEW_BEST;
+                bestHistory.add(new double[]{(System.nanoTime() - runStart) / 1e9, cost});
+            } else if (cost < current.getFitness()) {
+                current = candidate;
+                score = SCORE_IMPROVED;
+            } else if (random.nextDouble() < Math.exp(-(cost - current.getFitness()) / temperature)) {
+                if (cost > current.getFitness()) {
+                    score = SCORE_ACCEPTED;
+                }
+                current = candidate;
+            }
+            destroyScores[d] += score;
+            destroyUses[d]++;
+            repairScores[r] += score;
+            repairUses[r]++;
+
+            iterationsRun++;
+            if (iterationsRun % SEGMENT_LENGTH == 0) {
+                updateWeights(destroyWeights, destroyScores, destroyUses);
+                updateWeights(repairWeights, repairScores, repairUses);
+            }
+            if (progressLogMillis > 0 && System.nanoTime() - lastLog >= progressLogMillis * 1_000_000L) {
+                lastLog = System.nanoTime();
+                System.out.printf("LNS 迭代 %d: 最优利润 %.2f, 当前利润 %.2f, 温度 %.1f%n",
+                        iterationsRun, -best.getFitness(), -current.getFitness(), temperature);
+            }
+        }
+
+        if (progressLogMillis > 0) {
+            double seconds = (System.nanoTime() - runStart) / 1e9;
+            System.out.printf("LNS 完成: %d 次迭代, 最优利润 %.2f, 评估 %d 次, 用时 %.1fs%n",
+                    iterationsRun, -best.getFitness(), evaluations - evaluationsAtStart, seconds);
+            StringBuilder sb = new StringBuilder("LNS 算子权重:");
+            for (Destroy op : Destroy.values()) sb.append(String.format(" %s=%.2f", op, getDestroyWeight(op)));
+            for (Repair op : Repair.values()) sb.append(String.format(" %s=%.2f", op, getRepairWeight(op)));
+            System.out.println(sb);
+        }
+        return best;
+    }
+
+    private boolean shouldStop() {
+        return cancelled || (deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    // 搜索进度 [0, 1]：迭代数与时间两者中先到者，用于退火温度
+    private double progress(long runStart) {
+        double p = maxIterations == Integer.MAX_VALUE ? 0.0 : (double) iterationsRun / maxIterations;
+        if (timeLimitNanos > 0) {
+            p = Math.max(p, (double) (System.nanoTime() - runStart) / timeLimitNanos);
+        }
+        return Math.min(1.0, p);
+    }
+
+    private int removalSize() {
+        int max = Math.max(1, Math.min(MAX_REMOVE, allOperations.size() / 5));
+        int min = Math.min(max, 4);
+        return min + random.nextInt(max - min + 1);
+    }
+
+    private int roulette(double[] weights) {
+        double total = 0;
+        for (double w : weights) total += w;
+        double x = random.nextDouble() * total;
+        for (int i = 0; i < weights.length - 1; i++) {
+            x -= weights[i];
+            if (x < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    private static void updateWeights(double[] weights, double[] scores, int[] uses) {
+        for (int i = 0; i < weights.length; i++) {
+            if (uses[i] > 0) {
+                weights[i] = Math.max(MIN_WEIGHT, (1 - REACTION) * weights[i] + REACTION * scores[i] / uses[i]);
+            }
+            scores[i] = 0;
+            uses[i] = 0;
+        }
+    }
+
+    // ---------- 初始解 ----------
+
+    /**
+     * 构造启发式：按截止时间排序与按产品（再按截止时间）排序两种工件序列，取较优者
+     */
+    Chromosome construct() {
+        Comparator<String> byDeadline = Comparator.comparingLong(deadlineOfOp::get);
+        List<String> byDue = new ArrayList<>(allOperations);
+        byDue.sort(byDeadline);
+        List<String> byProduct = new ArrayList<>(allOperations);
+        byProduct.sort(Comparator.<String>comparingInt(productOfOp::get).thenComparing(byDeadline));
+        Chromosome a = listSchedule(byDue);
+        Chromosome b = listSchedule(byProduct);
+        return a.getFitness() <= b.getFitness() ? a : b;
+    }
+
+    // 基因先全部置 0，由解码器把每个工件排到最早空闲的可用产线；再把实际产线写回基因，使同产线的尾数工件可以拼单
+    private Chromosome listSchedule(List<String> sequence) {
+        List<Integer> genes = new ArrayList<>(Collections.nCopies(sequence.size(), 0));
+        Chromosome c = new Chromosome(sequence, genes);
+        JobTable jobs = decodeFull(c).scheduledJobs;
+        Map<String, Integer> lineOf = new HashMap<>(jobs.size() * 2);
+        for (int row = 0; row < jobs.size(); row++) {
+            lineOf.put(jobs.getOperationId(row), jobs.getLineId(row));
+        }
+        for (int i = 0; i < sequence.size(); i++) {
+            genes.set(i, lineOf.get(sequence.get(i)));
+        }
+        c.setFitness(evaluate(c));
+        return c;
+    }
+
+    // ---------- 破坏算子 ----------
+
+    /**
+     * 从 c 中移走约 count 个相关工件，返回被移走的工件ID
+     */
+    List<String> destroy(Destroy op, Chromosome c, int count) {
+        List<String> seq = c.getOperationSequence();
+        Set<String> selected = new HashSet<>();
+        switch (op) {
+            case PRODUCT: {
+                // 同一产品在序列中相邻的一段工件（同产品、开工时间接近）
+                int product = productOfOp.get(seq.get(random.nextInt(seq.size())));
+                List<String> ofProduct = new ArrayList<>();
+                for (String opId : seq) {
+                    if (productOfOp.get(opId) == product) ofProduct.add(opId);
+                }
+                int from = random.nextInt(Math.max(1, ofProduct.size() - count + 1));
+                selected.addAll(ofProduct.subList(from, Math.min(ofProduct.size(), from + count)));
+                break;
+            }
+            case TIME_WINDOW: {
+                // 以随机任务的开工时间为起点、两个工时块长度内开工的全部产线上的工件
+                JobTable jobs = decodeFull(c).scheduledJobs;
+                long from = jobs.getStartEpochSecond(random.nextInt(jobs.size()));
+                List<String> inWindow = new ArrayList<>();
+                for (int row = 0; row < jobs.size(); row++) {
+                    long start = jobs.getStartEpochSecond(row);
+                    if (start >= from && start < from + 2 * ScheduleDecoder.BLOCK_SECONDS) {
+                        inWindow.add(jobs.getOperationId(row));
+                    }
+                }
+                Collections.shuffle(inWindow, random);
+                selected.addAll(inWindow.subList(0, Math.min(count, inWindow.size())));
+                break;
+            }
+            case LATE_ORDERS: {
+                GAScheduler.ScheduleResult result = decodeFull(c);
+                List<Order> late = new ArrayList<>();
+                for (Order o : data.getOrders()) {
+                    LocalDateTime finish = result.completionTimes.get(o.getId());
+                    if (finish != null && finish.isAfter(o.getAlignedDeadline())) late.add(o);
+                }
+                if (late.isEmpty()) {
+                    return destroy(Destroy.RANDOM, c, count);
+                }
+                Collections.shuffle(late, random);
+                for (Order o : late) {
+                    for (int i = 1; i <= o.getQuantity() && selected.size() < count; i++) {
+                        selected.add("O" + o.getId() + "_" + i);
+                    }
+                    if (selected.size() >= count) break;
+                }
+                break;
+            }
+            default: {
+                while (selected.size() < Math.min(count, seq.size())) {
+                    selected.add(seq.get(random.nextInt(seq.size())));
+                }
+            }
+        }
+        return remove(c, selected);
+    }
+
+    // 从序列中删除选中的工件（保持其余工件的相对顺序）
+    private static List<String> remove(Chromosome c, Set<String> selected) {
+        List<String> seq = c.getOperationSequence();
+        List<Integer> genes = c.getMachineAssignment();
+        List<String> removed = new ArrayList<>(selected.size());
+        List<String> keptSeq = new ArrayList<>(seq.size());
+        List<Integer> keptGenes = new ArrayList<>(seq.size());
+        for (int i = 0; i < seq.size(); i++) {
+            if (selected.contains(seq.get(i))) {
+                removed.add(seq.get(i));
+            } else {
+                keptSeq.add(seq.get(i));
+                keptGenes.add(genes.get(i));
+            }
+        }
+        seq.clear();
+        seq.addAll(keptSeq);
+        genes.clear();
+        genes.addAll(keptGenes);
+        return removed;
+    }
+
+    // ---------- 修复算子 ----------
+
+    /**
+     * 贪心插入：按截止时间或随机顺序逐个插到代价最小的候选位置，返回插入全部工件后的适应度
+     */
+    double greedyInsert(Chromosome c, List<String> removed) {
+        List<String> order = new ArrayList<>(removed);
+        if (random.nextBoolean()) {
+            order.sort(Comparator.comparingLong(deadlineOfOp::get));
+        } else {
+            Collections.shuffle(order, random);
+        }
+        double cost = order.isEmpty() ? evaluate(c) : Double.NaN;
+        for (String opId : order) {
+            cost = insertBest(c, opId)[0];
+        }
+        return cost;
+    }
+
+    /**
+     * 后悔值插入：先在部分解上计算每个工件最优与次优插入代价之差，
+     * 后悔值大的（错过最优位置代价高的）工件先插。为控制解码次数，后悔值只在插入前计算一次。
+     */
+    double regretInsert(Chromosome c, List<String> removed) {
+        if (removed.isEmpty()) {
+            return evaluate(c);
+        }
+        Map<String, Double> regret = new HashMap<>();
+        for (String opId : removed) {
+            double[] costs = evaluateCandidates(c, opId, null);
+            regret.put(opId, costs[1] - costs[0]);
+        }
+        List<String> order = new ArrayList<>(removed);
+        order.sort((a, b) -> Double.compare(regret.get(b), regret.get(a)));
+        double cost = Double.NaN;
+        for (String opId : order) {
+            cost = insertBest(c, opId)[0];
+        }
+        return cost;
+    }
+
+    // 把工件插到代价最小的候选位置，返回 {插入后的适应度}
+    private double[] insertBest(Chromosome c, String opId) {
+        int[] best = new int[2];
+        double[] costs = evaluateCandidates(c, opId, best);
+        c.getOperationSequence().add(best[0], opId);
+        c.getMachineAssignment().add(best[0], best[1]);
+        return costs;
+    }
+
+    /**
+     * 逐个试插候选位置并解码部分解，返回 {最小代价, 次小代价}；bestOut 非空时写入最优的 {位置, 产线}
+     */
+    private double[] evaluateCandidates(Chromosome c, String opId, int[] bestOut) {
+        List<String> seq = c.getOperationSequence();
+        List<Integer> genes = c.getMachineAssignment();
+        double best = Double.POSITIVE_INFINITY;
+        double second = Double.POSITIVE_INFINITY;
+        for (int[] cand : candidates(c, opId)) {
+            seq.add(cand[0], opId);
+            genes.add(cand[0], cand[1]);
+            double cost = evaluate(c);
+            seq.remove(cand[0]);
+            genes.remove(cand[0]);
+            if (cost < best) {
+                second = best;
+                best = cost;
+                if (bestOut != null) {
+                    bestOut[0] = cand[0];
+                    bestOut[1] = cand[1];
+                }
+            } else if (cost < second) {
+                second = cost;
+            }
+        }
+        return new double[]{best, second == Double.POSITIVE_INFINITY ? best : second};
+    }
+
+    /**
+     * 候选插入点 {位置, 产线}：
+     * 1. 随机几个同产品工件之后、同一产线（可并入其工时块或与其尾数拼单）；
+     * 2. 按截止时间排序应在的位置，产线取其前最近的同产品工件所在产线，以及一条随机可用产线。
+     */
+    List<int[]> candidates(Chromosome c, String opId) {
+        List<String> seq = c.getOperationSequence();
+        List<Integer> genes = c.getMachineAssignment();
+        int product = productOfOp.get(opId);
+        long deadline = deadlineOfOp.get(opId);
+        int[] eligible = data.getEligibleLines(product);
+
+        List<Integer> anchors = new ArrayList<>();
+        int duePosition = seq.size();
+        int lastAnchorBeforeDue = -1;
+        for (int k = 0; k < seq.size(); k++) {
+            String other = seq.get(k);
+            if (duePosition == seq.size() && deadlineOfOp.get(other) > deadline) {
+                duePosition = k;
+            }
+            if (productOfOp.get(other) == product && isEligible(eligible, genes.get(k))) {
+                anchors.add(k);
+                if (duePosition == seq.size()) lastAnchorBeforeDue = k;
+            }
+        }
+
+        Set<Long> seen = new HashSet<>();
+        List<int[]> result = new ArrayList<>();
+        for (int i = 0; i < ANCHOR_CANDIDATES && !anchors.isEmpty(); i++) {
+            int a = anchors.get(random.nextInt(anchors.size()));
+            addCandidate(result, seen, a + 1, genes.get(a));
+        }
+        if (lastAnchorBeforeDue >= 0) {
+            addCandidate(result, seen, lastAnchorBeforeDue + 1, genes.get(lastAnchorBeforeDue));
+            addCandidate(result, seen, duePosition, genes.get(lastAnchorBeforeDue));
+        }
+        addCandidate(result, seen, duePosition, eligible[random.nextInt(eligible.length)]);
+        return result;
+    }
+
+    private static void addCandidate(List<int[]> result, Set<Long> seen, int position, int line) {
+        if (seen.add(((long) position << 16) | line)) {
+            result.add(new int[]{position, line});
+        }
+    }
+
+    private static boolean isEligible(int[] eligible, int line) {
+        for (int l : eligible) {
+            if (l == line) return true;
+        }
+        return false;
+    }
+
+    // ---------- 辅助 ----------
+
+    private static Chromosome copy(Chromosome c) {
+        Chromosome copy = new Chromosome(new ArrayList<>(c.getOperationSequence()), new ArrayList<>(c.getMachineAssignment()));
+        copy.setFitness(c.getFitness());
+        return copy;
+    }
+
+    private double evaluate(Chromosome c) {
+        evaluations++;
+        return decoder.evaluate(c);
+    }
+
+    private GAScheduler.ScheduleResult decodeFull(Chromosome c) {
+        evaluations++;
+        return decoder.decode(c);
+    }
+}
@@ -0,0 +1,117 @@
+package com.smartfactory;
+
+/**
+ * 生产线空闲时间的索引最小堆：按"最早空闲时间"排序，支持 O(log L) 更新某条产线的键值。
+ * 解码器在染色体指定了不可用的产线时，用它快速找到最早空闲的可用产线。
+ * 产线以 0 开始的下标表示（下标 = 生产线ID - 1）。
+ */
+class LineAvailabilityHeap {
+    private final long[] key;   // 下标 -> 空闲时间（秒偏移）
+    private final int[] heap;   // 堆数组，存放产线下标
+    private final int[] pos;    // 产线下标 -> 在堆中的位置
+    private final int size;
+    private int[] searchStack;  // findEarliest 的遍历栈（复用，避免分配）
+
+    LineAvailabilityHeap(int numLines) {
+        this.size = numLines;
+        this.key = new long[numLines];
+        this.heap = new int[numLines];
+        this.pos = new int[numLines];
+        this.searchStack = new int[Math.max(1, numLines)];
+        reset(0L);
+    }
+
+    /**
+     * 所有产线重置为同一空闲时间
+     */
+    void reset(long freeAt) {
+        for (int i = 0; i < size; i++) {
+            key[i] = freeAt;
+            heap[i] = i;
+            pos[i] = i;
+        }
+    }
+
+    /**
+     * 更新某条产线的空闲时间并恢复堆序
+     */
+    void update(int line, long freeAt) {
+        long old = key[line];
+        key[line] = freeAt;
+        if (freeAt < old) {
+            siftUp(pos[line]);
+        } else if (freeAt > old) {
+            siftDown(pos[line]);
+        }
+    }
+
+    /**
+     * 全局最早空闲的产线下标
+     */
+    int peek() {
+        return heap[0];
+    }
+
+    /**
+     * 在 eligible 掩码允许的产线中找到最早空闲的一条（同时空闲时取下标最小者）。
+     * 按堆序做剪枝的最优优先遍历：只会访问键值不大于答案的节点，
+     * 可用产线多时接近 O(1)，不会退化为每次扫描所有产线。
+     */
+    int findEarliest(boolean[] eligible) {
+        int best = -1;
+        int top = 0;
+        searchStack[top++] = 0;
+        while (top > 0) {
+            int p = searchStack[--top];
+            int line = heap[p];
+            if (best >= 0 && !better(line, best)) {
+                continue; // 子树中的键值只会更大，整棵子树剪掉
+            }
+            if (eligible[line]) {
+                best = line;
+                continue;
+            }
+            int l = 2 * p + 1;
+            if (l < size) searchStack[top++] = l;
+            if (l + 1 < size) searchStack[top++] = l + 1;
+        }
+        return best;
+    }
+
+    long keyOf(int line) {
+        return key[line];
+    }
+
+    private boolean better(int a, int b) {
+        return key[a] < key[b] || (key[a] == key[b] && a < b);
+    }
+
+    private void siftUp(int p) {
+        int line = heap[p];
+        while (p > 0) {
+            int parent = (p - 1) >>> 1;
+            if (!better(line, heap[parent])) break;
+            place(heap[parent], p);
+            p = parent;
+        }
+        place(line, p);
+    }
+
+    private void siftDown(int p) {
+        int line = heap[p];
+        while (true) {
+            int c = 2 * p + 1;
+            if (c >= size) break;
+            if (c + 1 < size && better(heap[c + 1], heap[c])) c++;
+            if (!better(heap[c], line)) break;
+            place(heap[c], p);
+            p = c;
+        }
+        place(line, p);
+    }
+
+    private void place(int line, int p) {
+        heap[p] = line;
+        pos[line] = p;
+    }
+}
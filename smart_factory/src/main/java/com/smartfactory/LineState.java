@@ -0,0 +1,33 @@
+package com.smartfactory;
+
+import java.time.LocalDateTime;
+
+/**
+ * 生产线在某一时刻的状态：何时空闲、当前工时块已付费到何时、当前块正在生产的产品。
+ * 用于跨排程窗口传递产线状态（上一个窗口结束时的状态 = 下一个窗口开始时的状态）。
+ */
+public class LineState {
+    public static final int NO_PRODUCT = -1;
+
+    private final LocalDateTime freeAt;      // 实际占用结束时间
+    private final LocalDateTime paidUntil;   // 当前4小时块的结束点
+    private final int currentProductId;      // 当前块的产品ID，NO_PRODUCT 表示无
+
+    public LineState(LocalDateTime freeAt, LocalDateTime paidUntil, int currentProductId) {
+        this.freeAt = freeAt;
+        this.paidUntil = paidUntil;
+        this.currentProductId = currentProductId;
+    }
+
+    /**
+     * 在 time 时刻完全空闲的产线状态
+     */
+    public static LineState idleAt(LocalDateTime time) {
+        return new LineState(time, time, NO_PRODUCT);
+    }
+
+    // Getters
+    public LocalDateTime getFreeAt() { return freeAt; }
+    public LocalDateTime getPaidUntil() { return paidUntil; }
+    public int getCurrentProductId() { return currentProductId; }
+}
@@ -0,0 +1,85 @@
+package com.smartfactory;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 把一次运行的事件异步、合并地投递给监听器：进化线程只做两次原子写，
+ * 通知线程取出最新的最优解与代统计依次回调。每次 run() 使用一个实例。
+ */
+class ListenerDispatcher {
+    private final List<GAListener> listeners;
+    private final ExecutorService executor;
+    private final AtomicReference<BestSnapshot> pendingBest = new AtomicReference<>();
+    private final AtomicReference<GAListener.GenerationStats> pendingStats = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    ListenerDispatcher(List<GAListener> listeners) {
+        this.listeners = listeners;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ga-listener");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    void newBest(BestSnapshot best) {
+        pendingBest.set(best);
+        schedule();
+    }
+
+    void generation(GAListener.GenerationStats stats) {
+        pendingStats.set(stats);
+        schedule();
+    }
+
+    /**
+     * 投递剩余事件后回调 onFinished，然后释放通知线程（不等待回调完成）
+     */
+    void finish(BestSnapshot best, boolean cancelled) {
+        executor.execute(() -> {
+            drain();
+            for (GAListener l : listeners) {
+                try {
+                    l.onFinished(best, cancelled);
+                } catch (RuntimeException e) {
+                    System.err.println("监听器 onFinished 异常: " + e);
+                }
+            }
+        });
+        executor.shutdown();
+    }
+
+    private void schedule() {
+        if (!scheduled.getAndSet(true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        scheduled.set(false);
+        BestSnapshot best = pendingBest.getAndSet(null);
+        if (best != null) {
+            for (GAListener l : listeners) {
+                try {
+                    l.onNewBest(best);
+                } catch (RuntimeException e) {
+                    System.err.println("监听器 onNewBest 异常: " + e);
+                }
+            }
+        }
+        GAListener.GenerationStats stats = pendingStats.getAndSet(null);
+        if (stats != null) {
+            for (GAListener l : listeners) {
+                try {
+                    l.onGeneration(stats);
+                } catch (RuntimeException e) {
+                    System.err.println("监听器 onGeneration 异常: " + e);
+                }
+            }
+        }
+    }
+}
@@ -2,15 +2,18 @@ package com.smartfactory;
 
 import com.smartfactory.util.DataLoader;
 import com.smartfactory.util.HtmlGanttRenderer;
-import com.smartfactory.util.Job;
-import com.smartfactory.util.TimeCostUtil;
+import com.smartfactory.util.JobTable;
+import com.smartfactory.util.MetricsRegistry;
+import com.smartfactory.util.OrderCsvLoader;
+import com.smartfactory.util.OrderSnapshot;
+import com.smartfactory.util.ScheduleExporter;
+import com.smartfactory.util.ShiftCalendar;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.Comparator;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class Main {
     public static void main(String[] args) {
@@ -26,24 +29,48 @@ public class Main {
         // 2. 从文件加载数据
         String productFile = "input/run/products.csv";
         String orderFile = "input/run/orders.csv";
+        String lineFile = "input/run/lines.csv"; // 可选：不存在时使用默认的 3 条无差异产线
+        String calendarFile = "input/run/calendar.csv"; // 可选：不存在时使用默认班次工资规则
+        String snapshotFile = "input/run/orders.snap"; // 可选：列式二进制快照，指定 --from-snapshot 时代替 CSV 读取
 
-        List<Product> products = DataLoader.loadProducts(productFile);
-        List<Order> allOrders = DataLoader.loadOrders(orderFile);
+        // 3. 加载订单并过滤：
+        // 规则：只处理在 planStartTime 之前(或等于)到达的订单
+        // 8点之后的订单留在明天处理 (即不进入本次 ScheduleData)，加载时即跳过，不创建对象
+        // 可选参数：--build-snapshot 先把 CSV 转换为快照，--from-snapshot 从快照（而不是 CSV）加载产品与订单；
+        //          两种方式得到的订单及其顺序相同
+        List<Product> products;
+        List<Order> activeOrders;
+        long totalOrders;
+        try {
+            if (java.util.Arrays.asList(args).contains("--build-snapshot")) {
+                OrderSnapshot.convertCsv(productFile, orderFile, snapshotFile);
+                System.out.println("已生成订单快照: " + snapshotFile);
+            }
+            if (java.util.Arrays.asList(args).contains("--from-snapshot")) {
+                OrderSnapshot snapshot = OrderSnapshot.open(snapshotFile);
+                products = snapshot.readProducts();
+                activeOrders = snapshot.readOrdersArrivedBy(planStartTime);
+                totalOrders = snapshot.getRowCount();
+                System.out.println("从快照加载订单: " + snapshotFile);
+            } else {
+                products = DataLoader.loadProducts(productFile);
+                OrderCsvLoader.Result loaded = OrderCsvLoader.load(orderFile, planStartTime);
+                DataLoader.reportErrors(orderFile, loaded);
+                activeOrders = loaded.orders;
+                totalOrders = loaded.rowsRead;
+            }
+        } catch (java.io.IOException e) {
+            System.err.println("Error reading orders file: " + e.getMessage());
+            return;
+        }
 
-        if (products.isEmpty() || allOrders.isEmpty()) {
+        if (products.isEmpty() || totalOrders == 0) {
             System.err.println("数据加载失败，请检查 csv 文件路径和内容格式！");
             return;
         }
 
         System.out.println("已加载产品类型数: " + products.size());
-        System.out.println("已加载总订单数: " + allOrders.size());
-
-        // 3. 过滤订单：
-        // 规则：只处理在 planStartTime 之前(或等于)到达的订单
-        // 8点之后的订单留在明天处理 (即不进入本次 ScheduleData)
-        List<Order> activeOrders = allOrders.stream()
-                .filter(o -> !o.getArrivalTime().isAfter(planStartTime))
-                .collect(Collectors.toList());
+        System.out.println("已加载总订单数: " + totalOrders);
 
         System.out.println("符合本次排程条件的订单数: " + activeOrders.size());
 
@@ -53,17 +80,126 @@ public class Main {
         }
 
         // 4. 构建调度数据上下文
-        ScheduleData data = new ScheduleData(products, activeOrders, planStartTime);
+        List<ProductionLine> lines = new java.io.File(lineFile).exists()
+                ? DataLoader.loadLines(lineFile)
+                : ScheduleData.defaultLines(ScheduleData.NUM_LINES);
+        System.out.println("生产线数量: " + lines.size());
+        ShiftCalendar calendar = new java.io.File(calendarFile).exists()
+                ? DataLoader.loadCalendar(calendarFile)
+                : ShiftCalendar.defaultCalendar();
+        ScheduleData data = new ScheduleData(products, activeOrders, planStartTime, lines, calendar);
 
         // 5. 运行遗传算法
         // 参数：种群50，交叉0.8，变异0.2，迭代100代
-        GAScheduler scheduler = new GAScheduler(data, 200, 0.8, 0.2, 300);
-        Chromosome bestSolution = scheduler.run();
+        // 可选参数：--window-days=N 按 N 天窗口分解求解（多日订单簿），--parallel 并行求解各窗口，
+        //          --product-clusters 按产品簇分解并行求解（产品种类多时）
+        //          --checkpoint=FILE 周期性保存优化器状态，--resume 从该检查点继续运行
+        //          --export-jobs=FILE / --export-orders=FILE 导出任务明细 / 订单完成情况（.csv 或 .jsonl，可加 .gz），
+        //          --export-epoch 导出时间写为 Unix 秒（默认 ISO 本地时间）
+        //          --metrics=FILE 运行结束后写出 GA 指标（.json 为 JSON，否则为 Prometheus 文本格式）
+        //          --lns 改用自适应大邻域搜索（LNSScheduler）求解
+        //          --adaptive-operators GA 按每纳秒的改进自适应选择局部搜索邻域、交叉与变异算子
+        //          --no-path-relinking 关闭 GA 每代在差异较大的精英之间的路径重连
+        //          --relink-threads=N 路径重连并行使用的线程数（默认 1，在 GA 线程上执行）
+        //          --steady-state[=K] GA 改用稳态模式，每步产生并插入 K 个子代（默认 2）
+        int windowDays = 0;
+        boolean parallelWindows = false;
+        boolean productClusters = false;
+        boolean useLns = false;
+        boolean adaptiveOperators = false;
+        boolean pathRelinking = true;
+        int relinkThreads = 1;
+        int steadyStateBatch = 0;
+        String checkpointFile = null;
+        boolean resume = false;
+        String exportJobsFile = null;
+        String exportOrdersFile = null;
+        ZoneOffset exportOffset = null;
+        String metricsFile = null;
+        for (String arg : args) {
+            if (arg.startsWith("--window-days=")) {
+                windowDays = Integer.parseInt(arg.substring("--window-days=".length()));
+            } else if (arg.equals("--parallel")) {
+                parallelWindows = true;
+            } else if (arg.equals("--product-clusters")) {
+                productClusters = true;
+            } else if (arg.equals("--lns")) {
+                useLns = true;
+            } else if (arg.equals("--adaptive-operators")) {
+                adaptiveOperators = true;
+            } else if (arg.equals("--no-path-relinking")) {
+                pathRelinking = false;
+            } else if (arg.startsWith("--relink-threads=")) {
+                relinkThreads = Integer.parseInt(arg.substring("--relink-threads=".length()));
+            } else if (arg.equals("--steady-state")) {
+                steadyStateBatch = 2;
+            } else if (arg.startsWith("--steady-state=")) {
+                steadyStateBatch = Integer.parseInt(arg.substring("--steady-state=".length()));
+            } else if (arg.startsWith("--checkpoint=")) {
+                checkpointFile = arg.substring("--checkpoint=".length());
+            } else if (arg.equals("--resume")) {
+                resume = true;
+            } else if (arg.startsWith("--export-jobs=")) {
+                exportJobsFile = arg.substring("--export-jobs=".length());
+            } else if (arg.startsWith("--export-orders=")) {
+                exportOrdersFile = arg.substring("--export-orders=".length());
+            } else if (arg.equals("--export-epoch")) {
+                exportOffset = ZoneId.systemDefault().getRules().getOffset(planStartTime);
+            } else if (arg.startsWith("--metrics=")) {
+                metricsFile = arg.substring("--metrics=".length());
+            }
+        }
+
+        Chromosome bestSolution;
+        GAScheduler.ScheduleResult result;
+        MetricsRegistry metrics = new MetricsRegistry();
+        if (useLns) {
+            LNSScheduler lns = new LNSScheduler(data, 2000);
+            bestSolution = lns.run();
+            result = lns.getDetailedSchedule(bestSolution);
+        } else if (productClusters) {
+            ProductClusterDecomposer decomposer = new ProductClusterDecomposer(data, 200, 0.8, 0.2, 300, 50);
+            decomposer.setMetricsRegistry(metrics);
+            bestSolution = decomposer.run();
+            result = decomposer.getDetailedSchedule(bestSolution);
+        } else if (windowDays > 0) {
+            HorizonDecomposer decomposer = new HorizonDecomposer(data, 200, 0.8, 0.2, 300, windowDays, parallelWindows);
+            decomposer.setMetricsRegistry(metrics);
+            bestSolution = decomposer.run();
+            result = decomposer.getDetailedSchedule(bestSolution);
+        } else {
+            GAScheduler scheduler = new GAScheduler(data, 200, 0.8, 0.2, 300);
+            if (checkpointFile != null && resume && new java.io.File(checkpointFile).exists()) {
+                try {
+                    scheduler = GAScheduler.resume(data, checkpointFile);
+                } catch (java.io.IOException | IllegalArgumentException e) {
+                    System.err.println("无法从检查点恢复，重新开始: " + e.getMessage());
+                }
+            }
+            if (checkpointFile != null) {
+                scheduler.enableCheckpointing(checkpointFile, 5);
+            }
+            scheduler.setMetricsRegistry(metrics);
+            scheduler.setAdaptiveOperators(adaptiveOperators);
+            scheduler.setPathRelinking(pathRelinking);
+            scheduler.setPathRelinkingThreads(relinkThreads);
+            scheduler.setSteadyState(steadyStateBatch);
+            bestSolution = scheduler.run();
+            result = scheduler.getDetailedSchedule(bestSolution);
+        }
+
+        if (metricsFile != null) {
+            try {
+                metrics.writeTo(metricsFile);
+                System.out.println("GA 指标已写出: " + metricsFile);
+            } catch (java.io.IOException e) {
+                System.err.println("写出指标失败: " + e.getMessage());
+            }
+        }
 
         // 6. 输出结果
         System.out.println("\n--- 优化完成 ---");
         if (bestSolution != null) {
-            GAScheduler.ScheduleResult result = scheduler.getDetailedSchedule(bestSolution);
             System.out.println("最佳方案总利润 (含罚款): " + -result.totalCost);
 
             System.out.println("其中包含罚款总额: " + result.totalPenalty); // 显示总罚款
@@ -72,33 +208,40 @@ public class Main {
             printOrderReport(activeOrders, result.completionTimes);
 
             // 简单的文本可视化
-            printSchedule(result.scheduledJobs);
+            printSchedule(result.scheduledJobs, data.getNumLines(), calendar);
 
             // 【新增】生成 HTML 甘特图
-            HtmlGanttRenderer.generate(result, activeOrders, products, "schedule_report.html");
+            HtmlGanttRenderer.generate(result, data, "schedule_report.html");
 
             System.out.println("请使用浏览器打开 schedule_report.html 查看可视化结果。");
+
+            // 机器可读导出
+            try {
+                if (exportJobsFile != null) {
+                    ScheduleExporter.exportJobs(result, exportJobsFile, exportOffset);
+                    System.out.println("任务明细已导出: " + exportJobsFile);
+                }
+                if (exportOrdersFile != null) {
+                    ScheduleExporter.exportOrders(result, activeOrders, exportOrdersFile, exportOffset);
+                    System.out.println("订单完成情况已导出: " + exportOrdersFile);
+                }
+            } catch (java.io.IOException | IllegalArgumentException e) {
+                System.err.println("导出失败: " + e.getMessage());
+            }
         }
     }
 
-    private static void printSchedule(List<Job> jobs) {
-        // 按机器分组
-        Map<Integer, List<Job>> jobsByLine = jobs.stream()
-                .collect(Collectors.groupingBy(j -> j.machineLineId));
-
+    private static void printSchedule(JobTable jobs, int numLines, ShiftCalendar calendar) {
         java.time.format.DateTimeFormatter timeFmt = java.time.format.DateTimeFormatter.ofPattern("MM-dd HH:mm");
 
         System.out.println("\n=== 详细调度甘特表 ===");
 
-        // 遍历所有生产线 (1 到 3)
-        for (int line = 1; line <= ScheduleData.NUM_LINES; line++) {
+        // 遍历所有生产线 (1 到 numLines)，使用任务表按产线预排序的视图
+        for (int line = 1; line <= numLines; line++) {
             System.out.println("\n[生产线 " + line + "]");
-            List<Job> lineJobs = jobsByLine.getOrDefault(line, Collections.emptyList());
+            int[] lineRows = jobs.rowsOfLine(line);
 
-            // 按时间排序
-            lineJobs.sort(Comparator.comparing(j -> j.startTime));
-
-            if (lineJobs.isEmpty()) {
+            if (lineRows.length == 0) {
                 System.out.println("  (无任务)");
                 continue;
             }
@@ -108,36 +251,29 @@ public class Main {
                     "TaskID", "Start", "End", "Prod", "BaseCost", "Note");
             System.out.println("  --------------------------------------------------------------------------------------");
 
-            for (Job job : lineJobs) {
+            for (int row : lineRows) {
+                LocalDateTime start = jobs.getStartTime(row);
                 String note = "";
-                if (job.baseCost == 0.0) {
+                if (jobs.getCost(row) == 0.0) {
                     // 重点：高亮显示拼单任务
                     note = "★ 拼单成功 (Free)";
                 } else {
-                    String period = getPeriodName(job.startTime.getHour());
-                    note = String.format("新块 (x%.1f %s)", job.costCoefficient, period);
+                    String period = calendar.getShiftName(start);
+                    note = String.format("新块 (x%.1f %s)", jobs.getCoefficient(row), period);
                 }
 
                 System.out.printf("  %-10s | %-15s | %-15s | P%-5d | %-8.0f | %s%n",
-                        job.operationId,
-                        job.startTime.format(timeFmt),
-                        job.endTime.format(timeFmt),
-                        job.productId,
-                        job.baseCost,
+                        jobs.getOperationId(row),
+                        start.format(timeFmt),
+                        jobs.getEndTime(row).format(timeFmt),
+                        jobs.getProductId(row),
+                        jobs.getCost(row),
                         note);
             }
         }
         System.out.println("========================\n");
     }
 
-    // 辅助显示时段名称
-    private static String getPeriodName(int hour) {
-        if (hour >= 8 && hour < 16) return "白班";
-        if (hour >= 16 && hour < 20) return "晚班";
-        if (hour >= 20 || hour == 0) return "夜班";
-        return "深夜";
-    }
-
     private static void printOrderReport(List<Order> orders, Map<Integer, LocalDateTime> completionTimes) {
         System.out.println("\n=== 订单完成情况统计表 ===");
         // 打印表头
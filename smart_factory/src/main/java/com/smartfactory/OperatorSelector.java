@@ -0,0 +1,146 @@
+package com.smartfactory;
+
+import com.smartfactory.util.MetricsRegistry;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * 自适应算子选择（Adaptive Pursuit）：为一组可互换的算子记录"每纳秒带来的适应度改进"，
+ * 质量估计按指数平滑更新，选择概率向当前质量最高的算子追逐（其余算子保留最低概率，以便继续探索）。
+ *
+ * 无论是否用于选择，credit() 都会累计统计并写入指标（按 family 与算子名命名）：
+ *   ga_operator_{family}_{name}_seconds          计时器（次数 = 使用次数，总时长 = 所花时间）
+ *   ga_operator_{family}_{name}_improvements_total 带来改进的次数
+ *   ga_operator_{family}_{name}_gain_per_second  累计改进量 / 累计耗时
+ *   ga_operator_{family}_{name}_probability      当前选择概率
+ * 非线程安全，每个调度器持有自己的实例。
+ */
+public class OperatorSelector {
+    private static final double ALPHA = 0.3;   // 质量估计的平滑系数
+    private static final double BETA = 0.3;    // 概率追逐速度
+    private static final double MIN_SHARE = 0.3; // 所有算子最低概率之和
+
+    private final String family;
+    private final String[] names;
+    private final double pMin;
+    private final double pMax;
+    private final double[] probability;
+    private final double[] quality;
+    private final long[] uses;
+    private final long[] improvements;
+    private final long[] nanos;
+    private final double[] gain;
+
+    private MetricsRegistry.Timer[] timers;
+    private MetricsRegistry.Counter[] improvementCounters;
+    private MetricsRegistry.Gauge[] gainGauges;
+    private MetricsRegistry.Gauge[] probabilityGauges;
+
+    public OperatorSelector(String family, String... names) {
+        if (names.length == 0) {
+            throw new IllegalArgumentException("至少需要一个算子");
+        }
+        this.family = family;
+        this.names = names.clone();
+        int k = names.length;
+        this.pMin = k == 1 ? 1.0 : MIN_SHARE / k;
+        this.pMax = 1.0 - (k - 1) * pMin;
+        this.probability = new double[k];
+        this.quality = new double[k];
+        this.uses = new long[k];
+        this.improvements = new long[k];
+        this.nanos = new long[k];
+        this.gain = new double[k];
+        Arrays.fill(probability, 1.0 / k);
+    }
+
+    /**
+     * 在注册表中注册各算子的指标（更换注册表时重新调用）
+     */
+    public void bind(MetricsRegistry registry) {
+        int k = names.length;
+        timers = new MetricsRegistry.Timer[k];
+        improvementCounters = new MetricsRegistry.Counter[k];
+        gainGauges = new MetricsRegistry.Gauge[k];
+        probabilityGauges = new MetricsRegistry.Gauge[k];
+        for (int i = 0; i < k; i++) {
+            String prefix = "ga_operator_" + family + "_" + names[i];
+            timers[i] = registry.timer(prefix + "_seconds", family + " 算子 " + names[i] + " 的使用次数与耗时");
+            improvementCounters[i] = registry.counter(prefix + "_improvements_total", family + " 算子 " + names[i] + " 带来改进的次数");
+            gainGauges[i] = registry.gauge(prefix + "_gain_per_second", family + " 算子 " + names[i] + " 每秒带来的适应度改进");
+            probabilityGauges[i] = registry.gauge(prefix + "_probability", family + " 算子 " + names[i] + " 的当前选择概率");
+            probabilityGauges[i].set(probability[i]);
+        }
+    }
+
+    /**
+     * 按当前概率抽取一个算子下标
+     */
+    public int select(Random random) {
+        double x = random.nextDouble();
+        for (int i = 0; i < probability.length - 1; i++) {
+            x -= probability[i];
+            if (x < 0) return i;
+        }
+        return probability.length - 1;
+    }
+
+    /**
+     * 记录一次算子应用：improvement 为适应度的下降量（未改进时 <= 0），nanos 为其耗时（含评估）
+     */
+    public void credit(int op, double improvement, long nanos) {
+        uses[op]++;
+        this.nanos[op] += nanos;
+        double reward = 0.0;
+        if (improvement > 0) {
+            improvements[op]++;
+            gain[op] += improvement;
+            reward = improvement / Math.max(1L, nanos);
+        }
+        quality[op] += ALPHA * (reward - quality[op]);
+
+        int best = 0;
+        for (int i = 1; i < quality.length; i++) {
+            if (quality[i] > quality[best]) best = i;
+        }
+        if (quality[best] > 0) {
+            for (int i = 0; i < probability.length; i++) {
+                probability[i] += BETA * ((i == best ? pMax : pMin) - probability[i]);
+            }
+        }
+
+        if (timers != null) {
+            timers[op].record(nanos);
+            if (improvement > 0) improvementCounters[op].inc();
+            gainGauges[op].set(getGainPerSecond(op));
+            for (int i = 0; i < probability.length; i++) {
+                probabilityGauges[i].set(probability[i]);
+            }
+        }
+    }
+
+    public int size() { return names.length; }
+    public String getName(int op) { return names[op]; }
+    public double getProbability(int op) { return probability[op]; }
+    public long getUses(int op) { return uses[op]; }
+    public long getImprovements(int op) { return improvements[op]; }
+
+    /**
+     * 累计改进量 / 累计耗时（秒）
+     */
+    public double getGainPerSecond(int op) {
+        return nanos[op] == 0 ? 0.0 : gain[op] / (nanos[op] / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(family).append('[');
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(String.format(Locale.ROOT, "%s p=%.2f n=%d", names[i], probability[i], uses[i]));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,70 @@
+package com.smartfactory;
+
+/**
+ * 优化器阶段事件的挂钩点，供 JDK Flight Recorder 把 CPU 与分配归到具体的 GA 阶段。
+ *
+ * 默认构建面向 Java 8，不含 jdk.jfr，使用空实现（调用点单态，JIT 内联后无开销）；
+ * 用 -Pjfr 构建时额外编译 src/main/jfr 下的 JfrOptimizerEvents，运行时自动启用，
+ * 事件只在 JFR 正在录制且对应事件开启时才提交。
+ *
+ * 持续型事件用 begin* 返回的句柄在 end* 时结束，空实现返回 null。
+ */
+interface OptimizerEvents {
+    OptimizerEvents NONE = new OptimizerEvents() {
+    };
+
+    /**
+     * 当前实现：类路径上有 JFR 实现时使用它，否则为空实现
+     */
+    OptimizerEvents CURRENT = load();
+
+    default Object beginGeneration() {
+        return null;
+    }
+
+    /**
+     * 一代结束：evaluations 为本代解码次数，improvements 为本代全局最优的改进次数
+     */
+    default void endGeneration(Object handle, int generation, int populationSize, long evaluations,
+                               int improvements, double bestProfit, double mutationRate, double diversity) {
+    }
+
+    default Object beginLocalSearch() {
+        return null;
+    }
+
+    /**
+     * 一次精英局部搜索结束：moves 为尝试的邻域移动，improvements 为刷新该个体历史最优的次数
+     */
+    default void endLocalSearch(Object handle, int generation, long moves, long accepted, int improvements,
+                                double startProfit, double endProfit) {
+    }
+
+    default Object beginDecodeBatch() {
+        return null;
+    }
+
+    /**
+     * 一次种群评估结束：evaluations 为实际解码的个体数，cacheHits 为沿用适应度的个体数
+     */
+    default void endDecodeBatch(Object handle, int generation, int populationSize, long evaluations, long cacheHits) {
+    }
+
+    default void newBest(int generation, double previousProfit, double profit, long evaluations) {
+    }
+
+    /**
+     * 搜索重启：reason 为 "stagnation"（停滞后提升变异率跳出局部最优）或 "resume"（从检查点继续）
+     */
+    default void restart(int generation, String reason, int stagnationCount, double mutationRate) {
+    }
+
+    static OptimizerEvents load() {
+        try {
+            Class<?> type = Class.forName("com.smartfactory.JfrOptimizerEvents");
+            return (OptimizerEvents) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return NONE; // 未用 -Pjfr 构建，或运行时 JDK 不支持 JFR 事件
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.smartfactory;
+
+import com.smartfactory.util.EpochMinutes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 订单簿索引：按到达时间与对齐后的截止时间（EpochMinutes 分钟数）各维护一份有序的原始类型数组，
+ * 支持 O(log n + k) 的时间范围查询。
+ *
+ * 新订单可以随时追加：到达时间通常单调递增，直接追加到有序数组末尾；
+ * 其余情况先插入一个小的有序增量区（容量约 sqrt(n)），增量区满后再线性归并进主数组，
+ * 摊还后每次追加的代价为 O(sqrt(n))，查询时同时在主数组和增量区上二分。
+ * 查询结果按对应时间升序排列，时间相同者按加入顺序排列。
+ */
+public class OrderBookIndex {
+    private final List<Order> orders = new ArrayList<>();
+    private final SortedKeys byArrival = new SortedKeys();
+    private final SortedKeys byDeadline = new SortedKeys();
+
+    public OrderBookIndex() {
+    }
+
+    public OrderBookIndex(Collection<Order> initial) {
+        addAll(initial);
+    }
+
+    /**
+     * 追加一个订单
+     */
+    public void add(Order order) {
+        int row = orders.size();
+        orders.add(order);
+        byArrival.add(EpochMinutes.of(order.getArrivalTime()), row);
+        byDeadline.add(EpochMinutes.of(order.getAlignedDeadline()), row);
+    }
+
+    /**
+     * 批量追加：整批排序后一次归并，避免逐个插入
+     */
+    public void addAll(Collection<Order> batch) {
+        int first = orders.size();
+        long[] arrivals = new long[batch.size()];
+        long[] deadlines = new long[batch.size()];
+        int i = 0;
+        for (Order o : batch) {
+            orders.add(o);
+            arrivals[i] = EpochMinutes.of(o.getArrivalTime());
+            deadlines[i] = EpochMinutes.of(o.getAlignedDeadline());
+            i++;
+        }
+        byArrival.addBatch(arrivals, first);
+        byDeadline.addBatch(deadlines, first);
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    /**
+     * 到达时间在 [from, to] 内的订单（两端均含，null 表示不限）
+     */
+    public List<Order> arrivedBetween(LocalDateTime from, LocalDateTime to) {
+        return collect(byArrival, lowerKey(from), upperKey(to));
+    }
+
+    /**
+     * 到达时间不晚于 cutoff 的订单
+     */
+    public List<Order> arrivedBy(LocalDateTime cutoff) {
+        return collect(byArrival, Long.MIN_VALUE, upperKey(cutoff));
+    }
+
+    /**
+     * 对齐后的截止时间在 [from, to] 内的订单（两端均含，null 表示不限）
+     */
+    public List<Order> dueBetween(LocalDateTime from, LocalDateTime to) {
+        return collect(byDeadline, lowerKey(from), upperKey(to));
+    }
+
+    /**
+     * 对齐后的截止时间早于 time 的订单（不含 time）
+     */
+    public List<Order> dueBefore(LocalDateTime time) {
+        return collect(byDeadline, Long.MIN_VALUE, EpochMinutes.of(time) - 1);
+    }
+
+    /**
+     * 最晚的对齐截止时间（索引为空时为 null）
+     */
+    public LocalDateTime getLatestDeadline() {
+        return orders.isEmpty() ? null : EpochMinutes.toDateTime(byDeadline.max());
+    }
+
+    private static long lowerKey(LocalDateTime from) {
+        return from == null ? Long.MIN_VALUE : EpochMinutes.of(from);
+    }
+
+    private static long upperKey(LocalDateTime to) {
+        return to == null ? Long.MAX_VALUE : EpochMinutes.of(to);
+    }
+
+    private List<Order> collect(SortedKeys keys, long lo, long hi) {
+        List<Order> result = new ArrayList<>();
+        if (lo > hi) return result;
+        keys.forEachInRange(lo, hi, row -> result.add(orders.get(row)));
+        return result;
+    }
+
+    /**
+     * 有序键 -> 行号 的原始类型数组，附带一个有序增量区
+     */
+    private static class SortedKeys {
+        private long[] keys = new long[16];
+        private int[] rows = new int[16];
+        private int size = 0;
+
+        private long[] pendingKeys = new long[64];
+        private int[] pendingRows = new int[64];
+        private int pendingSize = 0;
+
+        void add(long key, int row) {
+            if (size == 0 || key >= keys[size - 1]) {
+                // 常见情况：按时间顺序到达，直接追加（新行号最大，相同键仍按加入顺序）
+                ensureCapacity(size + 1);
+                keys[size] = key;
+                rows[size] = row;
+                size++;
+                return;
+            }
+            // 插入增量区（相同键排在已有元素之后，保持加入顺序）
+            int pos = upperBound(pendingKeys, pendingSize, key);
+            System.arraycopy(pendingKeys, pos, pendingKeys, pos + 1, pendingSize - pos);
+            System.arraycopy(pendingRows, pos, pendingRows, pos + 1, pendingSize - pos);
+            pendingKeys[pos] = key;
+            pendingRows[pos] = row;
+            pendingSize++;
+            if (pendingSize == pendingKeys.length) {
+                mergePending();
+            }
+        }
+
+        // 批量加入：行号为 firstRow, firstRow+1, ...
+        void addBatch(long[] batchKeys, int firstRow) {
+            int n = batchKeys.length;
+            if (n == 0) return;
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Long.compare(batchKeys[a], batchKeys[b])); // 稳定排序
+            long[] sortedKeys = new long[n];
+            int[] sortedRows = new int[n];
+            for (int i = 0; i < n; i++) {
+                sortedKeys[i] = batchKeys[order[i]];
+                sortedRows[i] = firstRow + order[i];
+            }
+            mergePending();
+            mergeIntoMain(sortedKeys, sortedRows, n);
+        }
+
+        long max() {
+            long m = size > 0 ? keys[size - 1] : Long.MIN_VALUE;
+            return pendingSize > 0 ? Math.max(m, pendingKeys[pendingSize - 1]) : m;
+        }
+
+        interface RowConsumer {
+            void accept(int row);
+        }
+
+        // 按键升序（键相同按行号升序）输出 [lo, hi] 范围内的行
+        void forEachInRange(long lo, long hi, RowConsumer consumer) {
+            int i = lowerBound(keys, size, lo), iEnd = upperBound(keys, size, hi);
+            int j = lowerBound(pendingKeys, pendingSize, lo), jEnd = upperBound(pendingKeys, pendingSize, hi);
+            while (i < iEnd || j < jEnd) {
+                boolean takeMain = j >= jEnd
+                        || (i < iEnd && (keys[i] < pendingKeys[j] || (keys[i] == pendingKeys[j] && rows[i] < pendingRows[j])));
+                if (takeMain) {
+                    consumer.accept(rows[i++]);
+                } else {
+                    consumer.accept(pendingRows[j++]);
+                }
+            }
+        }
+
+        private void mergePending() {
+            if (pendingSize == 0) return;
+            mergeIntoMain(pendingKeys, pendingRows, pendingSize);
+            pendingSize = 0;
+            // 增量区容量随主数组增长，约为 sqrt(n)
+            int capacity = Math.max(64, (int) Math.sqrt(size));
+            if (capacity > pendingKeys.length) {
+                pendingKeys = new long[capacity];
+                pendingRows = new int[capacity];
+            }
+        }
+
+        // 把有序的 (addKeys, addRows) 线性归并进主数组
+        private void mergeIntoMain(long[] addKeys, int[] addRows, int addSize) {
+            if (size == 0 || addKeys[0] > keys[size - 1] || (addKeys[0] == keys[size - 1] && addRows[0] > rows[size - 1])) {
+                ensureCapacity(size + addSize);
+                System.arraycopy(addKeys, 0, keys, size, addSize);
+                System.arraycopy(addRows, 0, rows, size, addSize);
+                size += addSize;
+                return;
+            }
+            int total = size + addSize;
+            long[] mergedKeys = new long[Math.max(total, keys.length)];
+            int[] mergedRows = new int[mergedKeys.length];
+            int i = 0, j = 0, k = 0;
+            while (i < size || j < addSize) {
+                boolean takeMain = j >= addSize
+                        || (i < size && (keys[i] < addKeys[j] || (keys[i] == addKeys[j] && rows[i] < addRows[j])));
+                if (takeMain) {
+                    mergedKeys[k] = keys[i];
+                    mergedRows[k++] = rows[i++];
+                } else {
+                    mergedKeys[k] = addKeys[j];
+                    mergedRows[k++] = addRows[j++];
+                }
+            }
+            keys = mergedKeys;
+            rows = mergedRows;
+            size = total;
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed > keys.length) {
+                int capacity = Math.max(needed, keys.length * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                rows = Arrays.copyOf(rows, capacity);
+            }
+        }
+
+        // 第一个 >= key 的位置
+        private static int lowerBound(long[] a, int n, long key) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] < key) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        // 第一个 > key 的位置
+        private static int upperBound(long[] a, int n, long key) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] <= key) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
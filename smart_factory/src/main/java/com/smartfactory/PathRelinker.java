@@ -0,0 +1,237 @@
+package com.smartfactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 精英解之间的路径重连（Path Relinking）：从起点解出发，自左向右把每个位置的工件与产线基因改成导向解的取值，
+ * 沿途评估中间解并保留最好的一个。
+ *
+ * 同一订单的各工件在解码中可以互换，因此按订单比较位置，移动时取当前序列中该订单最靠前的工件，
+ * 路径长度只取决于订单层面的差异。路径较长时按等间距抽样评估中间解，
+ * 订单层面与已评估过的中间解（或导向解本身）相同的跳过解码。
+ * 各对精英的路径互不依赖，relinkPool() 可在线程池上并行（解码器只读、线程安全），结果与线程数无关。
+ */
+public class PathRelinker {
+    private final ScheduleDecoder decoder;
+
+    public PathRelinker(ScheduleDecoder decoder) {
+        this.decoder = decoder;
+    }
+
+    /**
+     * 一条路径的结果：best 为路径上最好的中间解（没有评估任何中间解时为 null），evaluations 为解码次数
+     */
+    public static class Result {
+        public Chromosome best;
+        public int evaluations;
+    }
+
+    /**
+     * 从 start 走向 guide，最多解码 maxEvaluations 个中间解；start 与 guide 不会被修改
+     */
+    public Result relink(Chromosome start, Chromosome guide, int maxEvaluations, BooleanSupplier stop) {
+        Result result = new Result();
+        List<String> gs = guide.getOperationSequence();
+        List<Integer> gm = guide.getMachineAssignment();
+        int n = gs.size();
+        int moves = distance(start, guide);
+        if (moves < 2 || maxEvaluations <= 0) {
+            return result; // 两解相邻或相同，路径上没有中间解
+        }
+
+        List<String> os = new ArrayList<>(start.getOperationSequence());
+        List<Integer> ma = new ArrayList<>(start.getMachineAssignment());
+        Chromosome current = new Chromosome(os, ma);
+
+        // 订单 -> 当前序列中该订单工件所在的位置（只保留尚未固定的位置）
+        Map<String, Integer> orderIndex = new HashMap<>();
+        List<TreeSet<Integer>> positions = new ArrayList<>();
+        int[] orderAt = new int[n];
+        for (int i = 0; i < n; i++) {
+            String key = orderKey(os.get(i));
+            Integer o = orderIndex.get(key);
+            if (o == null) {
+                o = positions.size();
+                orderIndex.put(key, o);
+                positions.add(new TreeSet<>());
+            }
+            orderAt[i] = o;
+            positions.get(o).add(i);
+        }
+
+        // 路径约有 moves 步（每步至少修正一个位置），按等间距抽样，导向解本身不评估
+        int stride = Math.max(1, (moves + maxEvaluations) / (maxEvaluations + 1));
+        Set<Long> seen = new HashSet<>();
+        seen.add(orderFingerprint(guide));
+        int step = 0;
+        for (int i = 0; i < n && result.evaluations < maxEvaluations; i++) {
+            Integer target = orderIndex.get(orderKey(gs.get(i)));
+            if (target == null) {
+                throw new IllegalArgumentException("起点解与导向解的工件集合不一致: " + gs.get(i));
+            }
+            int here = orderAt[i];
+            if (here == target && ma.get(i).equals(gm.get(i))) {
+                positions.get(here).remove(i);
+                continue;
+            }
+            if (here != target) {
+                Integer j = positions.get(target).higher(i);
+                if (j == null) {
+                    throw new IllegalArgumentException("起点解与导向解的工件集合不一致: " + gs.get(i));
+                }
+                // 把该订单最靠前的工件换到位置 i，原工件换到 j
+                positions.get(target).remove(j);
+                positions.get(here).remove(i);
+                positions.get(here).add(j);
+                orderAt[j] = here;
+                orderAt[i] = target;
+                String op = os.get(j);
+                os.set(j, os.get(i));
+                os.set(i, op);
+                ma.set(j, ma.get(i));
+            } else {
+                positions.get(here).remove(i);
+            }
+            ma.set(i, gm.get(i));
+
+            if (++step % stride != 0 || !seen.add(orderFingerprint(current))) {
+                continue;
+            }
+            if (stop.getAsBoolean()) {
+                break;
+            }
+            double fitness = decoder.evaluate(current);
+            result.evaluations++;
+            if (result.best == null || fitness < result.best.getFitness()) {
+                result.best = new Chromosome(new ArrayList<>(os), new ArrayList<>(ma));
+                result.best.setFitness(fitness);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 对池中每对精英（按池中顺序，由较前者走向较后者）做路径重连，共用 budget 次解码。
+     * executor 为 null 时在当前线程依次执行；结果顺序与精英对的顺序一致。
+     */
+    public List<Result> relinkPool(List<Chromosome> pool, int budget, ExecutorService executor, BooleanSupplier stop) {
+        List<Callable<Result>> tasks = new ArrayList<>();
+        int pairs = pool.size() * (pool.size() - 1) / 2;
+        int perPair = pairs == 0 ? 0 : Math.max(1, budget / pairs);
+        for (int a = 0; a < pool.size(); a++) {
+            for (int b = a + 1; b < pool.size(); b++) {
+                Chromosome start = pool.get(a);
+                Chromosome guide = pool.get(b);
+                tasks.add(() -> relink(start, guide, perPair, stop));
+            }
+        }
+
+        List<Result> results = new ArrayList<>(tasks.size());
+        if (executor == null) {
+            for (Callable<Result> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+        try {
+            for (Future<Result> f : executor.invokeAll(tasks)) {
+                results.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("路径重连被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("路径重连失败", e.getCause());
+        }
+        return results;
+    }
+
+    private static Result call(Callable<Result> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("路径重连失败", e);
+        }
+    }
+
+    /**
+     * 从按适应度升序排列的种群中依次挑选精英，与已入选者的距离都不小于 minDistance 才入选，最多 size 个
+     */
+    public static List<Chromosome> selectDiversePool(List<Chromosome> sorted, int size, int minDistance) {
+        List<Chromosome> pool = new ArrayList<>(size);
+        for (Chromosome c : sorted) {
+            if (pool.size() >= size) {
+                break;
+            }
+            boolean diverse = true;
+            for (Chromosome p : pool) {
+                if (distance(c, p) < minDistance) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                pool.add(c);
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * 订单层面的距离：订单或产线基因不同的位置数（同一订单的工件视为相同）
+     */
+    public static int distance(Chromosome a, Chromosome b) {
+        List<String> as = a.getOperationSequence();
+        List<String> bs = b.getOperationSequence();
+        List<Integer> am = a.getMachineAssignment();
+        List<Integer> bm = b.getMachineAssignment();
+        int d = 0;
+        for (int i = 0; i < as.size(); i++) {
+            if (!sameOrder(as.get(i), bs.get(i)) || !am.get(i).equals(bm.get(i))) {
+                d++;
+            }
+        }
+        return d;
+    }
+
+    /**
+     * 订单层面的内容指纹：只哈希工件ID中的订单部分与产线基因
+     */
+    static long orderFingerprint(Chromosome c) {
+        List<String> os = c.getOperationSequence();
+        List<Integer> ma = c.getMachineAssignment();
+        long h = 1125899906842597L;
+        for (int i = 0; i < os.size(); i++) {
+            String op = os.get(i);
+            for (int k = 0; k < op.length() && op.charAt(k) != '_'; k++) {
+                h = 31 * h + op.charAt(k);
+            }
+            h = h * 0x9E3779B97F4A7C15L + ma.get(i);
+        }
+        return h ^ (h >>> 31);
+    }
+
+    // 工件ID "O{订单ID}_{序号}" 中的订单部分
+    private static String orderKey(String op) {
+        int sep = op.indexOf('_');
+        return sep < 0 ? op : op.substring(0, sep);
+    }
+
+    private static boolean sameOrder(String a, String b) {
+        int sep = a.indexOf('_');
+        return sep == b.indexOf('_') && a.regionMatches(0, b, 0, sep < 0 ? a.length() : sep);
+    }
+}
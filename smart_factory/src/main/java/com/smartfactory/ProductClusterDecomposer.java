@@ -0,0 +1,290 @@
+package com.smartfactory;
+
+import com.smartfactory.util.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 按产品簇分解的并行求解器。
+ * 尾数拼单与同产品免费拼单只发生在同一产品内部，不同产品之间只通过产线占用相互影响，因此：
+ * 1. 主问题（快速启发式）：按各产品的工作量把产线分配给产品，共用产线的产品归为同一个簇；
+ * 2. 子问题：各簇只在分到的产线上排自己的工件，簇之间产线不相交，可在独立线程上并行跑 GA；
+ * 3. 合并与打磨：簇解的机器基因映射回全局产线ID后拼接（产线不相交，拼接解码 = 各簇排程之并），
+ *    再以拼接解为种子跑一次短的全局 GA，允许工件跨簇调整产线。
+ */
+public class ProductClusterDecomposer {
+    private ScheduleData data;
+    private int populationSize;
+    private double crossoverRate;
+    private double mutationRate;
+    private int maxGenerations;
+    private int polishGenerations;  // 全局打磨 GA 的迭代代数
+    private ScheduleDecoder decoder;
+    private MetricsRegistry metrics = new MetricsRegistry(); // 各子问题 GA 共用，计数器跨子问题累加
+
+    public ProductClusterDecomposer(ScheduleData data, int popSize, double crossRate, double mutRate, int maxGen,
+                                    int polishGenerations) {
+        this.data = data;
+        this.populationSize = popSize;
+        this.crossoverRate = crossRate;
+        this.mutationRate = mutRate;
+        this.maxGenerations = maxGen;
+        this.polishGenerations = polishGenerations;
+        this.decoder = new ScheduleDecoder(data);
+    }
+
+    public void setMetricsRegistry(MetricsRegistry registry) {
+        this.metrics = registry;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 分解求解主入口：返回覆盖全部工件的染色体（已计算适应度）
+     */
+    public Chromosome run() {
+        if (data.getOrders().isEmpty()) {
+            return new Chromosome(new ArrayList<>(), new ArrayList<>());
+        }
+
+        List<Cluster> clusters = buildClusters(allocateLines());
+        System.out.printf("产品簇分解: %d 个簇%n", clusters.size());
+
+        List<Chromosome> parts = solveClusters(clusters);
+        Chromosome merged = Chromosome.concat(parts);
+        merged.setFitness(decoder.evaluate(merged));
+        System.out.printf("簇解合并后利润: %.2f%n", -merged.getFitness());
+
+        if (polishGenerations <= 0) {
+            return merged;
+        }
+        List<Chromosome> seed = new ArrayList<>();
+        seed.add(merged);
+        GAScheduler polish = new GAScheduler(data, populationSize, crossoverRate, mutationRate, polishGenerations);
+        polish.setMetricsRegistry(metrics);
+        polish.setSeedSolutions(seed);
+        Chromosome polished = polish.run();
+        return polished.getFitness() < merged.getFitness() ? polished : merged;
+    }
+
+    /**
+     * 获取解的详细排程信息（基于完整问题解码）
+     */
+    public GAScheduler.ScheduleResult getDetailedSchedule(Chromosome solution) {
+        return decoder.decode(solution);
+    }
+
+    /**
+     * 主问题启发式：把产线分配给产品。
+     * 1. 按可用产线数从少到多，先保证每个产品至少独占一条可用产线（产线不够时与负载最轻的产品共用）；
+     * 2. 剩余产线按速度从快到慢，分给"工作量 / 已分配产能"最大的可用产品。
+     * @return 产品ID -> 分到的产线ID列表
+     */
+    Map<Integer, List<Integer>> allocateLines() {
+        // 各产品的工作量（标准速度下的加工小时数）
+        Map<Integer, Double> workload = new LinkedHashMap<>();
+        for (Order o : data.getOrders()) {
+            double hours = o.getQuantity() * productOf(o.getProductId()).getUnitProcessingTime();
+            workload.merge(o.getProductId(), hours, Double::sum);
+        }
+
+        Map<Integer, List<Integer>> allocation = new LinkedHashMap<>();
+        Map<Integer, Double> capacity = new HashMap<>();
+        boolean[] taken = new boolean[data.getNumLines() + 1];
+        for (Integer p : workload.keySet()) {
+            allocation.put(p, new ArrayList<>());
+            capacity.put(p, 0.0);
+        }
+
+        // 1. 每个产品至少一条产线
+        List<Integer> byFlexibility = new ArrayList<>(workload.keySet());
+        byFlexibility.sort(Comparator.comparingInt((Integer p) -> data.getEligibleLines(p).length)
+                .thenComparing(p -> -workload.get(p)));
+        for (Integer p : byFlexibility) {
+            int chosen = -1;
+            for (int lineId : data.getEligibleLines(p)) {
+                if (!taken[lineId] && (chosen < 0 || speedOf(lineId) > speedOf(chosen))) {
+                    chosen = lineId;
+                }
+            }
+            if (chosen < 0) {
+                // 没有空闲产线：与可用产线中单位产能负载最轻的一条共用
+                double bestLoad = Double.MAX_VALUE;
+                for (int lineId : data.getEligibleLines(p)) {
+                    double load = lineLoad(lineId, allocation, workload, capacity);
+                    if (load < bestLoad) {
+                        bestLoad = load;
+                        chosen = lineId;
+                    }
+                }
+            }
+            assign(p, chosen, allocation, capacity, taken);
+        }
+
+        // 2. 剩余产线按速度从快到慢分配
+        List<Integer> remaining = new ArrayList<>();
+        for (int lineId = 1; lineId <= data.getNumLines(); lineId++) {
+            if (!taken[lineId]) remaining.add(lineId);
+        }
+        remaining.sort(Comparator.comparingDouble((Integer l) -> -speedOf(l)));
+        for (int lineId : remaining) {
+            Integer best = null;
+            double bestPressure = -1;
+            for (Integer p : workload.keySet()) {
+                if (!data.getLine(lineId).canProduce(p)) continue;
+                double pressure = workload.get(p) / capacity.get(p);
+                if (pressure > bestPressure) {
+                    bestPressure = pressure;
+                    best = p;
+                }
+            }
+            if (best != null) {
+                assign(best, lineId, allocation, capacity, taken);
+            }
+        }
+        return allocation;
+    }
+
+    private void assign(int productId, int lineId, Map<Integer, List<Integer>> allocation,
+                        Map<Integer, Double> capacity, boolean[] taken) {
+        allocation.get(productId).add(lineId);
+        capacity.merge(productId, speedOf(lineId), Double::sum);
+        taken[lineId] = true;
+    }
+
+    // 某条产线上已分配产品的总工作量 / 这些产品的总产能
+    private double lineLoad(int lineId, Map<Integer, List<Integer>> allocation,
+                            Map<Integer, Double> workload, Map<Integer, Double> capacity) {
+        double load = 0.0;
+        for (Map.Entry<Integer, List<Integer>> e : allocation.entrySet()) {
+            if (e.getValue().contains(lineId)) {
+                load += workload.get(e.getKey()) / Math.max(capacity.get(e.getKey()), 1e-9);
+            }
+        }
+        return load;
+    }
+
+    /**
+     * 把共用产线的产品合并为同一个簇（并查集），每个簇拥有不相交的产线集合
+     */
+    List<Cluster> buildClusters(Map<Integer, List<Integer>> allocation) {
+        Map<Integer, Integer> ownerOfLine = new HashMap<>();
+        Map<Integer, Integer> parent = new HashMap<>();
+        for (Integer p : allocation.keySet()) parent.put(p, p);
+        for (Map.Entry<Integer, List<Integer>> e : allocation.entrySet()) {
+            for (int lineId : e.getValue()) {
+                Integer other = ownerOfLine.putIfAbsent(lineId, e.getKey());
+                if (other != null) {
+                    parent.put(find(parent, e.getKey()), find(parent, other));
+                }
+            }
+        }
+
+        Map<Integer, Cluster> byRoot = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<Integer>> e : allocation.entrySet()) {
+            Cluster c = byRoot.computeIfAbsent(find(parent, e.getKey()), k -> new Cluster());
+            c.productIds.add(e.getKey());
+            for (int lineId : e.getValue()) {
+                if (!c.lineIds.contains(lineId)) c.lineIds.add(lineId);
+            }
+        }
+        for (Cluster c : byRoot.values()) {
+            c.lineIds.sort(Integer::compare);
+        }
+        return new ArrayList<>(byRoot.values());
+    }
+
+    private static int find(Map<Integer, Integer> parent, int x) {
+        while (parent.get(x) != x) {
+            x = parent.get(x);
+        }
+        return x;
+    }
+
+    // 各簇在独立线程上并行求解，结果的机器基因映射回全局产线ID
+    private List<Chromosome> solveClusters(List<Cluster> clusters) {
+        int threads = Math.max(1, Math.min(clusters.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Chromosome>> futures = new ArrayList<>(clusters.size());
+            for (Cluster c : clusters) {
+                futures.add(executor.submit(() -> solveCluster(c)));
+            }
+            List<Chromosome> parts = new ArrayList<>(clusters.size());
+            for (Future<Chromosome> f : futures) {
+                parts.add(f.get());
+            }
+            return parts;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("产品簇求解被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("产品簇求解失败", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Chromosome solveCluster(Cluster cluster) {
+        List<Product> products = new ArrayList<>();
+        for (Product p : data.getProducts()) {
+            if (cluster.productIds.contains(p.getId())) products.add(p);
+        }
+        List<Order> orders = new ArrayList<>();
+        for (Order o : data.getOrders()) {
+            if (cluster.productIds.contains(o.getProductId())) orders.add(o);
+        }
+        // 子问题的产线重新编号为 1..k，并保留速度、可生产产品与初始状态
+        List<ProductionLine> lines = new ArrayList<>();
+        List<LineState> states = new ArrayList<>();
+        for (int i = 0; i < cluster.lineIds.size(); i++) {
+            ProductionLine line = data.getLine(cluster.lineIds.get(i));
+            lines.add(new ProductionLine(i + 1, line.getSpeedFactor(), line.getEligibleProducts()));
+            states.add(data.getInitialLineState(line.getId()));
+        }
+        ScheduleData sub = new ScheduleData(products, orders, data.getPlanStartTime(), lines, data.getCalendar())
+                .withInitialLineStates(states);
+
+        System.out.printf("求解产品簇 %s: %d 个订单, 产线 %s%n", cluster.productIds, orders.size(), cluster.lineIds);
+        GAScheduler scheduler = new GAScheduler(sub, populationSize, crossoverRate, mutationRate, maxGenerations);
+        scheduler.setMetricsRegistry(metrics);
+        scheduler.setPathRelinkingThreads(1); // 各产品簇已占满线程池，路径重连不再另开线程
+        Chromosome local = scheduler.run();
+
+        List<Integer> globalAssignment = new ArrayList<>(local.getMachineAssignment().size());
+        for (int localLine : local.getMachineAssignment()) {
+            globalAssignment.add(cluster.lineIds.get(localLine - 1));
+        }
+        return new Chromosome(local.getOperationSequence(), globalAssignment);
+    }
+
+    private Product productOf(int productId) {
+        for (Product p : data.getProducts()) {
+            if (p.getId() == productId) return p;
+        }
+        throw new IllegalArgumentException("不存在的产品: " + productId);
+    }
+
+    private double speedOf(int lineId) {
+        return data.getLine(lineId).getSpeedFactor();
+    }
+
+    /**
+     * 产品簇：一组产品及其独占的产线
+     */
+    static class Cluster {
+        final List<Integer> productIds = new ArrayList<>();
+        final List<Integer> lineIds = new ArrayList<>();
+    }
+}
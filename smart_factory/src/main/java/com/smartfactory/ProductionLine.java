@@ -0,0 +1,47 @@
+package com.smartfactory;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 生产线定义：可生产的产品集合 + 速度系数。
+ * 不同生产线之间允许存在差异（部分产线只能生产特定产品，或加工速度不同）。
+ */
+public class ProductionLine {
+    private int id;                     // 生产线ID (从1开始连续编号)
+    private double speedFactor;         // 速度系数：1.0 为标准速度，2.0 表示加工时间减半
+    private Set<Integer> eligibleProducts; // 可生产的产品ID，为空表示可生产所有产品
+
+    public ProductionLine(int id) {
+        this(id, 1.0, Collections.<Integer>emptySet());
+    }
+
+    public ProductionLine(int id, double speedFactor, Set<Integer> eligibleProducts) {
+        if (speedFactor <= 0) {
+            throw new IllegalArgumentException("生产线 " + id + " 的速度系数必须大于0: " + speedFactor);
+        }
+        this.id = id;
+        this.speedFactor = speedFactor;
+        this.eligibleProducts = Collections.unmodifiableSet(new HashSet<>(eligibleProducts));
+    }
+
+    // Getters
+    public int getId() { return id; }
+    public double getSpeedFactor() { return speedFactor; }
+    public Set<Integer> getEligibleProducts() { return eligibleProducts; }
+
+    /**
+     * 该生产线能否生产指定产品
+     */
+    public boolean canProduce(int productId) {
+        return eligibleProducts.isEmpty() || eligibleProducts.contains(productId);
+    }
+
+    /**
+     * 单个工件在本生产线上的实际加工时长（秒）
+     */
+    public long getProcessingSeconds(Product product) {
+        return (long) (product.getUnitProcessingTime() / speedFactor * 3600);
+    }
+}
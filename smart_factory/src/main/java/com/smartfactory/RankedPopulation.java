@@ -0,0 +1,107 @@
+package com.smartfactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 稳态 GA 的种群：个体存放在固定槽位中（按下标随机访问，供锦标赛选择），
+ * 另以 (适应度, 槽位) 排序的有序集合索引，最优 / 最差查询与单个替换均为 O(log n)。
+ * 同时按内容指纹计数，插入前可 O(1) 判断是否与现有个体重复。
+ * 槽位中的个体在替换前不得修改内容或适应度。
+ */
+class RankedPopulation {
+    private final List<Chromosome> slots;
+    private final double[] fitness;
+    private final long[] fingerprints;
+    private final TreeSet<Integer> ranking;
+    private final Map<Long, Integer> fingerprintCount = new HashMap<>();
+
+    /**
+     * @param members 已评估的个体
+     */
+    RankedPopulation(List<Chromosome> members) {
+        int n = members.size();
+        slots = new ArrayList<>(members);
+        fitness = new double[n];
+        fingerprints = new long[n];
+        ranking = new TreeSet<>(Comparator.<Integer>comparingDouble(i -> fitness[i]).thenComparingInt(i -> i));
+        for (int i = 0; i < n; i++) {
+            Chromosome c = members.get(i);
+            fitness[i] = c.getFitness();
+            fingerprints[i] = c.fingerprint();
+            fingerprintCount.merge(fingerprints[i], 1, Integer::sum);
+            ranking.add(i);
+        }
+    }
+
+    int size() {
+        return slots.size();
+    }
+
+    Chromosome get(int slot) {
+        return slots.get(slot);
+    }
+
+    int bestSlot() {
+        return ranking.first();
+    }
+
+    int worstSlot() {
+        return ranking.last();
+    }
+
+    Chromosome best() {
+        return slots.get(bestSlot());
+    }
+
+    Chromosome worst() {
+        return slots.get(worstSlot());
+    }
+
+    /**
+     * 种群中是否已有内容指纹为 fingerprint 的个体
+     */
+    boolean contains(long fingerprint) {
+        return fingerprintCount.containsKey(fingerprint);
+    }
+
+    /**
+     * 以已评估的个体 c 替换槽位 slot 中的个体
+     */
+    void replace(int slot, Chromosome c, long fingerprint) {
+        ranking.remove(slot);
+        Integer count = fingerprintCount.get(fingerprints[slot]);
+        if (count == 1) {
+            fingerprintCount.remove(fingerprints[slot]);
+        } else {
+            fingerprintCount.put(fingerprints[slot], count - 1);
+        }
+        slots.set(slot, c);
+        fitness[slot] = c.getFitness();
+        fingerprints[slot] = fingerprint;
+        fingerprintCount.merge(fingerprint, 1, Integer::sum);
+        ranking.add(slot);
+    }
+
+    /**
+     * 不同内容的个体所占比例
+     */
+    double diversity() {
+        return slots.isEmpty() ? 0.0 : (double) fingerprintCount.size() / slots.size();
+    }
+
+    /**
+     * 按适应度升序排列的个体列表（新列表，个体本身不复制）
+     */
+    List<Chromosome> toSortedList() {
+        List<Chromosome> sorted = new ArrayList<>(slots.size());
+        for (int slot : ranking) {
+            sorted.add(slots.get(slot));
+        }
+        return sorted;
+    }
+}
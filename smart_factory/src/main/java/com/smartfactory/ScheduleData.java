@@ -1,25 +1,144 @@
 package com.smartfactory;
 
+import com.smartfactory.util.ShiftCalendar;
+
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ScheduleData {
-    public static final int NUM_LINES = 3; // 生产线数量
+    public static final int NUM_LINES = 3; // 默认生产线数量（未显式配置生产线时使用）
     public static final double TIME_BLOCK_HOURS = 4.0; // 换产品时间间隔
     public static final double PENALTY_RATE = 0.1; // 订单罚款比例
 
     private List<Product> products;
     private List<Order> orders;
     private LocalDateTime planStartTime; // 排程基准时间
+    private List<ProductionLine> lines;  // 生产线配置（按ID排序，ID从1开始连续）
+    private ShiftCalendar calendar;      // 班次工资日历
+    private List<LineState> initialLineStates; // 各产线在排程开始时的状态（null 表示全部在基准时间空闲）
+
+    // 产品ID -> 可生产该产品的生产线ID数组（预计算，供变异/解码快速随机抽取）
+    private Map<Integer, int[]> eligibleLinesByProduct = new HashMap<>();
+    private int[] allLineIds;
 
     public ScheduleData(List<Product> products, List<Order> orders, LocalDateTime planStartTime) {
+        this(products, orders, planStartTime, defaultLines(NUM_LINES));
+    }
+
+    public ScheduleData(List<Product> products, List<Order> orders, LocalDateTime planStartTime,
+                        List<ProductionLine> lines) {
+        this(products, orders, planStartTime, lines, ShiftCalendar.defaultCalendar());
+    }
+
+    public ScheduleData(List<Product> products, List<Order> orders, LocalDateTime planStartTime,
+                        List<ProductionLine> lines, ShiftCalendar calendar) {
         this.products = products;
         this.orders = orders;
         this.planStartTime = planStartTime;
+        this.calendar = calendar;
+
+        List<ProductionLine> sorted = new ArrayList<>(lines);
+        sorted.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+        if (sorted.isEmpty()) {
+            throw new IllegalArgumentException("至少需要配置一条生产线");
+        }
+        for (int i = 0; i < sorted.size(); i++) {
+            if (sorted.get(i).getId() != i + 1) {
+                throw new IllegalArgumentException("生产线ID必须从1开始连续编号，缺少: " + (i + 1));
+            }
+        }
+        this.lines = Collections.unmodifiableList(sorted);
+
+        allLineIds = new int[sorted.size()];
+        for (int i = 0; i < allLineIds.length; i++) {
+            allLineIds[i] = i + 1;
+        }
+        for (Product p : products) {
+            int[] eligible = sorted.stream()
+                    .filter(l -> l.canProduce(p.getId()))
+                    .mapToInt(ProductionLine::getId)
+                    .toArray();
+            if (eligible.length == 0) {
+                throw new IllegalArgumentException("没有任何生产线可以生产产品 " + p.getId());
+            }
+            eligibleLinesByProduct.put(p.getId(), eligible);
+        }
+    }
+
+    /**
+     * 复制构造：共享产品/产线/日历配置及预计算结果，替换订单与初始产线状态
+     */
+    private ScheduleData(ScheduleData base, List<Order> orders, List<LineState> initialLineStates) {
+        this.products = base.products;
+        this.orders = orders;
+        this.planStartTime = base.planStartTime;
+        this.calendar = base.calendar;
+        this.lines = base.lines;
+        this.eligibleLinesByProduct = base.eligibleLinesByProduct;
+        this.allLineIds = base.allLineIds;
+        this.initialLineStates = initialLineStates;
+    }
+
+    /**
+     * 基于相同配置，只包含指定订单的子问题（用于分解求解）
+     */
+    public ScheduleData withOrders(List<Order> subset) {
+        return new ScheduleData(this, subset, initialLineStates);
+    }
+
+    /**
+     * 基于相同配置，指定各产线初始状态的子问题（按产线ID顺序，长度须等于产线数量）
+     */
+    public ScheduleData withInitialLineStates(List<LineState> states) {
+        if (states != null && states.size() != lines.size()) {
+            throw new IllegalArgumentException("初始产线状态数量 " + states.size() + " 与产线数量 " + lines.size() + " 不一致");
+        }
+        return new ScheduleData(this, orders, states);
+    }
+
+    /**
+     * 构建 n 条无差异的默认生产线（全部产品可生产，速度系数1.0）
+     */
+    public static List<ProductionLine> defaultLines(int n) {
+        List<ProductionLine> list = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            list.add(new ProductionLine(i));
+        }
+        return list;
     }
 
     // Getters
     public List<Product> getProducts() { return products; }
     public List<Order> getOrders() { return orders; }
     public LocalDateTime getPlanStartTime() { return planStartTime; }
+    public List<ProductionLine> getLines() { return lines; }
+    public int getNumLines() { return lines.size(); }
+    public ShiftCalendar getCalendar() { return calendar; }
+
+    /**
+     * 获取指定产线在排程开始时的状态（未设置时为基准时间空闲）
+     */
+    public LineState getInitialLineState(int lineId) {
+        return initialLineStates != null ? initialLineStates.get(lineId - 1) : LineState.idleAt(planStartTime);
+    }
+
+    /**
+     * 获取指定ID的生产线
+     */
+    public ProductionLine getLine(int lineId) {
+        return lines.get(lineId - 1);
+    }
+
+    /**
+     * 获取可生产指定产品的生产线ID数组（调用方不得修改返回的数组）
+     * 未知产品返回全部生产线。
+     */
+    public int[] getEligibleLines(int productId) {
+        int[] eligible = eligibleLinesByProduct.get(productId);
+        return eligible != null ? eligible : allLineIds;
+    }
 }
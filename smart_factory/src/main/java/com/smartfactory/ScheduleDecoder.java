@@ -0,0 +1,427 @@
+package com.smartfactory;
+
+import com.smartfactory.util.JobTable;
+import com.smartfactory.util.SlotCostTable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 核心调度解码器：将染色体转换为调度方案并计算成本
+ * 实现了：
+ * 1. 4小时工时块约束（每4小时换一次产品/结算一次工资）。
+ * 2. 拼单逻辑：同类产品如果当前块有剩余时间，合并加工。
+ * 3. 尾数拼单：同一产品、同一产线的订单尾数工件合并进同一个块。
+ * 4. 阶梯工资成本计算：按班次日历预计算的工时块成本表 O(1) 查询。
+ *
+ * 所有订单/产品/产线查找在构造时预计算为数组下标，产线状态使用原始数组保存，
+ * 时间统一用"距排程基准时间的秒数"表示，只有生成任务表时才换算为 epoch 秒。
+ */
+public class ScheduleDecoder {
+    static final long BLOCK_SECONDS = (long) (ScheduleData.TIME_BLOCK_HOURS * 3600);
+    // 预计算成本表的上限（约 2000 年的 4 小时块），超出部分回退到日历直接计算
+    private static final long MAX_PRECOMPUTED_SLOTS = 1L << 22;
+    // 带阈值评估时，每调度这么多个工件计算一次完整下界（其余步只比较已发生的成本）
+    private static final int BOUND_CHECK_INTERVAL = 32;
+
+    private final ScheduleData data;
+    private final LocalDateTime planStartTime;
+    private final long planStartEpoch;     // 基准时间的 epoch 秒（与 JobTable 的时间列一致）
+    private final int numLines;
+
+    // 工件ID -> {订单下标, 工件序号}
+    private final Map<String, int[]> opOrderIndex = new HashMap<>();
+    // 订单维度（按 data.getOrders() 下标）
+    private final int[] orderIds;
+    private final int[] orderProduct;      // 订单 -> 产品下标
+    private final int[] orderQuantity;
+    private final double[] orderValue;
+    private final long[] orderDeadline;    // 对齐后的截止时间（秒偏移）
+    private final double totalRevenue;
+    // 产品维度（按 data.getProducts() 下标）
+    private final int[] productIds;
+    private final long[][] durationSeconds; // [产品下标][产线下标] -> 单件加工秒数
+    private final boolean[][] eligibleMask; // [产品下标][产线下标] -> 是否可生产
+    private final SlotCostTable slotCosts;  // 工时块下标 -> 工资成本
+    private final long[] minDuration;       // [产品下标] -> 在可生产产线上的最短单件加工秒数
+    private final double minBlockCost;      // 任一工时块的最低工资（下界用；成本表未覆盖整个排程跨度时为 0）
+    // 产线初始状态（支持跨窗口传递）
+    private final long[] initialFreeTime;
+    private final long[] initialPaidUntil;
+    private final int[] initialProduct;     // 产品下标，-1 表示无
+
+    public ScheduleDecoder(ScheduleData data) {
+        this.data = data;
+        this.planStartTime = data.getPlanStartTime();
+        this.planStartEpoch = JobTable.toEpochSecond(planStartTime);
+        this.numLines = data.getNumLines();
+
+        List<Product> products = data.getProducts();
+        Map<Integer, Integer> productIndex = new HashMap<>();
+        productIds = new int[products.size()];
+        durationSeconds = new long[products.size()][numLines];
+        eligibleMask = new boolean[products.size()][numLines];
+        for (int p = 0; p < products.size(); p++) {
+            Product product = products.get(p);
+            productIndex.put(product.getId(), p);
+            productIds[p] = product.getId();
+            for (int l = 0; l < numLines; l++) {
+                ProductionLine line = data.getLine(l + 1);
+                durationSeconds[p][l] = line.getProcessingSeconds(product);
+                eligibleMask[p][l] = line.canProduce(product.getId());
+            }
+        }
+
+        List<Order> orders = data.getOrders();
+        int n = orders.size();
+        orderIds = new int[n];
+        orderProduct = new int[n];
+        orderQuantity = new int[n];
+        orderValue = new double[n];
+        orderDeadline = new long[n];
+        double revenue = 0.0;
+        for (int o = 0; o < n; o++) {
+            Order order = orders.get(o);
+            Integer p = productIndex.get(order.getProductId());
+            if (p == null) {
+                throw new IllegalArgumentException("订单 " + order.getId() + " 引用了不存在的产品 " + order.getProductId());
+            }
+            orderIds[o] = order.getId();
+            orderProduct[o] = p;
+            orderQuantity[o] = order.getQuantity();
+            orderValue[o] = order.getTotalValue();
+            orderDeadline[o] = toOffset(order.getAlignedDeadline());
+            revenue += order.getTotalValue();
+            for (int i = 1; i <= order.getQuantity(); i++) {
+                opOrderIndex.put("O" + order.getId() + "_" + i, new int[]{o, i});
+            }
+        }
+        totalRevenue = revenue;
+
+        initialFreeTime = new long[numLines];
+        initialPaidUntil = new long[numLines];
+        initialProduct = new int[numLines];
+        long latestFree = 0;
+        for (int l = 0; l < numLines; l++) {
+            LineState state = data.getInitialLineState(l + 1);
+            initialFreeTime[l] = Math.max(0, toOffset(state.getFreeAt()));
+            initialPaidUntil[l] = Math.max(0, toOffset(state.getPaidUntil()));
+            Integer p = productIndex.get(state.getCurrentProductId());
+            initialProduct[l] = p != null ? p : -1;
+            latestFree = Math.max(latestFree, initialFreeTime[l]);
+        }
+
+        // 成本表覆盖最坏情况的排程跨度：所有工件串行在一条产线上、每件独占若干个块
+        long maxPieceSeconds = BLOCK_SECONDS;
+        for (long[] row : durationSeconds) {
+            for (long d : row) maxPieceSeconds = Math.max(maxPieceSeconds, d);
+        }
+        long blocksPerPiece = (maxPieceSeconds + BLOCK_SECONDS - 1) / BLOCK_SECONDS;
+        long slots = latestFree / BLOCK_SECONDS + (long) opOrderIndex.size() * blocksPerPiece + 1;
+        slotCosts = data.getCalendar().buildSlotTable(planStartTime, BLOCK_SECONDS, (int) Math.min(slots, MAX_PRECOMPUTED_SLOTS));
+
+        minDuration = new long[products.size()];
+        for (int p = 0; p < products.size(); p++) {
+            minDuration[p] = Long.MAX_VALUE;
+            for (int l = 0; l < numLines; l++) {
+                if (eligibleMask[p][l]) minDuration[p] = Math.min(minDuration[p], durationSeconds[p][l]);
+            }
+        }
+        double minCost = 0.0;
+        if (slots <= MAX_PRECOMPUTED_SLOTS && slotCosts.size() > 0) {
+            minCost = Double.POSITIVE_INFINITY;
+            for (int k = 0; k < slotCosts.size(); k++) {
+                minCost = Math.min(minCost, slotCosts.costAt(k * BLOCK_SECONDS));
+            }
+        }
+        minBlockCost = Math.max(0.0, minCost);
+    }
+
+    /**
+     * 完整解码：生成 Job 列表、订单完成时间与总成本
+     */
+    public GAScheduler.ScheduleResult decode(Chromosome chromosome) {
+        GAScheduler.ScheduleResult result = new GAScheduler.ScheduleResult(0.0, 0.0,
+                new JobTable(orderIds, chromosome.getOperationSequence().size()), new HashMap<>());
+        decode(chromosome, result, Double.POSITIVE_INFINITY);
+        return result;
+    }
+
+    /**
+     * 只计算适应度（负利润），不创建 Job 对象
+     */
+    public double evaluate(Chromosome chromosome) {
+        return decode(chromosome, null, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * 带阈值的适应度评估：解码过程中维护适应度的下界，一旦下界超过 cutoff 立即终止并返回正无穷；
+     * 否则返回与 evaluate(chromosome) 相同的适应度（可能小于、等于或略大于 cutoff）。
+     * 下界 = 已发生的生产成本 + 剩余工件至少还要开启的工时块数 × 最低块工资 + 已无法避免的罚款 - 总收入，其中
+     *   剩余工时块：每种产品的剩余工时（按最快可用产线计）先扣除当前同产品工时块的剩余容量，
+     *     每个新块最多覆盖 max(4小时, 单件最短工时)；
+     *   无法避免的罚款：已完工的延期订单，以及即使下一件在最早可用产线上立即完工也已超过截止时间的未完工订单。
+     * 返回正无穷意味着真实适应度一定大于 cutoff，调用方应视同拒绝。
+     */
+    public double evaluate(Chromosome chromosome, double cutoff) {
+        return decode(chromosome, null, cutoff);
+    }
+
+    /**
+     * 解码主过程，返回适应度。result 为 null 时只算成本：不分配任务表与完成时间表；
+     * 否则把任务、订单完成时间、罚款与产线终态写入 result。cutoff 为正无穷时不做剪枝，被剪枝时返回正无穷。
+     */
+    private double decode(Chromosome chromosome, GAScheduler.ScheduleResult result, double cutoff) {
+        boolean withJobs = result != null;
+        JobTable jobs = withJobs ? result.scheduledJobs : null;
+        Map<Integer, LocalDateTime> orderCompletionTime = withJobs ? result.completionTimes : null;
+
+        // 如果订单列表为空，直接返回空结果
+        if (orderIds.length == 0) {
+            if (withJobs) {
+                result.finalLineStates = toLineStates(initialFreeTime, initialPaidUntil, initialProduct);
+            }
+            return 0.0;
+        }
+
+        List<String> opSequence = chromosome.getOperationSequence();
+        List<Integer> assignment = chromosome.getMachineAssignment();
+        int size = opSequence.size();
+
+        // 初始化生产线状态（下标 = 产线ID - 1）
+        long[] lineFreeTime = initialFreeTime.clone();
+        long[] linePaidUntil = initialPaidUntil.clone();
+        int[] lineCurrentProduct = initialProduct.clone();
+        LineAvailabilityHeap availability = new LineAvailabilityHeap(numLines);
+        for (int l = 0; l < numLines; l++) {
+            availability.update(l, lineFreeTime[l]);
+        }
+
+        // ========== 预处理阶段：解析工件并识别尾数工件 ==========
+        int[] geneOrder = new int[size];
+        int[] genePiece = withJobs ? new int[size] : null;
+        boolean[] isLastPiece = new boolean[size];
+        int[] orderPieceCount = new int[orderIds.length];
+        for (int i = 0; i < size; i++) {
+            int[] op = opOrderIndex.get(opSequence.get(i));
+            int o = op[0];
+            geneOrder[i] = o;
+            if (withJobs) genePiece[i] = op[1];
+            isLastPiece[i] = ++orderPieceCount[o] == orderQuantity[o];
+        }
+
+        // 产品下标 -> 尾数工件索引列表
+        List<List<Integer>> tailPieceIndicesByProduct = new ArrayList<>(productIds.length);
+        for (int p = 0; p < productIds.length; p++) {
+            tailPieceIndicesByProduct.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            if (isLastPiece[i]) {
+                tailPieceIndicesByProduct.get(orderProduct[geneOrder[i]]).add(i);
+            }
+        }
+
+        // 剪枝用：各产品剩余工件数、已确定的罚款；阈值比较留出浮点误差的余量
+        boolean pruning = cutoff != Double.POSITIVE_INFINITY;
+        int[] remainingPieces = pruning ? new int[productIds.length] : null;
+        if (pruning) {
+            for (int i = 0; i < size; i++) {
+                remainingPieces[orderProduct[geneOrder[i]]]++;
+            }
+        }
+        double lockedPenalty = 0.0;
+        double pruneAbove = cutoff + totalRevenue + 1e-9 * (Math.abs(cutoff) + totalRevenue) + 1e-6;
+        int scheduled = 0;
+
+        // ========== 主调度循环 ==========
+        // 已调度的工件（含作为尾数被合并的工件），避免重复调度
+        boolean[] processed = new boolean[size];
+        int[] orderProgress = new int[orderIds.length];
+        long[] orderFinish = new long[orderIds.length];
+        double totalProductionCost = 0.0;
+        List<Integer> mergedIndices = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            if (processed[i]) {
+                continue;
+            }
+            if (pruning) {
+                // 已发生的成本每步比较；完整下界每隔若干工件计算一次
+                double known = totalProductionCost + lockedPenalty;
+                if (known > pruneAbove || (++scheduled % BOUND_CHECK_INTERVAL == 0
+                        && known + remainingBound(remainingPieces, orderPieceCount, orderProgress,
+                                lineFreeTime, linePaidUntil, lineCurrentProduct) > pruneAbove)) {
+                    return Double.POSITIVE_INFINITY;
+                }
+            }
+            processed[i] = true;
+
+            int o = geneOrder[i];
+            int p = orderProduct[o];
+            int line = resolveLine(assignment.get(i), p, availability);
+            long durationSeconds = this.durationSeconds[p][line];
+
+            // ========== 主动尾数拼单逻辑 ==========
+            mergedIndices.clear();
+            mergedIndices.add(i);
+            if (isLastPiece[i] && durationSeconds < BLOCK_SECONDS) {
+                long totalMergedSeconds = durationSeconds;
+                for (int otherIndex : tailPieceIndicesByProduct.get(p)) {
+                    // 只合并尚未调度、且染色体分配到同一生产线的尾数工件
+                    if (processed[otherIndex] || assignment.get(otherIndex) != line + 1) {
+                        continue;
+                    }
+                    if (totalMergedSeconds + durationSeconds <= BLOCK_SECONDS) {
+                        mergedIndices.add(otherIndex);
+                        totalMergedSeconds += durationSeconds;
+                        processed[otherIndex] = true;
+                    }
+                }
+                durationSeconds = totalMergedSeconds;
+            }
+
+            long freeTime = lineFreeTime[line];
+            long startTime;
+            double jobCost;
+
+            // --- 策略：拼单判断 ---
+            if (lineCurrentProduct[line] == p && linePaidUntil[line] - freeTime >= durationSeconds) {
+                // [拼单模式]：插入当前块，无需额外付费
+                startTime = freeTime;
+                jobCost = 0.0;
+            } else {
+                // [新块模式]：开启新的4小时工时块
+                startTime = nextGridOffset(freeTime);
+                jobCost = slotCosts.costAt(startTime);
+                totalProductionCost += jobCost;
+                linePaidUntil[line] = startTime + BLOCK_SECONDS;
+                lineCurrentProduct[line] = p;
+            }
+            long endTime = startTime + durationSeconds;
+            lineFreeTime[line] = endTime;
+            availability.update(line, endTime);
+
+            // 为所有合并的工件记录完成情况（只有第一个工件承担成本）
+            long startEpoch = planStartEpoch + startTime;
+            long endEpoch = planStartEpoch + endTime;
+            double coefficient = withJobs ? slotCosts.coefficientAt(startTime) : 0.0;
+            for (int mergedIndex : mergedIndices) {
+                int mo = geneOrder[mergedIndex];
+                if (withJobs) {
+                    double mergedJobCost = (mergedIndex == i) ? jobCost : 0.0;
+                    jobs.add(mo, genePiece[mergedIndex], productIds[p], line + 1, startEpoch, endEpoch,
+                            coefficient, mergedJobCost);
+                }
+                if (pruning) {
+                    remainingPieces[p]--;
+                }
+                if (++orderProgress[mo] == orderQuantity[mo]) {
+                    orderFinish[mo] = endTime;
+                    if (withJobs) {
+                        orderCompletionTime.put(orderIds[mo], toTime(endTime));
+                    }
+                    if (endTime > orderDeadline[mo]) {
+                        lockedPenalty += orderValue[mo] * ScheduleData.PENALTY_RATE;
+                    }
+                }
+            }
+        }
+
+        // 计算罚款（使用对齐后的截止时间）
+        double penalty = 0.0;
+        for (int o = 0; o < orderIds.length; o++) {
+            if (orderProgress[o] == orderQuantity[o] && orderQuantity[o] > 0 && orderFinish[o] > orderDeadline[o]) {
+                penalty += orderValue[o] * ScheduleData.PENALTY_RATE;
+            }
+        }
+
+        // 计算利润 = 总收入 - 生产成本 - 罚款
+        double profit = totalRevenue - totalProductionCost - penalty;
+
+        // 注意：适应度值越小越好，所以返回负利润作为"成本"
+        if (withJobs) {
+            result.totalCost = -profit;
+            result.totalPenalty = penalty;
+            result.finalLineStates = toLineStates(lineFreeTime, linePaidUntil, lineCurrentProduct);
+        }
+        return -profit;
+    }
+
+    /**
+     * 剩余部分的成本下界：剩余工件至少还要开启的工时块工资 + 未完工订单中已无法按期完成的罚款
+     */
+    private double remainingBound(int[] remainingPieces, int[] orderPieceCount, int[] orderProgress,
+                                  long[] lineFreeTime, long[] linePaidUntil, int[] lineCurrentProduct) {
+        double bound = 0.0;
+        long[] earliestFinish = new long[productIds.length];
+        for (int p = 0; p < productIds.length; p++) {
+            earliestFinish[p] = Long.MAX_VALUE;
+            if (remainingPieces[p] == 0 || minDuration[p] == Long.MAX_VALUE) {
+                continue;
+            }
+            long capacity = 0;
+            for (int l = 0; l < numLines; l++) {
+                if (!eligibleMask[p][l]) continue;
+                earliestFinish[p] = Math.min(earliestFinish[p], lineFreeTime[l] + durationSeconds[p][l]);
+                if (lineCurrentProduct[l] == p) {
+                    capacity += Math.max(0, linePaidUntil[l] - lineFreeTime[l]);
+                }
+            }
+            long work = remainingPieces[p] * minDuration[p] - capacity;
+            if (work > 0) {
+                long cover = Math.max(BLOCK_SECONDS, minDuration[p]);
+                bound += ((work + cover - 1) / cover) * minBlockCost;
+            }
+        }
+        for (int o = 0; o < orderIds.length; o++) {
+            // 序列中工件不全的订单不会完工，也就不会被罚款
+            if (orderPieceCount[o] == orderQuantity[o] && orderProgress[o] < orderQuantity[o]
+                    && earliestFinish[orderProduct[o]] != Long.MAX_VALUE
+                    && earliestFinish[orderProduct[o]] > orderDeadline[o]) {
+                bound += orderValue[o] * ScheduleData.PENALTY_RATE;
+            }
+        }
+        return bound;
+    }
+
+    private List<LineState> toLineStates(long[] freeTime, long[] paidUntil, int[] currentProduct) {
+        List<LineState> states = new ArrayList<>(numLines);
+        for (int l = 0; l < numLines; l++) {
+            int cp = currentProduct[l];
+            states.add(new LineState(toTime(freeTime[l]), toTime(paidUntil[l]),
+                    cp >= 0 ? productIds[cp] : LineState.NO_PRODUCT));
+        }
+        return states;
+    }
+
+    /**
+     * 解析染色体中的产线基因：若指定产线不存在或不能生产该产品，
+     * 修复为最早空闲的可用产线。
+     */
+    private int resolveLine(int gene, int productIndex, LineAvailabilityHeap availability) {
+        int line = gene - 1;
+        if (line >= 0 && line < numLines && eligibleMask[productIndex][line]) {
+            return line;
+        }
+        return availability.findEarliest(eligibleMask[productIndex]);
+    }
+
+    /**
+     * 找到基于排程基准的下一个 4小时网格时间（已在网格线上则返回自身）
+     */
+    static long nextGridOffset(long offset) {
+        long remainder = offset % BLOCK_SECONDS;
+        return remainder == 0 ? offset : offset - remainder + BLOCK_SECONDS;
+    }
+
+    private long toOffset(LocalDateTime time) {
+        return java.time.Duration.between(planStartTime, time).getSeconds();
+    }
+
+    private LocalDateTime toTime(long offset) {
+        return planStartTime.plusSeconds(offset);
+    }
+}
@@ -0,0 +1,690 @@
+package com.smartfactory;
+
+import com.smartfactory.util.DataLoader;
+import com.smartfactory.util.MetricsRegistry;
+import com.smartfactory.util.OrderCsvLoader;
+import com.smartfactory.util.ScheduleExporter;
+import com.smartfactory.util.ShiftCalendar;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地调度服务：常驻 JVM，用 JDK 自带的 HTTP 服务器只监听 127.0.0.1。
+ * 省去每次排程启动 JVM、类加载、JIT 预热与 CSV 解析的开销，适合频繁的小规模试算。
+ *
+ * 接口：
+ *   POST   /jobs?generations=50&population=50&timeLimitMs=0&seed=&planStart=2025-12-01T08:00
+ *          请求体为分节文本，各节内容与 input/run 下同名 CSV 的格式相同：
+ *            [products] ... [orders] ... [lines]（可选） [calendar]（可选）
+ *          planStart 缺省为今天 08:00，只排程在此之前到达的订单。
+ *          返回 202 {"id", "instanceCached"}；等待队列已满返回 503，请求体有误返回 400
+ *   GET    /jobs/{id}            任务状态
+ *   GET    /jobs/{id}/events     Server-Sent Events 进度流：status、best、generation，结束时 done
+ *   GET    /jobs/{id}/result     排程结果（?format=jsonl|csv，?table=jobs|orders），未结束时返回 409，
+ *                                已结束但没有结果（失败、开始前被取消）时返回 410 及任务状态与错误信息
+ *   DELETE /jobs/{id}            取消任务，保留已找到的最优解；仍在排队的任务立即移出队列并结束
+ *   GET    /metrics              Prometheus 文本格式指标（服务计数与全部任务的 GA 指标）
+ *
+ * 任务在固定大小的工作线程池上运行，等待队列有界。解析后的问题实例（CompiledInstance）
+ * 按"请求体 SHA-256 + planStart"缓存（LRU），相同订单簿的重复请求直接复用。
+ */
+public class SchedulingService {
+    private static final int MAX_RETAINED_JOBS = 1000;   // 保留的已结束任务数上限（超出时淘汰最早的）
+    private static final int EVENT_QUEUE_CAPACITY = 256; // 每个 SSE 连接的待发送事件上限，满时丢弃进度事件
+    private static final long KEEPALIVE_SECONDS = 15;
+    private static final double CROSSOVER_RATE = 0.8;
+    private static final double MUTATION_RATE = 0.2;
+
+    private final int port;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService httpExecutor;
+    private final int cacheCapacity;
+    private final Map<String, FutureTask<CompiledInstance>> instanceCache;
+    private final Map<String, JobRun> jobs = new LinkedHashMap<>();
+    private final AtomicLong jobSequence = new AtomicLong();
+    private HttpServer server;
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final MetricsRegistry.Counter submitted = metrics.counter("service_jobs_submitted_total", "已接受的排程任务数");
+    private final MetricsRegistry.Counter rejected = metrics.counter("service_jobs_rejected_total", "队列已满被拒绝的请求数");
+    private final MetricsRegistry.Counter completed = metrics.counter("service_jobs_completed_total", "已结束的任务数（含取消与失败）");
+    private final MetricsRegistry.Counter cacheHits = metrics.counter("service_instance_cache_hits_total", "问题实例缓存命中次数");
+    private final MetricsRegistry.Counter cacheMisses = metrics.counter("service_instance_cache_misses_total", "问题实例缓存未命中次数");
+    private final MetricsRegistry.Timer jobTimer = metrics.timer("service_job_seconds", "任务从提交到结束的耗时");
+    private final MetricsRegistry.Gauge queuedGauge = metrics.gauge("service_jobs_queued", "等待中的任务数");
+    private final MetricsRegistry.Gauge runningGauge = metrics.gauge("service_jobs_running", "运行中的任务数");
+
+    /**
+     * @param port          监听端口，0 表示自动分配
+     * @param workerThreads 同时运行的任务数
+     * @param queueCapacity 等待队列容量，满时新请求返回 503
+     * @param cacheCapacity 缓存的问题实例数
+     */
+    public SchedulingService(int port, int workerThreads, int queueCapacity, int cacheCapacity) {
+        if (workerThreads < 1 || queueCapacity < 1 || cacheCapacity < 1) {
+            throw new IllegalArgumentException("线程数、队列容量与缓存容量必须 >= 1");
+        }
+        this.port = port;
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads("schedule-worker"));
+        // SSE 连接会长时间占用处理线程，因此处理线程多于工作线程
+        this.httpExecutor = Executors.newFixedThreadPool(Math.max(8, workerThreads * 4), daemonThreads("schedule-http"));
+        this.cacheCapacity = cacheCapacity;
+        this.instanceCache = new LinkedHashMap<String, FutureTask<CompiledInstance>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FutureTask<CompiledInstance>> eldest) {
+                return size() > SchedulingService.this.cacheCapacity;
+            }
+        };
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/jobs", this::handleJobs);
+        server.createContext("/metrics", this::handleMetrics);
+        server.setExecutor(httpExecutor);
+        server.start();
+    }
+
+    /**
+     * 停止服务：取消运行中的任务并关闭线程池
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+        synchronized (jobs) {
+            for (JobRun job : jobs.values()) {
+                job.cancel();
+            }
+        }
+        workers.shutdownNow();
+        httpExecutor.shutdownNow();
+    }
+
+    /**
+     * 实际监听的端口
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    // ---------- 请求处理 ----------
+
+    private void handleJobs(HttpExchange ex) throws IOException {
+        try {
+            String[] parts = ex.getRequestURI().getPath().split("/");
+            // "/jobs" -> ["", "jobs"]，"/jobs/{id}/events" -> ["", "jobs", id, "events"]
+            String method = ex.getRequestMethod();
+            if (parts.length == 2 && method.equals("POST")) {
+                submit(ex);
+                return;
+            }
+            JobRun job = parts.length >= 3 ? findJob(parts[2]) : null;
+            if (job == null || parts.length > 4) {
+                sendJson(ex, 404, "{\"error\": \"not found\"}");
+            } else if (parts.length == 3 && method.equals("GET")) {
+                sendJson(ex, 200, job.statusJson());
+            } else if (parts.length == 3 && method.equals("DELETE")) {
+                cancel(job);
+                sendJson(ex, 202, job.statusJson());
+            } else if (parts.length == 4 && parts[3].equals("events") && method.equals("GET")) {
+                streamEvents(ex, job);
+            } else if (parts.length == 4 && parts[3].equals("result") && method.equals("GET")) {
+                sendResult(ex, job);
+            } else {
+                sendJson(ex, 405, "{\"error\": \"method not allowed\"}");
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendJson(ex, 400, "{\"error\": " + jsonString(e.getMessage()) + "}");
+        } catch (RuntimeException e) {
+            System.err.println("调度服务请求处理失败: " + e);
+            sendJson(ex, 500, "{\"error\": " + jsonString(String.valueOf(e)) + "}");
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void submit(HttpExchange ex) throws IOException {
+        byte[] body = readAll(ex.getRequestBody());
+        Map<String, String> query = parseQuery(ex.getRequestURI().getRawQuery());
+        LocalDateTime planStart = query.containsKey("planStart")
+                ? LocalDateTime.parse(query.get("planStart"))
+                : LocalDate.now().atTime(8, 0);
+        int generations = intParam(query, "generations", 50, 1, 1_000_000);
+        int population = intParam(query, "population", 50, 2, 10_000);
+        long timeLimitMs = intParam(query, "timeLimitMs", 0, 0, Integer.MAX_VALUE);
+        Long seed = query.containsKey("seed") ? Long.valueOf(query.get("seed")) : null;
+
+        String key = sha256Hex(body) + "@" + planStart;
+        // 缓存中放的是编译任务：并发的相同请求只编译一次，其余等待同一结果
+        FutureTask<CompiledInstance> task;
+        boolean cached;
+        synchronized (instanceCache) {
+            task = instanceCache.get(key);
+            cached = task != null;
+            if (!cached) {
+                task = new FutureTask<>(() -> compile(body, planStart));
+                instanceCache.put(key, task);
+            }
+        }
+        CompiledInstance instance;
+        if (cached) {
+            cacheHits.inc();
+        } else {
+            cacheMisses.inc();
+            task.run();
+        }
+        try {
+            instance = task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待实例编译时被中断", e);
+        } catch (ExecutionException e) {
+            synchronized (instanceCache) {
+                instanceCache.remove(key, task);
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof IllegalArgumentException) throw (IllegalArgumentException) cause;
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IllegalStateException("实例编译失败", cause);
+        }
+
+        JobRun job = new JobRun(Long.toString(jobSequence.incrementAndGet()), instance, cached,
+                generations, population, timeLimitMs, seed);
+        register(job);
+        job.task = () -> execute(job);
+        try {
+            workers.execute(job.task);
+        } catch (RejectedExecutionException e) {
+            synchronized (jobs) {
+                jobs.remove(job.id);
+            }
+            rejected.inc();
+            sendJson(ex, 503, "{\"error\": \"queue full\"}");
+            return;
+        }
+        submitted.inc();
+        queuedGauge.set(workers.getQueue().size());
+        sendJson(ex, 202, "{\"id\": " + jsonString(job.id) + ", \"instanceCached\": " + cached + "}");
+    }
+
+    private void execute(JobRun job) {
+        queuedGauge.set(workers.getQueue().size());
+        runningGauge.set(workers.getActiveCount());
+        try {
+            GAScheduler scheduler = new GAScheduler(job.instance, job.population, CROSSOVER_RATE, MUTATION_RATE, job.generations);
+            scheduler.setMetricsRegistry(metrics);
+            scheduler.setProgressLogInterval(0);
+            scheduler.setPathRelinkingThreads(1); // 每个工作线程只运行一个 GA，不超出 --workers 的线程预算
+            scheduler.setTimeLimit(job.timeLimitMs);
+            if (job.seed != null) {
+                scheduler.setRandomSeed(job.seed);
+            }
+            scheduler.addListener(job);
+            if (!job.started(scheduler)) {
+                job.finish("cancelled", null, null);
+                return;
+            }
+            Chromosome best = scheduler.run();
+            BestSnapshot snapshot = scheduler.getCurrentBest();
+            GAScheduler.ScheduleResult result = snapshot != null ? snapshot.getSchedule() : scheduler.getDetailedSchedule(best);
+            job.awaitListener();
+            job.finish(scheduler.isCancelled() ? "cancelled" : "done", result, null);
+        } catch (RuntimeException e) {
+            job.finish("failed", null, String.valueOf(e));
+        } finally {
+            completed.inc();
+            jobTimer.record(System.nanoTime() - job.submittedNanos);
+            runningGauge.set(workers.getActiveCount() - 1);
+        }
+    }
+
+    /**
+     * 取消任务：运行中的任务由 GA 在下一代前停止；仍在等待队列中的任务直接移出队列并立即结束，
+     * 不必等工作线程取出（移出失败说明工作线程已取出，由 execute 中的 started 检查结束）
+     */
+    private void cancel(JobRun job) {
+        job.cancel();
+        if (workers.remove(job.task)) {
+            job.finish("cancelled", null, null);
+            completed.inc();
+            jobTimer.record(System.nanoTime() - job.submittedNanos);
+            queuedGauge.set(workers.getQueue().size());
+        }
+    }
+
+    private void streamEvents(HttpExchange ex, JobRun job) throws IOException {
+        BlockingQueue<String> queue = job.subscribe();
+        ex.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        ex.getResponseHeaders().set("Cache-Control", "no-cache");
+        ex.sendResponseHeaders(200, 0);
+        try (OutputStream out = ex.getResponseBody()) {
+            while (true) {
+                String event = queue.poll(KEEPALIVE_SECONDS, TimeUnit.SECONDS);
+                if (event == null) {
+                    out.write(": keepalive\n\n".getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(event.getBytes(StandardCharsets.UTF_8));
+                }
+                out.flush();
+                if (event != null && event.startsWith("event: done")) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // 客户端断开
+        } finally {
+            job.unsubscribe(queue);
+        }
+    }
+
+    private void sendResult(HttpExchange ex, JobRun job) throws IOException {
+        GAScheduler.ScheduleResult result = job.result;
+        if (result == null) {
+            if (job.isFinished()) {
+                sendJson(ex, 410, job.statusJson()); // 失败或开始前被取消：不会再有结果
+            } else {
+                sendJson(ex, 409, "{\"error\": \"job not finished\", \"state\": " + jsonString(job.state) + "}");
+            }
+            return;
+        }
+        Map<String, String> query = parseQuery(ex.getRequestURI().getRawQuery());
+        ScheduleExporter.Format format = "csv".equals(query.get("format")) ? ScheduleExporter.Format.CSV : ScheduleExporter.Format.JSONL;
+        boolean orders = "orders".equals(query.get("table"));
+        ex.getResponseHeaders().set("Content-Type", format == ScheduleExporter.Format.CSV
+                ? "text/csv; charset=utf-8" : "application/x-ndjson; charset=utf-8");
+        ex.sendResponseHeaders(200, 0);
+        try (OutputStream out = ex.getResponseBody()) {
+            if (orders) {
+                ScheduleExporter.exportOrders(result, job.instance.data.getOrders(), out, format, null);
+            } else {
+                ScheduleExporter.exportJobs(result, out, format, null);
+            }
+        }
+    }
+
+    private void handleMetrics(HttpExchange ex) throws IOException {
+        try {
+            byte[] body = metrics.toPrometheus().getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            ex.sendResponseHeaders(200, body.length);
+            ex.getResponseBody().write(body);
+        } finally {
+            ex.close();
+        }
+    }
+
+    // ---------- 任务表 ----------
+
+    private void register(JobRun job) {
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            if (jobs.size() > MAX_RETAINED_JOBS) {
+                Iterator<JobRun> it = jobs.values().iterator();
+                while (jobs.size() > MAX_RETAINED_JOBS && it.hasNext()) {
+                    if (it.next().isFinished()) {
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private JobRun findJob(String id) {
+        synchronized (jobs) {
+            return jobs.get(id);
+        }
+    }
+
+    // ---------- 请求体解析 ----------
+
+    /**
+     * 把分节请求体解析为问题实例。各节写入临时目录后复用文件加载器，保证与命令行版本的解析规则一致。
+     */
+    static CompiledInstance compile(byte[] body, LocalDateTime planStart) throws IOException {
+        Map<String, StringBuilder> sections = new HashMap<>();
+        StringBuilder current = null;
+        for (String line : new String(body, StandardCharsets.UTF_8).split("\r?\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("[") && trimmed.endsWith("]")) {
+                String name = trimmed.substring(1, trimmed.length() - 1).trim().toLowerCase();
+                if (!name.equals("products") && !name.equals("orders") && !name.equals("lines") && !name.equals("calendar")) {
+                    throw new IllegalArgumentException("未知的分节: " + trimmed);
+                }
+                current = sections.computeIfAbsent(name, k -> new StringBuilder());
+            } else if (current != null) {
+                current.append(line).append('\n');
+            } else if (!trimmed.isEmpty()) {
+                throw new IllegalArgumentException("请求体必须以分节标题开头，例如 [products]");
+            }
+        }
+        if (!sections.containsKey("products") || !sections.containsKey("orders")) {
+            throw new IllegalArgumentException("请求体缺少 [products] 或 [orders] 分节");
+        }
+
+        Path dir = Files.createTempDirectory("schedule-request");
+        try {
+            List<Product> products = DataLoader.loadProducts(writeSection(dir, "products", sections).toString());
+            if (products.isEmpty()) {
+                throw new IllegalArgumentException("[products] 分节为空");
+            }
+            OrderCsvLoader.Result loaded = OrderCsvLoader.load(writeSection(dir, "orders", sections).toString(), planStart);
+            if (loaded.errorCount > 0) {
+                throw new IllegalArgumentException("[orders] 有 " + loaded.errorCount + " 行格式错误，" + loaded.errors.get(0));
+            }
+            List<ProductionLine> lines = sections.containsKey("lines")
+                    ? DataLoader.loadLines(writeSection(dir, "lines", sections).toString())
+                    : ScheduleData.defaultLines(ScheduleData.NUM_LINES);
+            ShiftCalendar calendar = sections.containsKey("calendar")
+                    ? DataLoader.loadCalendar(writeSection(dir, "calendar", sections).toString())
+                    : ShiftCalendar.defaultCalendar();
+            return new CompiledInstance(new ScheduleData(products, loaded.orders, planStart, lines, calendar));
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("请求体格式错误: " + e.getMessage());
+        } finally {
+            try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+                files.forEach(f -> f.toFile().delete());
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static Path writeSection(Path dir, String name, Map<String, StringBuilder> sections) throws IOException {
+        Path file = dir.resolve(name + ".csv");
+        Files.write(file, sections.get(name).toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    // ---------- 工具 ----------
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int n;
+        while ((n = in.read(chunk)) > 0) {
+            buf.write(chunk, 0, n);
+        }
+        return buf.toByteArray();
+    }
+
+    private static Map<String, String> parseQuery(String raw) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return query;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String k = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), "UTF-8");
+            String v = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+            query.put(k, v);
+        }
+        return query;
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue, int min, int max) {
+        String v = query.get(name);
+        if (v == null) return defaultValue;
+        int value = Integer.parseInt(v);
+        if (value < min || value > max) {
+            throw new IllegalArgumentException("参数 " + name + " 超出范围 [" + min + ", " + max + "]: " + value);
+        }
+        return value;
+    }
+
+    static String sha256Hex(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // 每个 JRE 都必须提供 SHA-256
+        }
+    }
+
+    private static void sendJson(HttpExchange ex, int status, String json) throws IOException {
+        byte[] body = (json + "\n").getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, body.length);
+        ex.getResponseBody().write(body);
+    }
+
+    static String jsonString(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c == '\n') sb.append("\\n");
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String jsonNumber(double v) {
+        return Double.isNaN(v) || Double.isInfinite(v) ? "null" : Double.toString(v);
+    }
+
+    private static java.util.concurrent.ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * 一个排程任务：状态、进度与结果，同时作为该次 GA 运行的监听器向 SSE 订阅者广播事件
+     */
+    private static class JobRun implements GAListener {
+        final String id;
+        final CompiledInstance instance;
+        final boolean instanceCached;
+        final int generations;
+        final int population;
+        final long timeLimitMs;
+        final Long seed;
+        final long submittedNanos = System.nanoTime();
+        private final List<BlockingQueue<String>> subscribers = new CopyOnWriteArrayList<>();
+        private final CountDownLatch listenerDone = new CountDownLatch(1);
+
+        volatile String state = "queued";        // queued / running / done / cancelled / failed
+        volatile int generation = -1;
+        volatile double bestProfit = Double.NaN;
+        volatile long evaluations = 0;
+        volatile double elapsedSeconds = 0;
+        volatile String error;
+        volatile GAScheduler.ScheduleResult result;
+        private boolean cancelRequested = false;
+        private GAScheduler scheduler;
+        volatile Runnable task;                  // 提交给工作线程池的任务，排队时用于移出队列
+
+        JobRun(String id, CompiledInstance instance, boolean instanceCached, int generations, int population,
+               long timeLimitMs, Long seed) {
+            this.id = id;
+            this.instance = instance;
+            this.instanceCached = instanceCached;
+            this.generations = generations;
+            this.population = population;
+            this.timeLimitMs = timeLimitMs;
+            this.seed = seed;
+        }
+
+        /**
+         * 开始运行；已被取消时返回 false
+         */
+        synchronized boolean started(GAScheduler scheduler) {
+            if (cancelRequested) return false;
+            this.scheduler = scheduler;
+            state = "running";
+            broadcast("status", statusJson());
+            return true;
+        }
+
+        synchronized void cancel() {
+            cancelRequested = true;
+            if (scheduler != null) {
+                scheduler.cancel();
+            }
+        }
+
+        boolean isFinished() {
+            String s = state;
+            return s.equals("done") || s.equals("cancelled") || s.equals("failed");
+        }
+
+        @Override
+        public void onNewBest(BestSnapshot best) {
+            generation = best.generation;
+            bestProfit = best.profit;
+            broadcast("best", "{\"generation\": " + best.generation + ", \"profit\": " + jsonNumber(best.profit)
+                    + ", \"elapsedSeconds\": " + best.elapsedSeconds + "}");
+        }
+
+        @Override
+        public void onGeneration(GAListener.GenerationStats stats) {
+            generation = stats.generation;
+            bestProfit = stats.bestProfit;
+            evaluations = stats.evaluations;
+            elapsedSeconds = stats.elapsedSeconds;
+            broadcast("generation", "{\"generation\": " + stats.generation + ", \"bestProfit\": " + jsonNumber(stats.bestProfit)
+                    + ", \"mutationRate\": " + stats.mutationRate + ", \"diversity\": " + jsonNumber(stats.diversity)
+                    + ", \"evaluations\": " + stats.evaluations + ", \"elapsedSeconds\": " + stats.elapsedSeconds + "}");
+        }
+
+        @Override
+        public void onFinished(BestSnapshot best, boolean cancelled) {
+            listenerDone.countDown();
+        }
+
+        // 等待监听器收到最后的事件，使 done 一定是流中的最后一个事件
+        void awaitListener() {
+            try {
+                listenerDone.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized void finish(String finalState, GAScheduler.ScheduleResult result, String error) {
+            this.result = result;
+            this.error = error;
+            this.state = finalState;
+            String done = event("done", statusJson());
+            for (BlockingQueue<String> q : subscribers) {
+                if (!q.offer(done)) {
+                    q.clear(); // 结束事件不能丢：清掉积压的进度事件
+                    q.offer(done);
+                }
+            }
+            subscribers.clear();
+        }
+
+        synchronized BlockingQueue<String> subscribe() {
+            BlockingQueue<String> q = new LinkedBlockingQueue<>(EVENT_QUEUE_CAPACITY);
+            q.offer(event("status", statusJson()));
+            if (isFinished()) {
+                q.offer(event("done", statusJson()));
+            } else {
+                subscribers.add(q);
+            }
+            return q;
+        }
+
+        void unsubscribe(BlockingQueue<String> q) {
+            subscribers.remove(q);
+        }
+
+        // 进度事件：订阅者积压过多时丢弃，不阻塞通知线程
+        private void broadcast(String name, String json) {
+            String text = event(name, json);
+            for (BlockingQueue<String> q : subscribers) {
+                q.offer(text);
+            }
+        }
+
+        private static String event(String name, String json) {
+            return "event: " + name + "\ndata: " + json + "\n\n";
+        }
+
+        String statusJson() {
+            return "{\"id\": " + jsonString(id) + ", \"state\": " + jsonString(state)
+                    + ", \"generation\": " + generation + ", \"bestProfit\": " + jsonNumber(bestProfit)
+                    + ", \"evaluations\": " + evaluations + ", \"elapsedSeconds\": " + elapsedSeconds
+                    + ", \"orders\": " + instance.data.getOrders().size() + ", \"pieces\": " + instance.getOperationCount()
+                    + ", \"instanceCached\": " + instanceCached + ", \"error\": " + jsonString(error) + "}";
+        }
+    }
+
+    /**
+     * 启动服务：--port=8080 --workers=CPU 核数 --queue=64 --cache=32
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        int workerThreads = Runtime.getRuntime().availableProcessors();
+        int queue = 64;
+        int cache = 32;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            } else if (arg.startsWith("--workers=")) {
+                workerThreads = Integer.parseInt(arg.substring("--workers=".length()));
+            } else if (arg.startsWith("--queue=")) {
+                queue = Integer.parseInt(arg.substring("--queue=".length()));
+            } else if (arg.startsWith("--cache=")) {
+                cache = Integer.parseInt(arg.substring("--cache=".length()));
+            } else {
+                System.err.println("未知参数: " + arg);
+                System.exit(2);
+            }
+        }
+        SchedulingService service = new SchedulingService(port, workerThreads, queue, cache);
+        service.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop));
+        System.out.printf("调度服务已启动: http://127.0.0.1:%d （%d 个工作线程，队列 %d）%n", service.getPort(), workerThreads, queue);
+    }
+}
@@ -2,20 +2,23 @@ package com.smartfactory.util;
 
 import com.smartfactory.Order;
 import com.smartfactory.Product;
+import com.smartfactory.ProductionLine;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class DataLoader {
 
-    // 定义时间格式：例如 "2025-11-26 08:00"
-    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
     /**
      * 加载产品数据
      * CSV格式: id,unitProcessingTime
@@ -44,31 +47,110 @@ public class DataLoader {
     /**
      * 加载订单数据
      * CSV格式: id,productId,quantity,totalValue,deadline,arrivalTime
+     * 按 UTF-8 解析（见 OrderCsvLoader），格式错误的行跳过并带行号输出到 System.err
      */
     public static List<Order> loadOrders(String filePath) {
-        List<Order> list = new ArrayList<>();
+        try {
+            OrderCsvLoader.Result result = OrderCsvLoader.load(filePath);
+            reportErrors(filePath, result);
+            return result.orders;
+        } catch (IOException e) {
+            System.err.println("Error reading orders file: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * 输出订单加载中收集到的格式错误
+     */
+    public static void reportErrors(String filePath, OrderCsvLoader.Result result) {
+        if (result.errorCount == 0) return;
+        System.err.println(filePath + ": " + result.errorCount + " 行格式错误，已跳过");
+        for (String error : result.errors) {
+            System.err.println("  " + error);
+        }
+        if (result.errorCount > result.errors.size()) {
+            System.err.println("  ... (其余 " + (result.errorCount - result.errors.size()) + " 条省略)");
+        }
+    }
+
+    /**
+     * 加载生产线配置
+     * CSV格式: id,speedFactor,eligibleProducts
+     * eligibleProducts 用分号分隔产品ID (例如 "1;3")，填 "*" 或留空表示可生产全部产品
+     */
+    public static List<ProductionLine> loadLines(String filePath) {
+        List<ProductionLine> list = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String line;
             while ((line = br.readLine()) != null) {
                 if (line.trim().isEmpty() || line.startsWith("#") || line.startsWith("id")) continue;
 
                 String[] parts = line.split(",");
-                // 简单的防错处理
-                if (parts.length < 6) continue;
-
                 int id = Integer.parseInt(parts[0].trim());
-                int pId = Integer.parseInt(parts[1].trim());
-                int qty = Integer.parseInt(parts[2].trim());
-                double val = Double.parseDouble(parts[3].trim());
-                LocalDateTime deadline = LocalDateTime.parse(parts[4].trim(), DATE_FMT);
-                deadline = deadline.toLocalDate().atTime(8, 0);
-                LocalDateTime arrival = LocalDateTime.parse(parts[5].trim(), DATE_FMT);
+                double speed = parts.length > 1 && !parts[1].trim().isEmpty() ? Double.parseDouble(parts[1].trim()) : 1.0;
 
-                list.add(new Order(id, pId, qty, val, deadline, arrival));
+                Set<Integer> eligible = new HashSet<>();
+                if (parts.length > 2 && !parts[2].trim().equals("*")) {
+                    for (String pid : parts[2].split(";")) {
+                        if (!pid.trim().isEmpty()) eligible.add(Integer.parseInt(pid.trim()));
+                    }
+                }
+                list.add(new ProductionLine(id, speed, eligible));
             }
         } catch (IOException e) {
-            System.err.println("Error reading orders file: " + e.getMessage());
+            System.err.println("Error reading lines file: " + e.getMessage());
         }
         return list;
     }
+
+    /**
+     * 加载班次工资日历
+     * CSV格式（每行第一列为类型）:
+     *   base, 200                        每个4小时工时块的基础工资
+     *   shift, 08:00, 16:00, 1.0, 白班     时段 [起, 止) 的系数与名称，止可写 24:00，起 > 止 表示跨午夜
+     *   weekday, SATURDAY, 1.5           星期倍率
+     *   holiday, 2025-10-01, 3.0         节假日倍率（优先于星期倍率）
+     * 未被任何 shift 覆盖的时段系数为 1.0；后出现的 shift 覆盖先出现的。
+     */
+    public static ShiftCalendar loadCalendar(String filePath) {
+        ShiftCalendar calendar = new ShiftCalendar(TimeCostUtil.BASE_PAY_4_HOURS);
+        // 班次名称含中文，按 UTF-8 读取
+        try (BufferedReader br = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("#") || line.startsWith("type")) continue;
+
+                String[] parts = line.split(",");
+                String type = parts[0].trim().toLowerCase();
+                switch (type) {
+                    case "base":
+                        calendar.setBasePay(Double.parseDouble(parts[1].trim()));
+                        break;
+                    case "shift":
+                        calendar.addShift(parseMinuteOfDay(parts[1].trim()), parseMinuteOfDay(parts[2].trim()),
+                                Double.parseDouble(parts[3].trim()), parts.length > 4 ? parts[4].trim() : "");
+                        break;
+                    case "weekday":
+                        calendar.setDayMultiplier(DayOfWeek.valueOf(parts[1].trim().toUpperCase()),
+                                Double.parseDouble(parts[2].trim()));
+                        break;
+                    case "holiday":
+                        calendar.addHoliday(LocalDate.parse(parts[1].trim()), Double.parseDouble(parts[2].trim()));
+                        break;
+                    default:
+                        System.err.println("Unknown calendar entry: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading calendar file: " + e.getMessage());
+        }
+        return calendar;
+    }
+
+    // "HH:mm" -> 一天中的分钟数，允许 "24:00"
+    private static int parseMinuteOfDay(String hhmm) {
+        String[] hm = hhmm.split(":");
+        return Integer.parseInt(hm[0]) * 60 + Integer.parseInt(hm[1]);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.smartfactory.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 以"自 1970-01-01 00:00 起的分钟数"表示本地时间（不涉及时区）。
+ * 订单数据的时间精度只到分钟，用 long 分钟数做比较、排序和存储，避免大量创建 LocalDateTime。
+ */
+public final class EpochMinutes {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private EpochMinutes() {
+    }
+
+    public static long of(LocalDateTime time) {
+        return time.toLocalDate().toEpochDay() * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    public static LocalDateTime toDateTime(long epochMinute) {
+        long day = Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+        int minuteOfDay = (int) Math.floorMod(epochMinute, MINUTES_PER_DAY);
+        return LocalDate.ofEpochDay(day).atTime(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    /**
+     * 对齐到当天早上 8 点（与 Order.getAlignedDeadline 规则一致）
+     */
+    public static long alignTo8AM(long epochMinute) {
+        return Math.floorDiv(epochMinute, MINUTES_PER_DAY) * MINUTES_PER_DAY + 8 * 60;
+    }
+
+    /**
+     * 公历日期转自 1970-01-01 起的天数（不做合法性检查）
+     */
+    static long epochDay(int year, int month, int day) {
+        // 以 3 月为一年之首，闰日落在年末
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yoe = y - era * 400;
+        int mp = (month + 9) % 12;
+        int doy = (153 * mp + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+
+    static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.smartfactory.util;
+
+import com.smartfactory.Order;
+import com.smartfactory.Product;
+import com.smartfactory.ScheduleData;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 合成算例生成器：按固定种子生成产品表与订单簿（DataLoader 的 CSV 格式），用于规模与压力测试。
+ * 同一 Config（含种子）总是生成逐字节相同的文件。
+ *
+ * 可控参数：工件总数、产品种类数与产品分布偏斜、单件工时范围、每单数量范围与分布偏斜、
+ * 截止时间松紧度、到达模式。截止时间松紧度以"预计完工跨度"为单位：
+ * 预计跨度 = 全部工件的期望总工时 / 产线数，截止时间 = 可开工时间 + 本单工时 + U(0,1) × slack × 预计跨度，
+ * slack = 1 时产能大致够用，小于 1 时必然有大量延误，大于 1 时较宽松。
+ *
+ * 命令行：java com.smartfactory.util.InstanceGenerator OUT_DIR [tier ...|all] [--seed=N] [--start=yyyy-MM-dd]
+ * 每个等级写入 OUT_DIR/{等级名}/products.csv、orders.csv 与 lines.csv，可直接作为 input/run 使用。
+ */
+public class InstanceGenerator {
+    private static final int BUFFER_CHARS = 1 << 16;
+
+    /**
+     * 订单到达模式
+     */
+    public enum ArrivalPattern {
+        /** 全部订单在基准时间之前的 arrivalSpanHours 内陆续到达（积压，单次排程即可全部处理） */
+        BACKLOG,
+        /** 在基准时间之后的 arrivalSpanHours 内均匀到达（滚动排程） */
+        UNIFORM,
+        /** 在基准时间之后的 arrivalSpanHours 内，每天 08:00 前后成批到达 */
+        BURSTY
+    }
+
+    /**
+     * 基准测试等级：从小到 100 万工件
+     */
+    public enum Tier {
+        TINY(100, 5, 3),
+        SMALL(1_000, 10, 5),
+        MEDIUM(10_000, 20, 10),
+        LARGE(100_000, 50, 25),
+        HUGE(1_000_000, 100, 100);
+
+        public final int pieces;
+        public final int products;
+        public final int lines;
+
+        Tier(int pieces, int products, int lines) {
+            this.pieces = pieces;
+            this.products = products;
+            this.lines = lines;
+        }
+
+        public String directoryName() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * 生成参数（公开字段，按需修改后传入）
+     */
+    public static class Config {
+        public long seed = 1L;
+        public int pieces = 1000;
+        public int products = 10;
+        public double productSkew = 0.8;       // 产品分布的 Zipf 指数，0 表示均匀
+        public double minUnitHours = 0.5;
+        public double maxUnitHours = 4.0;      // 单件工时按 0.5 小时取整
+        public int minQuantity = 1;
+        public int maxQuantity = 20;
+        public double quantitySkew = 1.0;      // 数量分布的 Zipf 指数，越大小单越多，0 表示均匀
+        public double deadlineSlack = 1.0;     // 截止时间松紧度（见类注释）
+        public ArrivalPattern arrivals = ArrivalPattern.BACKLOG;
+        public double arrivalSpanHours = 72;
+        public int lines = ScheduleData.NUM_LINES; // 写入 lines.csv 的无差异产线数，也用于估算完工跨度
+        public double minValuePerHour = 40;
+        public double maxValuePerHour = 250;   // 订单价值 = 数量 × 单件工时 × 每小时价值
+        public LocalDateTime planStart = LocalDateTime.of(2025, 12, 1, 8, 0);
+
+        /**
+         * 某一等级的默认参数：到达跨度随规模增长，使每天的订单量保持在同一量级
+         */
+        public static Config forTier(Tier tier, long seed) {
+            Config config = new Config();
+            config.seed = seed;
+            config.pieces = tier.pieces;
+            config.products = tier.products;
+            config.lines = tier.lines;
+            config.maxQuantity = tier.pieces >= 100_000 ? 50 : 20;
+            config.arrivalSpanHours = Math.max(24, 24 * Math.round(Math.log10(tier.pieces)));
+            return config;
+        }
+
+        void validate() {
+            if (pieces < 0 || products <= 0 || lines <= 0) {
+                throw new IllegalArgumentException("pieces 不能为负，products 与 lines 必须为正");
+            }
+            if (minUnitHours <= 0 || maxUnitHours < minUnitHours) {
+                throw new IllegalArgumentException("单件工时范围无效: " + minUnitHours + " ~ " + maxUnitHours);
+            }
+            if (minQuantity <= 0 || maxQuantity < minQuantity) {
+                throw new IllegalArgumentException("数量范围无效: " + minQuantity + " ~ " + maxQuantity);
+            }
+            if (deadlineSlack < 0 || arrivalSpanHours < 0 || maxValuePerHour < minValuePerHour) {
+                throw new IllegalArgumentException("deadlineSlack、arrivalSpanHours 不能为负，价值范围不能颠倒");
+            }
+        }
+    }
+
+    // 生成的订单逐行交给接收方（写文件或收集为列表）
+    private interface OrderSink {
+        void accept(int id, int productId, int quantity, double value, LocalDateTime deadline, LocalDateTime arrival)
+                throws IOException;
+    }
+
+    /**
+     * 生成产品表（ID 从 1 开始）
+     */
+    public static List<Product> generateProducts(Config config) {
+        config.validate();
+        Random random = new Random(config.seed);
+        List<Product> products = new ArrayList<>(config.products);
+        int steps = (int) Math.floor((config.maxUnitHours - config.minUnitHours) * 2);
+        for (int p = 0; p < config.products; p++) {
+            double hours = config.minUnitHours + 0.5 * random.nextInt(steps + 1);
+            products.add(new Product(p + 1, hours));
+        }
+        return products;
+    }
+
+    /**
+     * 生成订单列表（数据量大时优先使用 write 直接流式写文件）
+     */
+    public static List<Order> generateOrders(Config config, List<Product> products) {
+        List<Order> orders = new ArrayList<>();
+        try {
+            generate(config, products, (id, productId, quantity, value, deadline, arrival) ->
+                    orders.add(new Order(id, productId, quantity, value, deadline, arrival)));
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // 收集到内存不会发生 I/O
+        }
+        return orders;
+    }
+
+    /**
+     * 把一个算例写入目录：products.csv、orders.csv 与 lines.csv（config.lines 条可生产全部产品的标准产线）
+     */
+    public static void write(Config config, File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("无法创建目录: " + directory);
+        }
+        List<Product> products = generateProducts(config);
+        char[] scratch = new char[NumberText.SCRATCH_CHARS];
+
+        try (Writer w = open(new File(directory, "products.csv"))) {
+            w.write("id, unitProcessingTime\n");
+            for (Product p : products) {
+                NumberText.writeLong(w, scratch, p.getId());
+                w.write(", ");
+                NumberText.writeDecimal(w, scratch, p.getUnitProcessingTime(), 1);
+                if (p.getUnitProcessingTime() == Math.rint(p.getUnitProcessingTime())) w.write(".0");
+                w.write('\n');
+            }
+        }
+
+        try (Writer w = open(new File(directory, "lines.csv"))) {
+            w.write("id, speedFactor, products\n");
+            for (int l = 1; l <= config.lines; l++) {
+                NumberText.writeLong(w, scratch, l);
+                w.write(", 1.0, *\n");
+            }
+        }
+
+        try (Writer w = open(new File(directory, "orders.csv"))) {
+            w.write("id, productId, quantity, totalValue, deadline, arrivalTime\n");
+            w.write("# 合成算例: seed=" + config.seed + ", pieces=" + config.pieces + ", products=" + config.products
+                    + ", arrivals=" + config.arrivals + ", deadlineSlack=" + config.deadlineSlack + "\n");
+            generate(config, products, (id, productId, quantity, value, deadline, arrival) -> {
+                NumberText.writeLong(w, scratch, id);
+                w.write(", ");
+                NumberText.writeLong(w, scratch, productId);
+                w.write(", ");
+                NumberText.writeLong(w, scratch, quantity);
+                w.write(", ");
+                NumberText.writeDecimal(w, scratch, value, 2);
+                w.write(", ");
+                NumberText.writeCsvDateTime(w, scratch, deadline);
+                w.write(", ");
+                NumberText.writeCsvDateTime(w, scratch, arrival);
+                w.write('\n');
+            });
+        }
+    }
+
+    /**
+     * 写出一个等级的算例到 root/{等级名}/
+     */
+    public static void writeTier(Tier tier, long seed, LocalDateTime planStart, File root) throws IOException {
+        Config config = Config.forTier(tier, seed);
+        config.planStart = planStart;
+        write(config, new File(root, tier.directoryName()));
+    }
+
+    private static Writer open(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), BUFFER_CHARS);
+    }
+
+    private static void generate(Config config, List<Product> products, OrderSink sink) throws IOException {
+        config.validate();
+        // 产品表与订单使用不同的随机流，修改订单参数不会改变产品表
+        Random random = new Random(config.seed * 0x9E3779B97F4A7C15L + 1);
+        double[] productCdf = zipfCdf(products.size(), config.productSkew);
+        double[] quantityCdf = zipfCdf(config.maxQuantity - config.minQuantity + 1, config.quantitySkew);
+
+        // 预计完工跨度（分钟）：期望总工时 / 产线数
+        double meanHours = 0.0;
+        for (int p = 0; p < products.size(); p++) {
+            double weight = productCdf[p] - (p == 0 ? 0.0 : productCdf[p - 1]);
+            meanHours += weight * products.get(p).getUnitProcessingTime();
+        }
+        long horizonMinutes = Math.round(config.pieces * meanHours / config.lines * 60);
+        long planStart = EpochMinutes.of(config.planStart);
+        long spanMinutes = Math.round(config.arrivalSpanHours * 60);
+
+        int remaining = config.pieces;
+        int id = 1;
+        while (remaining > 0) {
+            Product product = products.get(sample(productCdf, random));
+            int quantity = Math.min(remaining, config.minQuantity + sample(quantityCdf, random));
+            remaining -= quantity;
+
+            long arrival = arrival(config.arrivals, planStart, spanMinutes, random);
+            long ready = Math.max(arrival, planStart);
+            double ownHours = quantity * product.getUnitProcessingTime();
+            long deadline = ready + Math.round(ownHours * 60)
+                    + (long) (random.nextDouble() * config.deadlineSlack * horizonMinutes);
+            double valuePerHour = config.minValuePerHour
+                    + random.nextDouble() * (config.maxValuePerHour - config.minValuePerHour);
+            double value = Math.round(ownHours * valuePerHour * 100) / 100.0;
+
+            sink.accept(id++, product.getId(), quantity, value,
+                    EpochMinutes.toDateTime(deadline), EpochMinutes.toDateTime(arrival));
+        }
+    }
+
+    private static long arrival(ArrivalPattern pattern, long planStart, long spanMinutes, Random random) {
+        switch (pattern) {
+            case BACKLOG:
+                // 基准时间前 1 分钟及更早
+                return planStart - 1 - (long) (random.nextDouble() * spanMinutes);
+            case UNIFORM:
+                return planStart + (long) (random.nextDouble() * spanMinutes);
+            case BURSTY:
+            default:
+                // 跨度内的某一天 08:00，前后 ±1 小时抖动
+                long days = Math.max(1, spanMinutes / EpochMinutes.MINUTES_PER_DAY);
+                long batch = EpochMinutes.alignTo8AM(planStart) + random.nextInt((int) days) * (long) EpochMinutes.MINUTES_PER_DAY;
+                return Math.max(planStart, batch + random.nextInt(121) - 60);
+        }
+    }
+
+    // 权重 1/(k+1)^skew 的累积分布（最后一项为 1）
+    private static double[] zipfCdf(int n, double skew) {
+        double[] cdf = new double[n];
+        double sum = 0.0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, skew);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= sum;
+        }
+        cdf[n - 1] = 1.0;
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, Random random) {
+        int k = Arrays.binarySearch(cdf, random.nextDouble());
+        return k >= 0 ? k : -k - 1;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("用法: InstanceGenerator OUT_DIR [tier ...|all] [--seed=N] [--start=yyyy-MM-dd]");
+            System.err.println("等级: " + Arrays.toString(Tier.values()));
+            return;
+        }
+        File root = new File(args[0]);
+        long seed = 1L;
+        LocalDateTime planStart = new Config().planStart;
+        List<Tier> tiers = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--start=")) {
+                planStart = LocalDate.parse(arg.substring("--start=".length())).atTime(8, 0);
+            } else if (arg.equalsIgnoreCase("all")) {
+                tiers.addAll(Arrays.asList(Tier.values()));
+            } else {
+                tiers.add(Tier.valueOf(arg.toUpperCase()));
+            }
+        }
+        if (tiers.isEmpty()) {
+            tiers.addAll(Arrays.asList(Tier.TINY, Tier.SMALL, Tier.MEDIUM));
+        }
+        for (Tier tier : tiers) {
+            long begin = System.nanoTime();
+            writeTier(tier, seed, planStart, root);
+            System.out.printf("已生成 %s (%d 件) -> %s, 耗时 %.1fs%n", tier.directoryName(), tier.pieces,
+                    new File(root, tier.directoryName()), (System.nanoTime() - begin) / 1e9);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.smartfactory.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 列式（struct-of-arrays）的任务表，用于保存完整解码得到的全部任务。
+ * 每个任务只占若干个原始类型数组元素：订单下标、工件序号、产品、产线、开始/结束时间（本地时间的 epoch 秒）、
+ * 成本系数与成本，不再为每个任务保存工件ID字符串和两个 LocalDateTime。
+ *
+ * 为兼容按 List<Job> 使用的代码，本类实现了只读的 List<Job>：get / 迭代时才临时创建 Job 对象。
+ * 批量处理（渲染、导出、打印）应直接读取各列，并使用按产线预排序的行视图 rowsOfLine。
+ */
+public class JobTable extends AbstractList<Job> {
+    private final int[] orderIds;   // 订单下标 -> 订单ID
+
+    private int size = 0;
+    private int[] orderIndex;
+    private int[] piece;
+    private int[] productId;
+    private int[] lineId;
+    private long[] start;           // epoch 秒（本地时间按 UTC 换算，仅用于比较与还原）
+    private long[] end;
+    private double[] coefficient;
+    private double[] cost;
+
+    // 按产线分组、组内按 (开始时间, 订单, 工件序号) 排序的行号；首次使用时计算
+    private int[] lineIds;
+    private int[][] rowsByLine;
+
+    /**
+     * @param orderIds 订单下标到订单ID的映射
+     * @param capacity 预计任务数（不足时自动扩容）
+     */
+    public JobTable(int[] orderIds, int capacity) {
+        this.orderIds = orderIds;
+        int c = Math.max(capacity, 0);
+        orderIndex = new int[c];
+        piece = new int[c];
+        productId = new int[c];
+        lineId = new int[c];
+        start = new long[c];
+        end = new long[c];
+        coefficient = new double[c];
+        cost = new double[c];
+    }
+
+    /**
+     * 由 Job 列表构建（工件ID须为 "O{订单ID}_{序号}" 格式）
+     */
+    public static JobTable fromJobs(List<Job> jobs) {
+        Map<Integer, Integer> indexOfOrder = new HashMap<>();
+        int[] parsedOrder = new int[jobs.size()];
+        int[] parsedPiece = new int[jobs.size()];
+        for (int i = 0; i < jobs.size(); i++) {
+            String op = jobs.get(i).operationId;
+            int sep = op.indexOf('_');
+            parsedOrder[i] = NumberText.parseInt(op, 1, sep, -1);
+            parsedPiece[i] = NumberText.parseInt(op, sep + 1, op.length(), -1);
+            if (!op.startsWith("O") || parsedOrder[i] < 0 || parsedPiece[i] < 0) {
+                throw new IllegalArgumentException("无法解析的工件ID: " + op);
+            }
+            indexOfOrder.putIfAbsent(parsedOrder[i], indexOfOrder.size());
+        }
+        int[] orderIds = new int[indexOfOrder.size()];
+        for (Map.Entry<Integer, Integer> e : indexOfOrder.entrySet()) {
+            orderIds[e.getValue()] = e.getKey();
+        }
+        JobTable table = new JobTable(orderIds, jobs.size());
+        for (int i = 0; i < jobs.size(); i++) {
+            Job job = jobs.get(i);
+            table.add(indexOfOrder.get(parsedOrder[i]), parsedPiece[i], job.productId, job.machineLineId,
+                    toEpochSecond(job.startTime), toEpochSecond(job.endTime), job.costCoefficient, job.baseCost);
+        }
+        return table;
+    }
+
+    /**
+     * 追加一个任务
+     *
+     * @param order 订单下标（对应构造时 orderIds 的下标）
+     */
+    public void add(int order, int pieceIndex, int product, int line, long startEpochSecond, long endEpochSecond,
+                    double costCoefficient, double baseCost) {
+        if (size == orderIndex.length) {
+            grow();
+        }
+        orderIndex[size] = order;
+        piece[size] = pieceIndex;
+        productId[size] = product;
+        lineId[size] = line;
+        start[size] = startEpochSecond;
+        end[size] = endEpochSecond;
+        coefficient[size] = costCoefficient;
+        cost[size] = baseCost;
+        size++;
+        rowsByLine = null;
+    }
+
+    private void grow() {
+        int c = Math.max(4, orderIndex.length * 2);
+        orderIndex = Arrays.copyOf(orderIndex, c);
+        piece = Arrays.copyOf(piece, c);
+        productId = Arrays.copyOf(productId, c);
+        lineId = Arrays.copyOf(lineId, c);
+        start = Arrays.copyOf(start, c);
+        end = Arrays.copyOf(end, c);
+        coefficient = Arrays.copyOf(coefficient, c);
+        cost = Arrays.copyOf(cost, c);
+    }
+
+    public static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    // ---------- 列访问 ----------
+
+    @Override
+    public int size() { return size; }
+
+    public int getOrderIndex(int row) { return orderIndex[row]; }
+    public int getOrderId(int row) { return orderIds[orderIndex[row]]; }
+    public int getPiece(int row) { return piece[row]; }
+    public int getProductId(int row) { return productId[row]; }
+    public int getLineId(int row) { return lineId[row]; }
+    public long getStartEpochSecond(int row) { return start[row]; }
+    public long getEndEpochSecond(int row) { return end[row]; }
+    public LocalDateTime getStartTime(int row) { return toDateTime(start[row]); }
+    public LocalDateTime getEndTime(int row) { return toDateTime(end[row]); }
+    public double getCoefficient(int row) { return coefficient[row]; }
+    public double getCost(int row) { return cost[row]; }
+
+    public String getOperationId(int row) {
+        return "O" + getOrderId(row) + "_" + piece[row];
+    }
+
+    /**
+     * 临时创建第 row 个任务的 Job 对象（表本身不持有 Job）
+     */
+    @Override
+    public Job get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + ", size " + size);
+        }
+        return new Job(getOperationId(row), productId[row], lineId[row], getStartTime(row), getEndTime(row),
+                coefficient[row], cost[row]);
+    }
+
+    // ---------- 按产线的有序视图 ----------
+
+    /**
+     * 出现过的产线ID（升序）
+     */
+    public int[] getLineIds() {
+        ensureLineViews();
+        return lineIds.clone();
+    }
+
+    /**
+     * 某条产线上的行号，按开始时间排序（相同时按订单ID、工件序号）；该产线没有任务时返回空数组。
+     * 返回的数组为内部视图，调用方不得修改。
+     */
+    public int[] rowsOfLine(int line) {
+        ensureLineViews();
+        int k = Arrays.binarySearch(lineIds, line);
+        return k >= 0 ? rowsByLine[k] : new int[0];
+    }
+
+    private void ensureLineViews() {
+        if (rowsByLine != null) return;
+        // 计数排序按产线分组，组内再按时间排序
+        int[] distinct = Arrays.copyOf(lineId, size);
+        Arrays.sort(distinct);
+        int m = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) distinct[m++] = distinct[i];
+        }
+        lineIds = Arrays.copyOf(distinct, m);
+
+        int[] counts = new int[m];
+        int[] groupOf = new int[size];
+        for (int i = 0; i < size; i++) {
+            groupOf[i] = Arrays.binarySearch(lineIds, lineId[i]);
+            counts[groupOf[i]]++;
+        }
+        rowsByLine = new int[m][];
+        for (int k = 0; k < m; k++) rowsByLine[k] = new int[counts[k]];
+        int[] fill = new int[m];
+        for (int i = 0; i < size; i++) {
+            rowsByLine[groupOf[i]][fill[groupOf[i]]++] = i;
+        }
+        for (int[] rows : rowsByLine) {
+            sortRows(rows);
+        }
+    }
+
+    // 按 (开始时间, 订单ID, 工件序号) 排序行号：归并排序，最坏 O(n log n)；
+    // 解码输出在同一产线上基本有序，相邻两段已有序时跳过合并，接近线性
+    private void sortRows(int[] rows) {
+        if (rows.length > 1) {
+            mergeSort(rows, rows.clone(), 0, rows.length);
+        }
+    }
+
+    // 排序 rows[from, to)；buffer 在该区间内与 rows 内容相同，用作合并的来源
+    private void mergeSort(int[] rows, int[] buffer, int from, int to) {
+        if (to - from <= 16) {
+            for (int i = from + 1; i < to; i++) {
+                int r = rows[i];
+                int j = i - 1;
+                while (j >= from && compareRows(rows[j], r) > 0) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = r;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        // 交替使用两个数组，子区间排好后位于 buffer 中
+        mergeSort(buffer, rows, from, mid);
+        mergeSort(buffer, rows, mid, to);
+        if (compareRows(buffer[mid - 1], buffer[mid]) <= 0) {
+            System.arraycopy(buffer, from, rows, from, to - from);
+            return;
+        }
+        for (int i = from, a = from, b = mid; i < to; i++) {
+            if (b >= to || (a < mid && compareRows(buffer[a], buffer[b]) <= 0)) {
+                rows[i] = buffer[a++];
+            } else {
+                rows[i] = buffer[b++];
+            }
+        }
+    }
+
+    private int compareRows(int a, int b) {
+        int c = Long.compare(start[a], start[b]);
+        if (c != 0) return c;
+        c = Integer.compare(getOrderId(a), getOrderId(b));
+        return c != 0 ? c : Integer.compare(piece[a], piece[b]);
+    }
+}
@@ -0,0 +1,129 @@
+package com.smartfactory.util;
+
+import java.util.Arrays;
+
+/**
+ * Mann-Whitney U 检验（Wilcoxon 秩和检验），用于比较两组独立样本（例如不同种子下的最优利润）。
+ * 无并列且样本较小时用精确分布，否则用带并列修正与连续性修正的正态近似。
+ */
+public final class MannWhitney {
+    // 精确分布的计算量为 O(n1 * n2 * (n1 + n2))，超过该规模改用正态近似
+    private static final int EXACT_MAX_PRODUCT = 2500;
+
+    private MannWhitney() {
+    }
+
+    /**
+     * a 的 U 统计量：a 中元素大于 b 中元素的对数，相等计 0.5
+     */
+    public static double u(double[] a, double[] b) {
+        double u = 0.0;
+        for (double x : a) {
+            for (double y : b) {
+                if (x > y) u += 1.0;
+                else if (x == y) u += 0.5;
+            }
+        }
+        return u;
+    }
+
+    /**
+     * 单侧检验 p 值：备择假设为"a 随机地小于 b"。p 越小，越有把握认为 a 整体偏小。
+     * 任一样本为空时返回 1。
+     */
+    public static double pLess(double[] a, double[] b) {
+        int n1 = a.length;
+        int n2 = b.length;
+        if (n1 == 0 || n2 == 0) return 1.0;
+        double u = u(a, b);
+        if (!hasTies(a, b) && (long) n1 * n2 <= EXACT_MAX_PRODUCT) {
+            return exactCdf(n1, n2, (int) u);
+        }
+        return normalCdf(a, b, u);
+    }
+
+    /**
+     * 单侧检验 p 值：备择假设为"a 随机地大于 b"
+     */
+    public static double pGreater(double[] a, double[] b) {
+        return pLess(b, a);
+    }
+
+    private static boolean hasTies(double[] a, double[] b) {
+        double[] all = concat(a, b);
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) return true;
+        }
+        return false;
+    }
+
+    private static double[] concat(double[] a, double[] b) {
+        double[] all = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, all, a.length, b.length);
+        return all;
+    }
+
+    // P(U <= u)：ways(i, j)[k] 为样本量 (i, j) 时 U = k 的排列数，
+    // 递推 ways(i, j)[k] = ways(i-1, j)[k-j] + ways(i, j-1)[k]，按 i 逐行滚动
+    private static double exactCdf(int n1, int n2, int u) {
+        double[][] prev = new double[n2 + 1][];
+        for (int j = 0; j <= n2; j++) prev[j] = new double[]{1.0};
+        for (int i = 1; i <= n1; i++) {
+            double[][] cur = new double[n2 + 1][];
+            cur[0] = new double[]{1.0};
+            for (int j = 1; j <= n2; j++) {
+                double[] w = new double[i * j + 1];
+                double[] left = prev[j];
+                double[] down = cur[j - 1];
+                for (int k = 0; k < w.length; k++) {
+                    if (k - j >= 0 && k - j < left.length) w[k] += left[k - j];
+                    if (k < down.length) w[k] += down[k];
+                }
+                cur[j] = w;
+            }
+            prev = cur;
+        }
+        double[] dist = prev[n2];
+        double total = 0.0;
+        double below = 0.0;
+        for (int k = 0; k < dist.length; k++) {
+            total += dist[k];
+            if (k <= u) below += dist[k];
+        }
+        return below / total;
+    }
+
+    private static double normalCdf(double[] a, double[] b, double u) {
+        int n1 = a.length;
+        int n2 = b.length;
+        double n = n1 + n2;
+        double mean = n1 * (double) n2 / 2.0;
+
+        // 并列修正：sum(t^3 - t)
+        double[] all = concat(a, b);
+        Arrays.sort(all);
+        double tieSum = 0.0;
+        int i = 0;
+        while (i < all.length) {
+            int j = i;
+            while (j + 1 < all.length && all[j + 1] == all[i]) j++;
+            double t = j - i + 1;
+            tieSum += t * t * t - t;
+            i = j + 1;
+        }
+        double variance = n1 * (double) n2 / 12.0 * ((n + 1) - tieSum / (n * (n - 1)));
+        if (variance <= 0) return 1.0; // 全部取值相同，无任何差异证据
+        double z = (u - mean + 0.5) / Math.sqrt(variance); // 连续性修正（单侧，向均值方向）
+        return phi(z);
+    }
+
+    // 标准正态分布函数（Abramowitz-Stegun 7.1.26 的 erf 近似，误差 < 1.5e-7）
+    private static double phi(double z) {
+        double x = Math.abs(z) / Math.sqrt(2.0);
+        double t = 1.0 / (1.0 + 0.3275911 * x);
+        double erf = 1.0 - (((((1.061405429 * t - 1.453152027) * t) + 1.421413741) * t - 0.284496736) * t + 0.254829592)
+                * t * Math.exp(-x * x);
+        return z >= 0 ? 0.5 * (1.0 + erf) : 0.5 * (1.0 - erf);
+    }
+}
@@ -0,0 +1,224 @@
+package com.smartfactory.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 轻量指标注册表：计数器、仪表（最新值）与计时器，记录路径只有 LongAdder / 原子写，
+ * 可以放在热循环里；读取与导出（JSON、Prometheus 文本格式）可在任意线程进行。
+ *
+ * 指标名按 Prometheus 习惯使用 snake_case，计数器以 _total 结尾，计时器以 _seconds 结尾。
+ * 同名指标重复注册返回同一实例，类型不一致时抛出 IllegalArgumentException。
+ */
+public class MetricsRegistry {
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    private abstract static class Metric {
+        final String help;
+
+        Metric(String help) {
+            this.help = help;
+        }
+    }
+
+    /**
+     * 单调递增的计数器
+     */
+    public static final class Counter extends Metric {
+        private final LongAdder value = new LongAdder();
+
+        Counter(String help) {
+            super(help);
+        }
+
+        public void inc() { value.increment(); }
+        public void add(long n) { value.add(n); }
+        public long get() { return value.sum(); }
+    }
+
+    /**
+     * 记录最新值的仪表
+     */
+    public static final class Gauge extends Metric {
+        private final AtomicLong bits = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+
+        Gauge(String help) {
+            super(help);
+        }
+
+        public void set(double v) { bits.set(Double.doubleToRawLongBits(v)); }
+        public double get() { return Double.longBitsToDouble(bits.get()); }
+    }
+
+    /**
+     * 耗时统计：次数、总耗时、最大值与最近一次
+     */
+    public static final class Timer extends Metric {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile long lastNanos;
+
+        Timer(String help) {
+            super(help);
+        }
+
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            lastNanos = nanos;
+            long max;
+            while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+                // 被其他线程更新，重读后再比较
+            }
+        }
+
+        public long getCount() { return count.sum(); }
+        public double getTotalSeconds() { return totalNanos.sum() / 1e9; }
+        public double getMaxSeconds() { return maxNanos.get() / 1e9; }
+        public double getLastSeconds() { return lastNanos / 1e9; }
+    }
+
+    public Counter counter(String name, String help) {
+        return register(name, Counter.class, new Counter(help));
+    }
+
+    public Gauge gauge(String name, String help) {
+        return register(name, Gauge.class, new Gauge(help));
+    }
+
+    public Timer timer(String name, String help) {
+        return register(name, Timer.class, new Timer(help));
+    }
+
+    private <T extends Metric> T register(String name, Class<T> type, T created) {
+        if (!name.matches("[a-zA-Z_][a-zA-Z0-9_]*")) {
+            throw new IllegalArgumentException("指标名不合法: " + name);
+        }
+        Metric existing = metrics.putIfAbsent(name, created);
+        Metric metric = existing == null ? created : existing;
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("指标 " + name + " 已注册为其他类型");
+        }
+        return type.cast(metric);
+    }
+
+    // ---------- 导出 ----------
+
+    /**
+     * JSON 对象：计数器与仪表为数值，计时器为 {count, sumSeconds, maxSeconds, lastSeconds}；NaN 写为 null
+     */
+    public void writeJson(Writer w) throws IOException {
+        w.write("{");
+        boolean first = true;
+        for (Map.Entry<String, Metric> e : metrics.entrySet()) {
+            if (!first) w.write(",");
+            first = false;
+            w.write("\n  \"" + e.getKey() + "\": ");
+            Metric m = e.getValue();
+            if (m instanceof Counter) {
+                w.write(Long.toString(((Counter) m).get()));
+            } else if (m instanceof Gauge) {
+                w.write(jsonNumber(((Gauge) m).get()));
+            } else {
+                Timer t = (Timer) m;
+                w.write("{\"count\": " + t.getCount() + ", \"sumSeconds\": " + jsonNumber(t.getTotalSeconds())
+                        + ", \"maxSeconds\": " + jsonNumber(t.getMaxSeconds())
+                        + ", \"lastSeconds\": " + jsonNumber(t.getLastSeconds()) + "}");
+            }
+        }
+        w.write("\n}\n");
+    }
+
+    /**
+     * Prometheus 文本格式（0.0.4）：计时器导出为 summary（_count / _sum），最大值与最近一次另作 gauge
+     */
+    public void writePrometheus(Writer w) throws IOException {
+        for (Map.Entry<String, Metric> e : metrics.entrySet()) {
+            String name = e.getKey();
+            Metric m = e.getValue();
+            w.write("# HELP " + name + " " + m.help.replace("\\", "\\\\").replace("\n", "\\n") + "\n");
+            if (m instanceof Counter) {
+                w.write("# TYPE " + name + " counter\n");
+                w.write(name + " " + ((Counter) m).get() + "\n");
+            } else if (m instanceof Gauge) {
+                w.write("# TYPE " + name + " gauge\n");
+                w.write(name + " " + promNumber(((Gauge) m).get()) + "\n");
+            } else {
+                Timer t = (Timer) m;
+                w.write("# TYPE " + name + " summary\n");
+                w.write(name + "_count " + t.getCount() + "\n");
+                w.write(name + "_sum " + promNumber(t.getTotalSeconds()) + "\n");
+                w.write("# TYPE " + name + "_max gauge\n");
+                w.write(name + "_max " + promNumber(t.getMaxSeconds()) + "\n");
+                w.write("# TYPE " + name + "_last gauge\n");
+                w.write(name + "_last " + promNumber(t.getLastSeconds()) + "\n");
+            }
+        }
+    }
+
+    public String toJson() {
+        StringWriter w = new StringWriter();
+        try {
+            writeJson(w);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringWriter 不会抛出
+        }
+        return w.toString();
+    }
+
+    public String toPrometheus() {
+        StringWriter w = new StringWriter();
+        try {
+            writePrometheus(w);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return w.toString();
+    }
+
+    /**
+     * 写入 out（UTF-8，写完 flush，不关闭 out）：prometheus 为 true 时写文本格式，否则写 JSON
+     */
+    public void write(OutputStream out, boolean prometheus) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (prometheus) writePrometheus(w);
+        else writeJson(w);
+        w.flush();
+    }
+
+    /**
+     * 原子地写入文件：扩展名为 .json 时写 JSON，否则写 Prometheus 文本（可供 node_exporter 的 textfile 收集器读取）
+     */
+    public void writeTo(String filePath) throws IOException {
+        Path target = Paths.get(filePath).toAbsolutePath();
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            write(out, !filePath.toLowerCase().endsWith(".json"));
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String jsonNumber(double v) {
+        return Double.isNaN(v) || Double.isInfinite(v) ? "null" : Double.toString(v);
+    }
+
+    private static String promNumber(double v) {
+        if (Double.isNaN(v)) return "NaN";
+        if (Double.isInfinite(v)) return v > 0 ? "+Inf" : "-Inf";
+        return Double.toString(v);
+    }
+}
@@ -0,0 +1,135 @@
+package com.smartfactory.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+
+/**
+ * 向 Writer 直接写出数字与时间的文本形式，不创建中间 String。
+ * 调用方提供一个至少 32 个字符的暂存区，可在多次调用间复用。
+ */
+final class NumberText {
+    static final int SCRATCH_CHARS = 32;
+
+    private static final long[] POW10 = {1, 10, 100, 1000, 10000, 100000, 1000000};
+
+    private NumberText() {
+    }
+
+    static void writeLong(Writer w, char[] scratch, long v) throws IOException {
+        if (v < 0) {
+            if (v == Long.MIN_VALUE) {
+                w.write(Long.toString(v));
+                return;
+            }
+            w.write('-');
+            v = -v;
+        }
+        if (v < 10) {
+            w.write((char) ('0' + v));
+            return;
+        }
+        int pos = scratch.length;
+        while (v > 0) {
+            scratch[--pos] = (char) ('0' + v % 10);
+            v /= 10;
+        }
+        w.write(scratch, pos, scratch.length - pos);
+    }
+
+    /**
+     * 写出最多 decimals 位小数（四舍五入，去掉末尾的 0）；超出 long 范围或非有限值时退回 Double.toString
+     */
+    static void writeDecimal(Writer w, char[] scratch, double v, int decimals) throws IOException {
+        long scale = POW10[decimals];
+        if (Double.isNaN(v) || Double.isInfinite(v) || Math.abs(v) >= (double) (Long.MAX_VALUE / scale)) {
+            w.write(Double.toString(v));
+            return;
+        }
+        long scaled = Math.round(v * scale);
+        if (scaled < 0) {
+            w.write('-');
+            scaled = -scaled;
+        }
+        writeLong(w, scratch, scaled / scale);
+        long fraction = scaled % scale;
+        if (fraction == 0) {
+            return;
+        }
+        int digits = decimals;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+        w.write('.');
+        for (int i = digits - 1; i >= 0; i--) {
+            scratch[i] = (char) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        w.write(scratch, 0, digits);
+    }
+
+    /**
+     * 写出 ISO-8601 本地时间 "yyyy-MM-ddTHH:mm:ss"
+     */
+    static void writeIsoDateTime(Writer w, char[] scratch, LocalDateTime t) throws IOException {
+        int year = t.getYear();
+        if (year < 0 || year > 9999) {
+            w.write(t.toString());
+            return;
+        }
+        put(scratch, 0, year, 4);
+        scratch[4] = '-';
+        put(scratch, 5, t.getMonthValue(), 2);
+        scratch[7] = '-';
+        put(scratch, 8, t.getDayOfMonth(), 2);
+        scratch[10] = 'T';
+        put(scratch, 11, t.getHour(), 2);
+        scratch[13] = ':';
+        put(scratch, 14, t.getMinute(), 2);
+        scratch[16] = ':';
+        put(scratch, 17, t.getSecond(), 2);
+        w.write(scratch, 0, 19);
+    }
+
+    /**
+     * 写出订单 CSV 使用的本地时间 "yyyy-MM-dd HH:mm"
+     */
+    static void writeCsvDateTime(Writer w, char[] scratch, LocalDateTime t) throws IOException {
+        int year = t.getYear();
+        if (year < 0 || year > 9999) {
+            throw new IllegalArgumentException("年份超出 CSV 时间格式范围: " + t);
+        }
+        put(scratch, 0, year, 4);
+        scratch[4] = '-';
+        put(scratch, 5, t.getMonthValue(), 2);
+        scratch[7] = '-';
+        put(scratch, 8, t.getDayOfMonth(), 2);
+        scratch[10] = ' ';
+        put(scratch, 11, t.getHour(), 2);
+        scratch[13] = ':';
+        put(scratch, 14, t.getMinute(), 2);
+        w.write(scratch, 0, 16);
+    }
+
+    /**
+     * 解析 s[from, to) 中的非负十进制整数，格式不正确时返回 fallback
+     */
+    static int parseInt(String s, int from, int to, int fallback) {
+        if (from < 0 || from >= to) return fallback;
+        int v = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return fallback;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    private static void put(char[] buf, int at, int value, int width) {
+        for (int i = at + width - 1; i >= at; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
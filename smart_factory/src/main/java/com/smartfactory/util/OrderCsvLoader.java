@@ -0,0 +1,376 @@
+package com.smartfactory.util;
+
+import com.smartfactory.Order;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * 大订单簿的流式并行加载器（与 DataLoader.loadOrders 使用同一 CSV 格式）。
+ * CSV格式: id,productId,quantity,totalValue,deadline,arrivalTime，时间格式 "yyyy-MM-dd HH:mm"
+ *
+ * 1. 文件按 UTF-8 处理，按行边界切成若干块，各块内存映射后在线程池中并行解析；
+ * 2. 直接在字节上解析数字与定长日期，不创建中间 String；
+ * 3. 可选的到达时间过滤在创建 Order 之前进行，被过滤的行不产生任何对象；
+ * 4. 格式错误的行不会中断加载，而是带行号收集到结果中。
+ * 结果中的订单保持文件中的顺序。
+ */
+public class OrderCsvLoader {
+    // 最多保留的错误信息条数（错误总数仍会完整统计）
+    public static final int MAX_ERRORS = 1000;
+
+    private static final int MIN_CHUNK_BYTES = 1 << 20;
+    private static final int MAX_CHUNK_BYTES = 64 << 20;
+    private static final int FIELDS = 6;
+
+    /**
+     * 加载结果
+     */
+    public static class Result {
+        public final List<Order> orders = new ArrayList<>();
+        public final List<String> errors = new ArrayList<>(); // "第 N 行: 原因"，最多 MAX_ERRORS 条
+        public long errorCount = 0;    // 格式错误的行数
+        public long rowsRead = 0;      // 成功解析的数据行数（含被过滤的行）
+        public long rowsFiltered = 0;  // 被到达时间条件过滤掉的行数
+    }
+
+    /**
+     * 加载全部订单
+     */
+    public static Result load(String filePath) throws IOException {
+        return loadArrivedMatchingMinutes(filePath, null);
+    }
+
+    /**
+     * 只加载到达时间不晚于 arrivalCutoff 的订单（arrivalCutoff 为 null 时加载全部）
+     */
+    public static Result load(String filePath, LocalDateTime arrivalCutoff) throws IOException {
+        if (arrivalCutoff == null) {
+            return loadArrivedMatchingMinutes(filePath, null);
+        }
+        long cutoff = EpochMinutes.of(arrivalCutoff);
+        return loadArrivedMatchingMinutes(filePath, arrival -> arrival <= cutoff);
+    }
+
+    /**
+     * 只加载到达时间满足 arrivalFilter 的订单
+     */
+    public static Result loadArrivedMatching(String filePath, Predicate<LocalDateTime> arrivalFilter) throws IOException {
+        return loadArrivedMatchingMinutes(filePath, arrival -> arrivalFilter.test(EpochMinutes.toDateTime(arrival)));
+    }
+
+    /**
+     * 只加载到达时间（EpochMinutes 分钟数）满足 arrivalFilter 的订单，arrivalFilter 为 null 时加载全部
+     */
+    public static Result loadArrivedMatchingMinutes(String filePath, LongPredicate arrivalFilter) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long[] bounds = splitOnLines(channel);
+            int chunks = bounds.length - 1;
+
+            List<ChunkResult> parts = new ArrayList<>(chunks);
+            if (chunks == 1) {
+                parts.add(parseChunk(channel, bounds[0], bounds[1], arrivalFilter));
+            } else {
+                int threads = Math.min(chunks, Runtime.getRuntime().availableProcessors());
+                ExecutorService executor = Executors.newFixedThreadPool(threads);
+                try {
+                    List<Future<ChunkResult>> futures = new ArrayList<>(chunks);
+                    for (int k = 0; k < chunks; k++) {
+                        final long start = bounds[k], end = bounds[k + 1];
+                        futures.add(executor.submit(() -> parseChunk(channel, start, end, arrivalFilter)));
+                    }
+                    for (Future<ChunkResult> f : futures) {
+                        parts.add(f.get());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("订单文件加载被中断", e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+                    throw new IllegalStateException("订单文件解析失败", e.getCause());
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+            return merge(parts);
+        }
+    }
+
+    // 合并各块结果：块内的局部行号加上之前各块的行数即为文件行号
+    private static Result merge(List<ChunkResult> parts) {
+        Result result = new Result();
+        long lineOffset = 0;
+        for (ChunkResult part : parts) {
+            result.orders.addAll(part.orders);
+            result.rowsRead += part.rowsRead;
+            result.rowsFiltered += part.rowsFiltered;
+            result.errorCount += part.errorLines.size();
+            for (int i = 0; i < part.errorLines.size() && result.errors.size() < MAX_ERRORS; i++) {
+                result.errors.add("第 " + (lineOffset + part.errorLines.get(i)) + " 行: " + part.errorMessages.get(i));
+            }
+            lineOffset += part.lines;
+        }
+        return result;
+    }
+
+    /**
+     * 按行边界切块：每个块从行首开始，大小约为 文件大小 / (线程数 * 4)，限制在 [1MB, 64MB]
+     */
+    private static long[] splitOnLines(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int threads = Runtime.getRuntime().availableProcessors();
+        long target = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, size / (threads * 4L)));
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long pos = target;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        while (pos < size) {
+            long lineStart = nextLineStart(channel, pos, size, probe);
+            if (lineStart >= size) break;
+            bounds.add(lineStart);
+            pos = lineStart + target;
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) result[i] = bounds.get(i);
+        return result;
+    }
+
+    // 从 pos 开始找到下一个 '\n'，返回其后一个字节的位置
+    private static long nextLineStart(FileChannel channel, long pos, long size, ByteBuffer probe) throws IOException {
+        while (pos < size) {
+            probe.clear();
+            int n = channel.read(probe, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (probe.get(i) == '\n') return pos + i + 1;
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    /**
+     * 单个块的解析结果；行号为块内从 1 开始的局部行号
+     */
+    private static class ChunkResult {
+        final List<Order> orders = new ArrayList<>();
+        final List<Long> errorLines = new ArrayList<>();
+        final List<String> errorMessages = new ArrayList<>();
+        long lines = 0;
+        long rowsRead = 0;
+        long rowsFiltered = 0;
+    }
+
+    private static ChunkResult parseChunk(FileChannel channel, long start, long end, LongPredicate arrivalFilter)
+            throws IOException {
+        ChunkResult result = new ChunkResult();
+        if (end <= start) return result;
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int limit = buf.limit();
+
+        int pos = 0;
+        // UTF-8 BOM
+        if (start == 0 && limit >= 3 && (buf.get(0) & 0xFF) == 0xEF && (buf.get(1) & 0xFF) == 0xBB && (buf.get(2) & 0xFF) == 0xBF) {
+            pos = 3;
+        }
+
+        int[] fieldStart = new int[FIELDS];
+        int[] fieldEnd = new int[FIELDS];
+        while (pos < limit) {
+            int lineEnd = pos;
+            while (lineEnd < limit && buf.get(lineEnd) != '\n') lineEnd++;
+            int next = lineEnd + 1;
+            result.lines++;
+
+            if (lineEnd > pos && buf.get(lineEnd - 1) == '\r') lineEnd--;
+            int first = skipSpaces(buf, pos, lineEnd);
+            // 跳过空行、注释与表头
+            if (first == lineEnd || buf.get(first) == '#' || (first + 1 < lineEnd && buf.get(first) == 'i' && buf.get(first + 1) == 'd')) {
+                pos = next;
+                continue;
+            }
+
+            try {
+                splitFields(buf, pos, lineEnd, fieldStart, fieldEnd);
+                long arrival = parseDateTime(buf, fieldStart[5], fieldEnd[5]);
+                long deadline = parseDateTime(buf, fieldStart[4], fieldEnd[4]);
+                int id = parseInt(buf, fieldStart[0], fieldEnd[0]);
+                int productId = parseInt(buf, fieldStart[1], fieldEnd[1]);
+                int quantity = parseInt(buf, fieldStart[2], fieldEnd[2]);
+                double value = parseDouble(buf, fieldStart[3], fieldEnd[3]);
+                result.rowsRead++;
+
+                if (arrivalFilter != null && !arrivalFilter.test(arrival)) {
+                    result.rowsFiltered++;
+                } else {
+                    result.orders.add(new Order(id, productId, quantity, value,
+                            EpochMinutes.toDateTime(EpochMinutes.alignTo8AM(deadline)), EpochMinutes.toDateTime(arrival)));
+                }
+            } catch (IllegalArgumentException e) {
+                result.errorLines.add(result.lines);
+                result.errorMessages.add(e.getMessage());
+            }
+            pos = next;
+        }
+        return result;
+    }
+
+    // 按逗号切出前 FIELDS 个字段（去除首尾空白），多余字段忽略
+    private static void splitFields(ByteBuffer buf, int from, int to, int[] starts, int[] ends) {
+        int field = 0;
+        int s = from;
+        for (int i = from; i <= to && field < FIELDS; i++) {
+            if (i == to || buf.get(i) == ',') {
+                int a = skipSpaces(buf, s, i);
+                int b = i;
+                while (b > a && isSpace(buf.get(b - 1))) b--;
+                starts[field] = a;
+                ends[field] = b;
+                field++;
+                s = i + 1;
+            }
+        }
+        if (field < FIELDS) {
+            throw new IllegalArgumentException("字段数不足: 期望 " + FIELDS + " 个, 实际 " + field + " 个");
+        }
+    }
+
+    private static int skipSpaces(ByteBuffer buf, int from, int to) {
+        while (from < to && isSpace(buf.get(from))) from++;
+        return from;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    static int parseInt(ByteBuffer buf, int from, int to) {
+        long v = parseLong(buf, from, to);
+        if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("整数越界: " + text(buf, from, to));
+        }
+        return (int) v;
+    }
+
+    private static long parseLong(ByteBuffer buf, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buf.get(i) == '-' || buf.get(i) == '+')) {
+            negative = buf.get(i) == '-';
+            i++;
+        }
+        if (i == to || to - i > 18) {
+            throw new IllegalArgumentException("无效整数: \"" + text(buf, from, to) + "\"");
+        }
+        long v = 0;
+        for (; i < to; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) throw new IllegalArgumentException("无效整数: \"" + text(buf, from, to) + "\"");
+            v = v * 10 + d;
+        }
+        return negative ? -v : v;
+    }
+
+    // 10 的整数次幂在 double 中精确表示的上限
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * 解析形如 "-123.45" 的小数。有效数字不超过 15 位时，尾数与 10 的幂都精确可表示，
+     * 一次除法即得到与 Double.parseDouble 相同的正确舍入结果；其余情况（指数、超长数字）回退到 Double.parseDouble。
+     */
+    static double parseDouble(ByteBuffer buf, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buf.get(i) == '-' || buf.get(i) == '+')) {
+            negative = buf.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0, fractionDigits = 0;
+        boolean dot = false, anyDigit = false, simple = true;
+        for (; i < to; i++) {
+            byte b = buf.get(i);
+            if (b >= '0' && b <= '9') {
+                anyDigit = true;
+                if (mantissa != 0 || b != '0') digits++;
+                mantissa = mantissa * 10 + (b - '0');
+                if (dot) fractionDigits++;
+                if (digits > 15) {
+                    simple = false;
+                    break;
+                }
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else {
+                simple = false;
+                break;
+            }
+        }
+        if (simple && anyDigit && fractionDigits < POW10.length) {
+            double v = mantissa / POW10[fractionDigits];
+            return negative ? -v : v;
+        }
+        try {
+            return Double.parseDouble(text(buf, from, to));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效数值: \"" + text(buf, from, to) + "\"");
+        }
+    }
+
+    /**
+     * 解析定长时间 "yyyy-MM-dd HH:mm"（日期与时间之间也可用 'T'），返回 EpochMinutes 分钟数
+     */
+    static long parseDateTime(ByteBuffer buf, int from, int to) {
+        if (to - from != 16 || buf.get(from + 4) != '-' || buf.get(from + 7) != '-'
+                || (buf.get(from + 10) != ' ' && buf.get(from + 10) != 'T') || buf.get(from + 13) != ':') {
+            throw new IllegalArgumentException("无效时间(应为 yyyy-MM-dd HH:mm): \"" + text(buf, from, to) + "\"");
+        }
+        int year = digits(buf, from, 4);
+        int month = digits(buf, from + 5, 2);
+        int day = digits(buf, from + 8, 2);
+        int hour = digits(buf, from + 11, 2);
+        int minute = digits(buf, from + 14, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                || day > EpochMinutes.lengthOfMonth(year, month)) {
+            throw new IllegalArgumentException("无效时间: \"" + text(buf, from, to) + "\"");
+        }
+        return EpochMinutes.epochDay(year, month, day) * EpochMinutes.MINUTES_PER_DAY + hour * 60 + minute;
+    }
+
+    // 读取 n 位十进制数字，含非数字字符时返回 -1
+    private static int digits(ByteBuffer buf, int from, int n) {
+        int v = 0;
+        for (int i = from; i < from + n; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            v = v * 10 + d;
+        }
+        return v;
+    }
+
+    private static String text(ByteBuffer buf, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = buf.get(from + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
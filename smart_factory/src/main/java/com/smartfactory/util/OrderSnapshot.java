@@ -0,0 +1,278 @@
+package com.smartfactory.util;
+
+import com.smartfactory.Order;
+import com.smartfactory.Product;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 订单与产品数据的列式二进制快照。
+ * 每天早上只需读取到达时间落在某个范围内的订单，快照把行按到达时间（稳定）排序后按列存放，
+ * 读取时内存映射整个文件，在到达时间列上二分查找出行区间，只解码区间内的行。
+ * 每行另存其在写入列表（CSV 文件）中的原始行号，读出的订单按原始行号恢复顺序，
+ * 因此从快照与从 CSV 加载得到的订单列表完全相同，排程结果不随加载方式变化。
+ *
+ * 文件布局（小端）：
+ *   头部 64 字节: 魔数 "OSNP" | 版本 | 订单行数 | 产品数 | 最早到达 | 最晚到达（EpochMinutes 分钟数）
+ *   产品列: id int[P] | unitProcessingTime double[P]
+ *   订单列: arrival int[N] | deadline int[N] | id int[N] | productId int[N] | quantity int[N] | totalValue double[N]
+ *           | row int[N]（原始行号）
+ * 时间列以 int 存储 EpochMinutes 分钟数；每列起点按 8 字节对齐。
+ */
+public class OrderSnapshot {
+    private static final int MAGIC = 0x504E534F; // "OSNP"（小端）
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+
+    private final int rowCount;
+    private final int productCount;
+    private final long minArrival;
+    private final long maxArrival;
+
+    private final ByteBuffer buffer;
+    private final int productIdOffset, productTimeOffset;
+    private final int arrivalOffset, deadlineOffset, idOffset, productOffset, quantityOffset, valueOffset, rowOffset;
+
+    private OrderSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("不是有效的订单快照文件");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("不支持的快照版本: " + version + "（请用 --build-snapshot 重新生成）");
+        }
+        this.rowCount = buffer.getInt(8);
+        this.productCount = buffer.getInt(12);
+        this.minArrival = buffer.getLong(16);
+        this.maxArrival = buffer.getLong(24);
+
+        int[] offsets = layout(rowCount, productCount);
+        if (offsets[offsets.length - 1] != buffer.limit()) {
+            throw new IOException("快照文件大小与头部不符: 期望 " + offsets[offsets.length - 1] + " 字节, 实际 " + buffer.limit());
+        }
+        this.productIdOffset = offsets[0];
+        this.productTimeOffset = offsets[1];
+        this.arrivalOffset = offsets[2];
+        this.deadlineOffset = offsets[3];
+        this.idOffset = offsets[4];
+        this.productOffset = offsets[5];
+        this.quantityOffset = offsets[6];
+        this.valueOffset = offsets[7];
+        this.rowOffset = offsets[8];
+    }
+
+    // 各列起点（最后一个元素为文件总大小）
+    private static int[] layout(int rows, int products) throws IOException {
+        long[] widths = {4L * products, 8L * products, 4L * rows, 4L * rows, 4L * rows, 4L * rows, 4L * rows, 8L * rows,
+                4L * rows};
+        int[] offsets = new int[widths.length + 1];
+        long pos = HEADER_BYTES;
+        for (int i = 0; i < widths.length; i++) {
+            offsets[i] = (int) pos;
+            pos = align8(pos + widths[i]);
+            if (pos > Integer.MAX_VALUE) {
+                throw new IOException("快照超过 2GB 上限: " + rows + " 行");
+            }
+        }
+        offsets[widths.length] = (int) pos;
+        return offsets;
+    }
+
+    private static long align8(long pos) {
+        return (pos + 7) & ~7L;
+    }
+
+    /**
+     * 把产品与订单写成快照（先写临时文件再原子重命名）
+     */
+    public static void write(String filePath, List<Product> products, List<Order> orders) throws IOException {
+        // 按到达时间稳定排序（行号数组），原始行号另存一列
+        Integer[] order = new Integer[orders.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparing(i -> orders.get(i).getArrivalTime()));
+        List<Order> sorted = new ArrayList<>(order.length);
+        for (int i : order) sorted.add(orders.get(i));
+
+        int rows = sorted.size();
+        int[] offsets = layout(rows, products.size());
+        long minArrival = rows == 0 ? 0 : EpochMinutes.of(sorted.get(0).getArrivalTime());
+        long maxArrival = rows == 0 ? 0 : EpochMinutes.of(sorted.get(rows - 1).getArrivalTime());
+
+        Path target = Paths.get(filePath);
+        Path tmp = Paths.get(filePath + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, offsets[offsets.length - 1]);
+            out.order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(0, MAGIC);
+            out.putInt(4, VERSION);
+            out.putInt(8, rows);
+            out.putInt(12, products.size());
+            out.putLong(16, minArrival);
+            out.putLong(24, maxArrival);
+
+            for (int i = 0; i < products.size(); i++) {
+                out.putInt(offsets[0] + 4 * i, products.get(i).getId());
+                out.putDouble(offsets[1] + 8 * i, products.get(i).getUnitProcessingTime());
+            }
+            for (int i = 0; i < rows; i++) {
+                Order o = sorted.get(i);
+                out.putInt(offsets[2] + 4 * i, toInt(EpochMinutes.of(o.getArrivalTime())));
+                out.putInt(offsets[3] + 4 * i, toInt(EpochMinutes.of(o.getDeadline())));
+                out.putInt(offsets[4] + 4 * i, o.getId());
+                out.putInt(offsets[5] + 4 * i, o.getProductId());
+                out.putInt(offsets[6] + 4 * i, o.getQuantity());
+                out.putDouble(offsets[7] + 8 * i, o.getTotalValue());
+                out.putInt(offsets[8] + 4 * i, order[i]);
+            }
+            out.force();
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static int toInt(long epochMinute) {
+        if (epochMinute < Integer.MIN_VALUE || epochMinute > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("时间超出快照可表示范围: " + EpochMinutes.toDateTime(epochMinute));
+        }
+        return (int) epochMinute;
+    }
+
+    /**
+     * 从现有 CSV 文件生成快照；订单 CSV 中格式错误的行会输出到 System.err 并跳过
+     */
+    public static void convertCsv(String productFile, String orderFile, String snapshotFile) throws IOException {
+        List<Product> products = DataLoader.loadProducts(productFile);
+        OrderCsvLoader.Result orders = OrderCsvLoader.load(orderFile);
+        DataLoader.reportErrors(orderFile, orders);
+        write(snapshotFile, products, orders.orders);
+    }
+
+    /**
+     * 内存映射打开快照，只读取头部，行数据按需解码
+     */
+    public static OrderSnapshot open(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("快照超过 2GB 上限: " + filePath);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new OrderSnapshot(buffer);
+        }
+    }
+
+    public int getRowCount() { return rowCount; }
+
+    /**
+     * 最早到达时间（无订单时为 null）
+     */
+    public LocalDateTime getMinArrival() {
+        return rowCount == 0 ? null : EpochMinutes.toDateTime(minArrival);
+    }
+
+    /**
+     * 最晚到达时间（无订单时为 null）
+     */
+    public LocalDateTime getMaxArrival() {
+        return rowCount == 0 ? null : EpochMinutes.toDateTime(maxArrival);
+    }
+
+    public List<Product> readProducts() {
+        List<Product> list = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            list.add(new Product(buffer.getInt(productIdOffset + 4 * i), buffer.getDouble(productTimeOffset + 8 * i)));
+        }
+        return list;
+    }
+
+    public List<Order> readOrders() {
+        return decodeRows(0, rowCount);
+    }
+
+    /**
+     * 读取到达时间不晚于 cutoff 的订单
+     */
+    public List<Order> readOrdersArrivedBy(LocalDateTime cutoff) {
+        return readOrders(null, cutoff);
+    }
+
+    /**
+     * 读取到达时间在 [from, to] 内的订单（两端均含，null 表示不限），结果保持写入时的原始行顺序
+     */
+    public List<Order> readOrders(LocalDateTime from, LocalDateTime to) {
+        long lo = from == null ? Long.MIN_VALUE : EpochMinutes.of(from);
+        long hi = to == null ? Long.MAX_VALUE : EpochMinutes.of(to);
+        if (rowCount == 0 || lo > hi || lo > maxArrival || hi < minArrival) {
+            return new ArrayList<>();
+        }
+        IntBuffer arrivals = column(arrivalOffset).asIntBuffer();
+        int start = lowerBound(arrivals, lo);
+        int end = hi == Long.MAX_VALUE ? rowCount : lowerBound(arrivals, hi + 1);
+        return decodeRows(start, end);
+    }
+
+    // 第一个到达时间 >= key 的行
+    private int lowerBound(IntBuffer arrivals, long key) {
+        int lo = 0, hi = rowCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arrivals.get(mid) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // 解码区间 [start, end) 内的行，按原始行号排序后输出
+    private List<Order> decodeRows(int start, int end) {
+        IntBuffer rows = column(rowOffset).asIntBuffer();
+        long[] keys = new long[Math.max(0, end - start)];
+        for (int i = start; i < end; i++) {
+            keys[i - start] = ((long) rows.get(i) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        IntBuffer arrivals = column(arrivalOffset).asIntBuffer();
+        IntBuffer deadlines = column(deadlineOffset).asIntBuffer();
+        IntBuffer ids = column(idOffset).asIntBuffer();
+        IntBuffer productIds = column(productOffset).asIntBuffer();
+        IntBuffer quantities = column(quantityOffset).asIntBuffer();
+        DoubleBuffer values = column(valueOffset).asDoubleBuffer();
+
+        List<Order> list = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            int i = (int) key;
+            list.add(new Order(ids.get(i), productIds.get(i), quantities.get(i), values.get(i),
+                    EpochMinutes.toDateTime(deadlines.get(i)), EpochMinutes.toDateTime(arrivals.get(i))));
+        }
+        return list;
+    }
+
+    // 从 offset 开始的只读列视图（线程安全：不修改共享缓冲区的位置）
+    private ByteBuffer column(int offset) {
+        ByteBuffer view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        view.position(offset);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,53 @@
+package com.smartfactory.util;
+
+import java.util.Random;
+
+/**
+ * 状态可读写的随机数生成器。
+ * 与 java.util.Random 使用完全相同的 48 位线性同余算法（同一种子产生同一序列），
+ * 但额外暴露内部状态，便于检查点保存后恢复出逐位一致的随机序列。
+ * 注意：nextGaussian() 的缓存值不属于可恢复状态，GA 中不使用它。
+ */
+public class RestorableRandom extends Random {
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state; // 不能带初始化器：父类构造函数会先通过 setSeed 写入
+
+    public RestorableRandom() {
+        super();
+    }
+
+    public RestorableRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        this.state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /**
+     * 当前内部状态（48 位）
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * 恢复内部状态（来自 getState() 的返回值）
+     */
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
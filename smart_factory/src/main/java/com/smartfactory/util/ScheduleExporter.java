@@ -0,0 +1,225 @@
+package com.smartfactory.util;
+
+import com.smartfactory.GAScheduler;
+import com.smartfactory.Order;
+import com.smartfactory.ScheduleData;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 机器可读的排程导出（供 MES 等下游系统使用）：任务明细与订单完成情况，CSV 或 JSON Lines。
+ * 逐行流式写入固定大小缓冲的 UTF-8 输出，数字与时间直接写成字符，内存占用与任务数无关。
+ *
+ * 时间格式：epochOffset 为 null 时写 ISO-8601 本地时间 "yyyy-MM-ddTHH:mm:ss"，
+ * 否则按该时区偏移换算为 Unix 秒。金额与系数保留至多 4 位小数。
+ *
+ * 任务列: operationId, orderId, piece, productId, line, start, end, costCoefficient, baseCost, free
+ * 订单列: orderId, productId, quantity, totalValue, deadline, completion, late, penalty
+ *         （deadline 为对齐后的截止时间；未完成的订单 completion 为空 / null）
+ */
+public class ScheduleExporter {
+    private static final int BUFFER_CHARS = 1 << 16;
+    private static final int DECIMALS = 4;
+
+    public enum Format { CSV, JSONL }
+
+    private static final String[] JOB_COLUMNS = {
+            "operationId", "orderId", "piece", "productId", "line", "start", "end", "costCoefficient", "baseCost", "free"};
+    private static final String[] ORDER_COLUMNS = {
+            "orderId", "productId", "quantity", "totalValue", "deadline", "completion", "late", "penalty"};
+
+    /**
+     * 导出任务明细到文件：按扩展名选择格式（.csv / .jsonl，可再加 .gz 压缩）
+     */
+    public static void exportJobs(GAScheduler.ScheduleResult result, String filePath, ZoneOffset epochOffset) throws IOException {
+        Format format = formatOf(filePath);
+        try (OutputStream out = openFile(filePath)) {
+            exportJobs(result, out, format, epochOffset);
+        }
+    }
+
+    /**
+     * 导出订单完成情况到文件：按扩展名选择格式（.csv / .jsonl，可再加 .gz 压缩）
+     */
+    public static void exportOrders(GAScheduler.ScheduleResult result, List<Order> orders, String filePath,
+                                    ZoneOffset epochOffset) throws IOException {
+        Format format = formatOf(filePath);
+        try (OutputStream out = openFile(filePath)) {
+            exportOrders(result, orders, out, format, epochOffset);
+        }
+    }
+
+    /**
+     * 把任务明细写入 out（写完后 flush，不关闭 out）
+     */
+    public static void exportJobs(GAScheduler.ScheduleResult result, OutputStream out, Format format,
+                                  ZoneOffset epochOffset) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+        RowWriter row = new RowWriter(w, format, JOB_COLUMNS, epochOffset);
+        row.header();
+        JobTable jobs = result.scheduledJobs;
+        for (int i = 0; i < jobs.size(); i++) {
+            int orderId = jobs.getOrderId(i);
+            int piece = jobs.getPiece(i);
+            row.begin();
+            row.operationId(orderId, piece);
+            row.integer(orderId);
+            row.integer(piece);
+            row.integer(jobs.getProductId(i));
+            row.integer(jobs.getLineId(i));
+            row.epochTime(jobs.getStartEpochSecond(i));
+            row.epochTime(jobs.getEndEpochSecond(i));
+            row.decimal(jobs.getCoefficient(i));
+            row.decimal(jobs.getCost(i));
+            row.bool(jobs.getCost(i) == 0.0);
+            row.end();
+        }
+        w.flush();
+    }
+
+    /**
+     * 把订单完成情况写入 out（写完后 flush，不关闭 out）
+     */
+    public static void exportOrders(GAScheduler.ScheduleResult result, List<Order> orders, OutputStream out,
+                                    Format format, ZoneOffset epochOffset) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+        RowWriter row = new RowWriter(w, format, ORDER_COLUMNS, epochOffset);
+        row.header();
+        for (Order o : orders) {
+            LocalDateTime finish = result.completionTimes.get(o.getId());
+            LocalDateTime deadline = o.getAlignedDeadline();
+            boolean late = finish != null && finish.isAfter(deadline);
+            row.begin();
+            row.integer(o.getId());
+            row.integer(o.getProductId());
+            row.integer(o.getQuantity());
+            row.decimal(o.getTotalValue());
+            row.time(deadline);
+            row.time(finish);
+            row.bool(late);
+            row.decimal(late ? o.getTotalValue() * ScheduleData.PENALTY_RATE : 0.0);
+            row.end();
+        }
+        w.flush();
+    }
+
+    private static Format formatOf(String filePath) {
+        String name = filePath.toLowerCase();
+        if (name.endsWith(".gz")) name = name.substring(0, name.length() - 3);
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) return Format.JSONL;
+        if (name.endsWith(".csv")) return Format.CSV;
+        throw new IllegalArgumentException("无法从文件名判断导出格式（应为 .csv / .jsonl，可加 .gz）: " + filePath);
+    }
+
+    private static OutputStream openFile(String filePath) throws IOException {
+        OutputStream out = new FileOutputStream(filePath);
+        return filePath.toLowerCase().endsWith(".gz") ? new GZIPOutputStream(out, BUFFER_CHARS) : out;
+    }
+
+    /**
+     * 按格式写出一行中的各个字段
+     */
+    private static class RowWriter {
+        private final Writer w;
+        private final Format format;
+        private final String[] columns;
+        private final ZoneOffset epochOffset;
+        private final char[] scratch = new char[NumberText.SCRATCH_CHARS];
+        private int column;
+
+        RowWriter(Writer w, Format format, String[] columns, ZoneOffset epochOffset) {
+            this.w = w;
+            this.format = format;
+            this.columns = columns;
+            this.epochOffset = epochOffset;
+        }
+
+        void header() throws IOException {
+            if (format != Format.CSV) return;
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) w.write(',');
+                w.write(columns[i]);
+            }
+            w.write('\n');
+        }
+
+        void begin() throws IOException {
+            column = 0;
+            if (format == Format.JSONL) w.write('{');
+        }
+
+        void end() throws IOException {
+            w.write(format == Format.JSONL ? "}\n" : "\n");
+        }
+
+        // 字段分隔符与 JSON 键名
+        private void next() throws IOException {
+            if (column > 0) w.write(',');
+            if (format == Format.JSONL) {
+                w.write('"');
+                w.write(columns[column]);
+                w.write("\":");
+            }
+            column++;
+        }
+
+        void integer(long v) throws IOException {
+            next();
+            NumberText.writeLong(w, scratch, v);
+        }
+
+        void decimal(double v) throws IOException {
+            next();
+            NumberText.writeDecimal(w, scratch, v, DECIMALS);
+        }
+
+        void bool(boolean v) throws IOException {
+            next();
+            w.write(v ? "true" : "false");
+        }
+
+        // 任务表中的时间列：本地时间按 UTC 换算的 epoch 秒
+        void epochTime(long localEpochSecond) throws IOException {
+            if (epochOffset != null) {
+                next();
+                NumberText.writeLong(w, scratch, localEpochSecond - epochOffset.getTotalSeconds());
+            } else {
+                time(JobTable.toDateTime(localEpochSecond));
+            }
+        }
+
+        void time(LocalDateTime t) throws IOException {
+            next();
+            if (t == null) {
+                if (format == Format.JSONL) w.write("null");
+            } else if (epochOffset != null) {
+                NumberText.writeLong(w, scratch, t.toEpochSecond(epochOffset));
+            } else {
+                if (format == Format.JSONL) w.write('"');
+                NumberText.writeIsoDateTime(w, scratch, t);
+                if (format == Format.JSONL) w.write('"');
+            }
+        }
+
+        // 工件ID "O{订单}_{序号}"：只含字母、数字与下划线，无需转义
+        void operationId(int orderId, int piece) throws IOException {
+            next();
+            if (format == Format.JSONL) w.write('"');
+            w.write('O');
+            NumberText.writeLong(w, scratch, orderId);
+            w.write('_');
+            NumberText.writeLong(w, scratch, piece);
+            if (format == Format.JSONL) w.write('"');
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.smartfactory.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 班次工资日历：按"时段系数 × 日期倍率"计算每个 4 小时工时块的工资。
+ * - 时段系数：一天内按分钟划分的班次（白班/晚班/夜班/深夜班...），预展开为 1440 个分钟槽，查表 O(1)。
+ * - 日期倍率：周末等按星期几设置的倍率，以及节假日（按日期）倍率，节假日优先。
+ * 默认日历与 {@link TimeCostUtil} 原有的五段班次规则完全一致。
+ */
+public class ShiftCalendar {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private double basePay;
+    private final double[] minuteCoefficient = new double[MINUTES_PER_DAY];
+    private final String[] minuteShiftName = new String[MINUTES_PER_DAY];
+    private final Map<DayOfWeek, Double> dayMultiplier = new EnumMap<>(DayOfWeek.class);
+    private final Map<LocalDate, Double> holidayMultiplier = new HashMap<>();
+
+    /**
+     * 创建空日历：所有时段系数为 1.0，无周末/节假日倍率
+     */
+    public ShiftCalendar(double basePay) {
+        this.basePay = basePay;
+        Arrays.fill(minuteCoefficient, 1.0);
+        Arrays.fill(minuteShiftName, "");
+    }
+
+    /**
+     * 默认日历（与原硬编码规则一致）。每次返回新实例，调用方修改不会影响其他解码器
+     */
+    public static ShiftCalendar defaultCalendar() {
+        ShiftCalendar c = new ShiftCalendar(TimeCostUtil.BASE_PAY_4_HOURS);
+        c.addShift(0, 8 * 60, 2.0, "深夜");              // 0:01 - 7:59 深夜班
+        c.addShift(0, 1, 1.5, "夜班");                   // 0:00 整点算作前一夜班的延续
+        c.addShift(8 * 60, 16 * 60, 1.0, "白班");         // 8:00 - 15:59 正常班
+        c.addShift(16 * 60, 20 * 60, 1.2, "晚班");        // 16:00 - 19:59 晚班
+        c.addShift(20 * 60, MINUTES_PER_DAY, 1.5, "夜班"); // 20:00 - 23:59 夜班
+        return c;
+    }
+
+    /**
+     * 设置一个班次时段 [fromMinute, toMinute)，单位为一天中的分钟数。
+     * fromMinute > toMinute 表示跨越午夜。后设置的时段覆盖先设置的时段。
+     */
+    public void addShift(int fromMinute, int toMinute, double coefficient, String name) {
+        if (fromMinute < 0 || fromMinute > MINUTES_PER_DAY || toMinute < 0 || toMinute > MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("班次时间超出范围: " + fromMinute + " - " + toMinute);
+        }
+        int m = fromMinute;
+        while (m != toMinute) {
+            if (m == MINUTES_PER_DAY) {
+                m = 0;
+                if (toMinute == 0) break;
+            }
+            minuteCoefficient[m] = coefficient;
+            minuteShiftName[m] = name;
+            m++;
+        }
+    }
+
+    /**
+     * 设置某个星期几的倍率（例如周六、周日 1.5 倍）
+     */
+    public void setDayMultiplier(DayOfWeek day, double multiplier) {
+        dayMultiplier.put(day, multiplier);
+    }
+
+    /**
+     * 设置某个节假日的倍率（优先于星期倍率）
+     */
+    public void addHoliday(LocalDate date, double multiplier) {
+        holidayMultiplier.put(date, multiplier);
+    }
+
+    public void setBasePay(double basePay) {
+        this.basePay = basePay;
+    }
+
+    public double getBasePay() { return basePay; }
+
+    /**
+     * 获取以 time 开始的工时块的工资成本系数（时段系数 × 日期倍率）
+     */
+    public double getCoefficient(LocalDateTime time) {
+        return minuteCoefficient[time.getHour() * 60 + time.getMinute()] * getDateMultiplier(time.toLocalDate());
+    }
+
+    /**
+     * 获取以 time 开始的一个工时块的工资
+     */
+    public double getBlockCost(LocalDateTime time) {
+        return basePay * getCoefficient(time);
+    }
+
+    /**
+     * 获取 time 所在班次的名称（用于报表显示）
+     */
+    public String getShiftName(LocalDateTime time) {
+        return minuteShiftName[time.getHour() * 60 + time.getMinute()];
+    }
+
+    private double getDateMultiplier(LocalDate date) {
+        if (holidayMultiplier.isEmpty() && dayMultiplier.isEmpty()) {
+            return 1.0;
+        }
+        Double holiday = holidayMultiplier.get(date);
+        if (holiday != null) {
+            return holiday;
+        }
+        return dayMultiplier.getOrDefault(date.getDayOfWeek(), 1.0);
+    }
+
+    /**
+     * 预计算从 origin 开始、共 slotCount 个工时块的成本表
+     */
+    public SlotCostTable buildSlotTable(LocalDateTime origin, long slotSeconds, int slotCount) {
+        return new SlotCostTable(this, origin, slotSeconds, slotCount);
+    }
+}
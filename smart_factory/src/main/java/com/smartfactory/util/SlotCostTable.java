@@ -0,0 +1,55 @@
+package com.smartfactory.util;
+
+import java.time.LocalDateTime;
+
+/**
+ * 工时块成本表：把排程区间按固定块长（4小时）切分，预先计算每个块的成本系数与工资。
+ * 解码器以"距基准时间的秒数"查询，数组下标访问 O(1)，不再逐块做 LocalTime 比较。
+ * 超出预计算范围的查询回退到日历直接计算（结果一致，只是慢一些）。
+ * 表在构造后只读，可被多个线程共享。
+ */
+public class SlotCostTable {
+    private final ShiftCalendar calendar;
+    private final LocalDateTime origin;
+    private final long slotSeconds;
+    private final double[] coefficient;
+    private final double[] cost;
+
+    SlotCostTable(ShiftCalendar calendar, LocalDateTime origin, long slotSeconds, int slotCount) {
+        this.calendar = calendar;
+        this.origin = origin;
+        this.slotSeconds = slotSeconds;
+        this.coefficient = new double[slotCount];
+        this.cost = new double[slotCount];
+        for (int k = 0; k < slotCount; k++) {
+            LocalDateTime slotStart = origin.plusSeconds(k * slotSeconds);
+            coefficient[k] = calendar.getCoefficient(slotStart);
+            cost[k] = calendar.getBasePay() * coefficient[k];
+        }
+    }
+
+    /**
+     * 包含 offsetSeconds 的工时块的工资
+     */
+    public double costAt(long offsetSeconds) {
+        long k = offsetSeconds / slotSeconds;
+        if (k >= 0 && k < cost.length) {
+            return cost[(int) k];
+        }
+        return calendar.getBlockCost(origin.plusSeconds(k * slotSeconds));
+    }
+
+    /**
+     * 包含 offsetSeconds 的工时块的成本系数
+     */
+    public double coefficientAt(long offsetSeconds) {
+        long k = offsetSeconds / slotSeconds;
+        if (k >= 0 && k < coefficient.length) {
+            return coefficient[(int) k];
+        }
+        return calendar.getCoefficient(origin.plusSeconds(k * slotSeconds));
+    }
+
+    public int size() { return cost.length; }
+    public ShiftCalendar getCalendar() { return calendar; }
+}
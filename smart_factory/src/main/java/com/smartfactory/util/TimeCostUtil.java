@@ -9,6 +9,8 @@ public class TimeCostUtil {
 
     /**
      * 根据任务的开始时间计算其所在的 4 小时时间块的工资成本系数。
+     * 注意：解码器与报表使用可配置的 {@link ShiftCalendar}（含周末/节假日）及预计算的 {@link SlotCostTable}，
+     * 本方法仅保留默认五段班次规则，供单点查询使用。
      */
     public static double getCostCoefficient(LocalDateTime startTime) {
         LocalTime time = startTime.toLocalTime();
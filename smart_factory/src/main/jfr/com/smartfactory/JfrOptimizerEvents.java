@@ -0,0 +1,206 @@
+package com.smartfactory;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * OptimizerEvents 的 JFR 实现（仅在 -Pjfr 构建中编译，需要 JDK 11+）。
+ * 事件类型未开启时 begin* 返回 null，调用方据此跳过字段计算；开启后只有超过阈值的事件才提交。
+ *
+ * 录制示例：java -XX:StartFlightRecording=filename=ga.jfr,settings=profile -cp ... com.smartfactory.Main
+ * 事件名均以 com.smartfactory. 开头，可在 JMC 的 "Smart Factory / GA" 分类下查看。
+ */
+class JfrOptimizerEvents implements OptimizerEvents {
+
+    @Name("com.smartfactory.Generation")
+    @Label("GA Generation")
+    @Description("一代进化：选择、交叉变异、评估与精英局部搜索")
+    @Category({"Smart Factory", "GA"})
+    @StackTrace(false)
+    static class GenerationEvent extends Event {
+        @Label("Generation")
+        int generation;
+        @Label("Population Size")
+        int populationSize;
+        @Label("Evaluations")
+        long evaluations;
+        @Label("Improvements")
+        int improvements;
+        @Label("Best Profit")
+        double bestProfit;
+        @Label("Mutation Rate")
+        double mutationRate;
+        @Label("Diversity")
+        double diversity;
+    }
+
+    @Name("com.smartfactory.LocalSearch")
+    @Label("Local Search")
+    @Description("对一个精英个体的 SA + VNS + 禁忌混合局部搜索")
+    @Category({"Smart Factory", "GA"})
+    @StackTrace(false)
+    static class LocalSearchEvent extends Event {
+        @Label("Generation")
+        int generation;
+        @Label("Moves")
+        long moves;
+        @Label("Accepted")
+        long accepted;
+        @Label("Improvements")
+        int improvements;
+        @Label("Start Profit")
+        double startProfit;
+        @Label("End Profit")
+        double endProfit;
+    }
+
+    @Name("com.smartfactory.DecodeBatch")
+    @Label("Decode Batch")
+    @Description("一次种群适应度评估")
+    @Category({"Smart Factory", "GA"})
+    @StackTrace(false)
+    static class DecodeBatchEvent extends Event {
+        @Label("Generation")
+        int generation;
+        @Label("Population Size")
+        int populationSize;
+        @Label("Evaluations")
+        long evaluations;
+        @Label("Cache Hits")
+        long cacheHits;
+    }
+
+    @Name("com.smartfactory.NewBest")
+    @Label("New Best Solution")
+    @Category({"Smart Factory", "GA"})
+    @StackTrace(false)
+    static class NewBestEvent extends Event {
+        @Label("Generation")
+        int generation;
+        @Label("Previous Profit")
+        double previousProfit;
+        @Label("Profit")
+        double profit;
+        @Label("Evaluations")
+        long evaluations;
+    }
+
+    @Name("com.smartfactory.Restart")
+    @Label("Search Restart")
+    @Category({"Smart Factory", "GA"})
+    @StackTrace(false)
+    static class RestartEvent extends Event {
+        @Label("Generation")
+        int generation;
+        @Label("Reason")
+        String reason;
+        @Label("Stagnation Count")
+        int stagnationCount;
+        @Label("Mutation Rate")
+        double mutationRate;
+    }
+
+    @Override
+    public Object beginGeneration() {
+        GenerationEvent e = new GenerationEvent();
+        if (!e.isEnabled()) {
+            return null;
+        }
+        e.begin();
+        return e;
+    }
+
+    @Override
+    public void endGeneration(Object handle, int generation, int populationSize, long evaluations,
+                              int improvements, double bestProfit, double mutationRate, double diversity) {
+        GenerationEvent e = (GenerationEvent) handle;
+        e.end();
+        if (e.shouldCommit()) {
+            e.generation = generation;
+            e.populationSize = populationSize;
+            e.evaluations = evaluations;
+            e.improvements = improvements;
+            e.bestProfit = bestProfit;
+            e.mutationRate = mutationRate;
+            e.diversity = diversity;
+            e.commit();
+        }
+    }
+
+    @Override
+    public Object beginLocalSearch() {
+        LocalSearchEvent e = new LocalSearchEvent();
+        if (!e.isEnabled()) {
+            return null;
+        }
+        e.begin();
+        return e;
+    }
+
+    @Override
+    public void endLocalSearch(Object handle, int generation, long moves, long accepted, int improvements,
+                               double startProfit, double endProfit) {
+        LocalSearchEvent e = (LocalSearchEvent) handle;
+        e.end();
+        if (e.shouldCommit()) {
+            e.generation = generation;
+            e.moves = moves;
+            e.accepted = accepted;
+            e.improvements = improvements;
+            e.startProfit = startProfit;
+            e.endProfit = endProfit;
+            e.commit();
+        }
+    }
+
+    @Override
+    public Object beginDecodeBatch() {
+        DecodeBatchEvent e = new DecodeBatchEvent();
+        if (!e.isEnabled()) {
+            return null;
+        }
+        e.begin();
+        return e;
+    }
+
+    @Override
+    public void endDecodeBatch(Object handle, int generation, int populationSize, long evaluations, long cacheHits) {
+        DecodeBatchEvent e = (DecodeBatchEvent) handle;
+        e.end();
+        if (e.shouldCommit()) {
+            e.generation = generation;
+            e.populationSize = populationSize;
+            e.evaluations = evaluations;
+            e.cacheHits = cacheHits;
+            e.commit();
+        }
+    }
+
+    @Override
+    public void newBest(int generation, double previousProfit, double profit, long evaluations) {
+        NewBestEvent e = new NewBestEvent();
+        if (e.shouldCommit()) {
+            e.generation = generation;
+            e.previousProfit = previousProfit;
+            e.profit = profit;
+            e.evaluations = evaluations;
+            e.commit();
+        }
+    }
+
+    @Override
+    public void restart(int generation, String reason, int stagnationCount, double mutationRate) {
+        RestartEvent e = new RestartEvent();
+        if (e.shouldCommit()) {
+            e.generation = generation;
+            e.reason = reason;
+            e.stagnationCount = stagnationCount;
+            e.mutationRate = mutationRate;
+            e.commit();
+        }
+    }
+}
@@ -0,0 +1,265 @@
+// 离线甘特图查看器（由 HtmlGanttRenderer 内联到报告中，不依赖任何外部脚本）
+// 数据：GANTT.rows 为扁平数组，每 STRIDE 个数一行：
+//   产线, 显示开始, 显示结束, 计费块开始（秒，相对 GANTT.origin）, 产品, 订单, 工件序号, 标志(1=拼单免费, 2=延误), 成本, 系数*1000
+// 行已按 产线、显示开始时间 排好序。
+// 交互：滚轮缩放（以鼠标位置为中心），拖动平移，Shift+滚轮上下滚动产线，双击恢复全貌。
+(function () {
+  var STRIDE = 10;
+  var ROW_H = 26, AXIS_H = 34, LABEL_W = 90;
+  var FREE = 1, LATE = 2;
+  var rows = GANTT.rows;
+  var n = rows.length / STRIDE;
+  var o = GANTT.origin;
+  var originMs = new Date(o[0], o[1] - 1, o[2], o[3], o[4], 0).getTime();
+  var PALETTE = ['#4e79a7', '#f28e2b', '#59a14f', '#b07aa1', '#76b7b2', '#edc948', '#9c755f', '#ff9da7', '#bab0ac', '#e15759'];
+
+  function colorOf(product) {
+    return product < 0 ? '#8c8c8c' : PALETTE[product % PALETTE.length];
+  }
+
+  // ---------- 按产线分组，并为每条产线构建多级降采样 ----------
+  // 第 k 级把间隙不超过 60 * 4^k 秒的相邻区间合并成一个区间（产品不同则标记为 -1）
+  var lines = [];
+  (function build() {
+    var i = 0;
+    while (i < n) {
+      var id = rows[i * STRIDE], from = i;
+      while (i < n && rows[i * STRIDE] === id) i++;
+      var count = i - from;
+      var base = { gap: 0, n: count, start: new Float64Array(count), end: new Float64Array(count), prod: new Int32Array(count), row: new Int32Array(count) };
+      for (var j = 0; j < count; j++) {
+        var r = (from + j) * STRIDE;
+        base.start[j] = rows[r + 1];
+        base.end[j] = rows[r + 2];
+        base.prod[j] = rows[r + 4];
+        base.row[j] = from + j;
+      }
+      var levels = [base];
+      var prev = base;
+      for (var k = 1; k <= 12 && prev.n > 32; k++) {
+        var gap = 60 * Math.pow(4, k);
+        var s = new Float64Array(prev.n), e = new Float64Array(prev.n), p = new Int32Array(prev.n), m = 0;
+        for (var t = 0; t < prev.n; t++) {
+          if (m > 0 && prev.start[t] - e[m - 1] <= gap) {
+            if (prev.end[t] > e[m - 1]) e[m - 1] = prev.end[t];
+            if (p[m - 1] !== prev.prod[t]) p[m - 1] = -1;
+          } else {
+            s[m] = prev.start[t]; e[m] = prev.end[t]; p[m] = prev.prod[t]; m++;
+          }
+        }
+        prev = { gap: gap, n: m, start: s.subarray(0, m), end: e.subarray(0, m), prod: p.subarray(0, m) };
+        levels.push(prev);
+      }
+      lines.push({ id: id, levels: levels });
+    }
+  })();
+
+  var minT = Infinity, maxT = -Infinity;
+  for (var i = 0; i < n; i++) {
+    minT = Math.min(minT, rows[i * STRIDE + 1]);
+    maxT = Math.max(maxT, rows[i * STRIDE + 2]);
+  }
+  if (n === 0) { minT = 0; maxT = 3600; }
+
+  // ---------- 视口 ----------
+  var canvas = document.getElementById('gantt');
+  var ctx = canvas.getContext('2d');
+  var tip = document.getElementById('gantt-tip');
+  var view = { t0: 0, t1: 1, top: 0 };
+  var width = 0, height = 0, dirty = false;
+
+  function fit() {
+    var pad = (maxT - minT) * 0.02 + 60;
+    view.t0 = minT - pad;
+    view.t1 = maxT + pad;
+    view.top = 0;
+  }
+
+  function resize() {
+    var ratio = window.devicePixelRatio || 1;
+    width = canvas.clientWidth;
+    height = canvas.clientHeight;
+    canvas.width = Math.round(width * ratio);
+    canvas.height = Math.round(height * ratio);
+    ctx.setTransform(ratio, 0, 0, ratio, 0, 0);
+    request();
+  }
+
+  function request() {
+    if (!dirty) {
+      dirty = true;
+      window.requestAnimationFrame(draw);
+    }
+  }
+
+  function secPerPx() {
+    return (view.t1 - view.t0) / Math.max(1, width - LABEL_W);
+  }
+
+  function xOf(t) {
+    return LABEL_W + (t - view.t0) / secPerPx();
+  }
+
+  function maxTop() {
+    return Math.max(0, lines.length * ROW_H - (height - AXIS_H));
+  }
+
+  // 第一个 end >= t 的区间
+  function firstEndingAfter(level, t) {
+    var lo = 0, hi = level.n;
+    while (lo < hi) {
+      var mid = (lo + hi) >> 1;
+      if (level.end[mid] < t) lo = mid + 1; else hi = mid;
+    }
+    return lo;
+  }
+
+  // 选择间隙小于一个像素的最粗一级：合并不可见的间隙，画出的矩形数与像素数同阶
+  function pickLevel(line, spp) {
+    var levels = line.levels, k = 0;
+    while (k + 1 < levels.length && levels[k + 1].gap <= spp) k++;
+    return levels[k];
+  }
+
+  function pad2(v) {
+    return v < 10 ? '0' + v : '' + v;
+  }
+
+  function fmt(t, withDate) {
+    var d = new Date(originMs + t * 1000);
+    var hm = pad2(d.getHours()) + ':' + pad2(d.getMinutes());
+    return withDate ? pad2(d.getMonth() + 1) + '-' + pad2(d.getDate()) + ' ' + hm : hm;
+  }
+
+  var STEPS = [900, 1800, 3600, 7200, 14400, 28800, 86400, 172800, 604800, 2592000];
+
+  function drawAxis(spp) {
+    var step = STEPS[STEPS.length - 1];
+    for (var i = 0; i < STEPS.length; i++) {
+      if (STEPS[i] / spp >= 90) { step = STEPS[i]; break; }
+    }
+    // 刻度对齐到本地时间整点（origin 本身就是本地时间）
+    var originSecOfDay = o[3] * 3600 + o[4] * 60;
+    var first = Math.ceil((view.t0 + originSecOfDay) / step) * step - originSecOfDay;
+    ctx.fillStyle = '#fafafa';
+    ctx.fillRect(0, 0, width, AXIS_H);
+    ctx.strokeStyle = '#e0e0e0';
+    ctx.fillStyle = '#555';
+    ctx.font = '12px Segoe UI, sans-serif';
+    ctx.textBaseline = 'middle';
+    for (var t = first; t <= view.t1; t += step) {
+      var x = xOf(t);
+      if (x < LABEL_W) continue;
+      ctx.beginPath();
+      ctx.moveTo(x + 0.5, AXIS_H - 6);
+      ctx.lineTo(x + 0.5, height);
+      ctx.stroke();
+      ctx.fillText(fmt(t, true), x + 3, AXIS_H / 2);
+    }
+  }
+
+  function draw() {
+    dirty = false;
+    ctx.clearRect(0, 0, width, height);
+    var spp = secPerPx();
+    drawAxis(spp);
+
+    var firstLine = Math.floor(view.top / ROW_H);
+    var lastLine = Math.min(lines.length - 1, Math.floor((view.top + height - AXIS_H) / ROW_H));
+    ctx.font = '11px Segoe UI, sans-serif';
+    for (var li = firstLine; li <= lastLine; li++) {
+      var line = lines[li];
+      var y = AXIS_H + li * ROW_H - view.top;
+      if (li % 2 === 1) {
+        ctx.fillStyle = '#f6f8fa';
+        ctx.fillRect(LABEL_W, y, width - LABEL_W, ROW_H);
+      }
+      var level = pickLevel(line, spp);
+      var detailed = level.gap === 0;
+      for (var j = firstEndingAfter(level, view.t0); j < level.n && level.start[j] <= view.t1; j++) {
+        var x0 = Math.max(LABEL_W, xOf(level.start[j]));
+        var x1 = xOf(level.end[j]);
+        var w = Math.max(1, x1 - x0);
+        var r = detailed ? level.row[j] * STRIDE : -1;
+        ctx.fillStyle = colorOf(level.prod[j]);
+        ctx.globalAlpha = detailed && (rows[r + 7] & FREE) ? 0.55 : 1;
+        ctx.fillRect(x0, y + 3, w, ROW_H - 6);
+        ctx.globalAlpha = 1;
+        if (detailed && (rows[r + 7] & LATE)) {
+          ctx.strokeStyle = '#e53935';
+          ctx.lineWidth = 2;
+          ctx.strokeRect(x0 + 1, y + 4, Math.max(1, w - 2), ROW_H - 8);
+          ctx.lineWidth = 1;
+        }
+        if (detailed && w > 56) {
+          ctx.fillStyle = '#fff';
+          ctx.fillText(((rows[r + 7] & FREE) ? '★ ' : '') + 'O' + rows[r + 5] + '_' + rows[r + 6], x0 + 4, y + ROW_H / 2);
+        }
+      }
+      ctx.fillStyle = '#fff';
+      ctx.fillRect(0, y, LABEL_W, ROW_H);
+      ctx.fillStyle = '#333';
+      ctx.fillText('生产线 ' + line.id, 8, y + ROW_H / 2);
+    }
+  }
+
+  // ---------- 交互 ----------
+  canvas.addEventListener('wheel', function (ev) {
+    ev.preventDefault();
+    if (ev.shiftKey) {
+      view.top = Math.min(maxTop(), Math.max(0, view.top + ev.deltaY));
+    } else {
+      var rect = canvas.getBoundingClientRect();
+      var anchor = view.t0 + (ev.clientX - rect.left - LABEL_W) * secPerPx();
+      var factor = Math.exp(ev.deltaY * 0.0015);
+      var span = Math.max(600, (view.t1 - view.t0) * factor);
+      var ratio = (anchor - view.t0) / (view.t1 - view.t0);
+      view.t0 = anchor - span * ratio;
+      view.t1 = view.t0 + span;
+    }
+    request();
+  }, { passive: false });
+
+  var drag = null;
+  canvas.addEventListener('mousedown', function (ev) {
+    drag = { x: ev.clientX, y: ev.clientY, t0: view.t0, t1: view.t1, top: view.top };
+  });
+  window.addEventListener('mouseup', function () { drag = null; });
+  canvas.addEventListener('dblclick', function () { fit(); request(); });
+  canvas.addEventListener('mouseleave', function () { tip.style.display = 'none'; });
+
+  canvas.addEventListener('mousemove', function (ev) {
+    if (drag) {
+      var dt = (ev.clientX - drag.x) * secPerPx();
+      view.t0 = drag.t0 - dt;
+      view.t1 = drag.t1 - dt;
+      view.top = Math.min(maxTop(), Math.max(0, drag.top - (ev.clientY - drag.y)));
+      tip.style.display = 'none';
+      request();
+      return;
+    }
+    var rect = canvas.getBoundingClientRect();
+    var mx = ev.clientX - rect.left, my = ev.clientY - rect.top;
+    var li = Math.floor((my - AXIS_H + view.top) / ROW_H);
+    if (my < AXIS_H || mx < LABEL_W || li < 0 || li >= lines.length) { tip.style.display = 'none'; return; }
+    // 提示信息始终基于原始（未降采样）区间，容差为 2 像素
+    var base = lines[li].levels[0];
+    var t = view.t0 + (mx - LABEL_W) * secPerPx(), tol = 2 * secPerPx();
+    var j = firstEndingAfter(base, t - tol);
+    if (j >= base.n || base.start[j] > t + tol) { tip.style.display = 'none'; return; }
+    var r = base.row[j] * STRIDE, flags = rows[r + 7];
+    var text = '任务: O' + rows[r + 5] + '_' + rows[r + 6] + '\n产品: P' + rows[r + 4]
+      + '\n实际排程: ' + fmt(rows[r + 1], true) + ' ~ ' + fmt(rows[r + 2], false);
+    if (rows[r + 1] > rows[r + 3]) text += '\n(所属计费块起始: ' + fmt(rows[r + 3], false) + ')';
+    text += (flags & FREE) ? '\n成本: 0 (拼单免费)' : '\n成本: ' + rows[r + 8] + ' (系数 ' + rows[r + 9] / 1000 + ')';
+    if (flags & LATE) text += '\n[⚠️ 延误]';
+    tip.textContent = text;
+    tip.style.left = (ev.clientX + 14) + 'px';
+    tip.style.top = (ev.clientY + 14) + 'px';
+    tip.style.display = 'block';
+  });
+
+  window.addEventListener('resize', resize);
+  fit();
+  resize();
+})();
@@ -0,0 +1,103 @@
+package com.smartfactory;
+
+import com.smartfactory.util.InstanceGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BatchRunner 的单元测试：情景发现、共享文件只解析一次、汇总与各情景报告
+ */
+public class BatchRunnerTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    // 根目录放共享的 products.csv / lines.csv，每个情景子目录只有自己的 orders.csv
+    private File createScenarios() throws IOException {
+        File root = tmp.newFolder("scenarios");
+        File scratch = tmp.newFolder("scratch");
+        int[] pieces = {30, 50};
+        String[] names = {"base", "rush"};
+        for (int i = 0; i < names.length; i++) {
+            InstanceGenerator.Config config = new InstanceGenerator.Config();
+            config.seed = 5;
+            config.pieces = pieces[i];
+            config.products = 3;
+            InstanceGenerator.write(config, i == 0 ? root : scratch);
+            File dir = new File(root, names[i]);
+            assertTrue(dir.mkdir());
+            File source = new File(i == 0 ? root : scratch, "orders.csv");
+            Files.move(source.toPath(), new File(dir, "orders.csv").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        assertTrue(new File(root, "notes").mkdir()); // 没有 orders.csv 的子目录不是情景
+        return root;
+    }
+
+    @Test(timeout = 60000)
+    public void testDirectoryBatchSharesProductsAndWritesReports() throws Exception {
+        File root = createScenarios();
+        List<BatchRunner.Scenario> scenarios = BatchRunner.discover(root, new InstanceGenerator.Config().planStart);
+        assertEquals(2, scenarios.size());
+        assertEquals("base", scenarios.get(0).name);
+
+        BatchRunner runner = new BatchRunner(4, 5, 10, 1L);
+        File out = tmp.newFolder("out");
+        List<BatchRunner.ScenarioResult> results = runner.run(scenarios, out);
+        assertEquals(2, runner.getFilesParsed()); // products.csv 与 lines.csv 各解析一次
+
+        for (BatchRunner.ScenarioResult r : results) {
+            assertEquals(r.error, "ok", r.status);
+            assertEquals(2, r.starts);                // 4 个线程分给 2 个情景
+            assertTrue(r.evaluations > 0);
+            File dir = new File(out, r.scenario);
+            for (String f : new String[]{"jobs.csv", "orders.csv", "schedule_report.html"}) {
+                assertTrue(f, new File(dir, f).isFile());
+            }
+        }
+        assertEquals(30, results.get(0).pieces);
+        assertEquals(50, results.get(1).pieces);
+
+        BatchRunner.fillDeltas(results, "rush");
+        assertEquals(0.0, results.get(1).deltaProfit, 1e-9);
+        assertEquals(results.get(0).profit - results.get(1).profit, results.get(0).deltaProfit, 1e-9);
+
+        File summary = new File(out, "summary.csv");
+        BatchRunner.writeSummary(results, summary);
+        List<String> lines = Files.readAllLines(summary.toPath(), StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals(String.join(",", BatchRunner.SUMMARY_COLUMNS), lines.get(0));
+        assertTrue(lines.get(1).startsWith("base,ok,"));
+    }
+
+    @Test(timeout = 60000)
+    public void testManifestWithMissingScenarioReportsFailure() throws Exception {
+        File root = createScenarios();
+        File manifest = new File(root, "batch.csv");
+        Files.write(manifest.toPath(), Arrays.asList(
+                "name,path,planStart",
+                "first,base," + new InstanceGenerator.Config().planStart,
+                "missing,does-not-exist"), StandardCharsets.UTF_8);
+
+        List<BatchRunner.Scenario> scenarios = BatchRunner.discover(manifest, new InstanceGenerator.Config().planStart);
+        assertEquals(2, scenarios.size());
+        List<BatchRunner.ScenarioResult> results = new BatchRunner(1, 3, 10, 1L).run(scenarios, tmp.newFolder("out"));
+        assertEquals("ok", results.get(0).status);
+        assertEquals(1, results.get(0).starts);
+        assertEquals("failed", results.get(1).status);
+        assertFalse(results.get(1).error.isEmpty());
+
+        // 缺省基线为第一个成功的情景；失败情景没有利润差
+        BatchRunner.fillDeltas(results, null);
+        assertEquals(0.0, results.get(0).deltaProfit, 1e-9);
+        assertTrue(Double.isNaN(results.get(1).deltaProfit));
+    }
+}
@@ -0,0 +1,80 @@
+package com.smartfactory;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 检查点写入与恢复的测试：恢复后的运行应与未中断的运行逐位一致
+ */
+public class GACheckpointTest {
+    private final LocalDateTime planStartTime = TestTool.getPlanStartTime();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ScheduleData createData() {
+        List<Product> products = new ArrayList<>();
+        products.add(new Product(1, 4.0));
+        products.add(new Product(2, 3.0));
+        products.add(new Product(3, 2.0));
+        List<Order> orders = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            orders.add(new Order(i, (i % 3) + 1, 1 + i % 3, 1000.0 + 100 * i, planStartTime.plusDays(1 + i % 2), planStartTime));
+        }
+        return new ScheduleData(products, orders, planStartTime);
+    }
+
+    @Test(timeout = 60000)
+    public void testResumeIsBitIdentical() throws IOException {
+        ScheduleData data = createData();
+
+        GAScheduler straight = new GAScheduler(data, 20, 0.8, 0.1, 20);
+        straight.setRandomSeed(42L);
+        Chromosome expected = straight.run();
+
+        String path = new File(folder.getRoot(), "ga.ckpt").getPath();
+        GAScheduler first = new GAScheduler(data, 20, 0.8, 0.1, 10);
+        first.setRandomSeed(42L);
+        first.enableCheckpointing(path, 1);
+        first.run();
+
+        assertTrue("检查点文件应存在", new File(path).exists());
+        assertFalse("临时文件应已被重命名", new File(path + ".tmp").exists());
+
+        GAScheduler resumed = GAScheduler.resume(data, path);
+        resumed.setMaxGenerations(20);
+        Chromosome actual = resumed.run();
+
+        assertEquals(expected.getFitness(), actual.getFitness(), 0.0);
+        assertEquals(expected.getOperationSequence(), actual.getOperationSequence());
+        assertEquals(expected.getMachineAssignment(), actual.getMachineAssignment());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectInvalidFile() throws IOException {
+        File file = folder.newFile("broken.ckpt");
+        Files.write(file.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        GAScheduler.resume(createData(), file.getPath());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectMismatchedOrders() throws IOException {
+        ScheduleData data = createData();
+        String path = new File(folder.getRoot(), "ga.ckpt").getPath();
+        GAScheduler scheduler = new GAScheduler(data, 10, 0.8, 0.1, 2);
+        scheduler.enableCheckpointing(path, 1);
+        scheduler.run();
+
+        ScheduleData other = data.withOrders(data.getOrders().subList(0, 4));
+        GAScheduler.resume(other, path);
+    }
+}
@@ -0,0 +1,96 @@
+package com.smartfactory;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 进度监听 API 的单元测试：异步合并投递、最优解快照与取消
+ */
+public class GAListenerTest {
+
+    @Test(timeout = 20000)
+    public void testSlowListenerDoesNotStallEvolution() throws InterruptedException {
+        GAScheduler scheduler = new GAScheduler(TestTool.createData(3L, 60), 20, 0.8, 0.1, 30);
+        scheduler.setProgressLogInterval(0);
+        AtomicInteger generationCalls = new AtomicInteger();
+        AtomicReference<GAListener.GenerationStats> lastStats = new AtomicReference<>();
+        AtomicReference<BestSnapshot> finalBest = new AtomicReference<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        scheduler.addListener(new GAListener() {
+            @Override
+            public void onGeneration(GAListener.GenerationStats stats) {
+                generationCalls.incrementAndGet();
+                lastStats.set(stats);
+                sleep(200);
+            }
+
+            @Override
+            public void onFinished(BestSnapshot best, boolean cancelled) {
+                if (!cancelled) {
+                    finalBest.set(best);
+                }
+                finished.countDown();
+            }
+        });
+
+        long start = System.nanoTime();
+        Chromosome best = scheduler.run();
+        double runSeconds = (System.nanoTime() - start) / 1e9;
+        // 逐代同步回调至少需要 30 × 0.2 秒
+        assertTrue("run took " + runSeconds + "s", runSeconds < 3.0);
+
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertTrue(generationCalls.get() < 30);              // 慢监听器收到的是合并后的最新统计
+        assertEquals(29, lastStats.get().generation);         // 最后一代一定会投递
+        assertEquals(-best.getFitness(), finalBest.get().profit, 1e-9);
+        assertSame(scheduler.getCurrentBest(), finalBest.get());
+
+        // 快照的排程由解码得到，与最优解一致
+        BestSnapshot snapshot = scheduler.getCurrentBest();
+        assertEquals(best.getFitness(), snapshot.getSchedule().totalCost, 1e-6);
+        assertEquals(best.getOperationSequence(), snapshot.getChromosome().getOperationSequence());
+    }
+
+    @Test(timeout = 20000)
+    public void testCancelKeepsBestSoFar() throws InterruptedException {
+        GAScheduler scheduler = new GAScheduler(TestTool.createData(4L, 60), 20, 0.8, 0.1, 100000);
+        scheduler.setProgressLogInterval(0);
+        AtomicReference<Boolean> cancelledFlag = new AtomicReference<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        scheduler.addListener(new GAListener() {
+            @Override
+            public void onGeneration(GAListener.GenerationStats stats) {
+                if (stats.generation >= 3) {
+                    scheduler.cancel();
+                }
+            }
+
+            @Override
+            public void onFinished(BestSnapshot best, boolean cancelled) {
+                cancelledFlag.set(cancelled);
+                finished.countDown();
+            }
+        });
+
+        Chromosome best = scheduler.run();
+        assertTrue(scheduler.isCancelled());
+        assertTrue(scheduler.getGenerationsRun() < 100000);
+        assertEquals(-best.getFitness(), scheduler.getCurrentBest().profit, 1e-9);
+        assertEquals(best.getFitness(), scheduler.getDetailedSchedule(best).totalCost, 1e-6);
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertTrue(cancelledFlag.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -6,6 +6,8 @@ import static org.junit.Assert.*;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -383,4 +385,99 @@ public class GASchedulerTest {
             assertEquals("罚款金额计算错误", expectedPenalty, scheduleResult.totalPenalty, 0.001);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 测试：大量异构产线 (部分产线只能生产特定产品)
+     */
+    @Test(timeout = 60000)
+    public void testHeterogeneousLines() {
+        List<Product> products = createTestProducts();
+        List<ProductionLine> lines = new ArrayList<>();
+        for (int id = 1; id <= 40; id++) {
+            // 产线 i 只能生产产品 (i % 3) + 1，偶数产线速度翻倍
+            int productId = (id % 3) + 1;
+            lines.add(new ProductionLine(id, id % 2 == 0 ? 2.0 : 1.0, new HashSet<>(Collections.singletonList(productId))));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 1; i <= 15; i++) {
+            orders.add(createOrder(i, (i % 3) + 1, 3, 1000.0, planStartTime.plusDays(2)));
+        }
+
+        ScheduleData data = new ScheduleData(products, orders, planStartTime, lines);
+        GAScheduler scheduler = new GAScheduler(data, 20, 0.8, TEST_PENALTY_RATE, 10);
+
+        Chromosome result = scheduler.run();
+        GAScheduler.ScheduleResult scheduleResult = scheduler.getDetailedSchedule(result);
+
+        assertEquals(45, scheduleResult.scheduledJobs.size());
+        assertEquals(15, scheduleResult.completionTimes.size());
+        for (Job job : scheduleResult.scheduledJobs) {
+            assertTrue("工件只能被安排到可生产该产品的产线", data.getLine(job.machineLineId).canProduce(job.productId));
+        }
+    }
+
+    /**
+     * 测试：SA 温度标定只做评估不改变个体，初温为正、随成本量级缩放
+     */
+    @Test
+    public void testTemperatureCalibration() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            orders.add(createOrder(i, (i % 3) + 1, 2, DEFAULT_VALUE, planStartTime.plusDays(1)));
+        }
+        GAScheduler scheduler = new GAScheduler(new ScheduleData(createTestProducts(), orders, planStartTime), 10, 0.8, 0.1, 1);
+        scheduler.setRandomSeed(7L);
+        Chromosome c = scheduler.initializePopulation().get(0);
+        c.setFitness(scheduler.decodeAndCalculateCost(c));
+        List<String> sequence = new ArrayList<>(c.getOperationSequence());
+        List<Integer> assignment = new ArrayList<>(c.getMachineAssignment());
+        double fitness = c.getFitness();
+
+        long before = scheduler.getEvaluationCount();
+        scheduler.calibrateTemperature(c);
+        assertEquals(16, scheduler.getEvaluationCount() - before);
+        assertEquals(sequence, c.getOperationSequence());
+        assertEquals(assignment, c.getMachineAssignment());
+        assertEquals(fitness, c.getFitness(), 0.0);
+
+        double temperature = scheduler.getMetrics().gauge("ga_sa_start_temperature", "").get();
+        assertTrue(temperature > 0);
+
+        // 订单价值放大 100 倍：罚款造成的劣化随之放大，标定出的初温不应更低
+        List<Order> valuable = new ArrayList<>();
+        for (Order o : orders) {
+            valuable.add(createOrder(o.getId(), o.getProductId(), o.getQuantity(), DEFAULT_VALUE * 100, o.getDeadline()));
+        }
+        GAScheduler scaled = new GAScheduler(new ScheduleData(createTestProducts(), valuable, planStartTime), 10, 0.8, 0.1, 1);
+        Chromosome same = new Chromosome(new ArrayList<>(sequence), new ArrayList<>(assignment));
+        same.setFitness(scaled.decodeAndCalculateCost(same));
+        scaled.setRandomSeed(7L);
+        scaled.calibrateTemperature(same);
+        assertTrue(scaled.getMetrics().gauge("ga_sa_start_temperature", "").get() >= temperature);
+    }
+
+    /**
+     * 测试：局部搜索的解码次数受评估预算约束
+     */
+    @Test(timeout = 60000)
+    public void testLocalSearchBudget() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            orders.add(createOrder(i, (i % 3) + 1, 3, DEFAULT_VALUE, planStartTime.plusDays(1 + i % 3)));
+        }
+        ScheduleData data = new ScheduleData(createTestProducts(), orders, planStartTime);
+        GAScheduler scheduler = new GAScheduler(data, 20, 0.8, 0.1, 15);
+        scheduler.setRandomSeed(11L);
+        scheduler.setProgressLogInterval(0);
+        scheduler.run();
+
+        com.smartfactory.util.MetricsRegistry metrics = scheduler.getMetrics();
+        double share = metrics.gauge("ga_local_search_share", "").get();
+        assertTrue(share >= 0.1 && share <= 0.95);
+        // 每代最多 5 个精英 × (种群规模 × 0.95 / 0.05 / 5) 次移动
+        long maxMovesPerGeneration = 5 * (long) (20 * 0.95 / 0.05 / 5);
+        assertTrue(metrics.counter("ga_sa_moves_total", "").get() <= 15 * maxMovesPerGeneration);
+        assertTrue(metrics.gauge("ga_local_search_moves_per_elite", "").get() >= 10);
+    }
+}
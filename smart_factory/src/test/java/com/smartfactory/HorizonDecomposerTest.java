@@ -0,0 +1,121 @@
+package com.smartfactory;
+
+import com.smartfactory.util.Job;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * HorizonDecomposer 的单元测试：窗口划分、产线状态传递与拼接解的完整性
+ */
+public class HorizonDecomposerTest {
+    private final LocalDateTime planStartTime = TestTool.getPlanStartTime();
+
+    private List<Product> createTestProducts() {
+        List<Product> products = new ArrayList<>();
+        products.add(new Product(1, 4.0));
+        products.add(new Product(2, 2.0));
+        products.add(new Product(3, 1.0));
+        return products;
+    }
+
+    /**
+     * 辅助方法：构建覆盖 days 天的订单簿，每天 perDay 个订单
+     */
+    private List<Order> createWeekOrders(int days, int perDay) {
+        List<Order> orders = new ArrayList<>();
+        int id = 1;
+        for (int d = 1; d <= days; d++) {
+            for (int i = 0; i < perDay; i++) {
+                orders.add(new Order(id, (id % 3) + 1, 2, 1000.0, planStartTime.plusDays(d), planStartTime));
+                id++;
+            }
+        }
+        return orders;
+    }
+
+    @Test
+    public void testPartitionByDeadline() {
+        List<Order> orders = createWeekOrders(3, 2);
+        // 已过期订单归入第一个窗口
+        orders.add(new Order(99, 1, 1, 500.0, planStartTime.minusDays(2), planStartTime));
+
+        ScheduleData data = new ScheduleData(createTestProducts(), orders, planStartTime);
+        HorizonDecomposer decomposer = new HorizonDecomposer(data, 10, 0.8, 0.1, 5, 1, false);
+
+        List<List<Order>> windows = decomposer.partitionByDeadline();
+        // 过期订单单独落在窗口 0，随后是 3 天各自的窗口
+        assertEquals(4, windows.size());
+        assertEquals(99, windows.get(0).get(0).getId());
+        for (int k = 1; k < windows.size(); k++) {
+            assertEquals(2, windows.get(k).size());
+        }
+
+        HorizonDecomposer twoDay = new HorizonDecomposer(data, 10, 0.8, 0.1, 5, 2, false);
+        // 两天一个窗口：{过期, 第1天}, {第2天, 第3天}
+        assertEquals(2, twoDay.partitionByDeadline().size());
+    }
+
+    @Test(timeout = 60000)
+    public void testSequentialCoversAllPieces() {
+        List<Order> orders = createWeekOrders(4, 3);
+        ScheduleData data = new ScheduleData(createTestProducts(), orders, planStartTime);
+        HorizonDecomposer decomposer = new HorizonDecomposer(data, 20, 0.8, 0.1, 10, 1, false);
+
+        Chromosome result = decomposer.run();
+        GAScheduler.ScheduleResult schedule = decomposer.getDetailedSchedule(result);
+
+        assertEquals("拼接解应覆盖全部工件", 24, result.getOperationSequence().size());
+        assertEquals(24, schedule.scheduledJobs.size());
+        assertEquals(12, schedule.completionTimes.size());
+        assertEquals("适应度应与完整解码一致", schedule.totalCost, result.getFitness(), 0.001);
+
+        Set<String> ops = new HashSet<>();
+        for (Job job : schedule.scheduledJobs) {
+            assertTrue("工件不应重复调度", ops.add(job.operationId));
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testParallelWindows() {
+        List<Order> orders = createWeekOrders(4, 3);
+        ScheduleData data = new ScheduleData(createTestProducts(), orders, planStartTime);
+        HorizonDecomposer decomposer = new HorizonDecomposer(data, 20, 0.8, 0.1, 10, 1, true);
+
+        Chromosome result = decomposer.run();
+        GAScheduler.ScheduleResult schedule = decomposer.getDetailedSchedule(result);
+
+        assertEquals(24, schedule.scheduledJobs.size());
+        assertEquals(schedule.totalCost, result.getFitness(), 0.001);
+    }
+
+    @Test
+    public void testInitialLineStateCarriesOver() {
+        List<Product> products = createTestProducts();
+        List<Order> orders = new ArrayList<>();
+        orders.add(new Order(1, 2, 1, 1000.0, planStartTime.plusDays(1), planStartTime));
+
+        // 产线1 正在生产产品2，块付费到 +4h，+2h 时空闲 -> 新工件可免费拼入该块
+        List<LineState> states = new ArrayList<>();
+        states.add(new LineState(planStartTime.plusHours(2), planStartTime.plusHours(4), 2));
+        states.add(LineState.idleAt(planStartTime));
+        states.add(LineState.idleAt(planStartTime));
+        ScheduleData data = new ScheduleData(products, orders, planStartTime).withInitialLineStates(states);
+
+        List<String> os = new ArrayList<>();
+        os.add("O1_1");
+        List<Integer> ma = new ArrayList<>();
+        ma.add(1);
+        GAScheduler.ScheduleResult result = new ScheduleDecoder(data).decode(new Chromosome(os, ma));
+
+        Job job = result.scheduledJobs.get(0);
+        assertEquals(planStartTime.plusHours(2), job.startTime);
+        assertEquals("拼入已付费的块，不应产生成本", 0.0, job.baseCost, 0.001);
+        assertEquals(planStartTime.plusHours(4), result.finalLineStates.get(0).getFreeAt());
+    }
+}
@@ -0,0 +1,110 @@
+package com.smartfactory;
+
+import com.smartfactory.util.HtmlGanttRenderer;
+import com.smartfactory.util.Job;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HtmlGanttRenderer 的单元测试：离线自包含、数据行完整、拼单任务按实际工时展开
+ */
+public class HtmlGanttRendererTest {
+    private final LocalDateTime base = LocalDateTime.of(2025, 12, 12, 8, 0);
+
+    private String render(GAScheduler.ScheduleResult result, ScheduleData data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HtmlGanttRenderer.write(result, data, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    // 截取 GANTT.rows 中的全部数字
+    private static long[] rows(String html) {
+        int from = html.indexOf("rows: [") + "rows: [".length();
+        int to = html.indexOf("]}", from);
+        String[] parts = html.substring(from, to).trim().split("[,\\s]+");
+        long[] values = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) values[i] = Long.parseLong(parts[i]);
+        return values;
+    }
+
+    @Test
+    public void testSelfContainedReport() throws IOException {
+        List<Product> products = new ArrayList<>();
+        products.add(new Product(1, 1.0));
+        List<Order> orders = new ArrayList<>();
+        orders.add(new Order(7, 1, 2, 1000.0, base.minusDays(1), base));
+
+        // 两个工件拼在同一个 4 小时块内：逻辑开始时间相同，显示时依次展开
+        List<Job> jobs = new ArrayList<>();
+        jobs.add(new Job("O7_1", 1, 2, base, base.plusHours(2), 1.0, 200.0));
+        jobs.add(new Job("O7_2", 1, 2, base, base.plusHours(2), 1.0, 0.0));
+        Map<Integer, LocalDateTime> completionTimes = new HashMap<>();
+        completionTimes.put(7, base.plusHours(2));
+        GAScheduler.ScheduleResult result = new GAScheduler.ScheduleResult(-500.0, 100.0, jobs, completionTimes);
+
+        String html = render(result, new ScheduleData(products, orders, base));
+        assertFalse("报告不应依赖外部脚本", html.contains("https://"));
+        assertTrue(html.contains("<canvas id=\"gantt\">"));
+        assertTrue(html.trim().endsWith("</html>"));
+
+        long[] v = rows(html);
+        assertEquals(20, v.length);
+        // 行: 产线, 显示开始, 显示结束, 计费块开始, 产品, 订单, 序号, 标志, 成本, 系数*1000
+        assertArrayEquals(new long[]{2, 0, 3600, 0, 1, 7, 1, 2, 200, 1000}, Arrays.copyOfRange(v, 0, 10));
+        assertArrayEquals(new long[]{2, 3600, 7200, 0, 1, 7, 2, 3, 0, 1000}, Arrays.copyOfRange(v, 10, 20));
+    }
+
+    @Test(timeout = 30000)
+    public void testLargeSchedule() throws IOException {
+        List<Product> products = new ArrayList<>();
+        products.add(new Product(1, 4.0));
+        List<Job> jobs = new ArrayList<>();
+        int n = 100000;
+        for (int i = 0; i < n; i++) {
+            LocalDateTime start = base.plusHours(4L * (i / 10));
+            jobs.add(new Job("O" + i + "_1", 1, i % 10 + 1, start, start.plusHours(4), 1.0, 200.0));
+        }
+        GAScheduler.ScheduleResult result = new GAScheduler.ScheduleResult(0.0, 0.0, jobs, new HashMap<>());
+        String html = render(result, new ScheduleData(products, new ArrayList<>(), base, ScheduleData.defaultLines(10)));
+        assertEquals(n * 10, rows(html).length);
+    }
+
+    @Test
+    public void testDurationsFollowLineSpeed() throws IOException {
+        List<Product> products = new ArrayList<>();
+        products.add(new Product(1, 1.0));
+        List<Order> orders = new ArrayList<>();
+        orders.add(new Order(7, 1, 3, 1000.0, base.plusDays(1), base));
+        List<ProductionLine> lines = new ArrayList<>();
+        lines.add(new ProductionLine(1));
+        lines.add(new ProductionLine(2, 2.0, Collections.emptySet()));
+        ScheduleData data = new ScheduleData(products, orders, base, lines);
+
+        // 2 倍速产线上每件只需 30 分钟，三件拼在同一计费块内依次展开
+        List<Job> jobs = new ArrayList<>();
+        for (int piece = 1; piece <= 3; piece++) {
+            jobs.add(new Job("O7_" + piece, 1, 2, base, base.plusMinutes(90), 1.0, piece == 1 ? 200.0 : 0.0));
+        }
+        GAScheduler.ScheduleResult result = new GAScheduler.ScheduleResult(-800.0, 0.0, jobs, new HashMap<>());
+
+        long[] v = rows(render(result, data));
+        assertEquals(30, v.length);
+        for (int k = 0; k < 3; k++) {
+            assertEquals(2, v[k * 10]);
+            assertEquals(k * 1800L, v[k * 10 + 1]);
+            assertEquals((k + 1) * 1800L, v[k * 10 + 2]);
+            assertEquals(0, v[k * 10 + 3]);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.smartfactory;
+
+import com.smartfactory.util.DataLoader;
+import com.smartfactory.util.InstanceGenerator;
+import com.smartfactory.util.OrderCsvLoader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * InstanceGenerator 的单元测试：同种子可复现、工件总数精确、写出的 CSV 能被 DataLoader 无错误读回
+ */
+public class InstanceGeneratorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameSeedWritesIdenticalFiles() throws IOException {
+        InstanceGenerator.Config config = InstanceGenerator.Config.forTier(InstanceGenerator.Tier.SMALL, 7L);
+        File a = folder.newFolder("a");
+        File b = folder.newFolder("b");
+        InstanceGenerator.write(config, a);
+        InstanceGenerator.write(config, b);
+        for (String name : new String[]{"products.csv", "orders.csv"}) {
+            assertArrayEquals(name, Files.readAllBytes(new File(a, name).toPath()), Files.readAllBytes(new File(b, name).toPath()));
+        }
+
+        config.seed = 8L;
+        File c = folder.newFolder("c");
+        InstanceGenerator.write(config, c);
+        assertFalse(Arrays.equals(Files.readAllBytes(new File(a, "orders.csv").toPath()),
+                Files.readAllBytes(new File(c, "orders.csv").toPath())));
+    }
+
+    @Test
+    public void testWrittenTierLoadsWithoutErrors() throws IOException {
+        InstanceGenerator.Config config = InstanceGenerator.Config.forTier(InstanceGenerator.Tier.MEDIUM, 3L);
+        File dir = folder.newFolder("medium");
+        InstanceGenerator.write(config, dir);
+
+        List<Product> products = DataLoader.loadProducts(new File(dir, "products.csv").getPath());
+        assertEquals(InstanceGenerator.Tier.MEDIUM.products, products.size());
+        assertEquals(InstanceGenerator.Tier.MEDIUM.lines, DataLoader.loadLines(new File(dir, "lines.csv").getPath()).size());
+
+        OrderCsvLoader.Result loaded = OrderCsvLoader.load(new File(dir, "orders.csv").getPath(), config.planStart);
+        assertEquals(0, loaded.errorCount);
+        // BACKLOG：全部订单在基准时间之前到达
+        assertEquals(loaded.rowsRead, loaded.orders.size());
+        List<Order> expected = InstanceGenerator.generateOrders(config, InstanceGenerator.generateProducts(config));
+        assertEquals(expected.size(), loaded.orders.size());
+
+        int pieces = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            Order e = expected.get(i);
+            Order o = loaded.orders.get(i);
+            assertEquals(e.getId(), o.getId());
+            assertEquals(e.getQuantity(), o.getQuantity());
+            assertEquals(e.getTotalValue(), o.getTotalValue(), 0.005);
+            assertEquals(e.getArrivalTime(), o.getArrivalTime());
+            assertFalse(o.getDeadline().isBefore(config.planStart));
+            assertTrue(o.getQuantity() >= config.minQuantity && o.getQuantity() <= config.maxQuantity);
+            pieces += o.getQuantity();
+        }
+        assertEquals(InstanceGenerator.Tier.MEDIUM.pieces, pieces);
+    }
+
+    @Test
+    public void testArrivalPatternsAndDeadlineSlack() {
+        InstanceGenerator.Config config = new InstanceGenerator.Config();
+        config.pieces = 2000;
+        config.arrivals = InstanceGenerator.ArrivalPattern.BURSTY;
+        config.arrivalSpanHours = 72;
+        List<Product> products = InstanceGenerator.generateProducts(config);
+        List<Order> orders = InstanceGenerator.generateOrders(config, products);
+        LocalDateTime end = config.planStart.plusHours(72);
+        for (Order o : orders) {
+            assertFalse(o.getArrivalTime().isBefore(config.planStart));
+            assertTrue(o.getArrivalTime().isBefore(end));
+            int hour = o.getArrivalTime().getHour();
+            assertTrue("成批到达应集中在 08:00 前后: " + o.getArrivalTime(), hour >= 7 && hour <= 9);
+        }
+
+        // 松紧度越小，截止时间越早
+        config.arrivals = InstanceGenerator.ArrivalPattern.BACKLOG;
+        config.deadlineSlack = 0.2;
+        double tight = meanDeadlineHours(InstanceGenerator.generateOrders(config, products), config.planStart);
+        config.deadlineSlack = 2.0;
+        double loose = meanDeadlineHours(InstanceGenerator.generateOrders(config, products), config.planStart);
+        assertTrue(tight + " < " + loose, tight * 3 < loose);
+    }
+
+    private static double meanDeadlineHours(List<Order> orders, LocalDateTime planStart) {
+        double sum = 0;
+        for (Order o : orders) {
+            sum += java.time.Duration.between(planStart, o.getDeadline()).toMinutes() / 60.0;
+        }
+        return sum / orders.size();
+    }
+}
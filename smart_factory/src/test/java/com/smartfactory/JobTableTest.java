@@ -0,0 +1,119 @@
+package com.smartfactory;
+
+import com.smartfactory.util.Job;
+import com.smartfactory.util.JobTable;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * JobTable 的单元测试：与 Job 列表互相转换一致、按产线视图有序、解码结果的列与惰性 Job 一致
+ */
+public class JobTableTest {
+    private final LocalDateTime base = LocalDateTime.of(2025, 12, 12, 8, 0);
+
+    @Test
+    public void testFromJobsRoundTripAndLineViews() {
+        List<Job> jobs = new ArrayList<>();
+        jobs.add(new Job("O12_2", 3, 2, base.plusHours(4), base.plusHours(6), 1.5, 0.0));
+        jobs.add(new Job("O5_1", 1, 1, base, base.plusHours(2).plusSeconds(7), 1.0, 200.0));
+        jobs.add(new Job("O12_1", 3, 2, base.plusHours(4), base.plusHours(6), 1.5, 300.0));
+        jobs.add(new Job("O9_1", 2, 2, base, base.plusHours(3), 1.0, 150.0));
+        JobTable table = JobTable.fromJobs(jobs);
+
+        assertEquals(4, table.size());
+        for (int i = 0; i < jobs.size(); i++) {
+            Job expected = jobs.get(i);
+            Job actual = table.get(i);
+            assertEquals(expected.operationId, actual.operationId);
+            assertEquals(expected.productId, actual.productId);
+            assertEquals(expected.machineLineId, actual.machineLineId);
+            assertEquals(expected.startTime, actual.startTime);
+            assertEquals(expected.endTime, actual.endTime);
+            assertEquals(expected.costCoefficient, actual.costCoefficient, 0.0);
+            assertEquals(expected.baseCost, actual.baseCost, 0.0);
+        }
+        assertEquals(12, table.getOrderId(0));
+        assertEquals(2, table.getPiece(0));
+
+        assertArrayEquals(new int[]{1, 2}, table.getLineIds());
+        assertArrayEquals(new int[]{1}, table.rowsOfLine(1));
+        // 产线 2：先按开始时间，同一时间按订单、序号
+        assertArrayEquals(new int[]{3, 2, 0}, table.rowsOfLine(2));
+        assertEquals(0, table.rowsOfLine(7).length);
+
+        // 追加后视图重新计算
+        table.add(table.getOrderIndex(1), 2, 1, 1, JobTable.toEpochSecond(base.minusHours(4)),
+                JobTable.toEpochSecond(base.minusHours(2)), 1.0, 200.0);
+        assertArrayEquals(new int[]{4, 1}, table.rowsOfLine(1));
+        assertEquals("O5_2", table.get(4).operationId);
+    }
+
+    @Test
+    public void testLineViewsSortUnorderedInput() {
+        // 打乱顺序的大量任务（含相同开始时间），按产线视图仍按 (开始时间, 订单ID, 工件序号) 排序
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            LocalDateTime start = base.plusMinutes(i / 3 * 10);
+            jobs.add(new Job("O" + (i % 7 + 1) + "_" + (i + 1), 1, i % 2 + 1, start, start.plusMinutes(10), 1.0, 0.0));
+        }
+        Collections.shuffle(jobs, new Random(5L));
+        JobTable table = JobTable.fromJobs(jobs);
+        int total = 0;
+        for (int line : table.getLineIds()) {
+            int[] rows = table.rowsOfLine(line);
+            total += rows.length;
+            for (int k = 1; k < rows.length; k++) {
+                int a = rows[k - 1];
+                int b = rows[k];
+                assertEquals(line, table.getLineId(b));
+                long sa = table.getStartEpochSecond(a);
+                long sb = table.getStartEpochSecond(b);
+                assertTrue(sa < sb || (sa == sb && (table.getOrderId(a) < table.getOrderId(b)
+                        || (table.getOrderId(a) == table.getOrderId(b) && table.getPiece(a) < table.getPiece(b)))));
+            }
+        }
+        assertEquals(5000, total);
+    }
+
+    @Test
+    public void testDecodedTableMatchesLazyJobs() {
+        List<Product> products = new ArrayList<>();
+        products.add(new Product(1, 1.5));
+        products.add(new Product(2, 3.0));
+        List<Order> orders = new ArrayList<>();
+        orders.add(new Order(1, 1, 3, 900.0, base.plusDays(1), base));
+        orders.add(new Order(2, 2, 2, 800.0, base.plusDays(2), base));
+        orders.add(new Order(3, 1, 1, 300.0, base.plusDays(1), base));
+        ScheduleData data = new ScheduleData(products, orders, base);
+
+        GAScheduler scheduler = new GAScheduler(data, 10, 0.8, 0.1, 5);
+        scheduler.setRandomSeed(3);
+        GAScheduler.ScheduleResult result = scheduler.getDetailedSchedule(scheduler.run());
+        JobTable table = result.scheduledJobs;
+        assertEquals(6, table.size());
+
+        int row = 0;
+        int rowsInViews = 0;
+        for (Job job : table) {
+            assertEquals("O" + table.getOrderId(row) + "_" + table.getPiece(row), job.operationId);
+            assertEquals(table.getLineId(row), job.machineLineId);
+            assertEquals(table.getStartTime(row), job.startTime);
+            assertEquals(table.getEndTime(row), job.endTime);
+            row++;
+        }
+        for (int line : table.getLineIds()) {
+            int[] rows = table.rowsOfLine(line);
+            rowsInViews += rows.length;
+            for (int k = 1; k < rows.length; k++) {
+                assertTrue(table.getStartEpochSecond(rows[k - 1]) <= table.getStartEpochSecond(rows[k]));
+            }
+        }
+        assertEquals(6, rowsInViews);
+    }
+}
@@ -0,0 +1,84 @@
+package com.smartfactory;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LNSScheduler 的单元测试：破坏 / 修复保持工件集合、解码一致性与改进
+ */
+public class LNSSchedulerTest {
+
+    @Test
+    public void testDestroyAndRepairKeepOperationSet() {
+        ScheduleData data = TestTool.createData(11L, 80);
+        LNSScheduler lns = new LNSScheduler(data, 1);
+        lns.setRandomSeed(3L);
+        Chromosome initial = lns.construct();
+        List<String> allOps = TestTool.sorted(initial.getOperationSequence());
+
+        for (LNSScheduler.Destroy op : LNSScheduler.Destroy.values()) {
+            for (boolean regret : new boolean[]{false, true}) {
+                Chromosome c = new Chromosome(new ArrayList<>(initial.getOperationSequence()),
+                        new ArrayList<>(initial.getMachineAssignment()));
+                List<String> removed = lns.destroy(op, c, 10);
+                assertFalse(op.name(), removed.isEmpty());
+                assertTrue(op.name(), removed.size() <= 10);
+                assertEquals(80 - removed.size(), c.getOperationSequence().size());
+                assertEquals(c.getOperationSequence().size(), c.getMachineAssignment().size());
+
+                double cost = regret ? lns.regretInsert(c, removed) : lns.greedyInsert(c, removed);
+                assertEquals(op.name(), allOps, TestTool.sorted(c.getOperationSequence()));
+                // 修复返回的代价就是完整解的适应度
+                c.setFitness(cost);
+                assertEquals(cost, new ScheduleDecoder(data).evaluate(c), 1e-6);
+                for (int line : c.getMachineAssignment()) {
+                    assertTrue(line >= 1 && line <= data.getNumLines());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRunImprovesConstructionAndIsReproducible() {
+        ScheduleData data = TestTool.createData(12L, 120);
+        LNSScheduler lns = new LNSScheduler(data, 300);
+        lns.setRandomSeed(5L);
+        lns.setProgressLogInterval(0);
+        double constructed = new LNSScheduler(data, 0).construct().getFitness();
+
+        Chromosome best = lns.run();
+        assertEquals(300, lns.getIterationsRun());
+        assertTrue(best.getFitness() <= constructed);
+        assertEquals(best.getFitness(), lns.getDetailedSchedule(best).totalCost, 1e-6);
+        assertEquals(best.getFitness(), lns.getBestHistory().get(lns.getBestHistory().size() - 1)[1], 1e-9);
+        for (LNSScheduler.Destroy op : LNSScheduler.Destroy.values()) {
+            assertTrue(lns.getDestroyWeight(op) > 0);
+        }
+
+        LNSScheduler again = new LNSScheduler(data, 300);
+        again.setRandomSeed(5L);
+        again.setProgressLogInterval(0);
+        assertEquals(best.getOperationSequence(), again.run().getOperationSequence());
+    }
+
+    @Test
+    public void testInitialSolutionAndEmptyOrders() {
+        ScheduleData data = TestTool.createData(13L, 40);
+        GAScheduler ga = new GAScheduler(data, 10, 0.8, 0.1, 5);
+        ga.setRandomSeed(1L);
+        ga.setProgressLogInterval(0);
+        Chromosome seed = ga.run();
+
+        LNSScheduler lns = new LNSScheduler(data, 50);
+        lns.setRandomSeed(1L);
+        lns.setProgressLogInterval(0);
+        lns.setInitialSolution(seed);
+        assertTrue(lns.run().getFitness() <= seed.getFitness() + 1e-9);
+
+        ScheduleData empty = new ScheduleData(data.getProducts(), new ArrayList<>(), data.getPlanStartTime());
+        assertTrue(new LNSScheduler(empty, 10).run().getOperationSequence().isEmpty());
+    }
+}
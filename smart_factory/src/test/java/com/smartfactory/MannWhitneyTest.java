@@ -0,0 +1,43 @@
+package com.smartfactory;
+
+import com.smartfactory.util.MannWhitney;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * MannWhitney 的单元测试：U 统计量、精确分布与正态近似
+ */
+public class MannWhitneyTest {
+    @Test
+    public void testExactDistribution() {
+        double[] low = {1, 2, 3};
+        double[] high = {4, 5, 6};
+        assertEquals(0.0, MannWhitney.u(low, high), 0.0);
+        assertEquals(9.0, MannWhitney.u(high, low), 0.0);
+        // C(6,3) = 20 种排列中只有 1 种使 U = 0
+        assertEquals(0.05, MannWhitney.pLess(low, high), 1e-12);
+        assertEquals(1.0, MannWhitney.pGreater(low, high), 1e-12);
+
+        // 交错排列：U = 3，U 的分布计数为 1,1,2,3,3,3,3,2,1,1，P(U <= 3) = 7/20
+        double[] a = {1, 3, 5};
+        double[] b = {2, 4, 6};
+        assertEquals(3.0, MannWhitney.u(a, b), 0.0);
+        assertEquals(7.0 / 20.0, MannWhitney.pLess(a, b), 1e-12);
+    }
+
+    @Test
+    public void testNormalApproximationWithTies() {
+        double[] a = new double[30];
+        double[] b = new double[30];
+        for (int i = 0; i < 30; i++) {
+            a[i] = i / 3;          // 有并列
+            b[i] = i / 3 + 4;
+        }
+        assertTrue(MannWhitney.pLess(a, b) < 0.001);
+        assertTrue(MannWhitney.pGreater(a, b) > 0.99);
+        // 同分布：p 接近 0.5
+        double p = MannWhitney.pLess(a, a.clone());
+        assertTrue(String.valueOf(p), p > 0.4 && p < 0.6);
+        assertEquals(1.0, MannWhitney.pLess(new double[]{1, 1}, new double[]{1, 1}), 0.0);
+    }
+}
@@ -0,0 +1,72 @@
+package com.smartfactory;
+
+import com.smartfactory.util.MetricsRegistry;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * MetricsRegistry 的单元测试：注册语义、JSON / Prometheus 导出，以及 GA 运行后的指标
+ */
+public class MetricsRegistryTest {
+    @Test
+    public void testRegistrationAndExport() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Counter c = registry.counter("jobs_total", "任务数");
+        c.add(3);
+        registry.counter("jobs_total", "任务数").inc();
+        assertEquals(4, c.get());
+
+        try {
+            registry.gauge("jobs_total", "同名不同类型");
+            fail("类型不一致应抛出异常");
+        } catch (IllegalArgumentException expected) {
+            // 预期
+        }
+
+        registry.gauge("ratio", "比例").set(0.25);
+        registry.gauge("unset", "未设置");
+        MetricsRegistry.Timer t = registry.timer("step_seconds", "步骤耗时");
+        t.record(2_000_000_000L);
+        t.record(1_000_000_000L);
+        assertEquals(2, t.getCount());
+        assertEquals(3.0, t.getTotalSeconds(), 1e-9);
+        assertEquals(2.0, t.getMaxSeconds(), 1e-9);
+        assertEquals(1.0, t.getLastSeconds(), 1e-9);
+
+        String json = registry.toJson();
+        assertTrue(json, json.contains("\"jobs_total\": 4"));
+        assertTrue(json, json.contains("\"ratio\": 0.25"));
+        assertTrue(json, json.contains("\"unset\": null"));
+        assertTrue(json, json.contains("\"step_seconds\": {\"count\": 2, \"sumSeconds\": 3.0, \"maxSeconds\": 2.0"));
+
+        String prom = registry.toPrometheus();
+        assertTrue(prom, prom.contains("# TYPE jobs_total counter\njobs_total 4\n"));
+        assertTrue(prom, prom.contains("ratio 0.25\n"));
+        assertTrue(prom, prom.contains("unset NaN\n"));
+        assertTrue(prom, prom.contains("# TYPE step_seconds summary\nstep_seconds_count 2\nstep_seconds_sum 3.0\n"));
+        assertTrue(prom, prom.contains("step_seconds_max 2.0\n"));
+    }
+
+    @Test
+    public void testSchedulerRecordsGenerationMetrics() {
+        ScheduleData data = TestTool.createData(5L, 60);
+
+        MetricsRegistry registry = new MetricsRegistry();
+        GAScheduler scheduler = new GAScheduler(data, 20, 0.8, 0.1, 8);
+        scheduler.setMetricsRegistry(registry);
+        scheduler.setProgressLogInterval(0);
+        Chromosome best = scheduler.run();
+
+        assertEquals(8, registry.counter("ga_generations_total", "").get());
+        assertEquals(8, registry.timer("ga_generation_seconds", "").getCount());
+        assertEquals(9, registry.timer("ga_evaluation_seconds", "").getCount()); // 初始种群 + 每代一次
+        assertEquals(scheduler.getEvaluationCount(), registry.counter("ga_evaluations_total", "").get());
+        // 精英与未交叉、未变异的个体原样进入下一代，评估时直接命中
+        assertTrue(registry.counter("ga_fitness_cache_hits_total", "").get() > 0);
+        assertEquals(-best.getFitness(), registry.gauge("ga_best_profit", "").get(), 1e-6);
+        double diversity = registry.gauge("ga_population_diversity", "").get();
+        assertTrue(diversity > 0 && diversity <= 1);
+        long moves = registry.counter("ga_sa_moves_total", "").get();
+        assertTrue(moves > 0 && registry.counter("ga_sa_accepted_total", "").get() <= moves);
+    }
+}
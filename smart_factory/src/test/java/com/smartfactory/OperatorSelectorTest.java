@@ -0,0 +1,78 @@
+package com.smartfactory;
+
+import com.smartfactory.util.MetricsRegistry;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+/**
+ * OperatorSelector 的单元测试：按单位耗时的改进追逐概率、指标导出，以及在 GA 中的接入
+ */
+public class OperatorSelectorTest {
+
+    @Test
+    public void testPursuitFavorsCheapestImprovement() {
+        OperatorSelector selector = new OperatorSelector("test", "a", "b", "c");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1.0 / 3, selector.getProbability(i), 1e-12);
+        }
+        // b 与 c 带来相同的改进，但 c 的耗时是 b 的 10 倍；a 从不改进
+        for (int round = 0; round < 50; round++) {
+            selector.credit(0, -5.0, 1000);
+            selector.credit(1, 10.0, 1000);
+            selector.credit(2, 10.0, 10000);
+        }
+        assertTrue(selector.getProbability(1) > 0.75);
+        assertEquals(0.1, selector.getProbability(0), 1e-6);   // 最低概率 = 0.3 / 3
+        assertEquals(0.1, selector.getProbability(2), 1e-6);
+        assertEquals(1.0, selector.getProbability(0) + selector.getProbability(1) + selector.getProbability(2), 1e-9);
+        assertEquals(0, selector.getImprovements(0));
+        assertEquals(50, selector.getUses(2));
+        assertEquals(10.0 / 1e-6, selector.getGainPerSecond(1), 1e-3);
+
+        int[] picks = new int[3];
+        Random random = new Random(1L);
+        for (int i = 0; i < 10000; i++) {
+            picks[selector.select(random)]++;
+        }
+        assertTrue(picks[1] > 7000);
+        assertTrue(picks[0] > 500 && picks[2] > 500);
+    }
+
+    @Test
+    public void testMetricsExport() {
+        MetricsRegistry registry = new MetricsRegistry();
+        OperatorSelector selector = new OperatorSelector("ls", "swap", "insert");
+        selector.bind(registry);
+        selector.credit(0, 3.0, 2_000_000_000L);
+        selector.credit(1, 0.0, 1_000_000_000L);
+
+        assertEquals(1, registry.timer("ga_operator_ls_swap_seconds", "").getCount());
+        assertEquals(1, registry.counter("ga_operator_ls_swap_improvements_total", "").get());
+        assertEquals(0, registry.counter("ga_operator_ls_insert_improvements_total", "").get());
+        assertEquals(1.5, registry.gauge("ga_operator_ls_swap_gain_per_second", "").get(), 1e-9);
+        assertEquals(selector.getProbability(0), registry.gauge("ga_operator_ls_swap_probability", "").get(), 0.0);
+        assertTrue(registry.toPrometheus().contains("ga_operator_ls_insert_probability"));
+    }
+
+    @Test(timeout = 60000)
+    public void testAdaptiveGaUsesAllOperators() {
+        ScheduleData data = TestTool.createData(21L, 60);
+
+        GAScheduler scheduler = new GAScheduler(data, 20, 0.8, 0.5, 15);
+        scheduler.setRandomSeed(3L);
+        scheduler.setProgressLogInterval(0);
+        scheduler.setAdaptiveOperators(true);
+        Chromosome best = scheduler.run();
+        assertEquals(best.getFitness(), scheduler.getDetailedSchedule(best).totalCost, 1e-6);
+
+        for (OperatorSelector selector : new OperatorSelector[]{scheduler.getLocalSearchOperators(),
+                scheduler.getCrossoverOperators(), scheduler.getMutationOperators()}) {
+            for (int i = 0; i < selector.size(); i++) {
+                assertTrue(selector + " " + selector.getName(i), selector.getUses(i) > 0);
+            }
+        }
+        assertTrue(scheduler.getMetrics().timer("ga_operator_crossover_pos_seconds", "").getCount() > 0);
+    }
+}
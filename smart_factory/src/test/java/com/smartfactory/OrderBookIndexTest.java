@@ -0,0 +1,83 @@
+package com.smartfactory;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * OrderBookIndex 的单元测试：范围查询结果与线性扫描一致，增量追加后依然有序
+ */
+public class OrderBookIndexTest {
+    private final LocalDateTime base = LocalDateTime.of(2025, 12, 1, 8, 0);
+
+    private Order randomOrder(int id, Random random) {
+        LocalDateTime arrival = base.plusMinutes(random.nextInt(20 * 24 * 60));
+        LocalDateTime deadline = arrival.plusDays(1 + random.nextInt(5));
+        return new Order(id, 1, 1, 100.0, deadline, arrival);
+    }
+
+    // 线性扫描的期望结果：按时间稳定排序
+    private List<Integer> expectedIds(List<Order> all, LocalDateTime from, LocalDateTime to, boolean byArrival) {
+        return all.stream()
+                .filter(o -> {
+                    LocalDateTime t = byArrival ? o.getArrivalTime() : o.getAlignedDeadline();
+                    return !t.isBefore(from) && !t.isAfter(to);
+                })
+                .sorted(Comparator.comparing(o -> byArrival ? o.getArrivalTime() : o.getAlignedDeadline()))
+                .map(Order::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Integer> ids(List<Order> orders) {
+        return orders.stream().map(Order::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRangeQueriesMatchLinearScan() {
+        Random random = new Random(7);
+        List<Order> all = new ArrayList<>();
+        for (int i = 0; i < 500; i++) all.add(randomOrder(i, random));
+        OrderBookIndex index = new OrderBookIndex(all);
+
+        // 追加：一部分逐个加入（乱序），一部分批量加入
+        for (int i = 500; i < 800; i++) {
+            Order o = randomOrder(i, random);
+            all.add(o);
+            index.add(o);
+        }
+        List<Order> batch = new ArrayList<>();
+        for (int i = 800; i < 1000; i++) batch.add(randomOrder(i, random));
+        all.addAll(batch);
+        index.addAll(batch);
+        assertEquals(1000, index.size());
+
+        for (int q = 0; q < 200; q++) {
+            LocalDateTime from = base.plusMinutes(random.nextInt(25 * 24 * 60));
+            LocalDateTime to = from.plusMinutes(random.nextInt(3 * 24 * 60));
+            assertEquals(expectedIds(all, from, to, true), ids(index.arrivedBetween(from, to)));
+            assertEquals(expectedIds(all, from, to, false), ids(index.dueBetween(from, to)));
+        }
+    }
+
+    @Test
+    public void testCutoffQueries() {
+        OrderBookIndex index = new OrderBookIndex();
+        assertNull(index.getLatestDeadline());
+        index.add(new Order(1, 1, 1, 100.0, base.plusDays(1), base.minusHours(1)));
+        index.add(new Order(2, 1, 1, 100.0, base.plusDays(3), base));
+        index.add(new Order(3, 1, 1, 100.0, base.plusDays(2), base.plusMinutes(1)));
+
+        assertEquals(2, index.arrivedBy(base).size());
+        assertEquals(3, index.arrivedBetween(null, null).size());
+        // 截止时间对齐到当天 8 点：dueBefore 不含边界
+        assertEquals(1, index.dueBefore(base.plusDays(2)).size());
+        assertEquals(2, index.dueBefore(base.plusDays(2).plusMinutes(1)).size());
+        assertEquals(base.plusDays(3), index.getLatestDeadline());
+    }
+}
@@ -0,0 +1,129 @@
+package com.smartfactory;
+
+import com.smartfactory.util.OrderCsvLoader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * OrderCsvLoader 的单元测试：字段解析、到达时间过滤、错误收集与多块并行解析
+ */
+public class OrderCsvLoaderTest {
+    private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(String... lines) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    public void testParseFields() throws IOException {
+        File file = write(
+                "id, productId, quantity, totalValue, deadline, arrivalTime",
+                "# 注释行",
+                "",
+                "401, 1, 5, 5000.5, 2025-12-12 16:00, 2025-12-12 07:00",
+                "402,2,10,-12.25,2024-02-29 03:00,2024-02-28 23:59\r");
+
+        OrderCsvLoader.Result result = OrderCsvLoader.load(file.getPath());
+        assertEquals(0, result.errorCount);
+        assertEquals(2, result.orders.size());
+
+        Order o = result.orders.get(0);
+        assertEquals(401, o.getId());
+        assertEquals(1, o.getProductId());
+        assertEquals(5, o.getQuantity());
+        assertEquals(5000.5, o.getTotalValue(), 0.0);
+        // 截止时间在加载时对齐到当天 8 点（与 DataLoader 一致）
+        assertEquals(LocalDateTime.of(2025, 12, 12, 8, 0), o.getDeadline());
+        assertEquals(LocalDateTime.of(2025, 12, 12, 7, 0), o.getArrivalTime());
+
+        Order leap = result.orders.get(1);
+        assertEquals(-12.25, leap.getTotalValue(), 0.0);
+        assertEquals(LocalDateTime.of(2024, 2, 29, 8, 0), leap.getDeadline());
+        assertEquals(LocalDateTime.of(2024, 2, 28, 23, 59), leap.getArrivalTime());
+    }
+
+    @Test
+    public void testArrivalCutoff() throws IOException {
+        File file = write(
+                "1, 1, 1, 100.0, 2025-12-13 08:00, 2025-12-12 07:00",
+                "2, 1, 1, 100.0, 2025-12-13 08:00, 2025-12-12 08:00",
+                "3, 1, 1, 100.0, 2025-12-13 08:00, 2025-12-12 08:01");
+
+        OrderCsvLoader.Result result = OrderCsvLoader.load(file.getPath(), LocalDateTime.of(2025, 12, 12, 8, 0));
+        assertEquals(3, result.rowsRead);
+        assertEquals(1, result.rowsFiltered);
+        assertEquals(2, result.orders.size());
+        assertEquals(2, result.orders.get(1).getId());
+    }
+
+    @Test
+    public void testErrorsCarryLineNumbers() throws IOException {
+        File file = write(
+                "id, productId, quantity, totalValue, deadline, arrivalTime",
+                "1, 1, 1, 100.0, 2025-12-13 08:00, 2025-12-12 07:00",
+                "2, x, 1, 100.0, 2025-12-13 08:00, 2025-12-12 07:00",
+                "3, 1, 1, 100.0, 2025-02-30 08:00, 2025-12-12 07:00",
+                "4, 1, 1",
+                "5, 1, 1, 100.0, 2025-12-13 08:00, 2025-12-12 07:00");
+
+        OrderCsvLoader.Result result = OrderCsvLoader.load(file.getPath());
+        assertEquals(2, result.orders.size());
+        assertEquals(3, result.errorCount);
+        assertTrue(result.errors.get(0), result.errors.get(0).startsWith("第 3 行"));
+        assertTrue(result.errors.get(1), result.errors.get(1).startsWith("第 4 行"));
+        assertTrue(result.errors.get(2), result.errors.get(2).startsWith("第 5 行"));
+    }
+
+    @Test(timeout = 60000)
+    public void testParallelChunksKeepOrderAndLineNumbers() throws IOException {
+        // 约 4MB，会被切成多个块并行解析
+        int rows = 80000;
+        int badRow = 65432;
+        File file = folder.newFile();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        try (BufferedWriter w = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            w.write("id, productId, quantity, totalValue, deadline, arrivalTime\n");
+            for (int i = 1; i <= rows; i++) {
+                if (i == badRow) {
+                    w.write("broken row\n");
+                    continue;
+                }
+                LocalDateTime arrival = base.plusMinutes(i * 7L);
+                w.write(i + ", " + (i % 5 + 1) + ", " + (i % 9 + 1) + ", " + (i * 1.5) + ", "
+                        + arrival.plusDays(2).format(FMT) + ", " + arrival.format(FMT) + "\n");
+            }
+        }
+        assertTrue(file.length() > 2 << 20);
+
+        OrderCsvLoader.Result result = OrderCsvLoader.load(file.getPath());
+        assertEquals(rows - 1, result.orders.size());
+        assertEquals(1, result.errorCount);
+        // 表头是第 1 行，第 i 个数据行位于第 i + 1 行
+        assertTrue(result.errors.get(0), result.errors.get(0).startsWith("第 " + (badRow + 1) + " 行"));
+
+        int expectedId = 1;
+        for (Order o : result.orders) {
+            if (expectedId == badRow) expectedId++;
+            assertEquals(expectedId, o.getId());
+            assertEquals(expectedId * 1.5, o.getTotalValue(), 0.0);
+            assertEquals(base.plusMinutes(expectedId * 7L), o.getArrivalTime());
+            expectedId++;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.smartfactory;
+
+import com.smartfactory.util.OrderCsvLoader;
+import com.smartfactory.util.OrderSnapshot;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * OrderSnapshot 的单元测试：写入/读取往返、头部统计、按到达时间范围读取与 CSV 转换
+ */
+public class OrderSnapshotTest {
+    private final LocalDateTime base = LocalDateTime.of(2025, 12, 1, 8, 0);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<Product> createProducts() {
+        List<Product> products = new ArrayList<>();
+        products.add(new Product(1, 4.0));
+        products.add(new Product(2, 2.5));
+        return products;
+    }
+
+    // 到达时间乱序：第 i 个订单在 base + ((i * 7) % 10) 小时到达
+    private List<Order> createOrders(int n) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            LocalDateTime arrival = base.plusHours((i * 7) % 10);
+            orders.add(new Order(i, i % 2 + 1, i, 100.0 * i + 0.25, arrival.plusDays(2).toLocalDate().atTime(8, 0), arrival));
+        }
+        return orders;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        String path = new File(folder.getRoot(), "orders.snap").getPath();
+        List<Order> orders = createOrders(20);
+        OrderSnapshot.write(path, createProducts(), orders);
+
+        OrderSnapshot snapshot = OrderSnapshot.open(path);
+        assertEquals(20, snapshot.getRowCount());
+        assertEquals(base, snapshot.getMinArrival());
+        assertEquals(base.plusHours(9), snapshot.getMaxArrival());
+
+        List<Product> products = snapshot.readProducts();
+        assertEquals(2, products.size());
+        assertEquals(2, products.get(1).getId());
+        assertEquals(2.5, products.get(1).getUnitProcessingTime(), 0.0);
+
+        List<Order> read = snapshot.readOrders();
+        assertEquals(20, read.size());
+        for (int i = 0; i < read.size(); i++) {
+            Order o = read.get(i);
+            Order expected = orders.get(i); // 保持写入时的行顺序
+            assertEquals(expected.getId(), o.getId());
+            assertEquals(expected.getProductId(), o.getProductId());
+            assertEquals(expected.getQuantity(), o.getQuantity());
+            assertEquals(expected.getTotalValue(), o.getTotalValue(), 0.0);
+            assertEquals(expected.getDeadline(), o.getDeadline());
+            assertEquals(expected.getArrivalTime(), o.getArrivalTime());
+        }
+    }
+
+    @Test
+    public void testReadArrivalRange() throws IOException {
+        String path = new File(folder.getRoot(), "orders.snap").getPath();
+        List<Order> orders = createOrders(50);
+        OrderSnapshot.write(path, createProducts(), orders);
+        OrderSnapshot snapshot = OrderSnapshot.open(path);
+
+        LocalDateTime from = base.plusHours(3);
+        LocalDateTime to = base.plusHours(5);
+        List<Order> range = snapshot.readOrders(from, to);
+        long expected = orders.stream().filter(o -> !o.getArrivalTime().isBefore(from) && !o.getArrivalTime().isAfter(to)).count();
+        assertEquals(expected, range.size());
+        for (int i = 0; i < range.size(); i++) {
+            Order o = range.get(i);
+            assertFalse(o.getArrivalTime().isBefore(from));
+            assertFalse(o.getArrivalTime().isAfter(to));
+            if (i > 0) {
+                assertTrue("区间内仍按原始行顺序", o.getId() > range.get(i - 1).getId());
+            }
+        }
+
+        assertEquals(5, snapshot.readOrdersArrivedBy(base).size());
+        assertTrue(snapshot.readOrdersArrivedBy(base.minusMinutes(1)).isEmpty());
+        assertTrue(snapshot.readOrders(base.plusDays(1), null).isEmpty());
+        assertEquals(50, snapshot.readOrders(null, null).size());
+    }
+
+    @Test
+    public void testConvertCsv() throws IOException {
+        File productCsv = folder.newFile("products.csv");
+        Files.write(productCsv.toPath(), Arrays.asList("id, unitProcessingTime", "1, 4.0", "2, 3.0"), StandardCharsets.UTF_8);
+        File orderCsv = folder.newFile("orders.csv");
+        Files.write(orderCsv.toPath(), Arrays.asList(
+                "id, productId, quantity, totalValue, deadline, arrivalTime",
+                "7, 2, 3, 900.0, 2025-12-13 12:00, 2025-12-12 09:00",
+                "8, 1, 1, 300.0, 2025-12-13 12:00, 2025-12-12 07:00"), StandardCharsets.UTF_8);
+        String path = new File(folder.getRoot(), "orders.snap").getPath();
+
+        OrderSnapshot.convertCsv(productCsv.getPath(), orderCsv.getPath(), path);
+        OrderSnapshot snapshot = OrderSnapshot.open(path);
+        assertEquals(2, snapshot.readProducts().size());
+        List<Order> active = snapshot.readOrdersArrivedBy(LocalDateTime.of(2025, 12, 12, 8, 0));
+        assertEquals(1, active.size());
+        assertEquals(8, active.get(0).getId());
+        assertEquals(LocalDateTime.of(2025, 12, 13, 8, 0), active.get(0).getDeadline());
+    }
+
+    @Test
+    public void testSnapshotMatchesCsvOrder() throws IOException {
+        File productCsv = folder.newFile("products.csv");
+        Files.write(productCsv.toPath(), Arrays.asList("id, unitProcessingTime", "1, 4.0", "2, 3.0"), StandardCharsets.UTF_8);
+        File orderCsv = folder.newFile("orders.csv");
+        Files.write(orderCsv.toPath(), Arrays.asList(
+                "id, productId, quantity, totalValue, deadline, arrivalTime",
+                "5, 2, 3, 900.0, 2025-12-13 12:00, 2025-12-12 07:00",
+                "3, 1, 1, 300.0, 2025-12-13 12:00, 2025-12-11 09:00",
+                "9, 1, 2, 600.0, 2025-12-14 12:00, 2025-12-12 06:00",
+                "1, 2, 1, 200.0, 2025-12-14 12:00, 2025-12-12 10:00"), StandardCharsets.UTF_8);
+        String path = new File(folder.getRoot(), "orders.snap").getPath();
+        OrderSnapshot.convertCsv(productCsv.getPath(), orderCsv.getPath(), path);
+
+        LocalDateTime planStart = LocalDateTime.of(2025, 12, 12, 8, 0);
+        List<Order> fromCsv = OrderCsvLoader.load(orderCsv.getPath(), planStart).orders;
+        List<Order> fromSnapshot = OrderSnapshot.open(path).readOrdersArrivedBy(planStart);
+        assertEquals(3, fromSnapshot.size());
+        for (int i = 0; i < fromCsv.size(); i++) {
+            assertEquals(fromCsv.get(i).getId(), fromSnapshot.get(i).getId());
+        }
+    }
+
+    @Test
+    public void testEmptySnapshot() throws IOException {
+        String path = new File(folder.getRoot(), "empty.snap").getPath();
+        OrderSnapshot.write(path, createProducts(), new ArrayList<>());
+        OrderSnapshot snapshot = OrderSnapshot.open(path);
+        assertEquals(0, snapshot.getRowCount());
+        assertNull(snapshot.getMinArrival());
+        assertTrue(snapshot.readOrdersArrivedBy(base).isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectInvalidFile() throws IOException {
+        File file = folder.newFile("bad.snap");
+        Files.write(file.toPath(), new byte[100]);
+        OrderSnapshot.open(file.getPath());
+    }
+}
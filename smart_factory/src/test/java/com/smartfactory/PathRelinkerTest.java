@@ -0,0 +1,123 @@
+package com.smartfactory;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * PathRelinker 的单元测试：订单层面的距离、路径上中间解的合法性、并行与串行结果一致，以及在 GA 中的接入
+ */
+public class PathRelinkerTest {
+
+    private static Chromosome shuffled(Chromosome c, long seed) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < c.getOperationSequence().size(); i++) order.add(i);
+        Collections.shuffle(order, new Random(seed));
+        List<String> os = new ArrayList<>();
+        List<Integer> ma = new ArrayList<>();
+        for (int i : order) {
+            os.add(c.getOperationSequence().get(i));
+            ma.add(c.getMachineAssignment().get(i));
+        }
+        return new Chromosome(os, ma);
+    }
+
+    @Test
+    public void testDistanceIgnoresPieceNumbering() {
+        Chromosome a = new Chromosome(Arrays.asList("O1_1", "O1_2", "O2_1"), Arrays.asList(1, 2, 1));
+        Chromosome b = new Chromosome(Arrays.asList("O1_2", "O1_1", "O2_1"), Arrays.asList(1, 2, 1));
+        Chromosome c = new Chromosome(Arrays.asList("O2_1", "O1_2", "O1_1"), Arrays.asList(1, 2, 2));
+        assertEquals(0, PathRelinker.distance(a, b));
+        assertEquals(PathRelinker.orderFingerprint(a), PathRelinker.orderFingerprint(b));
+        assertEquals(2, PathRelinker.distance(a, c));
+        assertNotEquals(PathRelinker.orderFingerprint(a), PathRelinker.orderFingerprint(c));
+
+        // 相同或相邻的两解之间没有中间解
+        PathRelinker relinker = new PathRelinker(new ScheduleDecoder(TestTool.createData(1L, 10)));
+        assertNull(relinker.relink(a, b, 10, () -> false).best);
+    }
+
+    @Test
+    public void testRelinkKeepsOperationSetAndStartSolution() {
+        ScheduleData data = TestTool.createData(31L, 80);
+        ScheduleDecoder decoder = new ScheduleDecoder(data);
+        LNSScheduler lns = new LNSScheduler(data, 0);
+        Chromosome start = lns.construct();
+        Chromosome guide = shuffled(start, 5L);
+        guide.setFitness(decoder.evaluate(guide));
+        List<String> startOps = new ArrayList<>(start.getOperationSequence());
+
+        PathRelinker relinker = new PathRelinker(decoder);
+        PathRelinker.Result result = relinker.relink(start, guide, 20, () -> false);
+        assertTrue(result.evaluations > 0 && result.evaluations <= 20);
+        assertEquals(startOps, start.getOperationSequence()); // 起点解未被修改
+        Chromosome best = result.best;
+        assertEquals(TestTool.sorted(startOps), TestTool.sorted(best.getOperationSequence()));
+        assertEquals(best.getFitness(), decoder.evaluate(best), 1e-6);
+        int d = PathRelinker.distance(start, guide);
+        assertTrue(PathRelinker.distance(best, guide) < d && PathRelinker.distance(best, start) > 0);
+
+        // 达到停止条件时不再解码
+        assertEquals(0, relinker.relink(start, guide, 20, () -> true).evaluations);
+    }
+
+    @Test
+    public void testPoolIsDiverseAndParallelMatchesSequential() throws Exception {
+        ScheduleData data = TestTool.createData(32L, 60);
+        ScheduleDecoder decoder = new ScheduleDecoder(data);
+        Chromosome base = new LNSScheduler(data, 0).construct();
+        List<Chromosome> population = new ArrayList<>();
+        population.add(base);
+        population.add(new Chromosome(new ArrayList<>(base.getOperationSequence()), new ArrayList<>(base.getMachineAssignment())));
+        for (long seed = 1; seed <= 4; seed++) {
+            population.add(shuffled(base, seed));
+        }
+        List<Chromosome> pool = PathRelinker.selectDiversePool(population, 4, 5);
+        assertEquals(4, pool.size());
+        assertSame(base, pool.get(0));
+        assertFalse(pool.contains(population.get(1))); // 与第一个精英相同的个体不入池
+
+        PathRelinker relinker = new PathRelinker(decoder);
+        List<PathRelinker.Result> sequential = relinker.relinkPool(pool, 30, null, () -> false);
+        assertEquals(6, sequential.size());
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<PathRelinker.Result> parallel = relinker.relinkPool(pool, 30, executor, () -> false);
+            for (int i = 0; i < sequential.size(); i++) {
+                assertEquals(sequential.get(i).evaluations, parallel.get(i).evaluations);
+                assertTrue(sequential.get(i).evaluations <= 5);
+                assertEquals(sequential.get(i).best.getOperationSequence(), parallel.get(i).best.getOperationSequence());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testGaWithPathRelinkingIsReproducible() {
+        ScheduleData data = TestTool.createData(33L, 80);
+        Chromosome[] best = new Chromosome[2];
+        long[] relinked = new long[2];
+        for (int run = 0; run < 2; run++) {
+            GAScheduler scheduler = new GAScheduler(data, 20, 0.8, 0.1, 10);
+            scheduler.setRandomSeed(4L);
+            scheduler.setProgressLogInterval(0);
+            scheduler.setPathRelinking(true);
+            scheduler.setPathRelinkingThreads(run == 0 ? 1 : 3); // 默认在进化线程上执行；多线程结果相同
+            best[run] = scheduler.run();
+            relinked[run] = scheduler.getMetrics().counter("ga_path_relinking_evaluations_total", "").get();
+            assertEquals(best[run].getFitness(), scheduler.getDetailedSchedule(best[run]).totalCost, 1e-6);
+        }
+        assertTrue(relinked[0] > 0);
+        assertEquals(relinked[0], relinked[1]);
+        assertEquals(best[0].getOperationSequence(), best[1].getOperationSequence());
+        assertEquals(best[0].getFitness(), best[1].getFitness(), 0.0);
+    }
+}
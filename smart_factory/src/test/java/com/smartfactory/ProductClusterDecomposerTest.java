@@ -0,0 +1,95 @@
+package com.smartfactory;
+
+import com.smartfactory.util.Job;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ProductClusterDecomposer 的单元测试：产线分配、簇划分与合并解的完整性
+ */
+public class ProductClusterDecomposerTest {
+    private final LocalDateTime planStartTime = TestTool.getPlanStartTime();
+
+    private List<Product> createProducts(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            products.add(new Product(i, i % 2 == 0 ? 2.0 : 4.0));
+        }
+        return products;
+    }
+
+    private List<Order> createOrders(int productCount, int ordersPerProduct) {
+        List<Order> orders = new ArrayList<>();
+        int id = 1;
+        for (int p = 1; p <= productCount; p++) {
+            for (int i = 0; i < ordersPerProduct; i++) {
+                orders.add(new Order(id++, p, 2 + i, 1500.0, planStartTime.plusDays(2), planStartTime));
+            }
+        }
+        return orders;
+    }
+
+    @Test
+    public void testAllocationGivesEveryProductALine() {
+        ScheduleData data = new ScheduleData(createProducts(3), createOrders(3, 2), planStartTime,
+                ScheduleData.defaultLines(6));
+        ProductClusterDecomposer decomposer = new ProductClusterDecomposer(data, 10, 0.8, 0.1, 5, 0);
+
+        Map<Integer, List<Integer>> allocation = decomposer.allocateLines();
+        Set<Integer> used = new HashSet<>();
+        for (List<Integer> lines : allocation.values()) {
+            assertFalse("每个产品至少分到一条产线", lines.isEmpty());
+            for (int lineId : lines) {
+                assertTrue("产线足够时不应共用", used.add(lineId));
+            }
+        }
+        assertEquals("全部产线都应被分配", 6, used.size());
+        assertEquals(3, decomposer.buildClusters(allocation).size());
+    }
+
+    @Test
+    public void testSharedLinesMergeClusters() {
+        // 4 种产品、3 条产线：至少两个产品共用产线，归为同一簇
+        ScheduleData data = new ScheduleData(createProducts(4), createOrders(4, 1), planStartTime);
+        ProductClusterDecomposer decomposer = new ProductClusterDecomposer(data, 10, 0.8, 0.1, 5, 0);
+
+        List<ProductClusterDecomposer.Cluster> clusters = decomposer.buildClusters(decomposer.allocateLines());
+        assertEquals(3, clusters.size());
+        Set<Integer> lines = new HashSet<>();
+        int products = 0;
+        for (ProductClusterDecomposer.Cluster c : clusters) {
+            products += c.productIds.size();
+            for (int lineId : c.lineIds) {
+                assertTrue("簇之间产线不应相交", lines.add(lineId));
+            }
+        }
+        assertEquals(4, products);
+    }
+
+    @Test(timeout = 60000)
+    public void testRunCoversAllPieces() {
+        List<Order> orders = createOrders(3, 3);
+        int pieces = orders.stream().mapToInt(Order::getQuantity).sum();
+        ScheduleData data = new ScheduleData(createProducts(3), orders, planStartTime, ScheduleData.defaultLines(5));
+        ProductClusterDecomposer decomposer = new ProductClusterDecomposer(data, 20, 0.8, 0.1, 10, 5);
+
+        Chromosome result = decomposer.run();
+        GAScheduler.ScheduleResult schedule = decomposer.getDetailedSchedule(result);
+
+        assertEquals(pieces, schedule.scheduledJobs.size());
+        assertEquals(orders.size(), schedule.completionTimes.size());
+        assertEquals("适应度应与完整解码一致", schedule.totalCost, result.getFitness(), 0.001);
+        Set<String> ops = new HashSet<>();
+        for (Job job : schedule.scheduledJobs) {
+            assertTrue("工件不应重复调度", ops.add(job.operationId));
+            assertTrue(job.machineLineId >= 1 && job.machineLineId <= 5);
+        }
+    }
+}
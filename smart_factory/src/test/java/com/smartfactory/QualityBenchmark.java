@@ -0,0 +1,387 @@
+package com.smartfactory;
+
+import com.smartfactory.util.InstanceGenerator;
+import com.smartfactory.util.MannWhitney;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 解的质量回归基准：在固定的合成算例集上，用多个随机种子、多个时间预算运行 GA，
+ * 把最优利润、罚款、达到目标的时间与每秒评估次数写入 CSV 结果文件，
+ * 并可与保存的基线结果逐组（算例 × 预算）做 Mann-Whitney 单侧检验：
+ * 利润显著变差（p < alpha）且中位数下降超过容差时判为回归，进程以退出码 1 结束。
+ *
+ * 预算为挂钟时间；各次运行在单线程中依次执行，因此与 CPU 时间基本一致（cpuSeconds 列记录实际值），
+ * 同一预算下的利润比较即"每 CPU 秒的质量"比较。基线应在同一台机器上生成。
+ *
+ * 基准属于测试代码，不打入发布的 jar；先 mvn -B test-compile，再在 smart_factory 目录下运行：
+ *   java -cp target/classes:target/test-classes com.smartfactory.QualityBenchmark [--tiers=tiny,small] [--seeds=5] [--budgets=2,5]
+ *        [--out=quality-results.csv] [--baseline=FILE] [--alpha=0.05] [--tolerance=0.005] [--algorithm=ga|ga-adaptive|ga-no-relink|ga-steady|lns]
+ * 以 GA 的结果文件为基线、--algorithm=lns 运行，即可逐组比较 LNS 与 GA 在相同 CPU 预算下的利润。
+ */
+public class QualityBenchmark {
+    static final String[] COLUMNS = {"instance", "pieces", "budgetSeconds", "seed", "profit", "penalty", "target",
+            "timeToTarget", "evaluations", "evalsPerSecond", "cpuSeconds", "generations"};
+    private static final long INSTANCE_SEED = 1L;
+    private static final int POPULATION_SIZE = 50;
+
+    /**
+     * 一次运行的结果（CSV 中的一行）；target / timeToTarget 为 NaN 表示无目标或未达到
+     */
+    public static class RunResult {
+        public String instance;
+        public int pieces;
+        public double budgetSeconds;
+        public long seed;
+        public double profit;
+        public double penalty;
+        public double target = Double.NaN;
+        public double timeToTarget = Double.NaN;
+        public long evaluations;
+        public double evalsPerSecond;
+        public double cpuSeconds;
+        public int generations;
+        List<double[]> history; // {秒, 利润}，只在本次运行中可用，不写入文件
+
+        String group() {
+            return instance + " @" + format(budgetSeconds) + "s";
+        }
+    }
+
+    /**
+     * 一组（算例 × 预算）与基线的比较结果
+     */
+    public static class Comparison {
+        public String group;
+        public double medianProfit;
+        public double baselineMedianProfit;
+        public double pValue;           // 单侧：当前利润整体低于基线
+        public double medianEvalsPerSecond;
+        public double baselineMedianEvalsPerSecond;
+        public boolean regression;
+        public boolean slower;          // 评估吞吐显著下降（只提示，不判失败）
+    }
+
+    /**
+     * 依次运行全部 (算例, 预算, 种子) 组合
+     */
+    public static List<RunResult> run(List<InstanceGenerator.Tier> tiers, int seeds, double[] budgets) {
+        return run(tiers, seeds, budgets, "ga");
+    }
+
+    /**
+     * algorithm 为 ga（GAScheduler）、ga-adaptive（启用自适应算子选择的 GA）、ga-no-relink（关闭精英路径重连的 GA）、ga-steady（稳态 GA，每步 2 个子代）或 lns（LNSScheduler，generations 列记录迭代次数）
+     */
+    public static List<RunResult> run(List<InstanceGenerator.Tier> tiers, int seeds, double[] budgets, String algorithm) {
+        List<RunResult> results = new ArrayList<>();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (InstanceGenerator.Tier tier : tiers) {
+            InstanceGenerator.Config config = InstanceGenerator.Config.forTier(tier, INSTANCE_SEED);
+            List<Product> products = InstanceGenerator.generateProducts(config);
+            ScheduleData data = new ScheduleData(products, InstanceGenerator.generateOrders(config, products),
+                    config.planStart, ScheduleData.defaultLines(config.lines));
+            for (double budget : budgets) {
+                for (long seed = 1; seed <= seeds; seed++) {
+                    GAScheduler scheduler = null;
+                    LNSScheduler lns = null;
+                    if ("lns".equals(algorithm)) {
+                        lns = new LNSScheduler(data, Integer.MAX_VALUE);
+                        lns.setRandomSeed(seed);
+                        lns.setTimeLimit(Math.round(budget * 1000));
+                        lns.setProgressLogInterval(0); // 不打印迭代日志
+                    } else {
+                        scheduler = new GAScheduler(data, POPULATION_SIZE, 0.8, 0.1, Integer.MAX_VALUE);
+                        scheduler.setRandomSeed(seed);
+                        scheduler.setTimeLimit(Math.round(budget * 1000));
+                        scheduler.setProgressLogInterval(0); // 不打印逐代日志
+                        scheduler.setAdaptiveOperators("ga-adaptive".equals(algorithm));
+                        scheduler.setPathRelinking(!"ga-no-relink".equals(algorithm));
+                        scheduler.setSteadyState("ga-steady".equals(algorithm) ? 2 : 0);
+                    }
+
+                    long cpuStart = threads.getCurrentThreadCpuTime();
+                    Chromosome best = lns != null ? lns.run() : scheduler.run();
+                    double cpuSeconds = (threads.getCurrentThreadCpuTime() - cpuStart) / 1e9;
+
+                    RunResult r = new RunResult();
+                    r.instance = tier.directoryName();
+                    r.pieces = tier.pieces;
+                    r.budgetSeconds = budget;
+                    r.seed = seed;
+                    r.profit = -best.getFitness();
+                    r.penalty = (lns != null ? lns.getDetailedSchedule(best) : scheduler.getDetailedSchedule(best)).totalPenalty;
+                    r.evaluations = lns != null ? lns.getEvaluationCount() : scheduler.getEvaluationCount();
+                    r.cpuSeconds = cpuSeconds;
+                    r.evalsPerSecond = cpuSeconds > 0 ? r.evaluations / cpuSeconds : 0.0;
+                    r.generations = lns != null ? lns.getIterationsRun() : scheduler.getGenerationsRun();
+                    r.history = new ArrayList<>();
+                    for (double[] point : lns != null ? lns.getBestHistory() : scheduler.getBestHistory()) {
+                        r.history.add(new double[]{point[0], -point[1]});
+                    }
+                    results.add(r);
+                    System.out.printf(Locale.ROOT, "%-8s budget=%ss seed=%d profit=%.2f penalty=%.2f evals/s=%.0f gens=%d%n",
+                            r.instance, format(budget), seed, r.profit, r.penalty, r.evalsPerSecond, r.generations);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 为每个算例确定目标利润并计算达到目标的时间：
+     * 目标取基线（没有基线时取本次结果）中该算例最大预算下利润的中位数
+     */
+    public static void computeTimeToTarget(List<RunResult> results, List<RunResult> baseline) {
+        Map<String, Double> targets = new LinkedHashMap<>();
+        List<RunResult> reference = baseline == null || baseline.isEmpty() ? results : baseline;
+        Map<String, Double> largestBudget = new LinkedHashMap<>();
+        for (RunResult r : reference) {
+            largestBudget.merge(r.instance, r.budgetSeconds, Math::max);
+        }
+        for (Map.Entry<String, Double> e : largestBudget.entrySet()) {
+            List<Double> profits = new ArrayList<>();
+            for (RunResult r : reference) {
+                if (r.instance.equals(e.getKey()) && r.budgetSeconds == e.getValue()) profits.add(r.profit);
+            }
+            targets.put(e.getKey(), median(toArray(profits)));
+        }
+        for (RunResult r : results) {
+            Double target = targets.get(r.instance);
+            if (target == null || r.history == null) continue;
+            r.target = target;
+            for (double[] point : r.history) {
+                if (point[1] >= target) {
+                    r.timeToTarget = point[0];
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 逐组与基线比较；只比较两边都有的组
+     */
+    public static List<Comparison> compare(List<RunResult> current, List<RunResult> baseline, double alpha, double tolerance) {
+        Map<String, List<RunResult>> now = groupBy(current);
+        Map<String, List<RunResult>> before = groupBy(baseline);
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, List<RunResult>> e : now.entrySet()) {
+            List<RunResult> old = before.get(e.getKey());
+            if (old == null) continue;
+            Comparison c = new Comparison();
+            c.group = e.getKey();
+            double[] profits = profits(e.getValue());
+            double[] oldProfits = profits(old);
+            c.medianProfit = median(profits);
+            c.baselineMedianProfit = median(oldProfits);
+            c.pValue = MannWhitney.pLess(profits, oldProfits);
+            c.regression = c.pValue < alpha
+                    && c.medianProfit < c.baselineMedianProfit - tolerance * Math.abs(c.baselineMedianProfit);
+
+            double[] rates = evalRates(e.getValue());
+            double[] oldRates = evalRates(old);
+            c.medianEvalsPerSecond = median(rates);
+            c.baselineMedianEvalsPerSecond = median(oldRates);
+            c.slower = MannWhitney.pLess(rates, oldRates) < alpha
+                    && c.medianEvalsPerSecond < 0.95 * c.baselineMedianEvalsPerSecond;
+            comparisons.add(c);
+        }
+        return comparisons;
+    }
+
+    public static void writeResults(List<RunResult> results, String filePath) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            w.write(String.join(",", COLUMNS));
+            w.write('\n');
+            for (RunResult r : results) {
+                w.write(r.instance + "," + r.pieces + "," + format(r.budgetSeconds) + "," + r.seed + ","
+                        + format(r.profit) + "," + format(r.penalty) + "," + format(r.target) + ","
+                        + format(r.timeToTarget) + "," + r.evaluations + "," + format(r.evalsPerSecond) + ","
+                        + format(r.cpuSeconds) + "," + r.generations);
+                w.write('\n');
+            }
+        }
+    }
+
+    /**
+     * 读取结果文件（列顺序以表头为准，缺少的列取默认值）
+     */
+    public static List<RunResult> readResults(String filePath) throws IOException {
+        List<RunResult> results = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            String header = br.readLine();
+            if (header == null) return results;
+            List<String> names = Arrays.asList(header.trim().split(","));
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                String[] parts = line.split(",", -1);
+                RunResult r = new RunResult();
+                r.instance = field(parts, names, "instance");
+                r.pieces = (int) number(parts, names, "pieces");
+                r.budgetSeconds = number(parts, names, "budgetSeconds");
+                r.seed = (long) number(parts, names, "seed");
+                r.profit = number(parts, names, "profit");
+                r.penalty = number(parts, names, "penalty");
+                r.target = number(parts, names, "target");
+                r.timeToTarget = number(parts, names, "timeToTarget");
+                r.evaluations = (long) number(parts, names, "evaluations");
+                r.evalsPerSecond = number(parts, names, "evalsPerSecond");
+                r.cpuSeconds = number(parts, names, "cpuSeconds");
+                r.generations = (int) number(parts, names, "generations");
+                results.add(r);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 打印记分板：每组的利润、达到目标时间、吞吐，以及与基线的比较
+     */
+    public static void printScoreboard(List<RunResult> results, List<Comparison> comparisons) {
+        Map<String, Comparison> byGroup = new LinkedHashMap<>();
+        for (Comparison c : comparisons) byGroup.put(c.group, c);
+
+        System.out.println("\n=== 质量基准记分板 ===");
+        System.out.printf("%-16s | %4s | %12s | %12s | %9s | %10s | %8s | %s%n",
+                "Group", "Runs", "MedProfit", "BaseProfit", "p", "MedTTT(s)", "Evals/s", "Verdict");
+        System.out.println("------------------------------------------------------------------------------------------------");
+        for (Map.Entry<String, List<RunResult>> e : groupBy(results).entrySet()) {
+            List<RunResult> runs = e.getValue();
+            List<Double> ttt = new ArrayList<>();
+            for (RunResult r : runs) {
+                ttt.add(Double.isNaN(r.timeToTarget) ? Double.POSITIVE_INFINITY : r.timeToTarget);
+            }
+            double medianTtt = median(toArray(ttt));
+            Comparison c = byGroup.get(e.getKey());
+            String verdict = c == null ? "无基线" : c.regression ? "❌ 回归" : c.slower ? "⚠️ 吞吐下降" : "✅";
+            System.out.printf(Locale.ROOT, "%-16s | %4d | %12.2f | %12s | %9s | %10s | %8.0f | %s%n",
+                    e.getKey(), runs.size(), median(profits(runs)),
+                    c == null ? "-" : String.format(Locale.ROOT, "%.2f", c.baselineMedianProfit),
+                    c == null ? "-" : String.format(Locale.ROOT, "%.4f", c.pValue),
+                    Double.isInfinite(medianTtt) ? "未达到" : String.format(Locale.ROOT, "%.2f", medianTtt),
+                    median(evalRates(runs)), verdict);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<InstanceGenerator.Tier> tiers = Arrays.asList(InstanceGenerator.Tier.TINY, InstanceGenerator.Tier.SMALL);
+        int seeds = 5;
+        double[] budgets = {2, 5};
+        String out = "quality-results.csv";
+        String baselineFile = null;
+        double alpha = 0.05;
+        double tolerance = 0.005;
+        String algorithm = "ga";
+        for (String arg : args) {
+            if (arg.startsWith("--tiers=")) {
+                tiers = new ArrayList<>();
+                for (String t : arg.substring("--tiers=".length()).split(",")) {
+                    tiers.add(InstanceGenerator.Tier.valueOf(t.trim().toUpperCase()));
+                }
+            } else if (arg.startsWith("--seeds=")) {
+                seeds = Integer.parseInt(arg.substring("--seeds=".length()));
+            } else if (arg.startsWith("--budgets=")) {
+                String[] parts = arg.substring("--budgets=".length()).split(",");
+                budgets = new double[parts.length];
+                for (int i = 0; i < parts.length; i++) budgets[i] = Double.parseDouble(parts[i].trim());
+            } else if (arg.startsWith("--out=")) {
+                out = arg.substring("--out=".length());
+            } else if (arg.startsWith("--baseline=")) {
+                baselineFile = arg.substring("--baseline=".length());
+            } else if (arg.startsWith("--alpha=")) {
+                alpha = Double.parseDouble(arg.substring("--alpha=".length()));
+            } else if (arg.startsWith("--tolerance=")) {
+                tolerance = Double.parseDouble(arg.substring("--tolerance=".length()));
+            } else if (arg.startsWith("--algorithm=")) {
+                algorithm = arg.substring("--algorithm=".length());
+            } else {
+                System.err.println("未知参数: " + arg);
+                System.exit(2);
+            }
+        }
+
+        List<RunResult> baseline = baselineFile == null ? new ArrayList<>() : readResults(baselineFile);
+        List<RunResult> results = run(tiers, seeds, budgets, algorithm);
+        computeTimeToTarget(results, baseline);
+        writeResults(results, out);
+        System.out.println("结果已写入: " + out);
+
+        List<Comparison> comparisons = compare(results, baseline, alpha, tolerance);
+        printScoreboard(results, comparisons);
+        for (Comparison c : comparisons) {
+            if (c.regression) {
+                System.err.printf(Locale.ROOT, "质量回归: %s 利润中位数 %.2f < 基线 %.2f (p=%.4f)%n",
+                        c.group, c.medianProfit, c.baselineMedianProfit, c.pValue);
+            }
+        }
+        if (comparisons.stream().anyMatch(c -> c.regression)) {
+            System.exit(1);
+        }
+    }
+
+    // ---------- 辅助 ----------
+
+    private static Map<String, List<RunResult>> groupBy(List<RunResult> results) {
+        Map<String, List<RunResult>> groups = new LinkedHashMap<>();
+        for (RunResult r : results) {
+            groups.computeIfAbsent(r.group(), k -> new ArrayList<>()).add(r);
+        }
+        return groups;
+    }
+
+    private static double[] profits(List<RunResult> runs) {
+        double[] v = new double[runs.size()];
+        for (int i = 0; i < v.length; i++) v[i] = runs.get(i).profit;
+        return v;
+    }
+
+    private static double[] evalRates(List<RunResult> runs) {
+        double[] v = new double[runs.size()];
+        for (int i = 0; i < v.length; i++) v[i] = runs.get(i).evalsPerSecond;
+        return v;
+    }
+
+    private static double[] toArray(List<Double> values) {
+        double[] v = new double[values.size()];
+        for (int i = 0; i < v.length; i++) v[i] = values.get(i);
+        return v;
+    }
+
+    static double median(double[] values) {
+        if (values.length == 0) return Double.NaN;
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2.0;
+    }
+
+    private static String format(double v) {
+        if (Double.isNaN(v)) return "";
+        if (v == Math.rint(v) && Math.abs(v) < 1e15) return Long.toString((long) v);
+        return String.format(Locale.ROOT, "%.4f", v);
+    }
+
+    private static String field(String[] parts, List<String> names, String name) {
+        int i = names.indexOf(name);
+        return i >= 0 && i < parts.length ? parts[i].trim() : "";
+    }
+
+    private static double number(String[] parts, List<String> names, String name) {
+        String s = field(parts, names, name);
+        return s.isEmpty() ? Double.NaN : Double.parseDouble(s);
+    }
+}
@@ -0,0 +1,82 @@
+package com.smartfactory;
+
+import com.smartfactory.util.InstanceGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * QualityBenchmark 的单元测试：限时运行、结果文件读写、与基线比较的回归判定
+ */
+public class QualityBenchmarkTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static QualityBenchmark.RunResult result(long seed, double profit, double evalsPerSecond) {
+        QualityBenchmark.RunResult r = new QualityBenchmark.RunResult();
+        r.instance = "small";
+        r.pieces = 1000;
+        r.budgetSeconds = 2;
+        r.seed = seed;
+        r.profit = profit;
+        r.evalsPerSecond = evalsPerSecond;
+        return r;
+    }
+
+    @Test(timeout = 60000)
+    public void testTimeLimitedRunsAndResultFile() throws IOException {
+        long start = System.nanoTime();
+        List<QualityBenchmark.RunResult> results = QualityBenchmark.run(
+                Collections.singletonList(InstanceGenerator.Tier.TINY), 2, new double[]{0.3});
+        assertTrue("限时运行不应明显超出预算", (System.nanoTime() - start) / 1e9 < 5.0);
+        assertEquals(2, results.size());
+        QualityBenchmark.computeTimeToTarget(results, null);
+        for (QualityBenchmark.RunResult r : results) {
+            assertEquals(100, r.pieces);
+            assertTrue(r.evaluations > 0);
+            assertTrue(r.generations > 0);
+            assertFalse(Double.isNaN(r.target));
+        }
+        // 目标为两次运行利润的中位数（均值），至少有一次达到
+        assertTrue(results.stream().anyMatch(r -> !Double.isNaN(r.timeToTarget)));
+
+        File file = new File(folder.getRoot(), "results.csv");
+        QualityBenchmark.writeResults(results, file.getPath());
+        List<QualityBenchmark.RunResult> read = QualityBenchmark.readResults(file.getPath());
+        assertEquals(2, read.size());
+        assertEquals(results.get(1).seed, read.get(1).seed);
+        assertEquals(results.get(1).profit, read.get(1).profit, 1e-4);
+        assertEquals(results.get(1).evaluations, read.get(1).evaluations);
+    }
+
+    @Test
+    public void testRegressionDetection() {
+        List<QualityBenchmark.RunResult> baseline = new ArrayList<>();
+        List<QualityBenchmark.RunResult> same = new ArrayList<>();
+        List<QualityBenchmark.RunResult> worse = new ArrayList<>();
+        for (int s = 1; s <= 6; s++) {
+            baseline.add(result(s, 10000 + s * 10, 5000 + s));
+            same.add(result(s, 10005 + s * 10, 5000 + s));
+            worse.add(result(s, 9000 + s * 10, 2000 + s));
+        }
+
+        QualityBenchmark.Comparison ok = QualityBenchmark.compare(same, baseline, 0.05, 0.005).get(0);
+        assertFalse(ok.regression);
+        assertFalse(ok.slower);
+
+        QualityBenchmark.Comparison bad = QualityBenchmark.compare(worse, baseline, 0.05, 0.005).get(0);
+        assertTrue(bad.regression);
+        assertTrue(bad.slower);
+        assertTrue(bad.pValue < 0.01);
+
+        // 显著但小于容差的下降不判回归
+        assertFalse(QualityBenchmark.compare(worse, baseline, 0.05, 0.2).get(0).regression);
+    }
+}
@@ -0,0 +1,77 @@
+package com.smartfactory;
+
+import com.smartfactory.util.MetricsRegistry;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RankedPopulation 的单元测试：最优 / 最差查询、替换与重复判断，以及稳态 GA 的接入
+ */
+public class RankedPopulationTest {
+
+    private static Chromosome individual(double fitness, String... ops) {
+        List<Integer> lines = new ArrayList<>();
+        for (int i = 0; i < ops.length; i++) lines.add(1);
+        Chromosome c = new Chromosome(new ArrayList<>(Arrays.asList(ops)), lines);
+        c.setFitness(fitness);
+        return c;
+    }
+
+    @Test
+    public void testRankingAndReplacement() {
+        Chromosome a = individual(-10, "O1_1", "O2_1");
+        Chromosome b = individual(-30, "O2_1", "O1_1");
+        Chromosome c = individual(-20, "O1_1", "O2_1"); // 与 a 内容相同
+        RankedPopulation population = new RankedPopulation(Arrays.asList(a, b, c));
+        assertSame(b, population.best());
+        assertSame(a, population.worst());
+        assertEquals(2.0 / 3, population.diversity(), 1e-12);
+        assertTrue(population.contains(a.fingerprint()));
+
+        // 替换最差个体；相同适应度按槽位排序，不会互相覆盖
+        Chromosome d = individual(-30, "O2_1", "O2_1");
+        population.replace(population.worstSlot(), d, d.fingerprint());
+        assertEquals(3, population.size());
+        assertSame(c, population.worst());
+        assertTrue(population.contains(a.fingerprint())); // c 仍持有该内容
+        assertEquals(Arrays.asList(d, b, c), population.toSortedList()); // d 占用 a 原来的槽位 0
+
+        population.replace(2, individual(-40, "O1_1", "O1_1"), 42L);
+        assertFalse(population.contains(a.fingerprint()));
+        assertTrue(population.contains(42L));
+        assertEquals(-40, population.best().getFitness(), 0.0);
+        assertEquals(1.0, population.diversity(), 1e-12);
+    }
+
+    @Test(timeout = 60000)
+    public void testSteadyStateGaIsReproducibleAndElitist() {
+        ScheduleData data = TestTool.createData(41L, 80);
+
+        Chromosome[] best = new Chromosome[2];
+        for (int run = 0; run < 2; run++) {
+            GAScheduler scheduler = new GAScheduler(data, 20, 0.8, 0.1, 10);
+            scheduler.setRandomSeed(6L);
+            scheduler.setProgressLogInterval(0);
+            scheduler.setSteadyState(3);
+            best[run] = scheduler.run();
+            assertEquals(best[run].getFitness(), scheduler.getDetailedSchedule(best[run]).totalCost, 1e-6);
+
+            MetricsRegistry metrics = scheduler.getMetrics();
+            long replaced = metrics.counter("ga_steady_state_replacements_total", "").get();
+            long rejected = metrics.counter("ga_steady_state_rejected_total", "").get();
+            assertTrue(replaced > 0);
+            assertEquals(10 * 20, replaced + rejected); // 每代产生一个种群规模的子代
+            // 最优解的改进记录单调不增
+            List<double[]> history = scheduler.getBestHistory();
+            for (int i = 1; i < history.size(); i++) {
+                assertTrue(history.get(i)[1] <= history.get(i - 1)[1]);
+            }
+        }
+        assertEquals(best[0].getOperationSequence(), best[1].getOperationSequence());
+        assertEquals(best[0].getFitness(), best[1].getFitness(), 0.0);
+    }
+}
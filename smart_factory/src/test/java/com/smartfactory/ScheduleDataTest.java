@@ -5,6 +5,9 @@ import static org.junit.Assert.*;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 /**
@@ -96,4 +99,54 @@ public class ScheduleDataTest {
         assertNotNull(data.getOrders());
         assertTrue(data.getOrders().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDefaultLines() {
+        ScheduleData data = new ScheduleData(new ArrayList<>(), new ArrayList<>(), planStartTime);
+
+        assertEquals("未配置产线时应使用默认产线数量", ScheduleData.NUM_LINES, data.getNumLines());
+        assertEquals(1.0, data.getLine(1).getSpeedFactor(), 0.001);
+        assertTrue("默认产线应可生产任意产品", data.getLine(2).canProduce(99));
+    }
+
+    @Test
+    public void testEligibleLinesByProduct() {
+        List<Product> products = new ArrayList<>();
+        products.add(createProduct(1, 4.0));
+        products.add(createProduct(2, 2.0));
+
+        List<ProductionLine> lines = new ArrayList<>();
+        lines.add(new ProductionLine(3, 1.0, new HashSet<>(Collections.singletonList(2))));
+        lines.add(new ProductionLine(1, 2.0, Collections.<Integer>emptySet()));
+        lines.add(new ProductionLine(2, 1.0, new HashSet<>(Arrays.asList(1, 2))));
+
+        ScheduleData data = new ScheduleData(products, new ArrayList<>(), planStartTime, lines);
+
+        assertEquals(3, data.getNumLines());
+        assertEquals("产线应按ID排序", 1, data.getLines().get(0).getId());
+        assertArrayEquals(new int[]{1, 2}, data.getEligibleLines(1));
+        assertArrayEquals(new int[]{1, 2, 3}, data.getEligibleLines(2));
+        // 速度系数 2.0 -> 加工时间减半
+        assertEquals(2 * 3600, data.getLine(1).getProcessingSeconds(products.get(0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testProductWithoutEligibleLine() {
+        List<Product> products = new ArrayList<>();
+        products.add(createProduct(1, 4.0));
+
+        List<ProductionLine> lines = new ArrayList<>();
+        lines.add(new ProductionLine(1, 1.0, new HashSet<>(Collections.singletonList(2))));
+
+        new ScheduleData(products, new ArrayList<>(), planStartTime, lines);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonContiguousLineIds() {
+        List<ProductionLine> lines = new ArrayList<>();
+        lines.add(new ProductionLine(1));
+        lines.add(new ProductionLine(3));
+
+        new ScheduleData(new ArrayList<>(), new ArrayList<>(), planStartTime, lines);
+    }
+}
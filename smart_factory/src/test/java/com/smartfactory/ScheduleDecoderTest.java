@@ -0,0 +1,69 @@
+package com.smartfactory;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * ScheduleDecoder 带阈值评估的单元测试：下界剪枝只剪掉真实适应度大于阈值的解
+ */
+public class ScheduleDecoderTest {
+
+    // 随机序列与随机（可能不合法、需修复的）产线基因
+    private static Chromosome randomChromosome(ScheduleData data, Random random) {
+        List<String> ops = new ArrayList<>();
+        for (Order o : data.getOrders()) {
+            for (int i = 1; i <= o.getQuantity(); i++) ops.add("O" + o.getId() + "_" + i);
+        }
+        Collections.shuffle(ops, random);
+        List<Integer> lines = new ArrayList<>();
+        for (int i = 0; i < ops.size(); i++) lines.add(random.nextInt(data.getNumLines() + 1));
+        return new Chromosome(ops, lines);
+    }
+
+    @Test
+    public void testCutoffNeverPrunesAcceptableSolutions() {
+        Random random = new Random(7L);
+        int pruned = 0;
+        for (long seed = 1; seed <= 4; seed++) {
+            ScheduleData data = TestTool.createData(seed, 150, 4, 3);
+            ScheduleDecoder decoder = new ScheduleDecoder(data);
+            for (int trial = 0; trial < 25; trial++) {
+                Chromosome c = randomChromosome(data, random);
+                if (trial % 5 == 0) {
+                    // 部分解：缺件的订单不会完工，也不计罚款
+                    int keep = random.nextInt(c.getOperationSequence().size());
+                    c = new Chromosome(new ArrayList<>(c.getOperationSequence().subList(0, keep)),
+                            new ArrayList<>(c.getMachineAssignment().subList(0, keep)));
+                }
+                double exact = decoder.evaluate(c);
+                assertEquals(exact, decoder.evaluate(c, Double.POSITIVE_INFINITY), 0.0);
+                assertEquals(exact, decoder.evaluate(c, exact), 0.0);
+                assertEquals(exact, decoder.evaluate(c, exact + 1.0), 0.0);
+                for (double gap : new double[]{1e-3, 0.01, 0.1, 0.5}) {
+                    double cutoff = exact - Math.abs(exact) * gap - 1.0;
+                    double cost = decoder.evaluate(c, cutoff);
+                    assertTrue(cost == exact || cost == Double.POSITIVE_INFINITY);
+                    if (cost == Double.POSITIVE_INFINITY) pruned++;
+                }
+            }
+        }
+        assertTrue("阈值远低于真实成本时应能提前终止", pruned > 100);
+    }
+
+    @Test
+    public void testCutoffPrunesClearlyWorseSolutionEarly() {
+        ScheduleData data = TestTool.createData(9L, 400, 4, 4);
+        ScheduleDecoder decoder = new ScheduleDecoder(data);
+        Chromosome good = new LNSScheduler(data, 0).construct();
+        Chromosome bad = randomChromosome(data, new Random(3L));
+        double goodCost = decoder.evaluate(good);
+        assertTrue(decoder.evaluate(bad) > goodCost);
+        assertEquals(Double.POSITIVE_INFINITY, decoder.evaluate(bad, goodCost), 0.0);
+        assertEquals(goodCost, decoder.evaluate(good, goodCost), 0.0);
+    }
+}
@@ -0,0 +1,99 @@
+package com.smartfactory;
+
+import com.smartfactory.util.Job;
+import com.smartfactory.util.ScheduleExporter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * ScheduleExporter 的单元测试：CSV / JSON Lines 内容、时间格式与 gzip 输出
+ */
+public class ScheduleExporterTest {
+    private final LocalDateTime base = LocalDateTime.of(2025, 12, 12, 8, 0);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private GAScheduler.ScheduleResult createResult() {
+        List<Job> jobs = new ArrayList<>();
+        jobs.add(new Job("O7_1", 1, 2, base, base.plusHours(2), 1.5, 300.0));
+        jobs.add(new Job("O7_2", 1, 2, base.plusHours(2), base.plusHours(4).plusSeconds(5), 1.5, 0.0));
+        Map<Integer, LocalDateTime> completionTimes = new HashMap<>();
+        completionTimes.put(7, base.plusHours(4).plusSeconds(5));
+        return new GAScheduler.ScheduleResult(-700.0, 100.0, jobs, completionTimes);
+    }
+
+    private List<Order> createOrders() {
+        List<Order> orders = new ArrayList<>();
+        orders.add(new Order(7, 1, 2, 1000.0, base, base.minusHours(1)));          // 截止 08:00，完成于 12:00 -> 延误
+        orders.add(new Order(8, 2, 1, 333.3333, base.plusDays(1), base.minusHours(1))); // 未排程
+        return orders;
+    }
+
+    private static String[] lines(ByteArrayOutputStream out) {
+        return new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+    }
+
+    @Test
+    public void testJobsCsv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ScheduleExporter.exportJobs(createResult(), out, ScheduleExporter.Format.CSV, null);
+        String[] lines = lines(out);
+        assertEquals(3, lines.length);
+        assertEquals("operationId,orderId,piece,productId,line,start,end,costCoefficient,baseCost,free", lines[0]);
+        assertEquals("O7_1,7,1,1,2,2025-12-12T08:00:00,2025-12-12T10:00:00,1.5,300,false", lines[1]);
+        assertEquals("O7_2,7,2,1,2,2025-12-12T10:00:00,2025-12-12T12:00:05,1.5,0,true", lines[2]);
+    }
+
+    @Test
+    public void testOrdersJsonlWithEpochSeconds() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ScheduleExporter.exportOrders(createResult(), createOrders(), out, ScheduleExporter.Format.JSONL, ZoneOffset.UTC);
+        String[] lines = lines(out);
+        assertEquals(2, lines.length);
+        long deadline = base.toEpochSecond(ZoneOffset.UTC);
+        long completion = base.plusHours(4).plusSeconds(5).toEpochSecond(ZoneOffset.UTC);
+        assertEquals("{\"orderId\":7,\"productId\":1,\"quantity\":2,\"totalValue\":1000,\"deadline\":" + deadline
+                + ",\"completion\":" + completion + ",\"late\":true,\"penalty\":100}", lines[0]);
+        assertEquals("{\"orderId\":8,\"productId\":2,\"quantity\":1,\"totalValue\":333.3333,\"deadline\":"
+                + base.plusDays(1).toEpochSecond(ZoneOffset.UTC) + ",\"completion\":null,\"late\":false,\"penalty\":0}", lines[1]);
+    }
+
+    @Test
+    public void testGzipFileByExtension() throws IOException {
+        File file = new File(folder.getRoot(), "jobs.jsonl.gz");
+        ScheduleExporter.exportJobs(createResult(), file.getPath(), null);
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file.toPath())), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) lines.add(line);
+        }
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1), lines.get(1).startsWith("{\"operationId\":\"O7_2\",\"orderId\":7,\"piece\":2,"));
+        assertTrue(lines.get(1), lines.get(1).contains("\"start\":\"2025-12-12T10:00:00\""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownExtension() throws IOException {
+        ScheduleExporter.exportJobs(createResult(), new File(folder.getRoot(), "jobs.txt").getPath(), null);
+    }
+}
@@ -0,0 +1,134 @@
+package com.smartfactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SchedulingService 的集成测试：提交、SSE 进度、结果下载、实例缓存、取消与并发负载
+ */
+public class SchedulingServiceTest {
+    private SchedulingService service;
+    private String baseUrl;
+
+    @Before
+    public void setUp() throws Exception {
+        service = new SchedulingService(0, 2, 4, 8);
+        service.start();
+        baseUrl = "http://127.0.0.1:" + service.getPort();
+    }
+
+    @After
+    public void tearDown() {
+        service.stop();
+    }
+
+    private static String idOf(String json) {
+        Matcher m = Pattern.compile("\"id\": \"([^\"]+)\"").matcher(json);
+        assertTrue(json, m.find());
+        return m.group(1);
+    }
+
+    @Test(timeout = 30000)
+    public void testSubmitStreamAndDownload() throws Exception {
+        byte[] payload = ServiceLoadBenchmark.generatePayloads(1, 40).get(0);
+        String query = "/jobs?generations=5&population=10&seed=7&" + ServiceLoadBenchmark.planStartParam();
+
+        ServiceLoadBenchmark.Response first = ServiceLoadBenchmark.request("POST", baseUrl + query, payload);
+        assertEquals(first.body, 202, first.status);
+        assertTrue(first.body.contains("\"instanceCached\": false"));
+        String done = ServiceLoadBenchmark.awaitDone(baseUrl, idOf(first.body));
+        assertTrue(done, done.contains("\"state\": \"done\""));
+        assertTrue(done, done.contains("\"pieces\": 40"));
+
+        ServiceLoadBenchmark.Response csv = ServiceLoadBenchmark.request("GET",
+                baseUrl + "/jobs/" + idOf(first.body) + "/result?format=csv", null);
+        assertEquals(200, csv.status);
+        assertTrue(csv.body.startsWith("operationId,orderId,piece"));
+        assertEquals(1 + 40, csv.body.split("\n").length);
+
+        // 相同请求体复用已编译的实例；同一种子得到相同的利润
+        ServiceLoadBenchmark.Response second = ServiceLoadBenchmark.request("POST", baseUrl + query, payload);
+        assertTrue(second.body.contains("\"instanceCached\": true"));
+        String done2 = ServiceLoadBenchmark.awaitDone(baseUrl, idOf(second.body));
+        assertEquals(profitOf(done), profitOf(done2));
+        assertEquals(1, service.getMetrics().counter("service_instance_cache_hits_total", "").get());
+
+        String metrics = ServiceLoadBenchmark.request("GET", baseUrl + "/metrics", null).body;
+        assertTrue(metrics.contains("service_jobs_completed_total 2"));
+        assertTrue(metrics.contains("ga_generations_total 10"));
+    }
+
+    @Test(timeout = 30000)
+    public void testBadRequestsAndCancel() throws Exception {
+        byte[] bad = "[products]\n1,abc\n[orders]\n".getBytes(StandardCharsets.UTF_8);
+        assertEquals(400, ServiceLoadBenchmark.request("POST", baseUrl + "/jobs", bad).status);
+        byte[] noHeader = "1,2.0\n".getBytes(StandardCharsets.UTF_8);
+        assertEquals(400, ServiceLoadBenchmark.request("POST", baseUrl + "/jobs", noHeader).status);
+        assertEquals(404, ServiceLoadBenchmark.request("GET", baseUrl + "/jobs/999", null).status);
+
+        byte[] payload = ServiceLoadBenchmark.generatePayloads(1, 40).get(0);
+        ServiceLoadBenchmark.Response r = ServiceLoadBenchmark.request("POST",
+                baseUrl + "/jobs?generations=1000000&population=10&" + ServiceLoadBenchmark.planStartParam(), payload);
+        String id = idOf(r.body);
+        assertEquals(409, ServiceLoadBenchmark.request("GET", baseUrl + "/jobs/" + id + "/result", null).status);
+        assertEquals(202, ServiceLoadBenchmark.request("DELETE", baseUrl + "/jobs/" + id, null).status);
+        String done = ServiceLoadBenchmark.awaitDone(baseUrl, id);
+        assertTrue(done, done.contains("\"state\": \"cancelled\""));
+        // 取消后仍可取得已找到的最优解
+        assertEquals(200, ServiceLoadBenchmark.request("GET", baseUrl + "/jobs/" + id + "/result", null).status);
+    }
+
+    @Test(timeout = 30000)
+    public void testCancelQueuedJobFinishesImmediately() throws Exception {
+        byte[] payload = ServiceLoadBenchmark.generatePayloads(1, 40).get(0);
+        String longRun = "/jobs?generations=1000000&population=10&" + ServiceLoadBenchmark.planStartParam();
+        // 两个工作线程都被长任务占用，第三个任务在队列中等待
+        String[] running = new String[2];
+        for (int i = 0; i < running.length; i++) {
+            running[i] = idOf(ServiceLoadBenchmark.request("POST", baseUrl + longRun, payload).body);
+        }
+        String queued = idOf(ServiceLoadBenchmark.request("POST", baseUrl + longRun, payload).body);
+        String status = ServiceLoadBenchmark.request("GET", baseUrl + "/jobs/" + queued, null).body;
+        assertTrue(status, status.contains("\"state\": \"queued\""));
+
+        ServiceLoadBenchmark.Response cancelled = ServiceLoadBenchmark.request("DELETE", baseUrl + "/jobs/" + queued, null);
+        assertEquals(202, cancelled.status);
+        assertTrue(cancelled.body, cancelled.body.contains("\"state\": \"cancelled\""));
+        // 事件流立即以 done 结束，结果接口返回最终状态而不是"未结束"
+        String done = ServiceLoadBenchmark.awaitDone(baseUrl, queued);
+        assertTrue(done, done.contains("\"state\": \"cancelled\""));
+        ServiceLoadBenchmark.Response result = ServiceLoadBenchmark.request("GET", baseUrl + "/jobs/" + queued + "/result", null);
+        assertEquals(410, result.status);
+        assertTrue(result.body, result.body.contains("\"state\": \"cancelled\""));
+
+        for (String id : running) {
+            assertEquals(202, ServiceLoadBenchmark.request("DELETE", baseUrl + "/jobs/" + id, null).status);
+            ServiceLoadBenchmark.awaitDone(baseUrl, id);
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testConcurrentLoadWithBackpressure() throws Exception {
+        List<byte[]> payloads = ServiceLoadBenchmark.generatePayloads(3, 30);
+        String query = "generations=5&population=10&" + ServiceLoadBenchmark.planStartParam();
+        // 8 个客户端对 2 个工作线程 + 4 个队列位：部分请求会收到 503 并重试
+        ServiceLoadBenchmark.LoadResult r = ServiceLoadBenchmark.run(baseUrl, 8, 40, payloads, query);
+        assertEquals(40, r.completed);
+        assertEquals(0, r.failed);
+        assertTrue(r.throughput > 0);
+        assertEquals(3, service.getMetrics().counter("service_instance_cache_misses_total", "").get());
+    }
+
+    private static String profitOf(String statusJson) {
+        Matcher m = Pattern.compile("\"bestProfit\": ([^,]+)").matcher(statusJson);
+        assertTrue(statusJson, m.find());
+        return m.group(1);
+    }
+}
@@ -0,0 +1,286 @@
+package com.smartfactory;
+
+import com.smartfactory.util.InstanceGenerator;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 调度服务的负载测试：多个客户端并发提交小规模排程请求，通过 SSE 等待完成，
+ * 统计持续吞吐（任务/秒）与端到端延迟分位数。请求体在少量合成算例之间轮换，以覆盖实例缓存命中。
+ * 服务返回 503（队列已满）时客户端退避后重试，重试次数单独统计。
+ *
+ * 负载测试属于测试代码，不打入发布的 jar；先 mvn -B test-compile，再在 smart_factory 目录下运行：
+ *   java -cp target/classes:target/test-classes com.smartfactory.ServiceLoadBenchmark [--url=http://127.0.0.1:8080]（缺省在进程内启动服务）
+ *        [--clients=8] [--requests=400] [--instances=4] [--pieces=100] [--generations=20] [--population=20]
+ *        [--workers=CPU 核数] [--queue=16] [--warmup=40]
+ */
+public class ServiceLoadBenchmark {
+    private static final Pattern ID = Pattern.compile("\"id\": \"([^\"]+)\"");
+    private static final long RETRY_BACKOFF_MILLIS = 20;
+
+    /**
+     * 一次负载测试的结果
+     */
+    public static class LoadResult {
+        public int completed;
+        public int failed;
+        public long rejections;          // 收到 503 的次数（随后已重试）
+        public double seconds;
+        public double throughput;        // 完成任务数 / 秒
+        public double[] latencySeconds;  // 已排序的端到端延迟
+
+        public double percentile(double p) {
+            if (latencySeconds.length == 0) return Double.NaN;
+            int idx = (int) Math.ceil(p * latencySeconds.length) - 1;
+            return latencySeconds[Math.max(0, Math.min(latencySeconds.length - 1, idx))];
+        }
+    }
+
+    /**
+     * 以 clients 个并发客户端共提交 requests 个任务（依次轮换使用 payloads）
+     */
+    public static LoadResult run(String baseUrl, int clients, int requests, List<byte[]> payloads, String query)
+            throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong rejections = new AtomicLong();
+        double[] latency = new double[requests];
+        boolean[] ok = new boolean[requests];
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    long t0 = System.nanoTime();
+                    try {
+                        String id = submit(baseUrl, payloads.get(i % payloads.size()), query, rejections);
+                        if (awaitDone(baseUrl, id).contains("\"state\": \"done\"")) {
+                            latency[i] = (System.nanoTime() - t0) / 1e9;
+                            ok[i] = true;
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        failed.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (java.util.concurrent.ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        pool.shutdown();
+
+        LoadResult result = new LoadResult();
+        result.seconds = (System.nanoTime() - start) / 1e9;
+        List<Double> done = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            if (ok[i]) done.add(latency[i]);
+        }
+        result.completed = done.size();
+        result.failed = failed.get();
+        result.rejections = rejections.get();
+        result.throughput = result.completed / result.seconds;
+        result.latencySeconds = new double[done.size()];
+        for (int i = 0; i < done.size(); i++) result.latencySeconds[i] = done.get(i);
+        Arrays.sort(result.latencySeconds);
+        return result;
+    }
+
+    // 提交任务，队列已满时退避重试，返回任务 ID
+    private static String submit(String baseUrl, byte[] payload, String query, AtomicLong rejections)
+            throws IOException, InterruptedException {
+        while (true) {
+            Response r = request("POST", baseUrl + "/jobs?" + query, payload);
+            if (r.status == 202) {
+                Matcher m = ID.matcher(r.body);
+                if (!m.find()) throw new IOException("响应中没有任务 ID: " + r.body);
+                return m.group(1);
+            }
+            if (r.status != 503) throw new IOException("提交失败 " + r.status + ": " + r.body);
+            rejections.incrementAndGet();
+            Thread.sleep(RETRY_BACKOFF_MILLIS);
+        }
+    }
+
+    /**
+     * 读取任务的 SSE 流直到 done 事件，返回 done 事件的数据（最终状态 JSON）
+     */
+    static String awaitDone(String baseUrl, String id) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(baseUrl + "/jobs/" + id + "/events").openConnection();
+        conn.setReadTimeout(120_000);
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            boolean done = false;
+            while ((line = in.readLine()) != null) {
+                if (line.equals("event: done")) {
+                    done = true;
+                } else if (done && line.startsWith("data: ")) {
+                    return line.substring("data: ".length());
+                }
+            }
+            throw new IOException("事件流在 done 之前结束");
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    /**
+     * HTTP 响应（状态码与 UTF-8 正文）
+     */
+    static class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    static Response request(String method, String url, byte[] body) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        conn.setRequestMethod(method);
+        if (body != null) {
+            conn.setDoOutput(true);
+            conn.setRequestProperty("Content-Type", "text/plain; charset=utf-8");
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(body);
+            }
+        }
+        int status = conn.getResponseCode();
+        InputStream in = status >= 400 ? conn.getErrorStream() : conn.getInputStream();
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream s = in) {
+                byte[] chunk = new byte[8192];
+                int n;
+                while ((n = s.read(chunk)) > 0) buf.write(chunk, 0, n);
+            }
+        }
+        conn.disconnect();
+        return new Response(status, new String(buf.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 用 InstanceGenerator 生成 count 个不同种子的算例，拼成服务的分节请求体
+     */
+    static List<byte[]> generatePayloads(int count, int pieces) throws IOException {
+        List<byte[]> payloads = new ArrayList<>(count);
+        File dir = Files.createTempDirectory("load-payload").toFile();
+        try {
+            for (int k = 0; k < count; k++) {
+                InstanceGenerator.Config config = new InstanceGenerator.Config();
+                config.seed = k + 1;
+                config.pieces = pieces;
+                config.products = 3;
+                InstanceGenerator.write(config, dir);
+                StringBuilder sb = new StringBuilder();
+                for (String section : new String[]{"products", "orders", "lines"}) {
+                    sb.append('[').append(section).append("]\n");
+                    sb.append(new String(Files.readAllBytes(new File(dir, section + ".csv").toPath()), StandardCharsets.UTF_8));
+                }
+                payloads.add(sb.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        } finally {
+            for (File f : dir.listFiles()) f.delete();
+            dir.delete();
+        }
+        return payloads;
+    }
+
+    /**
+     * 生成算例对应的 planStart 查询参数（与 InstanceGenerator 的默认基准时间一致）
+     */
+    static String planStartParam() {
+        return "planStart=" + new InstanceGenerator.Config().planStart;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        int clients = 8;
+        int requests = 400;
+        int instances = 4;
+        int pieces = 100;
+        int generations = 20;
+        int population = 20;
+        int workers = Runtime.getRuntime().availableProcessors();
+        int queue = 16;
+        int warmup = 40;
+        for (String arg : args) {
+            String value = arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : "";
+            if (arg.startsWith("--url=")) url = value;
+            else if (arg.startsWith("--clients=")) clients = Integer.parseInt(value);
+            else if (arg.startsWith("--requests=")) requests = Integer.parseInt(value);
+            else if (arg.startsWith("--instances=")) instances = Integer.parseInt(value);
+            else if (arg.startsWith("--pieces=")) pieces = Integer.parseInt(value);
+            else if (arg.startsWith("--generations=")) generations = Integer.parseInt(value);
+            else if (arg.startsWith("--population=")) population = Integer.parseInt(value);
+            else if (arg.startsWith("--workers=")) workers = Integer.parseInt(value);
+            else if (arg.startsWith("--queue=")) queue = Integer.parseInt(value);
+            else if (arg.startsWith("--warmup=")) warmup = Integer.parseInt(value);
+            else {
+                System.err.println("未知参数: " + arg);
+                System.exit(2);
+            }
+        }
+
+        SchedulingService service = null;
+        if (url == null) {
+            service = new SchedulingService(0, workers, queue, Math.max(1, instances));
+            service.start();
+            url = "http://127.0.0.1:" + service.getPort();
+        }
+        try {
+            List<byte[]> payloads = generatePayloads(instances, pieces);
+            String query = "generations=" + generations + "&population=" + population + "&" + planStartParam();
+            if (warmup > 0) {
+                run(url, clients, warmup, payloads, query); // 预热 JIT 与实例缓存，不计入结果
+            }
+            LoadResult r = run(url, clients, requests, payloads, query);
+            System.out.printf("客户端 %d, 请求 %d（%d 个不同算例，每个 %d 件，%d 代 × 种群 %d）%n",
+                    clients, requests, instances, pieces, generations, population);
+            System.out.printf("完成 %d, 失败 %d, 503 重试 %d, 用时 %.2fs, 吞吐 %.1f 任务/秒%n",
+                    r.completed, r.failed, r.rejections, r.seconds, r.throughput);
+            System.out.printf("延迟 p50 %.3fs, p95 %.3fs, p99 %.3fs, max %.3fs%n",
+                    r.percentile(0.50), r.percentile(0.95), r.percentile(0.99), r.percentile(1.0));
+            if (r.failed > 0) {
+                System.exit(1);
+            }
+        } finally {
+            if (service != null) {
+                service.stop();
+            }
+        }
+    }
+}
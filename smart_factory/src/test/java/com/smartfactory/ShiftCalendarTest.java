@@ -0,0 +1,117 @@
+package com.smartfactory;
+
+import com.smartfactory.util.DataLoader;
+import com.smartfactory.util.ShiftCalendar;
+import com.smartfactory.util.SlotCostTable;
+import com.smartfactory.util.TimeCostUtil;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * ShiftCalendar / SlotCostTable 的单元测试
+ * 验证默认日历与原有班次规则一致，以及周末、节假日倍率和成本表查询
+ */
+public class ShiftCalendarTest {
+
+    // 2025-11-26 是周三
+    private final LocalDateTime wednesday8AM = LocalDateTime.of(2025, 11, 26, 8, 0);
+
+    @Test
+    public void testDefaultCalendarMatchesTimeCostUtil() {
+        ShiftCalendar calendar = ShiftCalendar.defaultCalendar();
+        LocalDateTime t = wednesday8AM.toLocalDate().atStartOfDay();
+        // 逐分钟比对一整天
+        for (int m = 0; m < 24 * 60; m++) {
+            LocalDateTime time = t.plusMinutes(m);
+            assertEquals("时间 " + time.toLocalTime() + " 的系数不一致",
+                    TimeCostUtil.getCostCoefficient(time), calendar.getCoefficient(time), 0.001);
+        }
+        assertEquals(TimeCostUtil.BASE_PAY_4_HOURS, calendar.getBasePay(), 0.001);
+    }
+
+    @Test
+    public void testDefaultCalendarIsNotShared() {
+        ShiftCalendar modified = ShiftCalendar.defaultCalendar();
+        modified.setBasePay(1.0);
+        modified.addShift(8 * 60, 16 * 60, 9.0, "改");
+        ShiftCalendar fresh = ShiftCalendar.defaultCalendar();
+        assertNotSame(modified, fresh);
+        assertEquals(TimeCostUtil.BASE_PAY_4_HOURS, fresh.getBasePay(), 0.001);
+        assertEquals(1.0, fresh.getCoefficient(wednesday8AM), 0.001);
+        assertEquals("白班", fresh.getShiftName(wednesday8AM));
+    }
+
+    @Test
+    public void testShiftNames() {
+        ShiftCalendar calendar = ShiftCalendar.defaultCalendar();
+        assertEquals("白班", calendar.getShiftName(wednesday8AM));
+        assertEquals("晚班", calendar.getShiftName(wednesday8AM.withHour(16)));
+        assertEquals("夜班", calendar.getShiftName(wednesday8AM.withHour(0)));
+        assertEquals("深夜", calendar.getShiftName(wednesday8AM.withHour(4)));
+    }
+
+    @Test
+    public void testWeekendAndHolidayMultipliers() {
+        ShiftCalendar calendar = new ShiftCalendar(100.0);
+        calendar.addShift(8 * 60, 16 * 60, 1.0, "白班");
+        calendar.addShift(22 * 60, 6 * 60, 2.0, "夜班"); // 跨午夜
+        calendar.setDayMultiplier(DayOfWeek.SATURDAY, 1.5);
+        calendar.addHoliday(LocalDate.of(2025, 11, 27), 3.0);
+
+        assertEquals(100.0, calendar.getBlockCost(wednesday8AM), 0.001);
+        assertEquals("跨午夜时段应生效", 2.0, calendar.getCoefficient(wednesday8AM.withHour(23)), 0.001);
+        assertEquals("跨午夜时段应生效", 2.0, calendar.getCoefficient(wednesday8AM.withHour(5)), 0.001);
+        assertEquals("未配置时段默认为1.0", 1.0, calendar.getCoefficient(wednesday8AM.withHour(18)), 0.001);
+        assertEquals("节假日倍率", 300.0, calendar.getBlockCost(wednesday8AM.plusDays(1)), 0.001);
+        assertEquals("周六倍率", 1.5, calendar.getCoefficient(wednesday8AM.plusDays(3)), 0.001);
+        assertEquals("周日无倍率", 1.0, calendar.getCoefficient(wednesday8AM.plusDays(4)), 0.001);
+    }
+
+    @Test
+    public void testSlotCostTable() {
+        ShiftCalendar calendar = ShiftCalendar.defaultCalendar();
+        long block = 4 * 3600;
+        SlotCostTable table = calendar.buildSlotTable(wednesday8AM, block, 6);
+
+        assertEquals(6, table.size());
+        double[] expected = {200.0, 200.0, 240.0, 300.0, 300.0, 400.0}; // 8,12,16,20,0,4 点
+        for (int k = 0; k < expected.length; k++) {
+            assertEquals("第 " + k + " 个块", expected[k], table.costAt(k * block), 0.001);
+        }
+        // 块内任意时刻都返回所属块的成本
+        assertEquals(240.0, table.costAt(2 * block + 3600), 0.001);
+        // 超出预计算范围时回退到日历计算
+        assertEquals(200.0, table.costAt(6 * block), 0.001);
+        assertEquals(1.2, table.coefficientAt(8 * block), 0.001);
+    }
+
+    @Test
+    public void testLoadCalendar() throws IOException {
+        File file = File.createTempFile("calendar", ".csv");
+        file.deleteOnExit();
+        Files.write(file.toPath(), Arrays.asList(
+                "type, value...",
+                "base, 150",
+                "shift, 08:00, 16:00, 1.0, 白班",
+                "shift, 16:00, 24:00, 1.4, 晚班",
+                "weekday, SUNDAY, 2.0",
+                "holiday, 2025-11-26, 2.5"), StandardCharsets.UTF_8);
+
+        ShiftCalendar calendar = DataLoader.loadCalendar(file.getPath());
+
+        assertEquals(150.0, calendar.getBasePay(), 0.001);
+        assertEquals(1.4, calendar.getCoefficient(wednesday8AM.plusDays(1).withHour(20)), 0.001);
+        assertEquals("晚班", calendar.getShiftName(wednesday8AM.withHour(20)));
+        assertEquals(2.5, calendar.getCoefficient(wednesday8AM), 0.001);
+        assertEquals(2.8, calendar.getCoefficient(wednesday8AM.plusDays(4).withHour(16)), 0.001);
+    }
+}
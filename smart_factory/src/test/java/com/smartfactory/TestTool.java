@@ -1,6 +1,11 @@
 package com.smartfactory;
 
+import com.smartfactory.util.InstanceGenerator;
+
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class TestTool {
     public static LocalDateTime getPlanStartTime() {LocalDateTime now = LocalDateTime.now();
@@ -8,4 +13,33 @@ public class TestTool {
         LocalDateTime planStartTime = today8AM;
         return planStartTime;
     }
+
+    /**
+     * 由 InstanceGenerator 生成的测试实例：3 种产品，默认产线配置
+     */
+    public static ScheduleData createData(long seed, int pieces) {
+        return createData(seed, pieces, 3, ScheduleData.NUM_LINES);
+    }
+
+    /**
+     * 由 InstanceGenerator 生成的测试实例：指定产品种类数与无差异产线数量
+     */
+    public static ScheduleData createData(long seed, int pieces, int products, int lines) {
+        InstanceGenerator.Config config = new InstanceGenerator.Config();
+        config.seed = seed;
+        config.pieces = pieces;
+        config.products = products;
+        List<Product> generated = InstanceGenerator.generateProducts(config);
+        return new ScheduleData(generated, InstanceGenerator.generateOrders(config, generated), config.planStart,
+                ScheduleData.defaultLines(lines));
+    }
+
+    /**
+     * 工件ID排序后的副本（比较两个染色体包含的工件集合）
+     */
+    public static List<String> sorted(List<String> ops) {
+        List<String> copy = new ArrayList<>(ops);
+        Collections.sort(copy);
+        return copy;
+    }
 }
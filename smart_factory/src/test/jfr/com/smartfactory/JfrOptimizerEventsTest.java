@@ -0,0 +1,68 @@
+package com.smartfactory;
+
+import com.smartfactory.util.InstanceGenerator;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JFR 事件的集成测试（仅在 -Pjfr 构建中编译运行）：录制一次短 GA，检查各类事件及其字段
+ */
+public class JfrOptimizerEventsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecordedRunContainsPhaseEvents() throws IOException {
+        assertTrue(OptimizerEvents.CURRENT instanceof JfrOptimizerEvents);
+
+        InstanceGenerator.Config config = new InstanceGenerator.Config();
+        config.seed = 11L;
+        config.pieces = 60;
+        config.products = 3;
+        List<Product> products = InstanceGenerator.generateProducts(config);
+        ScheduleData data = new ScheduleData(products, InstanceGenerator.generateOrders(config, products), config.planStart);
+
+        Path file = folder.getRoot().toPath().resolve("ga.jfr");
+        GAScheduler scheduler = new GAScheduler(data, 20, 0.8, 0.1, 6);
+        scheduler.setProgressLogInterval(0);
+        try (Recording recording = new Recording()) {
+            for (String name : new String[]{"Generation", "LocalSearch", "DecodeBatch", "NewBest", "Restart"}) {
+                recording.enable("com.smartfactory." + name).withThreshold(java.time.Duration.ZERO);
+            }
+            recording.start();
+            scheduler.run();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        long generationEvaluations = 0;
+        for (RecordedEvent e : RecordingFile.readAllEvents(file)) {
+            String name = e.getEventType().getName();
+            counts.merge(name, 1, Integer::sum);
+            if (name.equals("com.smartfactory.Generation")) {
+                assertEquals(20, e.getInt("populationSize"));
+                generationEvaluations += e.getLong("evaluations");
+            } else if (name.equals("com.smartfactory.LocalSearch")) {
+                assertTrue(e.getLong("accepted") <= e.getLong("moves"));
+                assertTrue(e.getDouble("endProfit") >= e.getDouble("startProfit"));
+            }
+        }
+        assertEquals(Integer.valueOf(6), counts.get("com.smartfactory.Generation"));
+        assertEquals(Integer.valueOf(7), counts.get("com.smartfactory.DecodeBatch")); // 初始种群 + 每代一次
+        assertEquals(Integer.valueOf(6 * 5), counts.get("com.smartfactory.LocalSearch"));
+        // 各代的评估次数之和 = 总次数 - 初始种群的评估
+        assertEquals(scheduler.getEvaluationCount() - 20, generationEvaluations);
+    }
+}